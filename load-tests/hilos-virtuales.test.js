@@ -0,0 +1,94 @@
+// Prueba de hilos virtuales: muchas peticiones que esperan a un servicio
+// externo lento + /health al mismo tiempo.
+//
+// Con hilos de plataforma (server.tomcat.threads.max=50), 150 usuarios
+// esperando 2 s al scraping ocupan los 50 hilos: el throughput queda en
+// ~25 peticiones/s y /health hace fila detrás de ellas. Con hilos virtuales
+// cada espera solo ocupa un hilo virtual y /health responde al tiro.
+//
+// Pasos (comparar las dos corridas):
+//   1. node load-tests/upstream-lento.js
+//   2. Levantar la API apuntando al servicio lento y sin el bulkhead de
+//      scraping (aquí se mide Tomcat, no ProteccionUpstream):
+//        SCRAPING_URL=http://localhost:9090 \
+//        HTTP_SALIDA_SCRAPING_MAX_CONCURRENTES=1000 \
+//        HTTP_SALIDA_SCRAPING_ESPERA_CUPO_MS=5000 \
+//        HILOS_VIRTUALES=false  (luego true; requiere Java 21) \
+//        mvn spring-boot:run
+//   3. k6 run load-tests/hilos-virtuales.test.js
+//
+// Cada petición usa un appId nuevo para no salir de la caché de precios.
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Rate, Trend } from 'k6/metrics';
+import exec from 'k6/execution';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USUARIOS = parseInt(__ENV.USUARIOS || '150', 10);
+
+const lentasOk      = new Counter('lentas_ok');
+const errorRate     = new Rate('errores_http');
+const tiempoLentas  = new Trend('tiempo_lentas_ms', true);
+const tiempoHealth  = new Trend('tiempo_health_ms', true);
+
+export const options = {
+  scenarios: {
+    lentas: {
+      executor: 'constant-vus',
+      exec: 'lentas',
+      vus: USUARIOS,
+      duration: '1m',
+    },
+    health: {
+      executor: 'constant-arrival-rate',
+      exec: 'health',
+      rate: 10,
+      timeUnit: '1s',
+      duration: '1m',
+      preAllocatedVUs: 20,
+      maxVUs: 100,
+    },
+  },
+  thresholds: {
+    tiempo_health_ms: ['p(95)<200'],
+    errores_http:     ['rate<0.01'],
+  },
+};
+
+export function lentas() {
+  // appId distinto por iteración: siempre va al servicio externo
+  const appId = `${exec.vu.idInTest}${exec.vu.iterationInScenario}${Date.now() % 100000}`;
+  const res = http.get(`${BASE_URL}/api/scraping/steam?appId=${appId}`, { timeout: '60s' });
+  tiempoLentas.add(res.timings.duration);
+
+  const ok = check(res, { 'scraping → 200': (r) => r.status === 200 });
+  if (ok) lentasOk.add(1);
+  errorRate.add(!ok);
+}
+
+export function health() {
+  const res = http.get(`${BASE_URL}/health`);
+  tiempoHealth.add(res.timings.duration);
+
+  const ok = check(res, { 'health → 200': (r) => r.status === 200 });
+  errorRate.add(!ok);
+}
+
+export function handleSummary(data) {
+  const rps     = data.metrics.lentas_ok?.values?.rate?.toFixed(1) ?? 'N/A';
+  const p95Lent = data.metrics.tiempo_lentas_ms?.values?.['p(95)']?.toFixed(0) ?? 'N/A';
+  const p95Hlth = data.metrics.tiempo_health_ms?.values?.['p(95)']?.toFixed(0) ?? 'N/A';
+  const tasa    = ((data.metrics.errores_http?.values?.rate ?? 0) * 100).toFixed(2);
+
+  console.log('\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━');
+  console.log('  HILOS VIRTUALES · servicio externo lento');
+  console.log('━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━');
+  console.log(`  Usuarios esperando scraping : ${USUARIOS}`);
+  console.log(`  Scraping OK por segundo     : ${rps}`);
+  console.log(`  p95 scraping                : ${p95Lent} ms`);
+  console.log(`  p95 /health                 : ${p95Hlth} ms  (umbral < 200ms)`);
+  console.log(`  Tasa de error               : ${tasa}%`);
+  console.log('━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n');
+  return { stdout: '' };
+}
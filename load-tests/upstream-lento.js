@@ -0,0 +1,45 @@
+// Servicio de prueba que imita al microservicio de scraping, pero lento.
+// Responde /api/precios?appId=X después de DEMORA_MS (por defecto 2000 ms),
+// como cuando Steam o el servicio en Render tardan.
+//
+// Uso:  node load-tests/upstream-lento.js          (puerto 9090)
+//       PUERTO=9191 DEMORA_MS=5000 node load-tests/upstream-lento.js
+//
+// La API se levanta apuntando a él con SCRAPING_URL=http://localhost:9090
+// (ver hilos-virtuales.test.js).
+
+const http = require('http');
+
+const PUERTO    = parseInt(process.env.PUERTO || '9090', 10);
+const DEMORA_MS = parseInt(process.env.DEMORA_MS || '2000', 10);
+
+let atendidas = 0;
+
+http.createServer((req, res) => {
+  const url = new URL(req.url, `http://localhost:${PUERTO}`);
+
+  if (url.pathname !== '/api/precios') {
+    res.writeHead(404, { 'Content-Type': 'application/json' });
+    res.end('{"error":"no existe"}');
+    return;
+  }
+
+  const appId = url.searchParams.get('appId') || '0';
+  setTimeout(() => {
+    atendidas++;
+    res.writeHead(200, { 'Content-Type': 'application/json' });
+    res.end(JSON.stringify({
+      nombre: `Juego ${appId}`,
+      precio: 9990,
+      precioFormato: '$9.990',
+      moneda: 'CLP',
+      urlPlataforma: `https://store.steampowered.com/app/${appId}`,
+      plataforma: 'Steam',
+      fechaUltimaActualizacion: new Date().toISOString(),
+    }));
+  }, DEMORA_MS);
+}).listen(PUERTO, () => {
+  console.log(`upstream-lento escuchando en :${PUERTO} (demora ${DEMORA_MS} ms)`);
+});
+
+setInterval(() => console.log(`atendidas: ${atendidas}`), 10000).unref();
@@ -0,0 +1,71 @@
+// ¿Para qué sirve?
+//   Compara el camino viejo de un embedding hacia un parámetro "?::vector"
+//   (copia a List<Float> + toString) con el nuevo (float[] +
+//   PgVectorFormato.aTexto), en tiempo y en bytes asignados por operación.
+//
+// ¿Cómo?
+//   mvn -P jmh test-compile exec:exec -Djmh.filtro=PgVectorFormato
+//   El perfil jmh agrega "-prof gc": mirar gc.alloc.rate.norm (B/op).
+
+package com.example.NoLimits.benchmark;
+
+import com.example.NoLimits.Multimedia.service.ai.PgVectorFormato;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PgVectorFormatoBenchmark {
+
+    // text-embedding-3-small
+    @Param({"1536"})
+    int dimensiones;
+
+    float[] vector;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        vector = new float[dimensiones];
+        for (int i = 0; i < dimensiones; i++) vector[i] = (float) random.nextGaussian() / 10;
+    }
+
+    /** Antes: EmbeddingService devolvía una copia en caja y se usaba toString(). */
+    @Benchmark
+    public String listaToString() {
+        List<Float> lista = new ArrayList<>(vector.length);
+        for (float valor : vector) lista.add(valor);
+        return lista.toString();
+    }
+
+    /** Ahora: el float[] de la caché directo al formateador. */
+    @Benchmark
+    public String floatArregloATexto() {
+        return PgVectorFormato.aTexto(vector);
+    }
+
+    /** Lectura de una columna vector (ida y vuelta). */
+    @Benchmark
+    public float[] desdeTexto() {
+        return PgVectorFormato.desdeTexto(PgVectorFormato.aTexto(vector));
+    }
+}
@@ -106,6 +106,22 @@ public class GlobalExceptionHandler {
         ));
     }
 
+    /**
+     * Maneja llamadas a servicios externos rechazadas por la capa HTTP de
+     * salida (circuito abierto o sin conexiones libres).
+     *
+     * Retorna código 503 Service Unavailable.
+     */
+    @ExceptionHandler(ServicioExternoNoDisponibleException.class)
+    public ResponseEntity<Map<String,Object>> handleServicioExterno(ServicioExternoNoDisponibleException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+            "timestamp", OffsetDateTime.now().toString(),
+            "status", 503,
+            "error", "Service Unavailable",
+            "message", ex.getMessage()
+        ));
+    }
+
     /**
      * Captura cualquier otra excepción no controlada.
      * Previene caídas del backend y devuelve error genérico 500.
@@ -0,0 +1,24 @@
+package com.example.NoLimits.Multimedia._exceptions;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Excepción lanzada por la capa HTTP de salida cuando una llamada a un
+ * servicio externo (IGDB, TMDB, RAWG, scraping, etc.) se rechaza SIN
+ * llegar a hacerse: el circuito de ese servicio está abierto o ya tiene
+ * todas sus conexiones ocupadas.
+ *
+ * Extiende ResourceAccessException para que el código que ya captura
+ * RestClientException la trate igual que un error de red.
+ *
+ * Se responde con 503 Service Unavailable desde GlobalExceptionHandler.
+ */
+public class ServicioExternoNoDisponibleException extends ResourceAccessException {
+
+    /**
+     * @param mensaje descripción del rechazo (servicio y motivo)
+     */
+    public ServicioExternoNoDisponibleException(String mensaje) {
+        super(mensaje);
+    }
+}
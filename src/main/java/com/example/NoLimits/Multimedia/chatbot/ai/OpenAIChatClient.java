@@ -1,51 +1,33 @@
 package com.example.NoLimits.Multimedia.chatbot.ai;
 
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
 import com.openai.client.OpenAIClient;
 import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.core.http.StreamResponse;
 import com.openai.models.ChatModel;
 import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Component
 public class OpenAIChatClient {
 
     private static final Logger log = LoggerFactory.getLogger(OpenAIChatClient.class);
 
-    private OpenAIClient client;
-
-    @Value("${openai.api-key}")
-    private String openAiApiKey;
-
-    private final ProductoEmbeddingService productoEmbeddingService;
-
-    public OpenAIChatClient(ProductoEmbeddingService productoEmbeddingService) {
-        this.productoEmbeddingService = productoEmbeddingService;
-    }
+    private static final String RESPUESTA_FALLO =
+            "¡Oye, algo falló de mi lado! Pero puedes usar el buscador de NoLimits directamente mientras tanto.";
 
-    @PostConstruct
-    public void init() {
-        this.client = OpenAIOkHttpClient.builder()
-                .apiKey(openAiApiKey)
-                .build();
-    }
-
-    public String askNoLimits(String userMessage) {
-
-        List<String> resultadosBD = productoEmbeddingService.buscarSimilares(userMessage, 10);
-
-        String contextoBD = resultadosBD.isEmpty()
-                ? "SIN_RESULTADOS"
-                : String.join("\n---\n", resultadosBD);
-
-        String systemPrompt = """
+    private static final String SYSTEM_PROMPT = """
                 Eres el asistente oficial de NoLimits, una plataforma de contenido multimedia.
                 NoLimits ofrece: Películas, Series, Videojuegos, Anime, Música y Libros.
                 Responde SIEMPRE en español. No uses Markdown, asteriscos ni símbolos de formato. Solo texto plano.
@@ -84,35 +66,147 @@ public class OpenAIChatClient {
                 16. Si preguntan qué pasa si olvidaron su contraseña: "¡No te rajes! En la pantalla de 'Login' hay una opción para recuperar tu contraseña por correo. ¡Úsala!"
                 """;
 
-        try {
-            log.info("Llamando a OpenAI con mensaje: {}", userMessage);
+    private OpenAIClient client;
+
+    @Value("${openai.api-key}")
+    private String openAiApiKey;
 
-            ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
-                    .model(ChatModel.GPT_4O_MINI)
-                    .addSystemMessage(systemPrompt)
-                    .addUserMessage("""
-                            Información disponible en NoLimits:
-                            %s
+    // Vacío = api.openai.com; en pruebas se apunta a un servidor falso local
+    @Value("${openai.base-url:}")
+    private String openAiBaseUrl;
 
-                            Pregunta del usuario:
-                            %s
-                            """.formatted(contextoBD, userMessage))
-                    .build();
+    private final ProductoEmbeddingService productoEmbeddingService;
+
+    // Respuestas ya generadas: por texto exacto y por similitud del embedding
+    @Autowired
+    private RespuestaIaCacheService respuestaCache;
+
+    public OpenAIChatClient(ProductoEmbeddingService productoEmbeddingService) {
+        this.productoEmbeddingService = productoEmbeddingService;
+    }
+
+    @PostConstruct
+    public void init() {
+        OpenAIOkHttpClient.Builder builder = OpenAIOkHttpClient.builder()
+                .apiKey(openAiApiKey);
+        if (openAiBaseUrl != null && !openAiBaseUrl.isBlank()) {
+            builder.baseUrl(openAiBaseUrl);
+        }
+        this.client = builder.build();
+    }
+
+    public String askNoLimits(String userMessage) {
+
+        RespuestaIaCacheService.Busqueda busqueda = buscarEnCache(userMessage);
+        if (busqueda.getRespuesta() != null) {
+            log.info("Respuesta desde caché para mensaje: {}", userMessage);
+            return busqueda.getRespuesta();
+        }
+
+        ChatCompletionCreateParams params = armarParams(userMessage, busqueda.getEmbedding());
+
+        try {
+            log.info("Llamando a OpenAI con mensaje: {}", userMessage);
 
             ChatCompletion completion = client.chat().completions().create(params);
 
-            String texto = completion.choices().get(0).message().content()
-                    .orElse("No pude generar una respuesta en este momento.");
+            String texto = completion.choices().get(0).message().content().orElse(null);
+            if (texto == null) return "No pude generar una respuesta en este momento.";
 
             log.info("Respuesta OpenAI recibida correctamente");
-            return limpiarTexto(texto);
+            String limpio = limpiarTexto(texto);
+            respuestaCache.guardar(busqueda, limpio);
+            return limpio;
 
         } catch (Exception e) {
             log.error("ERROR EN OPENAI: {} - {}", e.getClass().getName(), e.getMessage());
-            return "¡Oye, algo falló de mi lado! Pero puedes usar el buscador de NoLimits directamente mientras tanto.";
+            return RESPUESTA_FALLO;
+        }
+    }
+
+    /**
+     * Igual que askNoLimits, pero pide la respuesta en streaming y entrega
+     * cada fragmento a {@code alFragmento} apenas llega de OpenAI.
+     * Devuelve el texto completo ya limpio (o el mensaje de fallo).
+     * Si la respuesta está en caché llega como un único fragmento.
+     */
+    public String askNoLimitsStreaming(String userMessage, Consumer<String> alFragmento) {
+
+        RespuestaIaCacheService.Busqueda busqueda = buscarEnCache(userMessage);
+        if (busqueda.getRespuesta() != null) {
+            log.info("Respuesta desde caché (streaming) para mensaje: {}", userMessage);
+            alFragmento.accept(busqueda.getRespuesta());
+            return busqueda.getRespuesta();
+        }
+
+        ChatCompletionCreateParams params = armarParams(userMessage, busqueda.getEmbedding());
+        StringBuilder texto = new StringBuilder();
+
+        log.info("Llamando a OpenAI (streaming) con mensaje: {}", userMessage);
+
+        try (StreamResponse<ChatCompletionChunk> stream =
+                     client.chat().completions().createStreaming(params)) {
+
+            stream.stream()
+                    .flatMap(chunk -> chunk.choices().stream())
+                    .flatMap(choice -> choice.delta().content().stream())
+                    .forEach(fragmento -> {
+                        texto.append(fragmento);
+                        String limpio = limpiarFragmento(fragmento);
+                        if (!limpio.isEmpty()) alFragmento.accept(limpio);
+                    });
+
+            log.info("Respuesta OpenAI (streaming) recibida correctamente");
+            if (texto.length() == 0) return "No pude generar una respuesta en este momento.";
+
+            String limpio = limpiarTexto(texto.toString());
+            respuestaCache.guardar(busqueda, limpio);
+            return limpio;
+
+        } catch (Exception e) {
+            log.error("ERROR EN OPENAI (streaming): {} - {}", e.getClass().getName(), e.getMessage());
+            return RESPUESTA_FALLO;
         }
     }
 
+    /**
+     * Caché de respuestas; en un fallo deja calculado el embedding de la
+     * pregunta para la búsqueda vectorial (así se pide una sola vez).
+     */
+    private RespuestaIaCacheService.Busqueda buscarEnCache(String userMessage) {
+        return respuestaCache.buscar(userMessage, () -> productoEmbeddingService.embeddingDe(userMessage));
+    }
+
+    /**
+     * Prompt completo con los títulos similares de pgvector. Usa el embedding
+     * que ya calculó la caché, así que no se vuelve a pedir a OpenAI.
+     */
+    private ChatCompletionCreateParams armarParams(String userMessage, float[] embedding) {
+
+        List<String> resultadosBD = productoEmbeddingService.buscarSimilares(embedding, 10);
+
+        String contextoBD = resultadosBD.isEmpty()
+                ? "SIN_RESULTADOS"
+                : String.join("\n---\n", resultadosBD);
+
+        return ChatCompletionCreateParams.builder()
+                .model(ChatModel.GPT_4O_MINI)
+                .addSystemMessage(SYSTEM_PROMPT)
+                .addUserMessage("""
+                        Información disponible en NoLimits:
+                        %s
+
+                        Pregunta del usuario:
+                        %s
+                        """.formatted(contextoBD, userMessage))
+                .build();
+    }
+
+    /** Versión por fragmento de limpiarTexto: sin asteriscos ni almohadillas. */
+    private String limpiarFragmento(String fragmento) {
+        return fragmento.replace("*", "").replace("#", "");
+    }
+
     private String limpiarTexto(String texto) {
         return texto
                 .replaceAll("(?m)^\\*\\s*", "")
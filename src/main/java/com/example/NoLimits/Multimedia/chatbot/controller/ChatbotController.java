@@ -3,7 +3,20 @@ package com.example.NoLimits.Multimedia.chatbot.controller;
 import com.example.NoLimits.Multimedia.chatbot.dto.ChatRequest;
 import com.example.NoLimits.Multimedia.chatbot.dto.ChatResponse;
 import com.example.NoLimits.Multimedia.chatbot.service.ChatbotService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/chatbot")
@@ -11,8 +24,24 @@ public class ChatbotController {
 
     private final ChatbotService chatbotService;
 
-    public ChatbotController(ChatbotService chatbotService) {
+    // Streams de la IA en curso (chatbot.stream.hilos) + en espera
+    // (chatbot.stream.cola). Con ambos llenos se responde 503.
+    private final ThreadPoolExecutor streams;
+
+    @Value("${chatbot.stream.timeout-ms:60000}")
+    private long streamTimeoutMs;
+
+    public ChatbotController(ChatbotService chatbotService,
+                             @Value("${chatbot.stream.hilos:16}") int hilos,
+                             @Value("${chatbot.stream.cola:32}") int cola) {
         this.chatbotService = chatbotService;
+        this.streams = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(cola), tarea -> {
+                    Thread hilo = new Thread(tarea, "chatbot-stream");
+                    hilo.setDaemon(true);
+                    return hilo;
+                });
+        this.streams.allowCoreThreadTimeOut(true);
     }
 
     @GetMapping("/welcome")
@@ -24,4 +53,81 @@ public class ChatbotController {
     public ChatResponse chat(@RequestBody ChatRequest request) {
         return chatbotService.processMessage(request.getMessage());
     }
-}
\ No newline at end of file
+
+    /**
+     * POST /api/chatbot/chat/stream
+     *
+     * Misma conversación que /chat, pero la respuesta llega como
+     * Server-Sent Events para que el frontend vaya mostrando el texto:
+     *
+     *   event: inicio     → de inmediato, antes de consultar a la IA
+     *   event: token      → cada fragmento de texto de OpenAI, en orden
+     *   event: respuesta  → ChatResponse final (texto completo, acciones, source)
+     *
+     * Las reglas internas responden al tiro con un único "respuesta".
+     * El hilo de Tomcat se libera apenas se devuelve el emisor.
+     *
+     * Las respuestas de la IA corren en un pool propio y acotado
+     * (chatbot.stream.hilos + chatbot.stream.cola): si está lleno se
+     * responde 503 antes de abrir el stream.
+     */
+    @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter chatStream(@RequestBody ChatRequest request) {
+
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        String message = request.getMessage();
+
+        ChatResponse porRegla = chatbotService.findRuleResponse(message);
+        if (porRegla != null) {
+            enviarYCerrar(emitter, porRegla);
+            return emitter;
+        }
+
+        try {
+            streams.execute(() -> {
+                try {
+                    enviar(emitter, "inicio", "");
+                    ChatResponse respuesta = chatbotService.streamAiResponse(
+                            message, fragmento -> enviar(emitter, "token", fragmento));
+                    enviarYCerrar(emitter, respuesta);
+                } catch (RuntimeException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "El asistente está atendiendo demasiadas conversaciones; intenta de nuevo en unos segundos.");
+        }
+        return emitter;
+    }
+
+    @PreDestroy
+    public void detener() {
+        streams.shutdownNow();
+    }
+
+    // ──────────────────────────────────────────────
+    // Helpers privados
+    // ──────────────────────────────────────────────
+
+    private void enviarYCerrar(SseEmitter emitter, ChatResponse respuesta) {
+        try {
+            enviar(emitter, "respuesta", respuesta);
+            emitter.complete();
+        } catch (UncheckedIOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Si el navegador ya cerró la conexión, lanza UncheckedIOException:
+     * así se corta también la lectura del stream de OpenAI.
+     */
+    private void enviar(SseEmitter emitter, String evento, Object dato) {
+        try {
+            emitter.send(SseEmitter.event().name(evento).data(dato));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
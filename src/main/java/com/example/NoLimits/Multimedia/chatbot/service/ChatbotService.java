@@ -2,7 +2,15 @@ package com.example.NoLimits.Multimedia.chatbot.service;
 
 import com.example.NoLimits.Multimedia.chatbot.dto.ChatResponse;
 
+import java.util.function.Consumer;
+
 public interface ChatbotService {
     ChatResponse getWelcomeMessage();
     ChatResponse processMessage(String message);
+
+    /** Respuesta por regla interna (sin IA), o null si ninguna regla aplica. */
+    ChatResponse findRuleResponse(String message);
+
+    /** Respuesta de la IA; cada fragmento de texto se entrega a onToken apenas llega. */
+    ChatResponse streamAiResponse(String message, Consumer<String> onToken);
 }
\ No newline at end of file
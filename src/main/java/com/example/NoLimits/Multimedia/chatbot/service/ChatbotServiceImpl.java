@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 
 import java.text.Normalizer;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class ChatbotServiceImpl implements ChatbotService {
@@ -35,6 +36,22 @@ public class ChatbotServiceImpl implements ChatbotService {
 
     @Override
     public ChatResponse processMessage(String message) {
+        ChatResponse porRegla = findRuleResponse(message);
+        if (porRegla != null) {
+            return porRegla;
+        }
+
+        // Todo lo demás → OpenAI
+        return respuestaIa(openAIClient.askNoLimits(message));
+    }
+
+    @Override
+    public ChatResponse streamAiResponse(String message, Consumer<String> onToken) {
+        return respuestaIa(openAIClient.askNoLimitsStreaming(message, onToken));
+    }
+
+    @Override
+    public ChatResponse findRuleResponse(String message) {
         String text = normalize(message);
 
         // Iniciar sesión
@@ -119,9 +136,10 @@ public class ChatbotServiceImpl implements ChatbotService {
             );
         }
         
-        // Todo lo demás → OpenAI
-        String aiReply = openAIClient.askNoLimits(message);
+        return null;
+    }
 
+    private ChatResponse respuestaIa(String aiReply) {
         return new ChatResponse(
                 aiReply,
                 List.of("¿Cómo ver un título?", "¿Cómo iniciar sesión?", "¿Cómo guardar en Mi biblioteca?"),
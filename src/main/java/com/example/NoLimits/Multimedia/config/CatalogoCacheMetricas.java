@@ -0,0 +1,71 @@
+// ¿Para qué sirve?
+//   Aciertos y fallos de la caché de segundo nivel de los catálogos en
+//   /actuator/metrics, sin encender hibernate.generate_statistics (que
+//   cuenta cada sentencia de toda la aplicación).
+//
+// ¿Cómo?
+//   Caffeine lleva sus propias estadísticas por región (monitoring.statistics
+//   en application.conf). Al arrancar se toma el CacheManager de JCache que
+//   usa Hibernate y cada región catalogo_* se registra con JCacheMetrics:
+//   cache.gets (result = hit | miss), cache.puts y cache.removals, con el tag
+//   cache = nombre de la región.
+//
+// Solo existe con la caché de segundo nivel encendida.
+
+package com.example.NoLimits.Multimedia.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+
+@Component
+@Lazy(false) // spring.main.lazy-initialization=true: nadie lo inyecta
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.cache.use_second_level_cache", havingValue = "true")
+public class CatalogoCacheMetricas {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogoCacheMetricas.class);
+
+    private static final String PREFIJO_REGION = "catalogo_";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void registrar() {
+        RegionFactory fabrica = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (!(fabrica instanceof JCacheRegionFactory jcache)) {
+            log.warn("Caché de segundo nivel sin JCache ({}): no se registran métricas de catálogos",
+                    fabrica.getClass().getSimpleName());
+            return;
+        }
+
+        CacheManager cacheManager = jcache.getCacheManager();
+        int regiones = 0;
+        for (String nombre : cacheManager.getCacheNames()) {
+            if (!nombre.startsWith(PREFIJO_REGION)) continue;
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(nombre), Tags.empty());
+            regiones++;
+        }
+        log.info("Métricas de caché registradas para {} regiones de catálogos", regiones);
+    }
+}
@@ -0,0 +1,106 @@
+// ¿Para qué sirve?
+//   Con spring.threads.virtual.enabled=true (HILOS_VIRTUALES=true) cada
+//   petición corre en un hilo virtual. Si ese hilo se bloquea dentro de un
+//   bloque synchronized (o en código nativo), queda "fijado" (pinned) a su
+//   hilo portador y lo deja sin poder atender a otros: se pierde la ventaja
+//   y, con pocos portadores, la API se vuelve a trabar.
+//
+// ¿Cómo?
+//   Escucha el evento JFR jdk.VirtualThreadPinned (Java 21) en la misma JVM,
+//   sin grabar archivos. Cada fijado de más de hilos-virtuales.pinning.umbral-ms
+//   se registra en la métrica jvm.hilos.virtuales.fijados (timer) y en el log
+//   con las primeras líneas de su pila, para saber qué synchronized cambiar
+//   por un ReentrantLock.
+//
+// Solo existe con la propiedad activa; en Java 17 avisa y no hace nada.
+
+package com.example.NoLimits.Multimedia.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@Lazy(false) // spring.main.lazy-initialization=true: nadie lo inyecta
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesDiagnostico {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesDiagnostico.class);
+
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final int LINEAS_PILA = 8;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hilos-virtuales.pinning.umbral-ms:20}")
+    private long umbralMs;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    public void iniciar() {
+        int version = Runtime.version().feature();
+        if (version < 21) {
+            log.warn("spring.threads.virtual.enabled=true pero la JVM es Java {}: se siguen usando hilos de plataforma",
+                    version);
+            return;
+        }
+
+        Timer fijados = Timer.builder("jvm.hilos.virtuales.fijados")
+                .description("Tiempo que un hilo virtual quedó fijado a su hilo portador")
+                .register(meterRegistry);
+
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(Duration.ofMillis(umbralMs)).withStackTrace();
+        stream.onEvent(EVENTO, evento -> {
+            fijados.record(evento.getDuration());
+            log.warn("Hilo virtual fijado {} ms{}", evento.getDuration().toMillis(), pila(evento));
+        });
+        stream.startAsync();
+        log.info("Hilos virtuales activos; se registran fijados de más de {} ms", umbralMs);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (stream != null) stream.close();
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private static String pila(RecordedEvent evento) {
+        RecordedStackTrace pila = evento.getStackTrace();
+        if (pila == null) return " (sin pila)";
+
+        StringBuilder texto = new StringBuilder();
+        List<RecordedFrame> lineas = pila.getFrames();
+        for (int i = 0; i < Math.min(LINEAS_PILA, lineas.size()); i++) {
+            RecordedFrame linea = lineas.get(i);
+            texto.append("\n    at ")
+                    .append(linea.getMethod().getType().getName())
+                    .append('.')
+                    .append(linea.getMethod().getName())
+                    .append(':')
+                    .append(linea.getLineNumber());
+        }
+        return texto.toString();
+    }
+}
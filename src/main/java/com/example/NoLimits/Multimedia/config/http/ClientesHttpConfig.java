@@ -0,0 +1,114 @@
+// ¿Para qué sirve?
+//   Capa HTTP de salida única para todas las integraciones externas.
+//   Antes cada servicio/controller hacía `new RestTemplate()`: sin pool de
+//   conexiones, sin keep-alive y SIN timeouts (un servicio colgado dejaba
+//   hilos de Tomcat esperando para siempre).
+//
+// ¿Cómo?
+//   Un RestTemplate por servicio externo (bean con nombre, se inyecta con
+//   @Qualifier). Cada uno tiene:
+//   - Su propio java.net.http.HttpClient: pool de conexiones con keep-alive
+//     propio, connect-timeout-ms y read-timeout-ms.
+//   - Su ProteccionUpstream: bulkhead + circuit breaker + métricas.
+//
+// Configuración (application.properties), por servicio con respaldo:
+//   http.salida.<upstream>.connect-timeout-ms / read-timeout-ms /
+//   max-concurrentes / espera-cupo-ms / umbral-fallos / abierto-ms
+//   y si falta alguna, http.salida.defecto.<lo mismo>.
+
+package com.example.NoLimits.Multimedia.config.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@Configuration
+public class ClientesHttpConfig {
+
+    public static final String SCRAPING = "scraping";
+    public static final String TWITCH = "twitch";
+    public static final String IGDB = "igdb";
+    public static final String TMDB = "tmdb";
+    public static final String RAWG = "rawg";
+    public static final String GOOGLE_BOOKS = "google-books";
+    public static final String INDEXADOR = "indexador";
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Bean
+    public RestTemplate scrapingRestTemplate() {
+        return crear(SCRAPING);
+    }
+
+    @Bean
+    public RestTemplate twitchRestTemplate() {
+        return crear(TWITCH);
+    }
+
+    @Bean
+    public RestTemplate igdbRestTemplate() {
+        return crear(IGDB);
+    }
+
+    @Bean
+    public RestTemplate tmdbRestTemplate() {
+        return crear(TMDB);
+    }
+
+    @Bean
+    public RestTemplate rawgRestTemplate() {
+        return crear(RAWG);
+    }
+
+    @Bean
+    public RestTemplate googleBooksRestTemplate() {
+        return crear(GOOGLE_BOOKS);
+    }
+
+    /** Indexación de contenido externo (TMDB, RAWG, IGDB, Jikan, OpenLibrary), en segundo plano. */
+    @Bean
+    public RestTemplate indexadorRestTemplate() {
+        return crear(INDEXADOR);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private RestTemplate crear(String upstream) {
+        HttpClient cliente = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(valor(upstream, "connect-timeout-ms", 3000)))
+                // HttpURLConnection (el RestTemplate por defecto) seguía redirecciones
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+
+        JdkClientHttpRequestFactory fabrica = new JdkClientHttpRequestFactory(cliente);
+        fabrica.setReadTimeout(Duration.ofMillis(valor(upstream, "read-timeout-ms", 10000)));
+
+        RestTemplate restTemplate = new RestTemplate(fabrica);
+        restTemplate.getInterceptors().add(new ProteccionUpstream(
+                upstream,
+                (int) valor(upstream, "max-concurrentes", 8),
+                valor(upstream, "espera-cupo-ms", 100),
+                (int) valor(upstream, "umbral-fallos", 5),
+                valor(upstream, "abierto-ms", 30000),
+                meterRegistry));
+        return restTemplate;
+    }
+
+    private long valor(String upstream, String clave, long porDefecto) {
+        Long propio = environment.getProperty("http.salida." + upstream + "." + clave, Long.class);
+        if (propio != null) return propio;
+        return environment.getProperty("http.salida.defecto." + clave, Long.class, porDefecto);
+    }
+}
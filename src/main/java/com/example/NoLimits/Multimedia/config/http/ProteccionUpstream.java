@@ -0,0 +1,249 @@
+// ¿Para qué sirve?
+//   Protege a la API de UN servicio externo lento o caído. Sin esto, si
+//   IGDB tarda 30 s en responder, cada petición a /api/igdb deja tomado un
+//   hilo de Tomcat (hay 50) hasta agotarlos todos.
+//
+// ¿Cómo? (interceptor de RestTemplate, uno por servicio externo)
+//   - Bulkhead: máximo max-concurrentes llamadas a la vez; la siguiente
+//     espera espera-cupo-ms y si no hay cupo se rechaza.
+//   - Circuit breaker: tras umbral-fallos errores seguidos (red o 5xx) el
+//     circuito se abre y se rechaza todo durante abierto-ms. Después pasa
+//     UNA llamada de prueba: si sale bien se cierra, si falla se reabre.
+//   Un rechazo lanza ServicioExternoNoDisponibleException (503) sin tocar
+//   la red.
+//   El cupo se ocupa hasta que se CIERRA la respuesta (RestTemplate la cierra
+//   después de leer el cuerpo), no solo hasta recibir los headers: un
+//   upstream que manda el cuerpo lento sigue contando como llamada en curso.
+//   El resultado (ok / fallo) también se registra al cerrar, para contar los
+//   errores de red mientras se lee el cuerpo.
+//
+// Métricas (tag upstream):
+//   http.salida (timer: latencia, tag resultado = ok | error_http | error_red)
+//   http.salida.en.uso (gauge: llamadas en curso, saturación del bulkhead)
+//   http.salida.circuito.abierto (gauge: 1 = abierto)
+//   http.salida.rechazos (contador, tag motivo = sin_cupo | circuito_abierto)
+
+package com.example.NoLimits.Multimedia.config.http;
+
+import com.example.NoLimits.Multimedia._exceptions.ServicioExternoNoDisponibleException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ProteccionUpstream implements ClientHttpRequestInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ProteccionUpstream.class);
+
+    private final String upstream;
+    private final int maxConcurrentes;
+    private final long esperaCupoMs;
+    private final int umbralFallos;
+    private final long abiertoMs;
+
+    private final Semaphore cupos;
+    private final AtomicInteger fallosSeguidos = new AtomicInteger();
+    private final AtomicBoolean pruebaEnCurso = new AtomicBoolean(false);
+
+    // 0 = circuito cerrado; si no, instante (ms) hasta el que se rechaza
+    private volatile long abiertoHasta = 0;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rechazosSinCupo;
+    private final Counter rechazosCircuito;
+
+    public ProteccionUpstream(String upstream, int maxConcurrentes, long esperaCupoMs,
+                              int umbralFallos, long abiertoMs, MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.maxConcurrentes = maxConcurrentes;
+        this.esperaCupoMs = esperaCupoMs;
+        this.umbralFallos = umbralFallos;
+        this.abiertoMs = abiertoMs;
+        this.cupos = new Semaphore(maxConcurrentes);
+        this.meterRegistry = meterRegistry;
+
+        this.rechazosSinCupo = meterRegistry.counter("http.salida.rechazos", "upstream", upstream, "motivo", "sin_cupo");
+        this.rechazosCircuito = meterRegistry.counter("http.salida.rechazos", "upstream", upstream, "motivo", "circuito_abierto");
+        Gauge.builder("http.salida.en.uso", cupos, c -> maxConcurrentes - c.availablePermits())
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("http.salida.circuito.abierto", this, p -> p.abiertoHasta == 0 ? 0 : 1)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        boolean esPrueba = permitirPaso();
+
+        if (!adquirirCupo()) {
+            if (esPrueba) pruebaEnCurso.set(false);
+            rechazosSinCupo.increment();
+            throw new ServicioExternoNoDisponibleException(
+                    upstream + ": sin conexiones libres (" + maxConcurrentes + " en curso)");
+        }
+
+        long inicio = System.nanoTime();
+        ClientHttpResponse respuesta = null;
+        try {
+            respuesta = execution.execute(request, body);
+            return new RespuestaProtegida(respuesta, respuesta.getStatusCode().is5xxServerError(), inicio);
+        } catch (IOException | RuntimeException e) {
+            if (respuesta != null) respuesta.close();
+            terminar("error_red", inicio);
+            throw e;
+        }
+    }
+
+    /** true mientras el circuito está abierto (o esperando su llamada de prueba). */
+    public boolean estaAbierto() {
+        return abiertoHasta != 0;
+    }
+
+    /* ================= INTERNOS ================= */
+
+    /** Devuelve true si esta llamada es la prueba tras un circuito abierto. */
+    private boolean permitirPaso() {
+        long hasta = abiertoHasta;
+        if (hasta == 0) return false;
+
+        if (System.currentTimeMillis() >= hasta && pruebaEnCurso.compareAndSet(false, true)) {
+            return true;
+        }
+        rechazosCircuito.increment();
+        throw new ServicioExternoNoDisponibleException(upstream + ": servicio no disponible (circuito abierto)");
+    }
+
+    private boolean adquirirCupo() {
+        try {
+            return cupos.tryAcquire(esperaCupoMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Devuelve el cupo y registra el resultado y la latencia de la llamada. */
+    private void terminar(String resultado, long inicio) {
+        if ("ok".equals(resultado)) {
+            registrarExito();
+        } else {
+            registrarFallo();
+        }
+        cupos.release();
+        Timer.builder("http.salida")
+                .tag("upstream", upstream)
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+
+    private void registrarExito() {
+        fallosSeguidos.set(0);
+        abiertoHasta = 0;
+        pruebaEnCurso.set(false);
+    }
+
+    private void registrarFallo() {
+        if (fallosSeguidos.incrementAndGet() >= umbralFallos) {
+            if (abiertoHasta == 0) {
+                log.warn("{}: circuito abierto por {} ms", upstream, abiertoMs);
+            }
+            abiertoHasta = System.currentTimeMillis() + abiertoMs;
+        }
+        pruebaEnCurso.set(false);
+    }
+
+    /**
+     * Respuesta que devuelve el cupo al cerrarse (una sola vez). Si leer el
+     * cuerpo lanza IOException la llamada cuenta como error de red.
+     */
+    private final class RespuestaProtegida implements ClientHttpResponse {
+
+        private final ClientHttpResponse respuesta;
+        private final boolean errorHttp;
+        private final long inicio;
+        private final AtomicBoolean cerrada = new AtomicBoolean(false);
+        private volatile boolean errorLectura = false;
+        private InputStream cuerpo;
+
+        RespuestaProtegida(ClientHttpResponse respuesta, boolean errorHttp, long inicio) {
+            this.respuesta = respuesta;
+            this.errorHttp = errorHttp;
+            this.inicio = inicio;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return respuesta.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return respuesta.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return respuesta.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (cuerpo == null) {
+                cuerpo = new FilterInputStream(respuesta.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        try {
+                            return super.read();
+                        } catch (IOException e) {
+                            errorLectura = true;
+                            throw e;
+                        }
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        try {
+                            return super.read(b, off, len);
+                        } catch (IOException e) {
+                            errorLectura = true;
+                            throw e;
+                        }
+                    }
+                };
+            }
+            return cuerpo;
+        }
+
+        @Override
+        public void close() {
+            if (!cerrada.compareAndSet(false, true)) return;
+            try {
+                respuesta.close();
+            } finally {
+                terminar(errorHttp ? "error_http" : errorLectura ? "error_red" : "ok", inicio);
+            }
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.example.NoLimits.Multimedia.controller.GoogleBooks;
 
+import com.example.NoLimits.Multimedia.service.proxy.ProxyPeticion;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/books")
@@ -15,11 +22,18 @@ public class GoogleBooksProxyController {
     @Value("${google.books.key}")
     private String booksKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("googleBooksRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Caché por ruta + envío por streaming al navegador
+    @Autowired
+    private ProxyTransmisionService transmision;
+
     private static final String BOOKS_BASE = "https://www.googleapis.com/books/v1";
 
     @GetMapping("/**")
-    public ResponseEntity<String> proxy(HttpServletRequest request) {
+    public void proxy(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String path = request.getRequestURI().replace("/api/books", "");
         String queryString = request.getQueryString();
 
@@ -27,7 +41,6 @@ public class GoogleBooksProxyController {
                    + (queryString != null ? "?" + queryString : "")
                    + (queryString != null ? "&key=" : "?key=") + booksKey;
 
-        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        return ResponseEntity.ok(response.getBody());
+        transmision.servir("google-books", path, queryString, restTemplate, ProxyPeticion.get(url), request, response);
     }
-}
\ No newline at end of file
+}
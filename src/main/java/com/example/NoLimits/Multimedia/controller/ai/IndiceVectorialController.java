@@ -0,0 +1,36 @@
+package com.example.NoLimits.Multimedia.controller.ai;
+
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.EstadoIndice;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.TipoIndice;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/embeddings/indice")
+public class IndiceVectorialController {
+
+    private final IndiceVectorialService indiceVectorialService;
+
+    public IndiceVectorialController(IndiceVectorialService indiceVectorialService) {
+        this.indiceVectorialService = indiceVectorialService;
+    }
+
+    // Tamaño del índice y recall@k estimado (muestras = 0 lo omite)
+    @GetMapping
+    public EstadoIndice estado(
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "20") int muestras,
+            @RequestParam(required = false) Integer efSearch,
+            @RequestParam(required = false) Integer probes
+    ) {
+        return indiceVectorialService.estado(k, muestras, efSearch, probes);
+    }
+
+    // Crea o reemplaza el índice (hnsw | ivfflat); sin tipo usa el de application.properties
+    @PostMapping("/reconstruir")
+    public EstadoIndice reconstruir(@RequestParam(required = false) String tipo) {
+        return tipo == null
+                ? indiceVectorialService.reconstruir()
+                : indiceVectorialService.reconstruir(TipoIndice.desde(tipo));
+    }
+}
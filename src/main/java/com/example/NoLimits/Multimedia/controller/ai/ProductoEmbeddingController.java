@@ -24,8 +24,12 @@ public class ProductoEmbeddingController {
     }
 
     @GetMapping("/buscar")
-    public List<String> buscar(@RequestParam String q) {
-        return productoEmbeddingService.buscarSimilares(q);
+    public List<String> buscar(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer efSearch,
+            @RequestParam(required = false) Integer probes
+    ) {
+        return productoEmbeddingService.buscarSimilares(q, 5, efSearch, probes);
     }
 
     @PostMapping("/indexar")
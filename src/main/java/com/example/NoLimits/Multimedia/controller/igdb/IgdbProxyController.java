@@ -1,13 +1,21 @@
 package com.example.NoLimits.Multimedia.controller.igdb;
 
 import com.example.NoLimits.Multimedia.service.igdb.IgdbTokenService;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyPeticion;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+
 /**
  * Proxy hacia la API de IGDB.
  * El frontend llama a /api/igdb/** y este controlador reenvía
@@ -19,6 +27,10 @@ import org.slf4j.LoggerFactory;
  * El token se renueva automáticamente cuando expira,
  * evitando que la integración con IGDB deje de funcionar.
  *
+ * Las respuestas pasan por ProxyTransmisionService: la misma consulta
+ * Apicalypse se sirve desde la caché (con ETag) sin volver a IGDB, y el
+ * JSON se copia al navegador por streaming, sin armarlo como String.
+ *
  * Variables de entorno necesarias en Render:
  *   IGDB_CLIENT_ID       → Client-ID de Twitch Developer
  *   IGDB_CLIENT_SECRET   → Client Secret de Twitch Developer
@@ -43,7 +55,12 @@ public class IgdbProxyController {
      */
     private final IgdbTokenService igdbTokenService;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("igdbRestTemplate")
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private ProxyTransmisionService transmision;
 
     public IgdbProxyController(IgdbTokenService igdbTokenService) {
         this.igdbTokenService = igdbTokenService;
@@ -59,7 +76,10 @@ public class IgdbProxyController {
      * fetch(`${VITE_API_BASE_URL}/api/igdb/games`)
      */
     @GetMapping("/games")
-    public ResponseEntity<String> getGames() {
+    public void getGames(
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
 
         String body =
                 "fields name,cover.url,genres.name,rating,first_release_date,summary; " +
@@ -67,7 +87,7 @@ public class IgdbProxyController {
                 "sort rating desc; " +
                 "limit 20;";
 
-        return forwardToIgdb("/games", body);
+        forwardToIgdb("/games", body, request, response);
     }
 
     /**
@@ -76,8 +96,10 @@ public class IgdbProxyController {
      * Permite enviar queries Apicalypse personalizadas.
      */
     @PostMapping("/games")
-    public ResponseEntity<String> queryGames(
-            @RequestBody(required = false) String apicalypseQuery
+    public void queryGames(
+            @RequestBody(required = false) String apicalypseQuery,
+            HttpServletRequest request,
+            HttpServletResponse response
     ) {
 
         if (apicalypseQuery == null || apicalypseQuery.isBlank()) {
@@ -89,7 +111,7 @@ public class IgdbProxyController {
                     "limit 20;";
         }
 
-        return forwardToIgdb("/games", apicalypseQuery);
+        forwardToIgdb("/games", apicalypseQuery, request, response);
     }
 
     /**
@@ -98,7 +120,11 @@ public class IgdbProxyController {
      * Realiza búsqueda de juegos por nombre.
      */
     @GetMapping("/games/search")
-    public ResponseEntity<String> searchGames(@RequestParam String q) {
+    public void searchGames(
+            @RequestParam String q,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) {
 
         String body =
                 "search \"" + q + "\"; " +
@@ -106,7 +132,7 @@ public class IgdbProxyController {
                 "where cover != null; " +
                 "limit 10;";
 
-        return forwardToIgdb("/games", body);
+        forwardToIgdb("/games", body, request, response);
     }
 
     // ──────────────────────────────────────────────
@@ -117,11 +143,14 @@ public class IgdbProxyController {
      * Reenvía una consulta hacia la API oficial de IGDB.
      *
      * Aquí se obtiene automáticamente el token OAuth válido
-     * desde IgdbTokenService.
+     * desde IgdbTokenService (queda en memoria hasta que expira).
+     * La clave de caché es el endpoint + la consulta Apicalypse.
      */
-    private ResponseEntity<String> forwardToIgdb(
+    private void forwardToIgdb(
             String endpoint,
-            String apicalypseBody
+            String apicalypseBody,
+            HttpServletRequest request,
+            HttpServletResponse response
     ) {
 
         try {
@@ -138,28 +167,41 @@ public class IgdbProxyController {
 
             headers.setContentType(MediaType.TEXT_PLAIN);
 
-            HttpEntity<String> entity =
-                    new HttpEntity<>(apicalypseBody, headers);
+            String clave = endpoint + " " + apicalypseBody.trim();
 
-            return restTemplate.exchange(
-                    IGDB_BASE_URL + endpoint,
-                    HttpMethod.POST,
-                    entity,
-                    String.class
+            transmision.servir(
+                    "igdb",
+                    clave,
+                    null,
+                    restTemplate,
+                    ProxyPeticion.post(IGDB_BASE_URL + endpoint, headers, apicalypseBody),
+                    request,
+                    response
             );
 
         } catch (Exception e) {
 
             log.error("Error consultando IGDB: {}", e.getMessage());
 
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("""
-                            {
-                            "error": "No se pudo consultar IGDB",
-                            "detalle": "Servicio temporalmente no disponible"
-                            }
-                            """);
+            // Si ya se empezó a enviar el body no se puede cambiar el estado
+            if (response.isCommitted()) {
+                return;
+            }
+
+            try {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding("UTF-8");
+                response.getWriter().write("""
+                        {
+                        "error": "No se pudo consultar IGDB",
+                        "detalle": "Servicio temporalmente no disponible"
+                        }
+                        """);
+            } catch (IOException ignorada) {
+                // El navegador cortó la conexión
+            }
         }
     }
 }
\ No newline at end of file
@@ -10,25 +10,41 @@
 //   6. buscarPorEstado()        → acepta ?page y ?size, retorna paginado
 //   7. buscarPorNombreContiene()→ acepta ?page y ?size, retorna paginado
 //   8. buscarPorId()            → SIN CAMBIOS (retorna ProductoResponseDTO completo ✅)
+//   9. Listados paginados       → aceptan ?after= (cursor keyset) y ?conTotal=true
+//  10. importarProductos()      → POST /importar, NDJSON o CSV en streaming, inserción por lotes
 
 package com.example.NoLimits.Multimedia.controller.producto;
 
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoFacetasFiltroDTO;
 import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoBusquedaDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoFacetasResponseDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoImportacionResultadoDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoSugerenciaDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
 import com.example.NoLimits.Multimedia.dto.producto.update.ProductoUpdateDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoBusquedaService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionLector;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionService;
 import com.example.NoLimits.Multimedia.service.producto.ProductoService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -42,6 +58,18 @@ public class ProductoController {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private ProductoBusquedaService productoBusquedaService;
+
+    @Autowired
+    private ProductoSugerenciasService productoSugerenciasService;
+
+    @Autowired
+    private ProductoFacetasService productoFacetasService;
+
+    @Autowired
+    private ProductoImportacionService productoImportacionService;
+
     // ========================= LISTADO GENERAL =========================
 
     /**
@@ -75,22 +103,31 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
      * pedir la siguiente con page=2, page=3, etc.
      *
      * size recomendado: 12 a 24 productos por página.
+     *
+     * Modo cursor (keyset): GET /api/v1/productos/paginacion?after=&size=20
+     * La respuesta trae siguienteCursor; se envía tal cual en ?after= para
+     * la página siguiente. No usa OFFSET y omite el COUNT salvo ?conTotal=true.
+     * Aplica igual a /buscar, /tipo/{id}, /estado/{id} y /sagas/{saga}.
      */
 
     @GetMapping("/paginacion")
     @Operation(
         summary = "Listar productos paginados (resumen liviano).",
-        description = "Devuelve una página de productos. Usar page=1&size=20. No acumular todas las páginas en el frontend."
+        description = "Devuelve una página de productos. Usar page=1&size=20. No acumular todas las páginas en el frontend. "
+                + "Con ?after= (vacío en la primera página) usa paginación por cursor; ?conTotal=true agrega el total."
     )
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> listarProductosPaginado(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
     ) {
         if (page < 1) page = 1;
         if (size < 1 || size > 50) size = 20; // máximo 50 por página
 
-        PagedResponse<ProductoResumenDTO> response = 
-            productoService.findAllPaged(page, size);
+        PagedResponse<ProductoResumenDTO> response = after != null
+            ? productoService.findAllKeyset(after, size, conTotal)
+            : productoService.findAllPaged(page, size);
         return ResponseEntity.ok(response);
     }
 
@@ -121,6 +158,29 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevoProducto);
     }
 
+    /**
+     * POST /api/v1/productos/importar
+     *
+     * Importación masiva: un producto por línea (NDJSON) o por fila (CSV con
+     * encabezado). Se lee en streaming y se inserta por lotes.
+     * ✅ Las filas con error no frenan la importación: vuelven en "errores".
+     * 🔒 Solo administradores (SecurityConfig).
+     */
+    @PostMapping(value = "/importar", consumes = { "application/x-ndjson", "text/csv" }, produces = "application/json")
+    @Operation(
+        summary = "Importar productos en masa (NDJSON o CSV).",
+        description = "NDJSON: un ProductoRequestDTO por línea. CSV: encabezados con los nombres de campo, listas separadas por '|' y catálogos por id o nombre. Devuelve conteos y errores por fila."
+    )
+    public ResponseEntity<ProductoImportacionResultadoDTO> importarProductos(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream cuerpo) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(MediaType.parseMediaType(contentType).getSubtype());
+        ProductoImportacionLector.Formato formato = csv
+                ? ProductoImportacionLector.Formato.CSV
+                : ProductoImportacionLector.Formato.NDJSON;
+        return ResponseEntity.ok(productoImportacionService.importar(cuerpo, formato));
+    }
+
     @PutMapping(value = "/{id}", consumes = "application/json", produces = "application/json")
     @Operation(summary = "Actualizar un producto completo.")
     public ResponseEntity<ProductoResponseDTO> actualizarProducto(
@@ -167,17 +227,101 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> buscarPorNombreContiene(
             @RequestParam String nombre,
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
+    ) {
+        if (page < 1) page = 1;
+        if (size < 1 || size > 50) size = 20;
+        PagedResponse<ProductoResumenDTO> resultado = after != null
+                ? productoService.findByNombreKeyset(nombre, after, size, conTotal)
+                : productoService.findByNombreContainingIgnoreCase(nombre, page, size);
+        if (resultado.getContenido().isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(resultado);
+    }
+
+    /**
+     * GET /api/v1/productos/search?q=spider man&page=1&size=20
+     *
+     * Búsqueda por texto en nombre, saga y sinopsis, ordenada por relevancia.
+     * ✅ En Postgres usa el índice full-text (prefijos + tolerancia a errores).
+     */
+    @GetMapping("/search")
+    @Operation(
+        summary = "Buscar productos por texto (ordenado por relevancia).",
+        description = "Busca en nombre, saga y sinopsis. Acepta prefijos (?q=spi) y, en Postgres, errores de tipeo. Usar ?q=texto&page=1&size=20"
+    )
+    public ResponseEntity<PagedResponse<ProductoBusquedaDTO>> buscarPorTexto(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
         if (page < 1) page = 1;
         if (size < 1 || size > 50) size = 20;
-        PagedResponse<ProductoResumenDTO> resultado = productoService.findByNombreContainingIgnoreCase(nombre, page, size);
+        PagedResponse<ProductoBusquedaDTO> resultado = productoBusquedaService.buscar(q, page, size);
         if (resultado.getContenido().isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(resultado);
     }
 
+    /**
+     * GET /api/v1/productos/sugerencias?q=spi&limite=8
+     *
+     * Typeahead del buscador: productos, sagas, géneros, plataformas y empresas.
+     * ✅ Responde desde un índice en memoria, sin consultar la BD por tecla.
+     */
+    @GetMapping("/sugerencias")
+    @Operation(
+        summary = "Sugerencias para el buscador (typeahead).",
+        description = "Sin tildes ni mayúsculas, por prefijo de palabra. Usar ?q=texto&limite=8 (máx. 20)"
+    )
+    public ResponseEntity<List<ProductoSugerenciaDTO>> sugerencias(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limite
+    ) {
+        if (limite < 1 || limite > 20) limite = 8;
+        return ResponseEntity.ok(productoSugerenciasService.sugerir(q, limite));
+    }
+
     // ========================= FILTROS PAGINADOS =========================
 
+    /**
+     * GET /api/v1/productos/facetas?tipoProductoId=1&generoId=2&generoId=5&anioDesde=2000&precioMax=20000&page=1&size=20
+     *
+     * Todos los filtros en una sola llamada + conteos por faceta.
+     * ✅ Reemplaza combinar /tipo, /estado, /clasificacion y /saga en el frontend.
+     * Repetir un parámetro = OR dentro de esa faceta; facetas distintas = AND.
+     */
+    @GetMapping("/facetas")
+    @Operation(
+        summary = "Filtrar productos por facetas combinadas (paginado + conteos).",
+        description = "Filtros: tipoProductoId, estadoId, clasificacionId, generoId, plataformaId, empresaId, desarrolladorId (repetibles), anioDesde/anioHasta, precioMin/precioMax. Devuelve la página de resúmenes y, por faceta, cuántos productos tiene cada valor."
+    )
+    public ResponseEntity<ProductoFacetasResponseDTO> filtrarPorFacetas(
+            @RequestParam(required = false) List<Long> tipoProductoId,
+            @RequestParam(required = false) List<Long> estadoId,
+            @RequestParam(required = false) List<Long> clasificacionId,
+            @RequestParam(required = false) List<Long> generoId,
+            @RequestParam(required = false) List<Long> plataformaId,
+            @RequestParam(required = false) List<Long> empresaId,
+            @RequestParam(required = false) List<Long> desarrolladorId,
+            @RequestParam(required = false) Integer anioDesde,
+            @RequestParam(required = false) Integer anioHasta,
+            @RequestParam(required = false) Double precioMin,
+            @RequestParam(required = false) Double precioMax,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (page < 1) page = 1;
+        if (size < 1 || size > 50) size = 20;
+
+        ProductoFacetasFiltroDTO filtro = new ProductoFacetasFiltroDTO(
+                tipoProductoId, estadoId, clasificacionId,
+                generoId, plataformaId, empresaId, desarrolladorId,
+                anioDesde, anioHasta, precioMin, precioMax
+        );
+        return ResponseEntity.ok(productoFacetasService.filtrar(filtro, page, size));
+    }
+
     /**
      * GET /api/v1/productos/tipo/{tipoProductoId}?page=1&size=20
      *
@@ -191,11 +335,15 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> buscarPorTipo(
             @PathVariable Long tipoProductoId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
     ) {
         if (page < 1) page = 1;
         if (size < 1 || size > 50) size = 20;
-        PagedResponse<ProductoResumenDTO> resultado = productoService.findByTipoProducto(tipoProductoId, page, size);
+        PagedResponse<ProductoResumenDTO> resultado = after != null
+                ? productoService.findByTipoProductoKeyset(tipoProductoId, after, size, conTotal)
+                : productoService.findByTipoProducto(tipoProductoId, page, size);
         if (resultado.getContenido().isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(resultado);
     }
@@ -213,11 +361,15 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> buscarPorEstado(
             @PathVariable Long estadoId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
     ) {
         if (page < 1) page = 1;
         if (size < 1 || size > 50) size = 20;
-        PagedResponse<ProductoResumenDTO> resultado = productoService.findByEstado(estadoId, page, size);
+        PagedResponse<ProductoResumenDTO> resultado = after != null
+                ? productoService.findByEstadoKeyset(estadoId, after, size, conTotal)
+                : productoService.findByEstado(estadoId, page, size);
         if (resultado.getContenido().isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(resultado);
     }
@@ -261,11 +413,15 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> buscarPorSaga(
             @PathVariable String saga,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
     ) {
         if (page < 1) page = 1;
         if (size < 1 || size > 50) size = 20;
-        PagedResponse<ProductoResumenDTO> resultado = productoService.findBySagaIgnoreCase(saga, page, size);
+        PagedResponse<ProductoResumenDTO> resultado = after != null
+                ? productoService.findBySagaKeyset(saga, after, size, conTotal)
+                : productoService.findBySagaIgnoreCase(saga, page, size);
         if (resultado.getContenido().isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(resultado);
     }
@@ -276,9 +432,11 @@ public ResponseEntity<List<ProductoResumenDTO>> listarProductos() {
     public ResponseEntity<PagedResponse<ProductoResumenDTO>> buscarPorSagaAlias(
             @PathVariable String saga,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean conTotal
     ) {
-        return buscarPorSaga(saga, page, size);
+        return buscarPorSaga(saga, page, size, after, conTotal);
     }
 
     @GetMapping("/sagas/{saga}/completo")
@@ -1,12 +1,19 @@
 package com.example.NoLimits.Multimedia.controller.rawg;
 
+import com.example.NoLimits.Multimedia.service.proxy.ProxyPeticion;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/rawg")
@@ -15,24 +22,27 @@ public class RawgProxyController {
     @Value("${rawg.key}")
     private String rawgKey;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("rawgRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Caché por ruta + envío por streaming al navegador
+    @Autowired
+    private ProxyTransmisionService transmision;
+
     private static final String RAWG_BASE = "https://api.rawg.io/api";
 
     @GetMapping("/**")
-    public ResponseEntity<String> proxy(HttpServletRequest request) {
+    public void proxy(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String path = request.getRequestURI().replace("/api/rawg", "");
         String queryString = request.getQueryString();
 
         String url = RAWG_BASE + path + "?key=" + rawgKey
                 + (queryString != null ? "&" + queryString : "");
 
-        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-        
-        String body = response.getBody();
-        if (body != null) {
-            body = body.replaceAll("\"next\":\"[^\"]*key=[^\"]*\"", "\"next\":null");
-        }
-        
-        return ResponseEntity.ok(body);
+        // El "next" de la paginación trae la key: se deja en null
+        ProxyPeticion peticion = ProxyPeticion.get(url).sinKeyEnNext("key=");
+
+        transmision.servir("rawg", path, queryString, restTemplate, peticion, request, response);
     }
-}
\ No newline at end of file
+}
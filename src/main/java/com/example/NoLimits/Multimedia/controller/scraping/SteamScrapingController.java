@@ -1,6 +1,6 @@
 package com.example.NoLimits.Multimedia.controller.scraping;
 
-import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -11,7 +11,8 @@ import java.util.Map;
  * 
  * Este controlador actúa como intermediario entre el frontend (o cliente)
  * y el servicio ScrapingClientService, el cual se comunica con el backend
- * Node.js encargado del scraping.
+ * Node.js encargado del scraping. Las consultas pasan por
+ * PrecioSteamCacheService: una ráfaga del mismo appId es un solo GET.
  * 
  * Forma parte de la arquitectura de microservicios de NoLimits, permitiendo
  * centralizar el acceso a datos externos desde el backend principal.
@@ -21,17 +22,17 @@ import java.util.Map;
 public class SteamScrapingController {
 
     /**
-     * Servicio que realiza la comunicación con el microservicio de scraping.
+     * Caché de precios delante del microservicio de scraping.
      */
-    private final ScrapingClientService scrapingClientService;
+    private final PrecioSteamCacheService precioSteamCacheService;
 
     /**
      * Constructor con inyección de dependencias.
      * 
-     * @param scrapingClientService Servicio encargado de consumir el scraping
+     * @param precioSteamCacheService Caché de precios de Steam
      */
-    public SteamScrapingController(ScrapingClientService scrapingClientService) {
-        this.scrapingClientService = scrapingClientService;
+    public SteamScrapingController(PrecioSteamCacheService precioSteamCacheService) {
+        this.precioSteamCacheService = precioSteamCacheService;
     }
 
     /**
@@ -52,14 +53,14 @@ public class SteamScrapingController {
      *
      * Flujo:
      * 1. Recibe la solicitud HTTP con el appId
-     * 2. Llama al servicio ScrapingClientService
-     * 3. El servicio consulta el microservicio Node.js
+     * 2. Busca el precio en PrecioSteamCacheService
+     * 3. Si no está vigente, se consulta el microservicio Node.js
      * 4. Retorna los datos al cliente en formato JSON
      */
     @GetMapping
     public Map<String, Object> obtenerPrecioSteam(@RequestParam String appId) {
 
-        // Llama al servicio que consume el microservicio Node.js
-        return scrapingClientService.obtenerPrecioSteam(appId);
+        // Caché primero; el microservicio Node.js solo si hace falta
+        return precioSteamCacheService.obtenerPrecioSteam(appId);
     }
 }
\ No newline at end of file
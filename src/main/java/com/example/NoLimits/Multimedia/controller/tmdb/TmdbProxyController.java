@@ -1,12 +1,19 @@
 package com.example.NoLimits.Multimedia.controller.tmdb;
 
+import com.example.NoLimits.Multimedia.service.proxy.ProxyPeticion;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/tmdb")
@@ -15,11 +22,18 @@ public class TmdbProxyController {
     @Value("${tmdb.token}")
     private String tmdbToken;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("tmdbRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Caché por ruta + envío por streaming al navegador
+    @Autowired
+    private ProxyTransmisionService transmision;
+
     private static final String TMDB_BASE = "https://api.themoviedb.org/3";
 
     @GetMapping("/**")
-    public ResponseEntity<String> proxy(HttpServletRequest request) {
+    public void proxy(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String path = request.getRequestURI().replace("/api/tmdb", "");
         String queryString = request.getQueryString();
 
@@ -27,13 +41,9 @@ public class TmdbProxyController {
                 + "&language=es-ES"
                 + (queryString != null ? "&" + queryString : "");
 
-        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
-
-        String body = response.getBody();
-        if (body != null) {
-            body = body.replaceAll("\"next\":\"[^\"]*api_key=[^\"]*\"", "\"next\":null");
-        }
+        // El "next" de la paginación trae la api_key: se deja en null
+        ProxyPeticion peticion = ProxyPeticion.get(url).sinKeyEnNext("api_key=");
 
-        return ResponseEntity.ok(body);
+        transmision.servir("tmdb", path, queryString, restTemplate, peticion, request, response);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.example.NoLimits.Multimedia.controllerV2.producto;
 
 import com.example.NoLimits.Multimedia._exceptions.RecursoNoEncontradoException;
 import com.example.NoLimits.Multimedia.assemblers.producto.ProductoModelAssembler;
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
@@ -35,6 +36,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -649,6 +651,70 @@ public class ProductoControllerV2 {
                 );
         }
 
+    // ========================= PAGINACIÓN POR CURSOR =========================
+
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Listar productos por cursor (HATEOAS)",
+            description = "Paginación keyset: enviar after vacío en la primera página y luego el valor de siguienteCursor "
+                    + "(también disponible como enlace 'next'). Filtro opcional: nombre, tipoProductoId, estadoId o saga."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Página obtenida exitosamente.",
+                    content = @Content(mediaType = "application/hal+json")
+            ),
+            @ApiResponse(responseCode = "204", description = "No hay más productos después del cursor."),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido.")
+    })
+    public ResponseEntity<CollectionModel<EntityModel<ProductoResumenDTO>>> listarPorCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String nombre,
+            @RequestParam(required = false) Long tipoProductoId,
+            @RequestParam(required = false) Long estadoId,
+            @RequestParam(required = false) String saga
+    ) {
+        if (size < 1 || size > 50) size = 20;
+
+        PagedResponse<ProductoResumenDTO> pagina;
+        if (nombre != null && !nombre.isBlank()) {
+            pagina = productoService.findByNombreKeyset(nombre, after, size, false);
+        } else if (tipoProductoId != null) {
+            pagina = productoService.findByTipoProductoKeyset(tipoProductoId, after, size, false);
+        } else if (estadoId != null) {
+            pagina = productoService.findByEstadoKeyset(estadoId, after, size, false);
+        } else if (saga != null && !saga.isBlank()) {
+            pagina = productoService.findBySagaKeyset(saga, after, size, false);
+        } else {
+            pagina = productoService.findAllKeyset(after, size, false);
+        }
+
+        if (pagina.getContenido().isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+
+        List<EntityModel<ProductoResumenDTO>> productos = pagina.getContenido().stream()
+                .map(dto -> EntityModel.of(dto,
+                        linkTo(methodOn(ProductoControllerV2.class).getById(dto.getId())).withSelfRel()))
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<ProductoResumenDTO>> modelo = CollectionModel.of(
+                productos,
+                linkTo(methodOn(ProductoControllerV2.class)
+                        .listarPorCursor(after, size, nombre, tipoProductoId, estadoId, saga)).withSelfRel()
+        );
+
+        if (pagina.getSiguienteCursor() != null) {
+            modelo.add(linkTo(methodOn(ProductoControllerV2.class)
+                    .listarPorCursor(pagina.getSiguienteCursor(), size, nombre, tipoProductoId, estadoId, saga))
+                    .withRel(IanaLinkRelations.NEXT));
+        }
+
+        return ResponseEntity.ok(modelo);
+    }
+
     // ========================= RESUMEN =========================
 
     @GetMapping("/resumen")
@@ -0,0 +1,52 @@
+package com.example.NoLimits.Multimedia.dto.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación keyset (seek) sobre el id.
+ *
+ * El frontend nunca interpreta el cursor: solo lo recibe en
+ * PagedResponse.siguienteCursor y lo devuelve en ?after=.
+ *
+ * Por dentro es "id:<ultimo id de la página>" en Base64 URL-safe.
+ */
+public final class CursorKeyset {
+
+    private static final String PREFIJO = "id:";
+
+    private CursorKeyset() {
+    }
+
+    public static String codificar(Long ultimoId) {
+        if (ultimoId == null) return null;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((PREFIJO + ultimoId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Devuelve el id a partir del cual continuar (exclusivo).
+     * Un cursor vacío o null significa "desde el principio" (0).
+     *
+     * @throws IllegalArgumentException si el cursor fue alterado o no es válido.
+     */
+    public static long decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) return 0L;
+
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("Cursor de paginación inválido.");
+            }
+            long id = Long.parseLong(valor.substring(PREFIJO.length()));
+            if (id < 0) {
+                throw new IllegalArgumentException("Cursor de paginación inválido.");
+            }
+            return id;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException y errores de Base64 también son IllegalArgumentException
+            throw new IllegalArgumentException("Cursor de paginación inválido.");
+        }
+    }
+}
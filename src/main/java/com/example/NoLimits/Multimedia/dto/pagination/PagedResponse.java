@@ -2,6 +2,8 @@ package com.example.NoLimits.Multimedia.dto.pagination;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -29,6 +31,17 @@ import lombok.NoArgsConstructor;
  *  - etc.
  *
  * Cada campo se explica más abajo.
+ *
+ * Modo cursor (keyset):
+ *   GET /productos/paginacion?after=&size=20
+ *
+ * En vez de "página N" el backend devuelve un cursor opaco (siguienteCursor)
+ * que el frontend envía tal cual en ?after= para pedir la siguiente página.
+ * En este modo:
+ *  - pagina = 0 (no aplica)
+ *  - totalPaginas / totalElementos = -1, salvo que se pida ?conTotal=true
+ *  - hayMas indica si existe una página siguiente
+ * Los campos del modo cursor no se serializan en la paginación normal.
  */
 @AllArgsConstructor
 @NoArgsConstructor
@@ -38,4 +51,17 @@ public class PagedResponse<T> {
     private int pagina;
     private int totalPaginas;
     private long totalElementos;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String siguienteCursor;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean hayMas;
+
+    /**
+     * Constructor de la paginación clásica (page/size), sin campos de cursor.
+     */
+    public PagedResponse(List<T> contenido, int pagina, int totalPaginas, long totalElementos) {
+        this(contenido, pagina, totalPaginas, totalElementos, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+//   ¿Para qué sirve?
+//   Filtros combinados de GET /api/v1/productos/facetas.
+//
+//   - Listas de ids: dentro de una misma faceta se combinan con OR
+//     (?generoId=1&generoId=2 = Acción O Aventura); entre facetas con AND.
+//   - Rangos: anioDesde/anioHasta y precioMin/precioMax (inclusivos).
+//   Cualquier campo null o vacío = sin filtro.
+
+package com.example.NoLimits.Multimedia.dto.producto.request;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoFacetasFiltroDTO {
+
+    private List<Long> tipoProductoIds;
+    private List<Long> estadoIds;
+    private List<Long> clasificacionIds;
+    private List<Long> generoIds;
+    private List<Long> plataformaIds;
+    private List<Long> empresaIds;
+    private List<Long> desarrolladorIds;
+
+    private Integer anioDesde;
+    private Integer anioHasta;
+    private Double precioMin;
+    private Double precioMax;
+}
@@ -0,0 +1,19 @@
+//   ¿Para qué sirve?
+//   Un valor de faceta y cuántos productos lo tienen con los filtros actuales
+//   (ej: generoId 3 → 42 productos). El nombre lo pone el frontend con los
+//   catálogos que ya tiene cargados.
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetaConteoDTO {
+
+    private Long id;
+    private long cantidad;
+}
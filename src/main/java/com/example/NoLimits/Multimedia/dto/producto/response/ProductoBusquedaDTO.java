@@ -0,0 +1,36 @@
+//   ¿Para qué sirve?
+//   Resultado de GET /api/v1/productos/search: la misma tarjeta liviana de
+//   ProductoResumenDTO más la relevancia con la que se ordenó el resultado.
+//
+//   relevancia: mayor = mejor coincidencia. Solo sirve para comparar
+//   resultados de una misma búsqueda (no es un porcentaje).
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class ProductoBusquedaDTO extends ProductoResumenDTO {
+
+    private Double relevancia;
+
+    public ProductoBusquedaDTO(ProductoResumenDTO resumen, Double relevancia) {
+        super(
+            resumen.getId(),
+            resumen.getNombre(),
+            resumen.getPrecio(),
+            resumen.getTipoProductoNombre(),
+            resumen.getEstadoNombre(),
+            resumen.getSaga(),
+            resumen.getPortadaSaga(),
+            resumen.getImagenPortada()
+        );
+        this.relevancia = relevancia;
+    }
+}
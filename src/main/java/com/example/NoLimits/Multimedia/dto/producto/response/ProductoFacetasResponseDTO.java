@@ -0,0 +1,29 @@
+//   ¿Para qué sirve?
+//   Respuesta de GET /api/v1/productos/facetas:
+//   - resultados: página de tarjetas livianas (ProductoResumenDTO) ordenadas por id.
+//   - facetas: por cada faceta (tipoProducto, estado, clasificacion, genero,
+//     plataforma, empresa, desarrollador) los valores con su cantidad.
+//
+//   Los conteos de una faceta aplican todos los filtros MENOS el de esa misma
+//   faceta, así el frontend puede mostrar cuántos productos sumaría marcar
+//   otro valor (ej: con "Acción" marcado, "Aventura" sigue mostrando su conteo).
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductoFacetasResponseDTO {
+
+    private PagedResponse<ProductoResumenDTO> resultados;
+    private Map<String, List<FacetaConteoDTO>> facetas;
+}
@@ -0,0 +1,18 @@
+//   ¿Para qué sirve?
+//   Una fila rechazada en POST /api/v1/productos/importar: el número de línea
+//   del archivo donde empieza y por qué no se importó.
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductoImportacionErrorDTO {
+
+    private long fila;
+    private String mensaje;
+}
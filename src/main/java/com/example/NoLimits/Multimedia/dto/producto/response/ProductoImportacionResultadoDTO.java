@@ -0,0 +1,28 @@
+//   ¿Para qué sirve?
+//   Respuesta de POST /api/v1/productos/importar:
+//   - leidas: filas con datos leídas del archivo.
+//   - insertadas: productos creados.
+//   - rechazadas: filas con error (leidas = insertadas + rechazadas).
+//   - errores: detalle por fila, hasta un máximo; erroresTruncados = true si
+//     hubo más de los que se listan.
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductoImportacionResultadoDTO {
+
+    private long leidas;
+    private long insertadas;
+    private long rechazadas;
+    private List<ProductoImportacionErrorDTO> errores;
+    private boolean erroresTruncados;
+    private long duracionMs;
+}
@@ -0,0 +1,25 @@
+//   ¿Para qué sirve?
+//   Una sugerencia del buscador (typeahead) de GET /api/v1/productos/sugerencias.
+//
+//   tipo: PRODUCTO, SAGA, GENERO, PLATAFORMA o EMPRESA.
+//   productoId: solo viene cuando tipo = PRODUCTO (para ir directo al detalle).
+
+package com.example.NoLimits.Multimedia.dto.producto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductoSugerenciaDTO {
+
+    private String texto;
+    private String tipo;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long productoId;
+}
@@ -0,0 +1,66 @@
+// ¿Para qué sirve?
+//   Embeddings ya calculados por OpenAI, por hash del texto (SHA-256 de
+//   modelo + texto). Es la copia durable de la caché en memoria de
+//   EmbeddingService: re-indexar contenido sin cambios o repetir una
+//   búsqueda no vuelve a llamar a la API, ni siquiera tras un reinicio.
+//
+// El id (hash) lo asigna la aplicación, así que para Spring Data toda fila
+// parecía existente y saveAll hacía merge: un SELECT por fila antes del
+// INSERT. Con Persistable una fila recién creada es nueva hasta que se
+// guarda o se carga, y saveAll la inserta directo.
+
+package com.example.NoLimits.Multimedia.model.ai;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "embedding_cache")
+@Getter @Setter
+@NoArgsConstructor
+public class EmbeddingCacheModel implements Persistable<String> {
+
+    @Id
+    @Column(name = "hash", length = 64)
+    private String hash;
+
+    @Column(nullable = false, length = 80)
+    private String modelo;
+
+    // float32 little-endian, 4 bytes por dimensión (1536 → 6 KB)
+    @Column(nullable = false, length = 16384)
+    private byte[] vector;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Transient
+    @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private boolean nueva = true;
+
+    public EmbeddingCacheModel(String hash, String modelo, byte[] vector, LocalDateTime fechaCreacion) {
+        this.hash = hash;
+        this.modelo = modelo;
+        this.vector = vector;
+        this.fechaCreacion = fechaCreacion;
+    }
+
+    @Override
+    public String getId() {
+        return hash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return nueva;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGuardada() {
+        nueva = false;
+    }
+}
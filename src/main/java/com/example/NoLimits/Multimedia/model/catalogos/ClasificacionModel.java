@@ -6,6 +6,7 @@ import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 import com.fasterxml.jackson.annotation.JsonIgnore;
     import io.swagger.v3.oas.annotations.media.Schema;
     import jakarta.persistence.Column;
+    import jakarta.persistence.Cacheable;
     import jakarta.persistence.Entity;
     import jakarta.persistence.FetchType;
     import jakarta.persistence.GeneratedValue;
@@ -13,12 +14,16 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
     import jakarta.persistence.Id;
     import jakarta.persistence.OneToMany;
     import jakarta.persistence.Table;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
     import jakarta.validation.constraints.NotBlank;
     import lombok.AllArgsConstructor;
     import lombok.Data;
     import lombok.NoArgsConstructor;
 
     @Entity
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalogo_clasificaciones")
     @Table(name = "clasificaciones")
     @Data
     @NoArgsConstructor
@@ -94,6 +94,19 @@ public class ProductoModel {
     )
     private String portadaSaga;
 
+    /* ====== Portada desnormalizada ====== */
+
+    // Copia de la ruta de la primera imagen (menor id) para que los listados
+    // no ejecuten una subconsulta por fila. La mantienen ImagenesService y
+    // ProductoService; ImagenPortadaBackfillService rellena filas antiguas.
+    @Column(name = "imagen_portada", length = 255)
+    @Schema(
+        description = "Ruta de la primera imagen del producto (portada en listados).",
+        example = "/assets/img/Peliculas/spiderman.webp",
+        accessMode = Schema.AccessMode.READ_ONLY
+    )
+    private String imagenPortada;
+
     /* ====== Relaciones N:1 ====== */
 
     @ManyToOne(optional = false)
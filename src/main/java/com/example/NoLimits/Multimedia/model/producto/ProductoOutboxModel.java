@@ -0,0 +1,60 @@
+// ¿Para qué sirve?
+//   Cola durable (patrón outbox) de trabajo pendiente sobre productos.
+//   Hoy el único evento es PRODUCTO_CREADO: traer precio de Steam y
+//   regenerar el embedding, fuera de la transacción que crea el producto.
+//
+// La fila se inserta en la MISMA transacción que el producto: si el alta
+// hace commit, el evento existe; si hace rollback, tampoco queda el evento.
+// ProductoEnriquecimientoService la procesa después, con reintentos.
+
+package com.example.NoLimits.Multimedia.model.producto;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "producto_outbox",
+       indexes = @Index(name = "idx_producto_outbox_pendientes", columnList = "estado, proximo_intento"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class ProductoOutboxModel {
+
+    public static final String PRODUCTO_CREADO = "PRODUCTO_CREADO";
+
+    public static final String PENDIENTE = "PENDIENTE";
+    public static final String PROCESADO = "PROCESADO";
+    public static final String FALLIDO = "FALLIDO";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sin FK: borrar un producto no debe quedar bloqueado por su evento
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(nullable = false, length = 40)
+    private String evento;
+
+    @Column(nullable = false, length = 20)
+    private String estado;
+
+    @Column(nullable = false)
+    private int intentos;
+
+    @Column(name = "proximo_intento", nullable = false)
+    private LocalDateTime proximoIntento;
+
+    @Column(name = "ultimo_error", length = 500)
+    private String ultimoError;
+
+    @CreationTimestamp
+    @Column(name = "fecha_creacion", updatable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_procesado")
+    private LocalDateTime fechaProcesado;
+}
@@ -0,0 +1,29 @@
+// ¿Para qué sirve?
+//   Último precio conocido de Steam por appId (respuesta completa del
+//   microservicio de scraping, en JSON). Es la copia durable de la caché en
+//   memoria de PrecioSteamCacheService: sobrevive reinicios y se usa como
+//   respaldo cuando el microservicio no responde.
+
+package com.example.NoLimits.Multimedia.model.scraping;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "steam_precio_cache")
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+public class SteamPrecioCacheModel {
+
+    @Id
+    @Column(name = "app_id", length = 80)
+    private String appId;
+
+    @Column(nullable = false, length = 4000)
+    private String datos;
+
+    @Column(name = "fecha_consulta", nullable = false)
+    private LocalDateTime fechaConsulta;
+}
@@ -0,0 +1,10 @@
+package com.example.NoLimits.Multimedia.repository.ai;
+
+import com.example.NoLimits.Multimedia.model.ai.EmbeddingCacheModel;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheModel, String> {
+}
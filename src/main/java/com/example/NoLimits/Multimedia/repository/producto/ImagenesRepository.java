@@ -1,6 +1,7 @@
 package com.example.NoLimits.Multimedia.repository.producto;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,9 @@ public interface ImagenesRepository extends JpaRepository<ImagenesModel, Long> {
     // ====== Búsquedas por producto ======
     List<ImagenesModel> findByProducto_Id(Long productoId);
 
+    // Primera imagen (menor id) = portada del producto en los listados
+    Optional<ImagenesModel> findFirstByProducto_IdOrderByIdAsc(Long productoId);
+
     // Elimina todas las imágenes de un producto y devuelve cuántas se borraron
     long deleteByProducto_Id(Long productoId);
 
@@ -0,0 +1,26 @@
+package com.example.NoLimits.Multimedia.repository.producto;
+
+import com.example.NoLimits.Multimedia.model.producto.ProductoOutboxModel;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductoOutboxRepository extends JpaRepository<ProductoOutboxModel, Long> {
+
+    /** Eventos pendientes cuyo próximo intento ya venció, los más antiguos primero. */
+    @Query("""
+        SELECT o FROM ProductoOutboxModel o
+        WHERE o.estado = 'PENDIENTE' AND o.proximoIntento <= :ahora
+        ORDER BY o.id
+    """)
+    List<ProductoOutboxModel> findPendientes(@Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    long countByEstado(String estado);
+}
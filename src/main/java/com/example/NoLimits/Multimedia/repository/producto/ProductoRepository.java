@@ -7,18 +7,33 @@
 //   6. NUEVA: obtenerResumenPorSaga(String, Pageable)
 //   7. NUEVA: obtenerResumenPorNombre(String, Pageable)
 //   8. NUEVA: findIdsConAppId()  → reemplaza findAllFull() solo para obtener IDs de Steam
+//   9. NUEVA: obtenerResumenSnapshot() / obtenerResumenSnapshotPorIds() → carga del snapshot en memoria
+//  10. NUEVAS: obtenerResumen*Keyset(cursor, Pageable) → paginación por cursor (WHERE p.id > :cursor, sin COUNT)
+//  11. imagenPortada ahora es la columna desnormalizada p.imagenPortada (antes subconsulta por fila)
+//      + recalcularImagenPortada(desde, hasta) / obtenerMaxId() para el backfill
+//  12. NUEVAS: obtenerDetalleBasePorIds() + obtener*PorProductoIds() → detalle en lote (7 queries fijas)
+//  13. findByIdFull() → una query por colección (sin producto cartesiano); la forma anterior queda
+//      como findByIdFullJoinUnico() solo para el benchmark
+//  14. NUEVA: buscarCandidatosPorTexto() → respaldo de /productos/search sin full-text (H2)
+//  15. NUEVAS: obtenerFacetasBase() + obtenerPares*() → índice de facetas en memoria (/productos/facetas)
+//  16. NUEVAS: findIdsByNombre / findIdsByClasificacionId / findIdsByTipoProductoIdAndEstadoId
+//      → ProductoService arma el detalle con ProductoDetalleLoteService (sin N+1 de colecciones lazy)
+//  17. NUEVA: findIdsConAppIdEntre(ids) → el worker del outbox filtra un lote de eventos en una query
 
 package com.example.NoLimits.Multimedia.repository.producto;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +42,8 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
 
     // =========================================================
     // RESUMEN LIVIANO — USAR PARA TODOS LOS LISTADOS
-    // Incluye imagenPortada (primera imagen) para mostrar en tarjetas
+    // Incluye imagenPortada (primera imagen) para mostrar en tarjetas.
+    // Se lee de la columna imagen_portada: sin subconsulta correlacionada.
     // =========================================================
 
     /**
@@ -37,8 +53,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * Para el frontend de catálogo, preferir obtenerResumenPaginado().
      */
     @Query("""
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -51,8 +66,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * Sin JOINs pesados. Sin N+1.
      */
     @Query(value = """
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -65,8 +79,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * USAR PARA GET /productos/tipo/{id}?page=&size=
      */
     @Query(value = """
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -80,8 +93,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * USAR PARA GET /productos/estado/{id}?page=&size=
      */
     @Query(value = """
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -95,8 +107,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * USAR PARA GET /productos/sagas/{saga}?page=&size=
      */
     @Query(value = """
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -110,8 +121,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
      * USAR PARA GET /productos/buscar?nombre=&page=&size=
      */
     @Query(value = """
-        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga,
-               (SELECT img.ruta FROM ImagenesModel img WHERE img.producto = p ORDER BY img.id ASC LIMIT 1)
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
         FROM ProductoModel p
         JOIN p.tipoProducto tp
         JOIN p.estado e
@@ -120,11 +130,217 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
     countQuery = "SELECT COUNT(p) FROM ProductoModel p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
     Page<Object[]> obtenerResumenPorNombre(@Param("nombre") String nombre, Pageable pageable);
 
+    // =========================================================
+    // PAGINACIÓN KEYSET (CURSOR) — sin OFFSET y sin COUNT
+    // Pageable solo se usa como LIMIT: PageRequest.of(0, size + 1)
+    // La fila extra indica si hay página siguiente.
+    // =========================================================
+
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE p.id > :cursor
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenKeyset(@Param("cursor") Long cursor, Pageable limite);
+
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE tp.id = :tipoId AND p.id > :cursor
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenPorTipoKeyset(@Param("tipoId") Long tipoId,
+                                               @Param("cursor") Long cursor,
+                                               Pageable limite);
+
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE e.id = :estadoId AND p.id > :cursor
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenPorEstadoKeyset(@Param("estadoId") Long estadoId,
+                                                 @Param("cursor") Long cursor,
+                                                 Pageable limite);
+
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE LOWER(p.saga) = LOWER(:saga) AND p.id > :cursor
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenPorSagaKeyset(@Param("saga") String saga,
+                                               @Param("cursor") Long cursor,
+                                               Pageable limite);
+
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%')) AND p.id > :cursor
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenPorNombreKeyset(@Param("nombre") String nombre,
+                                                 @Param("cursor") Long cursor,
+                                                 Pageable limite);
+
+    // =========================================================
+    // BÚSQUEDA — respaldo sin índice full-text (H2 / tests)
+    // En Postgres ProductoBusquedaService usa tsvector + pg_trgm.
+    // =========================================================
+
+    /**
+     * Candidatos que contienen el patrón en nombre, saga o sinopsis.
+     * [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga, imagenPortada, sinopsis]
+     */
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada, p.sinopsis
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE LOWER(p.nombre) LIKE :patron
+           OR LOWER(p.saga) LIKE :patron
+           OR LOWER(p.sinopsis) LIKE :patron
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> buscarCandidatosPorTexto(@Param("patron") String patron);
+
+    // Conteos opcionales del modo cursor (solo si el cliente pide ?conTotal=true)
+    long countByTipoProducto_Id(Long tipoId);
+    long countByEstado_Id(Long estadoId);
+    long countBySagaIgnoreCase(String saga);
+    long countByNombreContainingIgnoreCase(String nombre);
+
+    // =========================================================
+    // SNAPSHOT EN MEMORIA — usado por ProductoResumenSnapshotService
+    // Mismas columnas del resumen + tipoId y estadoId para los índices
+    // =========================================================
+
+    /**
+     * Carga completa del snapshot (una vez al inicio o tras invalidarlo).
+     */
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada,
+               tp.id, e.id
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        ORDER BY p.id ASC
+    """)
+    List<Object[]> obtenerResumenSnapshot();
+
+    /**
+     * Relee solo las filas que cambiaron (después de save/update/patch).
+     */
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portadaSaga, p.imagenPortada,
+               tp.id, e.id
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        WHERE p.id IN :ids
+    """)
+    List<Object[]> obtenerResumenSnapshotPorIds(@Param("ids") Collection<Long> ids);
+
     // =========================================================
     // DETALLE COMPLETO — SOLO PARA GET /productos/{id}
     // Nunca usar en listados
+    //
+    // Se arma con una query por colección en vez de un solo JOIN FETCH
+    // de todas: con 10 imágenes, 5 plataformas, 6 géneros y 3 empresas
+    // el JOIN FETCH único devolvía 10*5*6*3 = 900 filas para 1 producto.
+    // Cada query devuelve la MISMA instancia (contexto de persistencia)
+    // e inicializa una colección; el total de filas es la suma, no el producto.
     // =========================================================
 
+    /**
+     * Producto con todas sus colecciones inicializadas.
+     * 1 query para el producto + 1 por colección (6), sin producto cartesiano.
+     */
+    @Transactional(readOnly = true)
+    default Optional<ProductoModel> findByIdFull(Long id) {
+        Optional<ProductoModel> producto = findByIdConCatalogos(id);
+        if (producto.isEmpty()) return producto;
+
+        fetchImagenes(id);
+        fetchPlataformas(id);
+        fetchGeneros(id);
+        fetchEmpresas(id);
+        fetchDesarrolladores(id);
+        fetchLinksCompra(id);
+
+        return producto;
+    }
+
+    // Datos escalares + relaciones N:1 (tipo, clasificación, estado, ...)
+    @Query("""
+        SELECT p FROM ProductoModel p
+        JOIN FETCH p.tipoProducto
+        JOIN FETCH p.estado
+        LEFT JOIN FETCH p.clasificacion
+        LEFT JOIN FETCH p.tipoEmpresa
+        LEFT JOIN FETCH p.tipoDesarrollador
+        WHERE p.id = :id
+    """)
+    Optional<ProductoModel> findByIdConCatalogos(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT p FROM ProductoModel p LEFT JOIN FETCH p.imagenes WHERE p.id = :id")
+    List<ProductoModel> fetchImagenes(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT p FROM ProductoModel p
+        LEFT JOIN FETCH p.plataformas pp
+        LEFT JOIN FETCH pp.plataforma
+        WHERE p.id = :id
+    """)
+    List<ProductoModel> fetchPlataformas(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT p FROM ProductoModel p
+        LEFT JOIN FETCH p.generos gg
+        LEFT JOIN FETCH gg.genero
+        WHERE p.id = :id
+    """)
+    List<ProductoModel> fetchGeneros(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT p FROM ProductoModel p
+        LEFT JOIN FETCH p.empresas ee
+        LEFT JOIN FETCH ee.empresa
+        WHERE p.id = :id
+    """)
+    List<ProductoModel> fetchEmpresas(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT p FROM ProductoModel p
+        LEFT JOIN FETCH p.desarrolladores dd
+        LEFT JOIN FETCH dd.desarrollador
+        WHERE p.id = :id
+    """)
+    List<ProductoModel> fetchDesarrolladores(@Param("id") Long id);
+
+    @Query("""
+        SELECT DISTINCT p FROM ProductoModel p
+        LEFT JOIN FETCH p.linksCompra lc
+        LEFT JOIN FETCH lc.plataforma
+        WHERE p.id = :id
+    """)
+    List<ProductoModel> fetchLinksCompra(@Param("id") Long id);
+
+    /**
+     * Forma anterior (un solo JOIN FETCH de todas las colecciones).
+     * Se conserva solo para comparar en ProductoDetalleBenchmarkTest; no usar.
+     */
     @Query("""
         SELECT DISTINCT p FROM ProductoModel p
         LEFT JOIN FETCH p.imagenes
@@ -140,7 +356,124 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
         LEFT JOIN FETCH lc.plataforma
         WHERE p.id = :id
     """)
-    Optional<ProductoModel> findByIdFull(@Param("id") Long id);
+    Optional<ProductoModel> findByIdFullJoinUnico(@Param("id") Long id);
+
+    // =========================================================
+    // DETALLE EN LOTE — usado por ProductoDetalleLoteService
+    // Una query para los datos escalares + una por cada relación,
+    // todas con WHERE ... IN :ids. Sin JOIN FETCH de colecciones,
+    // así no hay producto cartesiano ni una ida a la BD por producto.
+    // =========================================================
+
+    /**
+     * [id, nombre, precio, sinopsis, urlTrailer, anio,
+     *  tipoProductoId, tipoProductoNombre, clasificacionId, clasificacionNombre,
+     *  estadoId, estadoNombre, tipoEmpresaId, tipoEmpresaNombre,
+     *  tipoDesarrolladorId, tipoDesarrolladorNombre, saga, portadaSaga]
+     */
+    @Query("""
+        SELECT p.id, p.nombre, p.precio, p.sinopsis, p.urlTrailer, p.anio,
+               tp.id, tp.nombre, c.id, c.nombre,
+               e.id, e.nombre, te.id, te.nombre,
+               td.id, td.nombre, p.saga, p.portadaSaga
+        FROM ProductoModel p
+        JOIN p.tipoProducto tp
+        JOIN p.estado e
+        LEFT JOIN p.clasificacion c
+        LEFT JOIN p.tipoEmpresa te
+        LEFT JOIN p.tipoDesarrollador td
+        WHERE p.id IN :ids
+    """)
+    List<Object[]> obtenerDetalleBasePorIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, plataformaId, plataformaNombre]
+    @Query("""
+        SELECT pp.producto.id, pl.id, pl.nombre
+        FROM PlataformasModel pp
+        JOIN pp.plataforma pl
+        WHERE pp.producto.id IN :ids
+        ORDER BY pp.id ASC
+    """)
+    List<Object[]> obtenerPlataformasPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, generoNombre]
+    @Query("""
+        SELECT gg.producto.id, g.nombre
+        FROM GenerosModel gg
+        JOIN gg.genero g
+        WHERE gg.producto.id IN :ids
+        ORDER BY gg.id ASC
+    """)
+    List<Object[]> obtenerGenerosPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, empresaNombre]
+    @Query("""
+        SELECT ee.producto.id, em.nombre
+        FROM EmpresasModel ee
+        JOIN ee.empresa em
+        WHERE ee.producto.id IN :ids
+        ORDER BY ee.id ASC
+    """)
+    List<Object[]> obtenerEmpresasPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, desarrolladorNombre]
+    @Query("""
+        SELECT dd.producto.id, d.nombre
+        FROM DesarrolladoresModel dd
+        JOIN dd.desarrollador d
+        WHERE dd.producto.id IN :ids
+        ORDER BY dd.id ASC
+    """)
+    List<Object[]> obtenerDesarrolladoresPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, plataformaId, url, label, appId, precioActual]
+    @Query("""
+        SELECT lc.producto.id, pl.id, lc.url, lc.label, lc.appId, lc.precioActual
+        FROM ProductoLinkCompraModel lc
+        JOIN lc.plataforma pl
+        WHERE lc.producto.id IN :ids
+        ORDER BY lc.id ASC
+    """)
+    List<Object[]> obtenerLinksCompraPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // [productoId, ruta]
+    @Query("""
+        SELECT img.producto.id, img.ruta
+        FROM ImagenesModel img
+        WHERE img.producto.id IN :ids
+        ORDER BY img.id ASC
+    """)
+    List<Object[]> obtenerImagenesPorProductoIds(@Param("ids") Collection<Long> ids);
+
+    // =========================================================
+    // FACETAS — carga completa del índice en memoria (5 queries)
+    // =========================================================
+
+    // [id, tipoProductoId, estadoId, clasificacionId, anio, precio]
+    @Query("""
+        SELECT p.id, tp.id, e.id, c.id, p.anio, p.precio
+        FROM ProductoModel p
+        LEFT JOIN p.tipoProducto tp
+        LEFT JOIN p.estado e
+        LEFT JOIN p.clasificacion c
+    """)
+    List<Object[]> obtenerFacetasBase();
+
+    // [productoId, generoId]
+    @Query("SELECT gg.producto.id, gg.genero.id FROM GenerosModel gg")
+    List<Object[]> obtenerParesGeneros();
+
+    // [productoId, plataformaId]
+    @Query("SELECT pp.producto.id, pp.plataforma.id FROM PlataformasModel pp")
+    List<Object[]> obtenerParesPlataformas();
+
+    // [productoId, empresaId]
+    @Query("SELECT ee.producto.id, ee.empresa.id FROM EmpresasModel ee")
+    List<Object[]> obtenerParesEmpresas();
+
+    // [productoId, desarrolladorId]
+    @Query("SELECT dd.producto.id, dd.desarrollador.id FROM DesarrolladoresModel dd")
+    List<Object[]> obtenerParesDesarrolladores();
 
     // =========================================================
     // SOLO PARA findAllWithImagenes — uso interno (no listados masivos)
@@ -168,6 +501,14 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
     """)
     List<Long> findIdsConAppId();
 
+    /** Igual que findIdsConAppId(), pero solo entre los ids dados. */
+    @Query("""
+        SELECT DISTINCT p.id FROM ProductoModel p
+        JOIN p.linksCompra lc
+        WHERE p.id IN :ids AND lc.appId IS NOT NULL AND lc.appId <> ''
+    """)
+    List<Long> findIdsConAppIdEntre(@Param("ids") Collection<Long> ids);
+
     // =========================================================
     // EXISTENCIA
     // =========================================================
@@ -178,12 +519,30 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
 
     // =========================================================
     // BÚSQUEDAS SIMPLES — para uso interno del service
+    // ⚠️ Devuelven entidades con colecciones lazy: mapearlas con
+    //    ProductoMapper dispara 5+ queries POR producto. Para armar
+    //    ProductoResponseDTO usar los findIds* de abajo + ProductoDetalleLoteService.
     // =========================================================
     List<ProductoModel> findByNombre(String nombre);
     List<ProductoModel> findByNombreContainingIgnoreCase(String nombre);
     List<ProductoModel> findByClasificacion_Id(Long clasificacionId);
     List<ProductoModel> findByTipoProducto_IdAndEstado_Id(Long tipoProductoId, Long estadoId);
 
+    @Query("SELECT p.id FROM ProductoModel p WHERE p.nombre = :nombre ORDER BY p.id ASC")
+    List<Long> findIdsByNombre(@Param("nombre") String nombre);
+
+    @Query("SELECT p.id FROM ProductoModel p WHERE p.clasificacion.id = :clasificacionId ORDER BY p.id ASC")
+    List<Long> findIdsByClasificacionId(@Param("clasificacionId") Long clasificacionId);
+
+    @Query("""
+        SELECT p.id FROM ProductoModel p
+        WHERE p.tipoProducto.id = :tipoProductoId
+          AND p.estado.id = :estadoId
+        ORDER BY p.id ASC
+    """)
+    List<Long> findIdsByTipoProductoIdAndEstadoId(@Param("tipoProductoId") Long tipoProductoId,
+                                                  @Param("estadoId") Long estadoId);
+
     // =========================================================
     // SAGAS — queries livianas (solo strings, no entidades)
     // =========================================================
@@ -246,7 +605,7 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
 
     /**
      * Devuelve los IDs de productos de una saga, ordenados por id ASC.
-     * Usar junto a findByIdFull() para cargar el detalle completo de cada producto.
+     * Usar junto a ProductoDetalleLoteService para cargar el detalle completo.
      */
     @Query("""
         SELECT p.id FROM ProductoModel p
@@ -256,4 +615,29 @@ public interface ProductoRepository extends JpaRepository<ProductoModel, Long> {
     List<Long> findIdsBySagaIgnoreCase(@Param("saga") String saga);
 
     boolean existsByLinksCompraUrl(String url);
+
+    // =========================================================
+    // PORTADA DESNORMALIZADA — backfill de imagen_portada
+    // =========================================================
+
+    /**
+     * Copia en imagen_portada la ruta de la primera imagen (menor id) de
+     * los productos con id entre desde y hasta que aún no la tienen.
+     * Se ejecuta por tramos para no bloquear toda la tabla en catálogos grandes.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+        UPDATE ProductoModel p
+        SET p.imagenPortada = (
+            SELECT img.ruta FROM ImagenesModel img
+            WHERE img.id = (SELECT MIN(i2.id) FROM ImagenesModel i2 WHERE i2.producto = p)
+        )
+        WHERE p.id BETWEEN :desde AND :hasta
+          AND p.imagenPortada IS NULL
+    """)
+    int recalcularImagenPortada(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM ProductoModel p")
+    Long obtenerMaxId();
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.NoLimits.Multimedia.repository.scraping;
+
+import com.example.NoLimits.Multimedia.model.scraping.SteamPrecioCacheModel;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SteamPrecioCacheRepository extends JpaRepository<SteamPrecioCacheModel, String> {
+}
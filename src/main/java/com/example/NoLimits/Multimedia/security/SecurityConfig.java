@@ -44,6 +44,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.POST, "/api/v1/usuarios").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/v1/usuarios/registro").permitAll()
                 .requestMatchers("/api/chatbot/**").permitAll()
+                .requestMatchers("/api/embeddings/indice/**").hasAnyAuthority("ROLE_ADMIN", "ADMIN")
                 .requestMatchers("/api/embeddings/**").permitAll()
                 .requestMatchers("/api/scraping/**").permitAll()
                 .requestMatchers("/api/igdb/**").permitAll()
@@ -64,6 +65,8 @@ public class SecurityConfig {
                     "/api/v1/productos/**"
                 ).permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/v1/reviews/obra/**").permitAll()
+                // Importación masiva: miles de productos por petición (y un scrape de Steam por cada uno)
+                .requestMatchers(HttpMethod.POST, "/api/v1/productos/importar").hasAnyAuthority("ROLE_ADMIN", "ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
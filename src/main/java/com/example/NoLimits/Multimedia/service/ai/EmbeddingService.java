@@ -1,23 +1,114 @@
+// ¿Para qué sirve?
+//   Embeddings de OpenAI (text-embedding-3-small) para la búsqueda vectorial
+//   del chatbot y los indexadores. Antes cada texto era una llamada a la API,
+//   aunque fuera la misma pregunta de hace un minuto o la misma ficha de
+//   producto re-indexada tras un refresco de precios.
+//
+// ¿Cómo?
+//   - Clave: SHA-256 de modelo + texto (textos iguales = mismo vector).
+//   - Memoria: LRU de float[] con tope embeddings.cache.max-entradas.
+//   - Tabla embedding_cache: si no está en memoria se busca ahí; cada vector
+//     nuevo se guarda, así la caché sobrevive a un reinicio.
+//   - Peticiones simultáneas del mismo texto comparten UNA llamada a OpenAI.
+//   Un vector de un texto no cambia mientras no cambie el modelo, así que
+//   no hay TTL.
+//
+// Por lotes (generarEmbeddings, lo usan los indexadores vía
+// IndexacionEmbeddings): los textos que no están en caché se reparten en
+// lotes con tope de textos y de tokens estimados, y cada lote es UNA
+// petición con un arreglo de inputs. Hasta embeddings.lote.paralelos lotes
+// en vuelo a la vez. Un 429 (rate limit) se reintenta con espera
+// exponencial + azar, hasta embeddings.lote.max-reintentos veces.
+
 package com.example.NoLimits.Multimedia.service.ai;
 
+import com.example.NoLimits.Multimedia.model.ai.EmbeddingCacheModel;
+import com.example.NoLimits.Multimedia.repository.ai.EmbeddingCacheRepository;
 import com.openai.client.OpenAIClient;
 import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.errors.RateLimitException;
+import com.openai.models.embeddings.Embedding;
 import com.openai.models.embeddings.EmbeddingCreateParams;
 import com.openai.models.embeddings.CreateEmbeddingResponse;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Service
 public class EmbeddingService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingService.class);
+
+    private static final String MODELO = "text-embedding-3-small";
+
     private OpenAIClient client;
 
     @Value("${openai.api-key}")
     private String openAiApiKey;
 
+    @Autowired
+    private EmbeddingCacheRepository cacheRepository;
+
+    private final int maxEntradas;
+    private final int maxTextosLote;
+    // Estimado (caracteres / 3); el tope real de la API es 300.000 por petición
+    private final int maxTokensLote;
+    private final int maxReintentos;
+    private final long esperaBaseMs;
+
+    // Orden de acceso = LRU; se usa siempre bajo synchronized (memoria)
+    private final LinkedHashMap<String, float[]> memoria = new LinkedHashMap<>(256, 0.75f, true);
+
+    // hash -> llamada a OpenAI en curso (una por texto)
+    private final Map<String, CompletableFuture<float[]>> enCurso = new ConcurrentHashMap<>();
+
+    // Lotes en vuelo a la vez (embeddings.lote.paralelos)
+    private final ExecutorService lotes;
+
+    public EmbeddingService(@Value("${embeddings.cache.max-entradas:2000}") int maxEntradas,
+                            @Value("${embeddings.lote.max-textos:128}") int maxTextosLote,
+                            @Value("${embeddings.lote.max-tokens:40000}") int maxTokensLote,
+                            @Value("${embeddings.lote.paralelos:4}") int paralelos,
+                            @Value("${embeddings.lote.max-reintentos:5}") int maxReintentos,
+                            @Value("${embeddings.lote.espera-base-ms:1000}") long esperaBaseMs) {
+        this.maxEntradas = maxEntradas;
+        this.maxTextosLote = maxTextosLote;
+        this.maxTokensLote = maxTokensLote;
+        this.maxReintentos = maxReintentos;
+        this.esperaBaseMs = esperaBaseMs;
+        this.lotes = Executors.newFixedThreadPool(paralelos, tarea -> {
+            Thread hilo = new Thread(tarea, "embeddings-lote");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
     @PostConstruct
     public void init() {
         this.client = OpenAIOkHttpClient.builder()
@@ -25,15 +116,293 @@ public class EmbeddingService {
                 .build();
     }
 
-    public List<Float> generarEmbedding(String texto) {
+    @PreDestroy
+    public void detener() {
+        lotes.shutdownNow();
+    }
+
+    /**
+     * Embedding del texto. El arreglo es el mismo que queda en la caché
+     * (no se copia): solo lectura.
+     */
+    public float[] generarEmbedding(String texto) {
+        return vectorDe(texto);
+    }
+
+    /**
+     * Embeddings de varios textos, en el mismo orden (solo lectura, como
+     * generarEmbedding). Lo que ya está en caché no se pide; el resto va en
+     * lotes paralelos. Si falla algún lote se lanza su excepción (los
+     * vectores de los otros quedan en caché).
+     */
+    public List<float[]> generarEmbeddings(List<String> textos) {
+        String[] claves = new String[textos.size()];
+        float[][] vectores = new float[textos.size()][];
+        List<String> sinMemoria = new ArrayList<>();
+
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = hash(textos.get(i));
+            synchronized (memoria) {
+                vectores[i] = memoria.get(claves[i]);
+            }
+            if (vectores[i] == null) sinMemoria.add(claves[i]);
+        }
+
+        Map<String, float[]> encontrados = buscarEnTabla(sinMemoria);
+
+        // Una petición por clave: propias (se piden aquí) o ya en curso
+        Map<String, CompletableFuture<float[]>> peticiones = new HashMap<>();
+        List<Pendiente> propias = new ArrayList<>();
+        for (int i = 0; i < claves.length; i++) {
+            if (vectores[i] != null) continue;
+            vectores[i] = encontrados.get(claves[i]);
+            if (vectores[i] != null || peticiones.containsKey(claves[i])) continue;
+
+            CompletableFuture<float[]> nueva = new CompletableFuture<>();
+            CompletableFuture<float[]> existente = enCurso.putIfAbsent(claves[i], nueva);
+            peticiones.put(claves[i], existente != null ? existente : nueva);
+            if (existente == null) propias.add(new Pendiente(claves[i], textos.get(i), nueva));
+        }
+
+        for (List<Pendiente> lote : armarLotes(propias)) {
+            try {
+                lotes.execute(() -> pedirLote(lote));
+            } catch (RejectedExecutionException e) {
+                // Apagando: se pide en este hilo para no dejar futuros colgados
+                pedirLote(lote);
+            }
+        }
+
+        RuntimeException primerError = null;
+        for (int i = 0; i < claves.length; i++) {
+            if (vectores[i] != null) continue;
+            try {
+                vectores[i] = esperar(peticiones.get(claves[i]));
+            } catch (RuntimeException e) {
+                if (primerError == null) primerError = e;
+            }
+        }
+        if (primerError != null) throw primerError;
+
+        return Arrays.asList(vectores);
+    }
+
+    /* ================= CACHÉ ================= */
+
+    private float[] vectorDe(String texto) {
+        String clave = hash(texto);
 
+        float[] vector = buscar(clave);
+        if (vector != null) return vector;
+
+        CompletableFuture<float[]> nueva = new CompletableFuture<>();
+        CompletableFuture<float[]> existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) return esperar(existente);
+
+        try {
+            vector = pedirAOpenAI(texto);
+            recordar(clave, vector);
+            persistir(List.of(new EmbeddingCacheModel(clave, MODELO, aBytes(vector), LocalDateTime.now())));
+            nueva.complete(vector);
+            return vector;
+        } catch (RuntimeException e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nueva);
+        }
+    }
+
+    private float[] pedirAOpenAI(String texto) {
         EmbeddingCreateParams params = EmbeddingCreateParams.builder()
-                .model("text-embedding-3-small")
+                .model(MODELO)
                 .input(texto)
                 .build();
 
-        CreateEmbeddingResponse response = client.embeddings().create(params);
+        CreateEmbeddingResponse response = conReintentos(params);
+        return aArreglo(response.data().get(0).embedding());
+    }
+
+    /* ================= LOTES ================= */
+
+    /** Corta en lotes con tope de textos y de tokens estimados. */
+    private List<List<Pendiente>> armarLotes(List<Pendiente> pendientes) {
+        List<List<Pendiente>> resultado = new ArrayList<>();
+        List<Pendiente> actual = new ArrayList<>();
+        int tokens = 0;
+
+        for (Pendiente pendiente : pendientes) {
+            int estimado = pendiente.texto.length() / 3 + 1;
+            if (!actual.isEmpty() && (actual.size() >= maxTextosLote || tokens + estimado > maxTokensLote)) {
+                resultado.add(actual);
+                actual = new ArrayList<>();
+                tokens = 0;
+            }
+            actual.add(pendiente);
+            tokens += estimado;
+        }
+        if (!actual.isEmpty()) resultado.add(actual);
+        return resultado;
+    }
+
+    /** Una petición con todos los textos del lote; completa sus futuros. */
+    private void pedirLote(List<Pendiente> lote) {
+        try {
+            List<String> inputs = new ArrayList<>(lote.size());
+            for (Pendiente pendiente : lote) inputs.add(pendiente.texto);
+
+            EmbeddingCreateParams params = EmbeddingCreateParams.builder()
+                    .model(MODELO)
+                    .inputOfArrayOfStrings(inputs)
+                    .build();
+
+            // La API devuelve un embedding por input, con su índice
+            float[][] vectores = new float[lote.size()][];
+            for (Embedding embedding : conReintentos(params).data()) {
+                vectores[(int) embedding.index()] = aArreglo(embedding.embedding());
+            }
+
+            List<EmbeddingCacheModel> filas = new ArrayList<>(lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                if (vectores[i] == null) throw new IllegalStateException("OpenAI no devolvió el embedding " + i + " del lote");
+                recordar(lote.get(i).clave, vectores[i]);
+                filas.add(new EmbeddingCacheModel(lote.get(i).clave, MODELO, aBytes(vectores[i]), LocalDateTime.now()));
+            }
+            persistir(filas);
+
+            for (int i = 0; i < lote.size(); i++) lote.get(i).futuro.complete(vectores[i]);
+        } catch (Throwable e) {
+            for (Pendiente pendiente : lote) pendiente.futuro.completeExceptionally(e);
+        } finally {
+            for (Pendiente pendiente : lote) enCurso.remove(pendiente.clave, pendiente.futuro);
+        }
+    }
+
+    /** 429 → espera base × 2^intento (+ azar) y reintenta. */
+    private CreateEmbeddingResponse conReintentos(EmbeddingCreateParams params) {
+        for (int intento = 0; ; intento++) {
+            try {
+                return client.embeddings().create(params);
+            } catch (RateLimitException e) {
+                if (intento >= maxReintentos) throw e;
+                long espera = (esperaBaseMs << intento) + ThreadLocalRandom.current().nextLong(esperaBaseMs + 1);
+                log.warn("OpenAI embeddings 429, reintento {} en {} ms", intento + 1, espera);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException interrumpido) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private float[] esperar(CompletableFuture<float[]> peticion) {
+        try {
+            return peticion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            throw e;
+        }
+    }
+
+    /* ================= ALMACENAMIENTO ================= */
+
+    private float[] buscar(String clave) {
+        synchronized (memoria) {
+            float[] vector = memoria.get(clave);
+            if (vector != null) return vector;
+        }
+
+        try {
+            EmbeddingCacheModel fila = cacheRepository.findById(clave).orElse(null);
+            if (fila == null || !MODELO.equals(fila.getModelo())) return null;
+
+            float[] vector = desdeBytes(fila.getVector());
+            recordar(clave, vector);
+            return vector;
+        } catch (Exception e) {
+            log.warn("No se pudo leer embedding_cache {}: {}", clave, e.getMessage());
+            return null;
+        }
+    }
+
+    private void recordar(String clave, float[] vector) {
+        synchronized (memoria) {
+            memoria.put(clave, vector);
+            Iterator<String> menosUsadas = memoria.keySet().iterator();
+            while (memoria.size() > maxEntradas && menosUsadas.hasNext()) {
+                menosUsadas.next();
+                menosUsadas.remove();
+            }
+        }
+    }
+
+    private Map<String, float[]> buscarEnTabla(List<String> claves) {
+        Map<String, float[]> encontrados = new HashMap<>();
+        if (claves.isEmpty()) return encontrados;
+        try {
+            for (EmbeddingCacheModel fila : cacheRepository.findAllById(claves)) {
+                if (!MODELO.equals(fila.getModelo())) continue;
+                float[] vector = desdeBytes(fila.getVector());
+                recordar(fila.getHash(), vector);
+                encontrados.put(fila.getHash(), vector);
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo leer embedding_cache ({} claves): {}", claves.size(), e.getMessage());
+        }
+        return encontrados;
+    }
+
+    private void persistir(List<EmbeddingCacheModel> filas) {
+        try {
+            cacheRepository.saveAll(filas);
+        } catch (Exception e) {
+            log.warn("No se pudo guardar embedding_cache ({} filas): {}", filas.size(), e.getMessage());
+        }
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private static String hash(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(MODELO.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** La lista en caja del SDK se descarta apenas se copia. */
+    private static float[] aArreglo(List<Float> embedding) {
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) vector[i] = embedding.get(i);
+        return vector;
+    }
+
+    private static byte[] aBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] desdeBytes(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    private static class Pendiente {
+        final String clave;
+        final String texto;
+        final CompletableFuture<float[]> futuro;
 
-        return response.data().get(0).embedding();
+        Pendiente(String clave, String texto, CompletableFuture<float[]> futuro) {
+            this.clave = clave;
+            this.texto = texto;
+            this.futuro = futuro;
+        }
     }
-}
\ No newline at end of file
+}
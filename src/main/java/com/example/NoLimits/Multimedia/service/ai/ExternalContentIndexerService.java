@@ -3,12 +3,16 @@ package com.example.NoLimits.Multimedia.service.ai;
 import com.example.NoLimits.Multimedia.service.igdb.IgdbTokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -20,7 +24,16 @@ public class ExternalContentIndexerService {
     private final JdbcTemplate jdbcTemplate;
     private final EmbeddingService embeddingService;
     private final IgdbTokenService igdbTokenService;
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("indexadorRestTemplate")
+    private RestTemplate restTemplate;
+
+    // Las respuestas del chatbot guardadas dependen de producto_embeddings
+    @Autowired
+    private RespuestaIaCacheService respuestaIaCache;
+
+    @Value("${embeddings.indexacion.lote:500}")
+    private int tamanoLote = 500;
 
     @Value("${tmdb.token}")
     private String tmdbToken;
@@ -43,7 +56,7 @@ public class ExternalContentIndexerService {
     // ─── TMDB PELÍCULAS — más populares ────────────────────────────────────────
     @SuppressWarnings("unchecked")
     public int indexarPeliculasTMDB() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             for (int page = 1; page <= 5; page++) {
                 // popular = ordenado por popularidad real, no por rating
@@ -68,8 +81,7 @@ public class ExternalContentIndexerService {
                                 Año: %s
                                 Fuente: TMDB
                                 """.formatted(titulo, descripcion, rating, popularidad, año);
-                        guardarEmbeddingExterno(titulo, contenido, "TMDB");
-                        contador++;
+                        tuberia.agregar(new String[]{titulo, contenido, "TMDB"}, contenido);
                     } catch (Exception e) {
                         log.warn("Error indexando película TMDB: {}", e.getMessage());
                     }
@@ -78,13 +90,13 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar películas TMDB: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
     }
 
     // ─── TMDB SERIES — más populares ───────────────────────────────────────────
     @SuppressWarnings("unchecked")
     public int indexarSeriesTMDB() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             for (int page = 1; page <= 3; page++) {
                 String url = "https://api.themoviedb.org/3/tv/popular?api_key=" + tmdbToken + "&language=es-CL&page=" + page;
@@ -108,8 +120,7 @@ public class ExternalContentIndexerService {
                                 Año: %s
                                 Fuente: TMDB
                                 """.formatted(titulo, descripcion, rating, popularidad, año);
-                        guardarEmbeddingExterno(titulo, contenido, "TMDB");
-                        contador++;
+                        tuberia.agregar(new String[]{titulo, contenido, "TMDB"}, contenido);
                     } catch (Exception e) {
                         log.warn("Error indexando serie TMDB: {}", e.getMessage());
                     }
@@ -118,13 +129,13 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar series TMDB: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
     }
 
     // ─── RAWG — ordenado por cantidad de jugadores (más populares) ─────────────
     @SuppressWarnings("unchecked")
     public int indexarJuegosRAWG() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             for (int page = 1; page <= 5; page++) {
                 // -added = más jugadores que lo tienen en su lista (popularidad real)
@@ -159,8 +170,7 @@ public class ExternalContentIndexerService {
                                 Plataformas: %s
                                 Fuente: RAWG
                                 """.formatted(titulo, rating, año, added, generos, plataformas);
-                        guardarEmbeddingExterno(titulo, contenido, "RAWG");
-                        contador++;
+                        tuberia.agregar(new String[]{titulo, contenido, "RAWG"}, contenido);
                     } catch (Exception e) {
                         log.warn("Error indexando juego RAWG: {}", e.getMessage());
                     }
@@ -169,13 +179,13 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar juegos RAWG: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
     }
 
     // ─── IGDB — populares por cantidad de votos (hypes + rating_count) ─────────
     @SuppressWarnings("unchecked")
     public int indexarJuegosIGDB() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             String token = igdbTokenService.getAccessToken();
             HttpHeaders headers = new HttpHeaders();
@@ -186,7 +196,7 @@ public class ExternalContentIndexerService {
             String body = "fields name,summary,genres.name,platforms.name,rating,rating_count,first_release_date; where rating_count > 100; sort rating_count desc; limit 100;";
             HttpEntity<String> entity = new HttpEntity<>(body, headers);
             ResponseEntity<List> response = restTemplate.exchange("https://api.igdb.com/v4/games", HttpMethod.POST, entity, List.class);
-            if (response.getBody() == null) return 0;
+            if (response.getBody() == null) return tuberia.terminar();
             for (Object item : response.getBody()) {
                 try {
                     Map<String, Object> game = (Map<String, Object>) item;
@@ -214,8 +224,7 @@ public class ExternalContentIndexerService {
                             Plataformas: %s
                             Fuente: IGDB
                             """.formatted(titulo, resumen, rating, ratingCount, generos, plataformas);
-                    guardarEmbeddingExterno(titulo, contenido, "IGDB");
-                    contador++;
+                    tuberia.agregar(new String[]{titulo, contenido, "IGDB"}, contenido);
                 } catch (Exception e) {
                     log.warn("Error indexando juego IGDB: {}", e.getMessage());
                 }
@@ -223,13 +232,13 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar juegos IGDB: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
     }
 
     // ─── JIKAN — top anime por POPULARIDAD (no por score) ──────────────────────
     @SuppressWarnings("unchecked")
     public int indexarAnimeJikan() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             for (int page = 1; page <= 5; page++) {
                 // type=bypopularity = ordenado por miembros que lo siguen en MAL
@@ -262,9 +271,7 @@ public class ExternalContentIndexerService {
                                 Géneros: %s
                                 Fuente: JIKAN
                                 """.formatted(titulo, tituloEn, synopsis, score, miembros, año, generos);
-                        guardarEmbeddingExterno(titulo, contenido, "JIKAN");
-                        contador++;
-                        Thread.sleep(400);
+                        tuberia.agregar(new String[]{titulo, contenido, "JIKAN"}, contenido);
                     } catch (Exception e) {
                         log.warn("Error indexando anime Jikan: {}", e.getMessage());
                     }
@@ -274,13 +281,13 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar anime Jikan: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
     }
 
     // ─── OPENLIBRARY — temas populares + sagas famosas ─────────────────────────
     @SuppressWarnings("unchecked")
     public int indexarLibrosOpenLibrary() {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         // Temas generales
         String[] temas = {"fantasy", "science_fiction", "romance", "thriller", "horror", "adventure", "mystery"};
         try {
@@ -307,8 +314,7 @@ public class ExternalContentIndexerService {
                                 Género: %s
                                 Fuente: OPENLIBRARY
                                 """.formatted(titulo, autores, año, tema);
-                        guardarEmbeddingExterno(titulo, contenido, "OPENLIBRARY");
-                        contador++;
+                        tuberia.agregar(new String[]{titulo, contenido, "OPENLIBRARY"}, contenido);
                     } catch (Exception e) {
                         log.warn("Error indexando libro OpenLibrary: {}", e.getMessage());
                     }
@@ -318,6 +324,7 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar libros OpenLibrary: {}", e.getMessage());
         }
+        int contador = tuberia.terminar();
 
         // Sagas y autores famosos específicos
         String[] queries = {
@@ -335,13 +342,13 @@ public class ExternalContentIndexerService {
 
     @SuppressWarnings("unchecked")
     public int indexarLibrosBusqueda(String query) {
-        int contador = 0;
+        IndexacionEmbeddings<String[]> tuberia = nuevaTuberia();
         try {
             String url = "https://openlibrary.org/search.json?q=" + query.replace(" ", "+") + "&limit=20&sort=editions";
             ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-            if (response.getBody() == null) return 0;
+            if (response.getBody() == null) return tuberia.terminar();
             List<Map<String, Object>> docs = (List<Map<String, Object>>) response.getBody().get("docs");
-            if (docs == null) return 0;
+            if (docs == null) return tuberia.terminar();
             for (Map<String, Object> book : docs) {
                 try {
                     String titulo = (String) book.getOrDefault("title", "Sin título");
@@ -358,8 +365,7 @@ public class ExternalContentIndexerService {
                             Géneros: %s
                             Fuente: OPENLIBRARY
                             """.formatted(titulo, autores, año, generos);
-                    guardarEmbeddingExterno(titulo, contenido, "OPENLIBRARY");
-                    contador++;
+                    tuberia.agregar(new String[]{titulo, contenido, "OPENLIBRARY"}, contenido);
                 } catch (Exception e) {
                     log.warn("Error indexando libro búsqueda: {}", e.getMessage());
                 }
@@ -367,18 +373,32 @@ public class ExternalContentIndexerService {
         } catch (Exception e) {
             log.error("Error al indexar libros por búsqueda: {}", e.getMessage());
         }
-        return contador;
+        return tuberia.terminar();
+    }
+
+    // Tubería de indexación: embeddings por lotes y un batchUpdate por lote
+    private IndexacionEmbeddings<String[]> nuevaTuberia() {
+        return new IndexacionEmbeddings<>(embeddingService, tamanoLote, this::guardarLoteExterno).iniciar();
     }
 
-    private void guardarEmbeddingExterno(String titulo, String contenido, String fuente) {
-        List<Float> embedding = embeddingService.generarEmbedding(contenido);
-        String vector = embedding.toString();
+    /** Filas {titulo, contenido, fuente} con sus embeddings; las repetidas se ignoran. */
+    private void guardarLoteExterno(List<String[]> filas, List<float[]> embeddings) {
         String sql = """
                 INSERT INTO producto_embeddings (producto_id, titulo, contenido, embedding, fuente)
                 VALUES (NULL, ?, ?, ?::vector, ?)
                 ON CONFLICT DO NOTHING
                 """;
-        jdbcTemplate.update(sql, titulo, contenido, vector, fuente);
+        List<Object[]> parametros = new ArrayList<>(filas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            String[] fila = filas.get(i);
+            parametros.add(new Object[]{fila[0], fila[1], PgVectorFormato.aTexto(embeddings.get(i)), fila[2]});
+        }
+
+        int[] insertadas = jdbcTemplate.batchUpdate(sql, parametros);
+        // El driver puede informar SUCCESS_NO_INFO (-2): se cuenta como cambio
+        if (insertadas != null && Arrays.stream(insertadas).anyMatch(c -> c != 0)) {
+            respuestaIaCache.invalidar();
+        }
     }
 
     public Map<String, Integer> indexarTodo() {
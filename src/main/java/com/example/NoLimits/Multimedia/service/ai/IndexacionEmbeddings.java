@@ -0,0 +1,152 @@
+// ¿Para qué sirve?
+//   Tubería productor/consumidor para los trabajos de indexación masiva
+//   (ProductoEmbeddingService.indexarTodosLosProductos y los indexar* de
+//   ExternalContentIndexerService). Antes cada título era un embedding y un
+//   INSERT, uno detrás de otro, intercalados con las llamadas a las APIs.
+//
+// ¿Cómo?
+//   - El productor (el hilo que recorre el ResultSet o pagina TMDB, RAWG...)
+//     llama agregar(item, texto); cada "tamanoLote" items se encola un lote.
+//   - Un hilo consumidor toma los lotes, pide todos los embeddings juntos
+//     (EmbeddingService.generarEmbeddings: lotes paralelos a OpenAI) y los
+//     escribe con el Escritor (un batchUpdate).
+//   - La cola guarda a lo más 2 lotes: si OpenAI va más lento que el
+//     productor, el productor espera en vez de llenar la memoria. La espera
+//     es por tramos: si el consumidor murió (un Error, no una excepción de
+//     un lote) el productor falla en vez de quedarse bloqueado para siempre.
+//   - Un lote que falla se registra en el log y se sigue con el siguiente.
+//   iniciar() arranca el consumidor; terminar() encola lo que quede, espera
+//   al consumidor y devuelve cuántos items se escribieron.
+//
+// No es un bean: se crea una por trabajo de indexación.
+
+package com.example.NoLimits.Multimedia.service.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class IndexacionEmbeddings<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexacionEmbeddings.class);
+
+    // Cada cuánto el productor que espera revisa si el consumidor sigue vivo
+    private static final long REVISION_MS = 500;
+
+    /** Escribe un lote ya con sus embeddings (mismo orden que los items). */
+    public interface Escritor<T> {
+        void escribir(List<T> items, List<float[]> embeddings);
+    }
+
+    private final EmbeddingService embeddingService;
+    private final Escritor<T> escritor;
+    private final int tamanoLote;
+
+    private final BlockingQueue<Lote<T>> cola = new ArrayBlockingQueue<>(2);
+    private Thread consumidor;
+    private Lote<T> actual = new Lote<>();
+    private volatile int escritos;
+    private volatile Throwable falloConsumidor;
+
+    public IndexacionEmbeddings(EmbeddingService embeddingService, int tamanoLote, Escritor<T> escritor) {
+        this.embeddingService = embeddingService;
+        this.tamanoLote = tamanoLote;
+        this.escritor = escritor;
+    }
+
+    /** Arranca el hilo consumidor; se llama una vez, antes del primer agregar. */
+    public IndexacionEmbeddings<T> iniciar() {
+        if (consumidor != null) throw new IllegalStateException("La indexación ya se inició");
+        consumidor = new Thread(this::consumir, "indexacion-embeddings");
+        consumidor.setDaemon(true);
+        consumidor.start();
+        return this;
+    }
+
+    /** Agrega un item con el texto a embeber; puede esperar si la cola está llena. */
+    public void agregar(T item, String texto) {
+        actual.items.add(item);
+        actual.textos.add(texto);
+        if (actual.items.size() >= tamanoLote) {
+            encolar(actual);
+            actual = new Lote<>();
+        }
+    }
+
+    /** Envía lo pendiente, espera a que se escriba todo y devuelve el total escrito. */
+    public int terminar() {
+        if (consumidor == null) return 0;
+        if (!actual.items.isEmpty()) encolar(actual);
+        actual = new Lote<>();
+        encolar(Lote.fin());
+        try {
+            consumidor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            consumidor.interrupt();
+        }
+        return escritos;
+    }
+
+    private void encolar(Lote<T> lote) {
+        if (consumidor == null) throw new IllegalStateException("La indexación no se inició (falta iniciar())");
+        try {
+            while (!cola.offer(lote, REVISION_MS, TimeUnit.MILLISECONDS)) {
+                if (!consumidor.isAlive()) {
+                    throw new IllegalStateException("El consumidor de la indexación terminó", falloConsumidor);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Indexación interrumpida", e);
+        }
+    }
+
+    private void consumir() {
+        try {
+            while (true) {
+                Lote<T> lote = cola.take();
+                if (lote.esFin()) return;
+                try {
+                    escritor.escribir(lote.items, embeddingService.generarEmbeddings(lote.textos));
+                    escritos += lote.items.size();
+                } catch (RuntimeException e) {
+                    log.warn("Lote de {} embeddings no indexado: {}", lote.items.size(), e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            falloConsumidor = e;
+            log.error("Consumidor de la indexación de embeddings detenido: {}", e.toString());
+            throw e;
+        }
+    }
+
+    private static class Lote<T> {
+        final List<T> items;
+        final List<String> textos;
+
+        Lote() {
+            this(new ArrayList<>(), new ArrayList<>());
+        }
+
+        private Lote(List<T> items, List<String> textos) {
+            this.items = items;
+            this.textos = textos;
+        }
+
+        static <T> Lote<T> fin() {
+            return new Lote<>(null, null);
+        }
+
+        boolean esFin() {
+            return items == null;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+// ¿Para qué sirve?
+//   Índice aproximado (ANN) de pgvector sobre producto_embeddings.embedding.
+//   Sin índice, cada pregunta del chatbot (buscarSimilares) recorre toda la
+//   tabla: productos + títulos externos de TMDB, RAWG, IGDB, Jikan...
+//
+// ¿Cómo?
+//   - Al iniciar, si no hay índice, lo crea con embeddings.indice.tipo
+//     (hnsw | ivfflat) y vector_cosine_ops, el mismo operador <=> que usan
+//     las búsquedas. IVFFlat no se crea con la tabla vacía (sus listas se
+//     entrenan con los datos que hay).
+//   - reconstruir(tipo): crea el índice nuevo CONCURRENTLY con otro nombre,
+//     borra el viejo y renombra; las búsquedas siguen mientras tanto.
+//     IVFFlat conviene reconstruirlo después de una indexación masiva.
+//   - conAjuste(efSearch, probes, consulta): corre la consulta en una
+//     transacción con SET LOCAL hnsw.ef_search o ivfflat.probes (según el
+//     índice que exista). Más alto = más recall y más lento. Es el camino de
+//     /api/embeddings/buscar (público): se puede pedir menos que lo
+//     configurado, no más; valores más altos solo se prueban desde
+//     /api/embeddings/indice (administradores).
+//   - estado(k, muestras, ...): tamaño del índice y recall@k estimado. Toma
+//     "muestras" embeddings de la tabla como preguntas y compara los k
+//     vecinos del índice con los de la búsqueda exacta (enable_indexscan off).
+//     La fila de la pregunta no cuenta como vecino: las dos búsquedas la
+//     encuentran siempre primero y el recall saldría inflado.
+//
+// Propiedades: embeddings.indice.* en application.properties.
+
+package com.example.NoLimits.Multimedia.service.ai;
+
+import lombok.Getter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+@Service
+public class IndiceVectorialService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndiceVectorialService.class);
+
+    static final String NOMBRE = "producto_embeddings_embedding_idx";
+    private static final String NOMBRE_NUEVO = NOMBRE + "_nuevo";
+
+    private static final String SQL_VECINOS = """
+            SELECT id
+            FROM producto_embeddings
+            ORDER BY embedding <=> ?::vector
+            LIMIT ?
+            """;
+
+    public enum TipoIndice {
+        HNSW, IVFFLAT;
+
+        public static TipoIndice desde(String tipo) {
+            try {
+                return valueOf(tipo.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Tipo de índice no soportado: " + tipo + " (hnsw | ivfflat)");
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaccion;
+
+    @Value("${embeddings.indice.tipo:hnsw}")
+    private String tipoConfigurado = "hnsw";
+
+    @Value("${embeddings.indice.crear-al-iniciar:true}")
+    private boolean crearAlIniciar = true;
+
+    @Value("${embeddings.indice.hnsw.m:16}")
+    private int hnswM = 16;
+
+    @Value("${embeddings.indice.hnsw.ef-construction:64}")
+    private int hnswEfConstruction = 64;
+
+    // 0 = según las filas (recomendación de pgvector)
+    @Value("${embeddings.indice.ivfflat.listas:0}")
+    private int ivfflatListas = 0;
+
+    @Value("${embeddings.indice.ef-search:40}")
+    private int efSearch = 40;
+
+    @Value("${embeddings.indice.probes:10}")
+    private int probes = 10;
+
+    // Índice que existe hoy; null = no hay y las búsquedas son exactas
+    private volatile TipoIndice tipoActual;
+
+    private final AtomicBoolean reconstruyendo = new AtomicBoolean();
+
+    public IndiceVectorialService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            tipoActual = detectarTipo();
+            if (tipoActual != null || !crearAlIniciar) return;
+
+            TipoIndice tipo = TipoIndice.desde(tipoConfigurado);
+            if (tipo == TipoIndice.IVFFLAT && contarFilas() == 0) return;
+            reconstruir(tipo);
+        } catch (RuntimeException e) {
+            // Sin pgvector (ej: H2 en tests) o sin permisos: se sigue con búsqueda exacta
+            log.warn("Índice vectorial no disponible: {}", e.getMessage());
+        }
+    }
+
+    /* ================= CONSULTAS ================= */
+
+    /**
+     * Corre la consulta con ef_search (HNSW) o probes (IVFFlat); null = valor
+     * de application.properties, y lo pedido no pasa de ese valor. Sin índice
+     * se corre tal cual.
+     */
+    public <T> T conAjuste(Integer efSearch, Integer probes, Supplier<T> consulta) {
+        return ajustar(acotar(efSearch, this.efSearch), acotar(probes, this.probes), consulta);
+    }
+
+    // Sin tope: solo para la estimación de recall del endpoint de administración
+    private <T> T ajustar(Integer efSearch, Integer probes, Supplier<T> consulta) {
+        TipoIndice tipo = tipoActual;
+        if (tipo == null) return consulta.get();
+
+        String parametro = tipo == TipoIndice.HNSW ? "hnsw.ef_search" : "ivfflat.probes";
+        int valor = tipo == TipoIndice.HNSW
+                ? validar("efSearch", efSearch != null ? efSearch : this.efSearch, 1000)
+                : validar("probes", probes != null ? probes : this.probes, 32768);
+
+        return transaccion.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config(?, ?, true)", String.class, parametro, String.valueOf(valor));
+            return consulta.get();
+        });
+    }
+
+    /* ================= ADMINISTRACIÓN ================= */
+
+    /** Crea (o reemplaza) el índice sin bloquear las búsquedas. */
+    public EstadoIndice reconstruir(TipoIndice tipo) {
+        if (!reconstruyendo.compareAndSet(false, true)) {
+            throw new IllegalStateException("Ya hay una reconstrucción del índice vectorial en curso");
+        }
+        try {
+            long inicio = System.currentTimeMillis();
+            String definicion = definicion(tipo, contarFilas());
+
+            // CONCURRENTLY no puede ir en una transacción: JdbcTemplate va en autocommit
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + NOMBRE_NUEVO);
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY " + NOMBRE_NUEVO + " ON producto_embeddings " + definicion);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + NOMBRE);
+            jdbcTemplate.execute("ALTER INDEX " + NOMBRE_NUEVO + " RENAME TO " + NOMBRE);
+            tipoActual = tipo;
+
+            log.info("Índice vectorial {} listo en {} ms: {}", NOMBRE, System.currentTimeMillis() - inicio, definicion);
+            return estado(0, 0, null, null);
+        } finally {
+            reconstruyendo.set(false);
+        }
+    }
+
+    public EstadoIndice reconstruir() {
+        return reconstruir(TipoIndice.desde(tipoConfigurado));
+    }
+
+    /** Tamaño del índice y, si muestras > 0, recall@k contra la búsqueda exacta. */
+    public EstadoIndice estado(int k, int muestras, Integer efSearch, Integer probes) {
+        tipoActual = detectarTipo();
+
+        String definicion = jdbcTemplate.query(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = ?",
+                rs -> rs.next() ? rs.getString(1) : null, NOMBRE);
+        Long tamano = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(pg_relation_size(to_regclass(?)), 0)", Long.class, NOMBRE);
+
+        Double recall = null;
+        if (tipoActual != null && k > 0 && muestras > 0) {
+            recall = estimarRecall(k, muestras, efSearch, probes);
+        }
+
+        return new EstadoIndice(NOMBRE, tipoActual == null ? null : tipoActual.name().toLowerCase(Locale.ROOT),
+                definicion, contarFilas(), tamano == null ? 0 : tamano, k, muestras, recall);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private double estimarRecall(int k, int muestras, Integer efSearch, Integer probes) {
+        // [id, embedding como texto]
+        List<Object[]> preguntas = jdbcTemplate.query("""
+                SELECT id, embedding::text
+                FROM producto_embeddings
+                WHERE embedding IS NOT NULL
+                ORDER BY random()
+                LIMIT ?
+                """, (rs, fila) -> new Object[] { rs.getLong(1), rs.getString(2) }, muestras);
+
+        long aciertos = 0;
+        long esperados = 0;
+        for (Object[] pregunta : preguntas) {
+            long propio = (Long) pregunta[0];
+            String vector = (String) pregunta[1];
+
+            Set<Long> exactos = new HashSet<>(transaccion.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+                return vecinosSinPropio(vector, propio, k);
+            }));
+            List<Long> aproximados = ajustar(efSearch, probes, () -> vecinosSinPropio(vector, propio, k));
+
+            esperados += exactos.size();
+            aciertos += aproximados.stream().filter(exactos::contains).count();
+        }
+        return esperados == 0 ? 1.0 : (double) aciertos / esperados;
+    }
+
+    /** k vecinos más cercanos sin la fila de la pregunta (se pide uno de más). */
+    private List<Long> vecinosSinPropio(String vector, long propio, int k) {
+        return jdbcTemplate.queryForList(SQL_VECINOS, Long.class, vector, k + 1).stream()
+                .filter(id -> id != propio)
+                .limit(k)
+                .toList();
+    }
+
+    /** USING ... WITH (...) para el CREATE INDEX. */
+    String definicion(TipoIndice tipo, long filas) {
+        if (tipo == TipoIndice.HNSW) {
+            return "USING hnsw (embedding vector_cosine_ops) WITH (m = %d, ef_construction = %d)"
+                    .formatted(hnswM, hnswEfConstruction);
+        }
+        int listas = ivfflatListas > 0 ? ivfflatListas : listasPara(filas);
+        return "USING ivfflat (embedding vector_cosine_ops) WITH (lists = %d)".formatted(listas);
+    }
+
+    // pgvector: filas / 1000 hasta 1M de filas, raíz de las filas después
+    static int listasPara(long filas) {
+        if (filas <= 1_000_000) return (int) Math.max(10, filas / 1000);
+        return (int) Math.sqrt(filas);
+    }
+
+    private TipoIndice detectarTipo() {
+        String metodo = jdbcTemplate.query("""
+                SELECT am.amname
+                FROM pg_class c
+                JOIN pg_am am ON am.oid = c.relam
+                WHERE c.oid = to_regclass(?)
+                """, rs -> rs.next() ? rs.getString(1) : null, NOMBRE);
+        return metodo == null ? null : TipoIndice.desde(metodo);
+    }
+
+    private long contarFilas() {
+        Long filas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM producto_embeddings", Long.class);
+        return filas == null ? 0 : filas;
+    }
+
+    private static Integer acotar(Integer pedido, int configurado) {
+        return pedido == null ? null : Math.min(pedido, configurado);
+    }
+
+    private static int validar(String nombre, int valor, int maximo) {
+        if (valor < 1 || valor > maximo) {
+            throw new IllegalArgumentException(nombre + " debe estar entre 1 y " + maximo);
+        }
+        return valor;
+    }
+
+    /** Respuesta del endpoint de administración del índice. */
+    @Getter
+    public static class EstadoIndice {
+        private final String nombre;
+        private final String tipo;
+        private final String definicion;
+        private final long filas;
+        private final long tamanoBytes;
+        private final int k;
+        private final int muestras;
+        private final Double recall;
+
+        public EstadoIndice(String nombre, String tipo, String definicion, long filas, long tamanoBytes,
+                            int k, int muestras, Double recall) {
+            this.nombre = nombre;
+            this.tipo = tipo;
+            this.definicion = definicion;
+            this.filas = filas;
+            this.tamanoBytes = tamanoBytes;
+            this.k = k;
+            this.muestras = muestras;
+            this.recall = recall;
+        }
+    }
+}
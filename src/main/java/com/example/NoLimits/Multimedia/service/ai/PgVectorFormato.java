@@ -0,0 +1,75 @@
+// ¿Para qué sirve?
+//   Pasa un float[] al texto que entiende pgvector ("[0.1,-0.2,...]") para
+//   los parámetros "?::vector", y de vuelta. Antes se usaba
+//   List<Float>.toString(): 1536 Float en caja, un String por número y un
+//   StringBuilder que crece varias veces, en cada búsqueda e inserción.
+//
+// ¿Cómo?
+//   - StringBuilder.append(float) escribe los dígitos directo en el buffer
+//     (sin String intermedio) y es el mismo formato de Float.toString, así
+//     que el valor vuelve exacto al leerlo.
+//   - Un StringBuilder por hilo, ya con la capacidad de un vector de 1536
+//     dimensiones, se reusa: lo único que se crea por llamada es el String
+//     final.
+//   - Sin espacios después de la coma (pgvector no los necesita).
+//
+// Binario: el driver de Postgres está con scope runtime, así que no hay
+// PGobject/PGBinaryObject en compilación; el texto compacto basta.
+// Benchmark: src/jmh/java (mvn -P jmh ...).
+
+package com.example.NoLimits.Multimedia.service.ai;
+
+public final class PgVectorFormato {
+
+    // ~12 caracteres por float ("-0.012345678,") × 1536
+    private static final int CAPACIDAD_INICIAL = 20_000;
+
+    // Tope para no retener un buffer enorme por hilo tras un vector raro
+    private static final int CAPACIDAD_MAXIMA = 200_000;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(CAPACIDAD_INICIAL));
+
+    private PgVectorFormato() {
+    }
+
+    /** "[v0,v1,...]" para un parámetro ?::vector. */
+    public static String aTexto(float[] vector) {
+        StringBuilder texto = BUFFER.get();
+        texto.setLength(0);
+
+        texto.append('[');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) texto.append(',');
+            texto.append(vector[i]);
+        }
+        texto.append(']');
+
+        String resultado = texto.toString();
+        if (texto.capacity() > CAPACIDAD_MAXIMA) BUFFER.remove();
+        return resultado;
+    }
+
+    /** Lee el texto de una columna vector ("[0.1,0.2]" o "[0.1, 0.2]"). */
+    public static float[] desdeTexto(String texto) {
+        int inicio = texto.indexOf('[') + 1;
+        int fin = texto.lastIndexOf(']');
+        if (fin < 0) fin = texto.length();
+        if (texto.substring(inicio, fin).isBlank()) return new float[0];
+
+        int dimensiones = 1;
+        for (int i = inicio; i < fin; i++) {
+            if (texto.charAt(i) == ',') dimensiones++;
+        }
+
+        float[] vector = new float[dimensiones];
+        int desde = inicio;
+        for (int i = 0; i < dimensiones; i++) {
+            int coma = texto.indexOf(',', desde);
+            int hasta = coma < 0 || coma > fin ? fin : coma;
+            vector[i] = Float.parseFloat(texto.substring(desde, hasta).trim());
+            desde = hasta + 1;
+        }
+        return vector;
+    }
+}
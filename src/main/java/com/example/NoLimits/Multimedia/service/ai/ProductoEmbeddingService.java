@@ -1,35 +1,59 @@
 package com.example.NoLimits.Multimedia.service.ai;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 @Service
 public class ProductoEmbeddingService {
 
+    // Mismo contenido (p. ej. refresco de precios sin cambio): no se toca la fila
+    private static final String SQL_GUARDAR = """
+            INSERT INTO producto_embeddings (producto_id, contenido, embedding)
+            VALUES (?, ?, ?::vector)
+            ON CONFLICT (producto_id)
+            DO UPDATE SET
+                contenido = EXCLUDED.contenido,
+                embedding = EXCLUDED.embedding,
+                fecha_creacion = CURRENT_TIMESTAMP
+            WHERE producto_embeddings.contenido IS DISTINCT FROM EXCLUDED.contenido
+            """;
+
     private final JdbcTemplate jdbcTemplate;
     private final EmbeddingService embeddingService;
 
+    // Las respuestas del chatbot guardadas dependen de esta tabla
+    @Autowired
+    private RespuestaIaCacheService respuestaIaCache;
+
+    // Índice ANN de la columna embedding (ef_search / probes por consulta)
+    @Autowired
+    private IndiceVectorialService indiceVectorial;
+
+    // Productos por lote de la tubería de indexación (embeddings + batchUpdate)
+    @Value("${embeddings.indexacion.lote:500}")
+    private int tamanoLote = 500;
+
     public ProductoEmbeddingService(JdbcTemplate jdbcTemplate, EmbeddingService embeddingService) {
         this.jdbcTemplate = jdbcTemplate;
         this.embeddingService = embeddingService;
     }
 
     public void guardarEmbeddingProducto(Long productoId, String contenido) {
-        List<Float> embedding = embeddingService.generarEmbedding(contenido);
-        String vector = embedding.toString();
+        String vector = PgVectorFormato.aTexto(embeddingService.generarEmbedding(contenido));
 
-        String sql = """
-                INSERT INTO producto_embeddings (producto_id, contenido, embedding)
-                VALUES (?, ?, ?::vector)
-                ON CONFLICT (producto_id)
-                DO UPDATE SET
-                    contenido = EXCLUDED.contenido,
-                    embedding = EXCLUDED.embedding,
-                    fecha_creacion = CURRENT_TIMESTAMP
-                """;
-        jdbcTemplate.update(sql, productoId, contenido, vector);
+        if (jdbcTemplate.update(SQL_GUARDAR, productoId, contenido, vector) > 0) {
+            respuestaIaCache.invalidar();
+        }
+    }
+
+    public float[] embeddingDe(String texto) {
+        return embeddingService.generarEmbedding(texto);
     }
 
     // Búsqueda con límite por defecto (5) — mantiene compatibilidad
@@ -39,8 +63,22 @@ public class ProductoEmbeddingService {
 
     // Búsqueda con límite configurable
     public List<String> buscarSimilares(String pregunta, int limit) {
-        List<Float> embedding = embeddingService.generarEmbedding(pregunta);
-        String vector = embedding.toString();
+        return buscarSimilares(embeddingDe(pregunta), limit);
+    }
+
+    // Búsqueda con ef_search (HNSW) / probes (IVFFlat) propios, sin pasar de los de
+    // application.properties; null = esos mismos
+    public List<String> buscarSimilares(String pregunta, int limit, Integer efSearch, Integer probes) {
+        return buscarSimilares(embeddingDe(pregunta), limit, efSearch, probes);
+    }
+
+    // Búsqueda con un embedding ya calculado (el chatbot lo reusa de la caché semántica)
+    public List<String> buscarSimilares(float[] embedding, int limit) {
+        return buscarSimilares(embedding, limit, null, null);
+    }
+
+    public List<String> buscarSimilares(float[] embedding, int limit, Integer efSearch, Integer probes) {
+        String vector = PgVectorFormato.aTexto(embedding);
 
         String sql = """
                 SELECT contenido
@@ -49,7 +87,8 @@ public class ProductoEmbeddingService {
                 LIMIT ?
                 """;
 
-        return jdbcTemplate.queryForList(sql, String.class, vector, limit);
+        return indiceVectorial.conAjuste(efSearch, probes,
+                () -> jdbcTemplate.queryForList(sql, String.class, vector, limit));
     }
 
     public int indexarTodosLosProductos() {
@@ -81,8 +120,11 @@ public class ProductoEmbeddingService {
                 GROUP BY p.id, p.nombre, p.precio, p.saga, tp.nombre, c.nombre, e.nombre
                 """;
 
+        // Mientras se recorre el ResultSet, otro hilo pide los embeddings por
+        // lotes y los escribe
         List<Integer> resultado = jdbcTemplate.query(sqlProductos, rs -> {
-            int contador = 0;
+            IndexacionEmbeddings<Object[]> tuberia =
+                    new IndexacionEmbeddings<>(embeddingService, tamanoLote, this::guardarLote).iniciar();
             while (rs.next()) {
                 Long id = rs.getLong("id");
                 String contenido = """
@@ -103,12 +145,25 @@ public class ProductoEmbeddingService {
                         rs.getString("generos"), rs.getString("empresas"),
                         rs.getString("plataformas"), rs.getString("desarrolladores")
                 );
-                guardarEmbeddingProducto(id, contenido);
-                contador++;
+                tuberia.agregar(new Object[]{id, contenido}, contenido);
             }
-            return List.of(contador);
+            return List.of(tuberia.terminar());
         });
 
         return resultado.isEmpty() ? 0 : resultado.get(0);
     }
+
+    /** Filas {productoId, contenido} con sus embeddings, en un solo batchUpdate. */
+    private void guardarLote(List<Object[]> filas, List<float[]> embeddings) {
+        List<Object[]> parametros = new ArrayList<>(filas.size());
+        for (int i = 0; i < filas.size(); i++) {
+            parametros.add(new Object[]{filas.get(i)[0], filas.get(i)[1], PgVectorFormato.aTexto(embeddings.get(i))});
+        }
+
+        int[] cambios = jdbcTemplate.batchUpdate(SQL_GUARDAR, parametros);
+        // El driver puede informar SUCCESS_NO_INFO (-2): se cuenta como cambio
+        if (cambios != null && Arrays.stream(cambios).anyMatch(c -> c != 0)) {
+            respuestaIaCache.invalidar();
+        }
+    }
 }
\ No newline at end of file
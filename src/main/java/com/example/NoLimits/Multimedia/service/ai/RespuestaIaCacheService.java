@@ -0,0 +1,229 @@
+// ¿Para qué sirve?
+//   Caché de respuestas del chatbot con IA (OpenAIChatClient). Cada pregunta
+//   libre cuesta un embedding + una llamada a GPT-4o-mini con un prompt de
+//   ~3 KB, y los usuarios repiten mucho las mismas ("qué es naruto",
+//   "recomiéndame anime de peleas").
+//
+// ¿Cómo?
+//   - Nivel 1 (exacta): clave = mensaje normalizado (minúsculas, sin tildes,
+//     sin signos, espacios simples). "¿Qué es Naruto?" = "que es naruto".
+//     Si acierta, no se pide ni el embedding.
+//   - Nivel 2 (semántica): si el nivel 1 falla se calcula el embedding de la
+//     pregunta (el mismo que usa la búsqueda vectorial, no se pide dos veces)
+//     y se reusa la respuesta de la pregunta guardada más parecida, si su
+//     similitud coseno es >= chatbot.cache.umbral-coseno. Los vectores se
+//     guardan normalizados: el coseno es un producto punto.
+//   - TTL chatbot.cache.ttl-segundos y tope chatbot.cache.max-entradas (LRU).
+//   - invalidar(): la llaman quienes escriben en producto_embeddings. Vacía
+//     todo y sube la generación, así una respuesta armada con el contexto
+//     viejo que termine después de invalidar no se guarda.
+//
+// Métricas: chatbot.cache.solicitudes (tag resultado = exacta | semantica |
+//   miss) para el hit ratio; chatbot.cache.entradas y chatbot.cache.invalidaciones.
+
+package com.example.NoLimits.Multimedia.service.ai;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.Getter;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@Service
+public class RespuestaIaCacheService {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean habilitada;
+    private final long ttlMs;
+    private final int maxEntradas;
+    private final double umbralCoseno;
+
+    // Orden de acceso = LRU; se usa siempre bajo synchronized (this)
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long generacion;
+
+    public RespuestaIaCacheService(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.habilitada = environment.getProperty("chatbot.cache.enabled", Boolean.class, true);
+        this.ttlMs = environment.getProperty("chatbot.cache.ttl-segundos", Long.class, 21600L) * 1000;
+        this.maxEntradas = environment.getProperty("chatbot.cache.max-entradas", Integer.class, 2000);
+        this.umbralCoseno = environment.getProperty("chatbot.cache.umbral-coseno", Double.class, 0.95);
+
+        Gauge.builder("chatbot.cache.entradas", this, c -> c.cantidadEntradas()).register(meterRegistry);
+    }
+
+    /**
+     * Busca una respuesta guardada para el mensaje. {@code embedding} solo se
+     * invoca si el nivel exacto falla; el resultado queda en la búsqueda para
+     * reusarlo en la consulta vectorial y al guardar.
+     */
+    public Busqueda buscar(String mensaje, Supplier<float[]> embedding) {
+        String clave = normalizar(mensaje);
+        long generacionActual = generacionActual();
+
+        if (!habilitada) {
+            return new Busqueda(clave, embedding.get(), null, generacionActual, null);
+        }
+
+        Entrada exacta = buscarExacta(clave);
+        if (exacta != null) {
+            contar("exacta");
+            return new Busqueda(clave, null, null, generacionActual, exacta.respuesta);
+        }
+
+        float[] vector = embedding.get();
+        float[] unitario = unitario(vector);
+        Entrada parecida = unitario == null ? null : buscarSemantica(unitario);
+        if (parecida != null) {
+            contar("semantica");
+            return new Busqueda(clave, vector, unitario, generacionActual, parecida.respuesta);
+        }
+
+        contar("miss");
+        return new Busqueda(clave, vector, unitario, generacionActual, null);
+    }
+
+    /** Guarda la respuesta generada para una búsqueda que no acertó. */
+    public synchronized void guardar(Busqueda busqueda, String respuesta) {
+        if (!habilitada || respuesta == null || busqueda.clave.isEmpty()) return;
+        // Se invalidó mientras se esperaba a OpenAI: el contexto ya no vale
+        if (busqueda.generacion != generacion) return;
+
+        entradas.put(busqueda.clave, new Entrada(busqueda.unitario, respuesta,
+                System.currentTimeMillis() + ttlMs));
+
+        Iterator<Map.Entry<String, Entrada>> menosUsadas = entradas.entrySet().iterator();
+        while (entradas.size() > maxEntradas && menosUsadas.hasNext()) {
+            menosUsadas.next();
+            menosUsadas.remove();
+        }
+    }
+
+    /** producto_embeddings cambió: las respuestas guardadas pueden estar desactualizadas. */
+    public synchronized void invalidar() {
+        generacion++;
+        if (entradas.isEmpty()) return;
+        entradas.clear();
+        meterRegistry.counter("chatbot.cache.invalidaciones").increment();
+    }
+
+    /* ================= BÚSQUEDA ================= */
+
+    private synchronized Entrada buscarExacta(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) return null;
+        if (entrada.expira <= System.currentTimeMillis()) {
+            entradas.remove(clave);
+            return null;
+        }
+        return entrada;
+    }
+
+    /** Recorrido lineal: con max-entradas ~2000 y 1536 dimensiones es ~1 ms. */
+    private synchronized Entrada buscarSemantica(float[] unitario) {
+        long ahora = System.currentTimeMillis();
+        Entrada mejor = null;
+        double mejorCoseno = umbralCoseno;
+
+        Iterator<Entrada> todas = entradas.values().iterator();
+        while (todas.hasNext()) {
+            Entrada entrada = todas.next();
+            if (entrada.expira <= ahora) {
+                todas.remove();
+                continue;
+            }
+            if (entrada.unitario == null || entrada.unitario.length != unitario.length) continue;
+
+            double coseno = productoPunto(entrada.unitario, unitario);
+            if (coseno >= mejorCoseno) {
+                mejorCoseno = coseno;
+                mejor = entrada;
+            }
+        }
+        return mejor;
+    }
+
+    private synchronized long generacionActual() {
+        return generacion;
+    }
+
+    private synchronized int cantidadEntradas() {
+        return entradas.size();
+    }
+
+    /* ================= INTERNOS ================= */
+
+    /** Minúsculas, sin tildes ni signos, espacios simples. */
+    static String normalizar(String mensaje) {
+        if (mensaje == null) return "";
+        String sinTildes = Normalizer.normalize(mensaje, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    /** Copia normalizada (el vector de entrada es el de la caché de embeddings). */
+    private static float[] unitario(float[] vector) {
+        if (vector == null || vector.length == 0) return null;
+        double norma = 0;
+        for (float valor : vector) norma += valor * valor;
+        if (norma == 0) return null;
+
+        float inversa = (float) (1 / Math.sqrt(norma));
+        float[] resultado = new float[vector.length];
+        for (int i = 0; i < resultado.length; i++) resultado[i] = vector[i] * inversa;
+        return resultado;
+    }
+
+    private static double productoPunto(float[] a, float[] b) {
+        double suma = 0;
+        for (int i = 0; i < a.length; i++) suma += a[i] * b[i];
+        return suma;
+    }
+
+    private void contar(String resultado) {
+        meterRegistry.counter("chatbot.cache.solicitudes", "resultado", resultado).increment();
+    }
+
+    /**
+     * Resultado de {@link #buscar}: respuesta guardada (null = no hubo) y el
+     * embedding de la pregunta (null si acertó el nivel exacto).
+     */
+    @Getter
+    public static class Busqueda {
+        private final String clave;
+        private final float[] embedding;
+        private final float[] unitario;
+        private final long generacion;
+        private final String respuesta;
+
+        Busqueda(String clave, float[] embedding, float[] unitario, long generacion, String respuesta) {
+            this.clave = clave;
+            this.embedding = embedding;
+            this.unitario = unitario;
+            this.generacion = generacion;
+            this.respuesta = respuesta;
+        }
+    }
+
+    private static class Entrada {
+        final float[] unitario;
+        final String respuesta;
+        final long expira;
+
+        Entrada(float[] unitario, String respuesta, long expira) {
+            this.unitario = unitario;
+            this.respuesta = respuesta;
+            this.expira = expira;
+        }
+    }
+}
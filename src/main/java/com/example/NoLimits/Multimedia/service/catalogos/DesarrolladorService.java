@@ -7,6 +7,7 @@ import com.example.NoLimits.Multimedia.dto.catalogos.update.DesarrolladorUpdateD
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.DesarrolladorModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.DesarrolladorRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,6 +25,10 @@ public class DesarrolladorService {
     @Autowired
     private DesarrolladorRepository desarrolladorRepository;
 
+    // Al borrar se borran sus vínculos, que son valores de faceta
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     // ==========================
     // MÉTODOS PÚBLICOS CON DTOs
     // ==========================
@@ -137,6 +142,7 @@ public class DesarrolladorService {
     public void deleteById(Long id) {
         findEntityById(id); // valida existencia
         desarrolladorRepository.deleteById(id);
+        facetasService.invalidar();
     }
 
     /**
@@ -10,6 +10,7 @@ import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.DesarrolladorRepository;
 import com.example.NoLimits.Multimedia.repository.catalogos.DesarrolladoresRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,6 +31,10 @@ public class DesarrolladoresService {
     @Autowired
     private DesarrolladorRepository desarrolladorRepository;
 
+    // Los vínculos son valores de faceta en /productos/facetas
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     /** Listar relaciones por producto */
     public List<DesarrolladoresResponseDTO> findByProducto(Long productoId) {
         List<DesarrolladoresModel> relaciones =
@@ -78,6 +83,7 @@ public class DesarrolladoresService {
         rel.setDesarrollador(d);
 
         DesarrolladoresModel guardada = desarrolladoresRepository.save(rel);
+        facetasService.invalidar();
         return toResponseDTO(guardada);
     }
 
@@ -128,6 +134,7 @@ public class DesarrolladoresService {
         }
 
         DesarrolladoresModel actualizado = desarrolladoresRepository.save(existente);
+        facetasService.invalidar();
         return toResponseDTO(actualizado);
     }
 
@@ -147,6 +154,7 @@ public class DesarrolladoresService {
         }
 
         desarrolladoresRepository.deleteByProducto_IdAndDesarrollador_Id(productoId, desarrolladorId);
+        facetasService.invalidar();
     }
 
     // ================== MAPEOS A DTO ==================
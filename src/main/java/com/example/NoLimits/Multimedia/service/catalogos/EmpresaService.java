@@ -7,6 +7,8 @@ import com.example.NoLimits.Multimedia.dto.catalogos.update.EmpresaUpdateDTO;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.EmpresaModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.EmpresaRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasService;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +27,14 @@ public class EmpresaService {
     @Autowired
     private EmpresaRepository empresaRepository;
 
+    // Los nombres aparecen como sugerencias del buscador
+    @Autowired
+    private ProductoSugerenciasService sugerenciasService;
+
+    // Al borrar se borran sus vínculos, que son valores de faceta
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     // ================== HELPERS INTERNOS ==================
 
     /**
@@ -90,6 +100,7 @@ public class EmpresaService {
         }
 
         EmpresaModel guardada = empresaRepository.save(entidad);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(guardada);
     }
 
@@ -122,6 +133,7 @@ public class EmpresaService {
         }
 
         EmpresaModel actualizada = empresaRepository.save(e);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(actualizada);
     }
 
@@ -155,6 +167,7 @@ public class EmpresaService {
         }
 
         EmpresaModel actualizada = empresaRepository.save(e);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(actualizada);
     }
 
@@ -164,6 +177,8 @@ public class EmpresaService {
         // Verificar existencia primero
         findEntityById(id);
         empresaRepository.deleteById(id);
+        facetasService.invalidar();
+        sugerenciasService.recargarCatalogos();
     }
 
     public PagedResponse<EmpresaResponseDTO> findAllPaged(int pagina, int size) {
@@ -9,6 +9,7 @@ import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.EmpresaRepository;
 import com.example.NoLimits.Multimedia.repository.catalogos.EmpresasRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +26,9 @@ public class EmpresasService {
     @Autowired private ProductoRepository productoRepository;
     @Autowired private EmpresaRepository empresaRepository;
 
+    // Los vínculos son valores de faceta en /productos/facetas
+    @Autowired private ProductoFacetasService facetasService;
+
     // ================== MAPPER ==================
 
     private EmpresasResponseDTO toResponseDTO(EmpresasModel rel) {
@@ -67,7 +71,9 @@ public class EmpresasService {
         rel.setProducto(p);
         rel.setEmpresa(e);
 
-        return toResponseDTO(empresasRepository.save(rel));
+        EmpresasModel guardada = empresasRepository.save(rel);
+        facetasService.invalidar();
+        return toResponseDTO(guardada);
     }
 
     // ================== PATCH ==================
@@ -89,12 +95,15 @@ public class EmpresasService {
             rel.setEmpresa(empresa);
         }
 
-        return toResponseDTO(empresasRepository.save(rel));
+        EmpresasModel guardada = empresasRepository.save(rel);
+        facetasService.invalidar();
+        return toResponseDTO(guardada);
     }
 
     // ================== DELETE ==================
 
     public void unlink(Long productoId, Long empresaId) {
         empresasRepository.deleteByProducto_IdAndEmpresa_Id(productoId, empresaId);
+        facetasService.invalidar();
     }
 }
\ No newline at end of file
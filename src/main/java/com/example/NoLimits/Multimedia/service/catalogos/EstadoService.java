@@ -7,6 +7,7 @@ import com.example.NoLimits.Multimedia.dto.catalogos.update.EstadoUpdateDTO;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.EstadoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.EstadoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshotService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -28,6 +29,10 @@ public class EstadoService {
     @Autowired
     private EstadoRepository estadoRepository;
 
+    // El nombre del estado aparece en cada fila del snapshot de productos
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
     // ======================================================
     // =============== MAPPER ENTIDAD ↔ DTO =================
     // ======================================================
@@ -134,6 +139,7 @@ public class EstadoService {
         }
 
         EstadoModel actualizado = estadoRepository.save(existente);
+        resumenSnapshotService.invalidar();
         return toResponseDTO(actualizado);
     }
 
@@ -161,6 +167,7 @@ public class EstadoService {
         }
 
         EstadoModel actualizado = estadoRepository.save(existente);
+        resumenSnapshotService.invalidar();
         return toResponseDTO(actualizado);
     }
 
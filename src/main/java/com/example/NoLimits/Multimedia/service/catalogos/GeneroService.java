@@ -7,6 +7,8 @@ import com.example.NoLimits.Multimedia.dto.catalogos.update.GeneroUpdateDTO;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.GeneroModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.GeneroRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -24,6 +26,14 @@ public class GeneroService {
     @Autowired
     private GeneroRepository generoRepository;
 
+    // Los nombres aparecen como sugerencias del buscador
+    @Autowired
+    private ProductoSugerenciasService sugerenciasService;
+
+    // Al borrar se borran sus vínculos, que son valores de faceta
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     public List<GeneroResponseDTO> findAll() {
         return generoRepository.findAll().stream()
                 .map(this::toResponseDTO)
@@ -53,6 +63,7 @@ public class GeneroService {
         g.setNombre(nombre);
 
         GeneroModel guardado = generoRepository.save(g);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(guardado);
     }
 
@@ -70,6 +81,7 @@ public class GeneroService {
         }
 
         GeneroModel actualizado = generoRepository.save(g);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(actualizado);
     }
 
@@ -83,6 +95,8 @@ public class GeneroService {
                 .orElseThrow(() ->
                         new RecursoNoEncontradoException("Género no encontrado con ID: " + id));
         generoRepository.deleteById(id);
+        facetasService.invalidar();
+        sugerenciasService.recargarCatalogos();
     }
 
     public List<Object[]> obtenerGenerosResumen() {
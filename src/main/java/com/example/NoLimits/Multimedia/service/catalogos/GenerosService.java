@@ -8,6 +8,7 @@ import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.GeneroRepository;
 import com.example.NoLimits.Multimedia.repository.catalogos.GenerosRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -37,6 +38,10 @@ public class GenerosService {
     @Autowired
     private GeneroRepository generoRepository;
 
+    // Los vínculos son valores de faceta en /productos/facetas
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     // ================== CONSULTAS BÁSICAS (RETORNANDO DTO) ==================
 
     /**
@@ -104,6 +109,7 @@ public class GenerosService {
         rel.setProducto(p);
         rel.setGenero(g);
         GenerosModel guardado = generosRepository.save(rel);
+        facetasService.invalidar();
 
         return toDTO(guardado);
     }
@@ -126,6 +132,7 @@ public class GenerosService {
 
         if (generosRepository.existsByProducto_IdAndGenero_Id(productoId, generoId)) {
             generosRepository.deleteByProducto_IdAndGenero_Id(productoId, generoId);
+            facetasService.invalidar();
         }
     }
 
@@ -179,6 +186,7 @@ public class GenerosService {
         }
 
         GenerosModel actualizado = generosRepository.save(rel);
+        facetasService.invalidar();
         return toDTO(actualizado);
     }
 
@@ -7,6 +7,8 @@ import com.example.NoLimits.Multimedia.dto.catalogos.update.PlataformaUpdateDTO;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.PlataformaModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.PlataformaRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -24,6 +26,14 @@ public class PlataformaService {
     @Autowired
     private PlataformaRepository plataformaRepository;
 
+    // Los nombres aparecen como sugerencias del buscador
+    @Autowired
+    private ProductoSugerenciasService sugerenciasService;
+
+    // Al borrar se borran sus vínculos, que son valores de faceta
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     public List<PlataformaResponseDTO> findAll() {
         return plataformaRepository.findAll().stream()
                 .map(this::toResponseDTO)
@@ -48,6 +58,7 @@ public class PlataformaService {
         model.setNombre(nombre);
 
         PlataformaModel guardada = plataformaRepository.save(model);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(guardada);
     }
 
@@ -65,6 +76,7 @@ public class PlataformaService {
         }
 
         PlataformaModel actualizada = plataformaRepository.save(p);
+        sugerenciasService.recargarCatalogos();
         return toResponseDTO(actualizada);
     }
 
@@ -78,6 +90,8 @@ public class PlataformaService {
                 .orElseThrow(() ->
                         new RecursoNoEncontradoException("Plataforma no encontrada con ID: " + id));
         plataformaRepository.deleteById(id);
+        facetasService.invalidar();
+        sugerenciasService.recargarCatalogos();
     }
 
     // ========== HELPERS ==========
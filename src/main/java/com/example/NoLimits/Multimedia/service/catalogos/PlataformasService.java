@@ -11,6 +11,7 @@ import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.PlataformaRepository;
 import com.example.NoLimits.Multimedia.repository.catalogos.PlataformasRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,6 +31,10 @@ public class PlataformasService {
     @Autowired
     private PlataformaRepository plataformaRepository;
 
+    // Los vínculos son valores de faceta en /productos/facetas
+    @Autowired
+    private ProductoFacetasService facetasService;
+
     // ================== CONSULTAS BÁSICAS ==================
 
     public List<PlataformasResponseDTO> findByProducto(Long productoId) {
@@ -70,6 +75,7 @@ public class PlataformasService {
         rel.setPlataforma(pl);
 
         PlataformasModel guardado = plataformasRepository.save(rel);
+        facetasService.invalidar();
         return toResponseDTO(guardado);
     }
 
@@ -103,6 +109,7 @@ public class PlataformasService {
 
         if (plataformasRepository.existsByProducto_IdAndPlataforma_Id(productoId, plataformaId)) {
             plataformasRepository.deleteByProducto_IdAndPlataforma_Id(productoId, plataformaId);
+            facetasService.invalidar();
         }
     }
 
@@ -151,6 +158,7 @@ public class PlataformasService {
         }
 
         PlataformasModel guardado = plataformasRepository.save(rel);
+        facetasService.invalidar();
         return toResponseDTO(guardado);
     }
 
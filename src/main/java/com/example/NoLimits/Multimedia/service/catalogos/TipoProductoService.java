@@ -8,6 +8,7 @@ import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.model.catalogos.TipoProductoModel;
 import com.example.NoLimits.Multimedia.repository.catalogos.TipoProductoRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshotService;
 
 import jakarta.transaction.Transactional;
 
@@ -34,6 +35,10 @@ public class TipoProductoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    // El nombre del tipo aparece en cada fila del snapshot de productos
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
     // ================== CRUD BÁSICO (DTO) ==================
 
     public List<TipoProductoResponseDTO> findAll() {
@@ -84,6 +89,7 @@ public class TipoProductoService {
 
         aplicarDatosRequest(existente, dto, false);
         TipoProductoModel actualizado = tipoProductoRepository.save(existente);
+        resumenSnapshotService.invalidar();
         return toDTO(actualizado);
     }
 
@@ -97,6 +103,7 @@ public class TipoProductoService {
 
         aplicarDatosParciales(existente, dto);
         TipoProductoModel actualizado = tipoProductoRepository.save(existente);
+        resumenSnapshotService.invalidar();
         return toDTO(actualizado);
     }
 
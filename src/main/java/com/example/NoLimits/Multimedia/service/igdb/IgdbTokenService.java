@@ -3,6 +3,8 @@ package com.example.NoLimits.Multimedia.service.igdb;
 import com.example.NoLimits.Multimedia.dto.igdb.IgdbTokenResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -26,7 +28,9 @@ public class IgdbTokenService {
     private String accessToken;
     private Instant expiresAt;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("twitchRestTemplate")
+    private RestTemplate restTemplate;
 
     public String getAccessToken() {
 
@@ -0,0 +1,81 @@
+// ¿Para qué sirve?
+//   Rellena la columna desnormalizada productos.imagen_portada en filas que
+//   existían antes de que la portada se guardara en el producto (o que se
+//   cargaron directo con el repositorio, ej: DataLoader).
+//
+// ¿Cuándo corre?
+//   Una vez, cuando la aplicación ya está lista (ApplicationReadyEvent),
+//   por tramos de ids para no tomar un lock largo sobre toda la tabla.
+//   Solo toca filas con imagen_portada NULL, así que volver a correrlo es seguro.
+//
+// Se puede apagar con productos.portada.backfill.enabled=false (ej: perfil test).
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class ImagenPortadaBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImagenPortadaBackfillService.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
+    @Value("${productos.portada.backfill.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${productos.portada.backfill.lote:1000}")
+    private int lote;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitado) return;
+
+        try {
+            int actualizadas = rellenarPortadas();
+            if (actualizadas > 0) {
+                log.info("imagen_portada calculada para {} productos", actualizadas);
+            }
+        } catch (RuntimeException e) {
+            // No debe impedir que la app arranque: los listados muestran la portada como null
+            log.warn("No se pudo rellenar imagen_portada: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre los ids de productos en tramos de tamaño lote.
+     * Cada tramo es una transacción corta (ver ProductoRepository.recalcularImagenPortada).
+     *
+     * @return cantidad de filas actualizadas
+     */
+    public int rellenarPortadas() {
+        Long maxId = productoRepository.obtenerMaxId();
+        if (maxId == null || maxId <= 0) return 0;
+
+        int tamanio = Math.max(lote, 1);
+        int total = 0;
+
+        for (long desde = 1; desde <= maxId; desde += tamanio) {
+            long hasta = Math.min(desde + tamanio - 1, maxId);
+            total += productoRepository.recalcularImagenPortada(desde, hasta);
+        }
+
+        if (total > 0) {
+            // Las filas del snapshot en memoria tienen la portada anterior
+            resumenSnapshotService.invalidar();
+        }
+        return total;
+    }
+}
@@ -15,8 +15,11 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +32,11 @@ public class ImagenesService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    // La primera imagen es la portada del resumen de productos
+    // (se copia en ProductoModel.imagenPortada en cada escritura)
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
     /* ===================== BÁSICOS ===================== */
 
     public List<ImagenesResponseDTO> findAll() {
@@ -83,6 +91,8 @@ public class ImagenesService {
         }
 
         ImagenesModel guardada = imagenesRepository.save(img);
+        sincronizarPortada(p.getId());
+        resumenSnapshotService.refrescarProducto(p.getId());
         return toResponseDTO(guardada);
     }
 
@@ -90,10 +100,12 @@ public class ImagenesService {
 
     public ImagenesResponseDTO update(Long id, ImagenesUpdateDTO in) {
         ImagenesModel e = getImagenEntityOrThrow(id);
+        Long productoAnteriorId = e.getProducto() != null ? e.getProducto().getId() : null;
 
         aplicarCambiosDesdeUpdateDTO(in, e);
 
         ImagenesModel actualizada = imagenesRepository.save(e);
+        refrescarResumen(productoAnteriorId, actualizada);
         return toResponseDTO(actualizada);
     }
 
@@ -101,10 +113,12 @@ public class ImagenesService {
 
     public ImagenesResponseDTO patch(Long id, ImagenesUpdateDTO in) {
         ImagenesModel e = getImagenEntityOrThrow(id);
+        Long productoAnteriorId = e.getProducto() != null ? e.getProducto().getId() : null;
 
         aplicarCambiosDesdeUpdateDTO(in, e);
 
         ImagenesModel actualizada = imagenesRepository.save(e);
+        refrescarResumen(productoAnteriorId, actualizada);
         return toResponseDTO(actualizada);
     }
 
@@ -113,6 +127,7 @@ public class ImagenesService {
     public void deleteById(Long id) {
         ImagenesModel e = getImagenEntityOrThrow(id);
         imagenesRepository.delete(e);
+        refrescarResumen(null, e);
     }
 
     public long deleteByProducto(Long productoId) {
@@ -120,7 +135,10 @@ public class ImagenesService {
             throw new RecursoNoEncontradoException(
                     "Producto no encontrado con ID: " + productoId);
         }
-        return imagenesRepository.deleteByProducto_Id(productoId);
+        long eliminadas = imagenesRepository.deleteByProducto_Id(productoId);
+        sincronizarPortada(productoId);
+        resumenSnapshotService.refrescarProducto(productoId);
+        return eliminadas;
     }
 
     /* ===================== RESUMEN ===================== */
@@ -142,6 +160,39 @@ public class ImagenesService {
 
     /* ===================== MAPEOS PRIVADOS ===================== */
 
+    /**
+     * Recalcula la portada y refresca en el snapshot de listados el producto
+     * anterior y el actual de la imagen (pueden ser distintos si la imagen
+     * se movió de producto).
+     */
+    private void refrescarResumen(Long productoAnteriorId, ImagenesModel imagen) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (productoAnteriorId != null) ids.add(productoAnteriorId);
+        if (imagen != null && imagen.getProducto() != null) ids.add(imagen.getProducto().getId());
+
+        ids.forEach(this::sincronizarPortada);
+        resumenSnapshotService.refrescarProductos(ids);
+    }
+
+    /**
+     * Copia en ProductoModel.imagenPortada la ruta de su primera imagen
+     * (menor id), o null si ya no tiene imágenes.
+     */
+    private void sincronizarPortada(Long productoId) {
+        if (productoId == null) return;
+
+        productoRepository.findById(productoId).ifPresent(producto -> {
+            String portada = imagenesRepository.findFirstByProducto_IdOrderByIdAsc(productoId)
+                    .map(ImagenesModel::getRuta)
+                    .orElse(null);
+
+            if (!Objects.equals(portada, producto.getImagenPortada())) {
+                producto.setImagenPortada(portada);
+                productoRepository.save(producto);
+            }
+        });
+    }
+
     private ImagenesModel getImagenEntityOrThrow(Long id) {
         return imagenesRepository.findById(id)
                 .orElseThrow(() -> new RecursoNoEncontradoException(
@@ -3,29 +3,19 @@ package com.example.NoLimits.Multimedia.service.producto;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 public class PrecioSchedulerService {
 
-    private final ProductoService productoService;
+    private final PrecioSteamRefrescoService refrescoService;
 
-    public PrecioSchedulerService(ProductoService productoService) {
-        this.productoService = productoService;
+    public PrecioSchedulerService(PrecioSteamRefrescoService refrescoService) {
+        this.refrescoService = refrescoService;
     }
 
     // Se ejecuta todos los días a las 3 AM
+    // (concurrencia, tope por segundo y lotes: productos.precios.* en properties)
     @Scheduled(cron = "0 0 3 * * *")
     public void actualizarPreciosSteamDiariamente() {
-
-        List<Long> ids = productoService.obtenerIdsProductosConAppId();
-
-        for (Long id : ids) {
-            try {
-                productoService.actualizarPrecioDesdeSteam(id);
-            } catch (Exception e) {
-                System.out.println("Error actualizando producto ID " + id + ": " + e.getMessage());
-            }
-        }
+        refrescoService.refrescarTodos();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,133 @@
+// ¿Para qué sirve?
+//   Guarda en una transacción un lote de precios traídos de Steam por
+//   PrecioSteamRefrescoService: datos del link de compra + precio del producto.
+//
+// ¿Cómo?
+//   - Postgres: un UPDATE ... FROM (VALUES (...), (...)) para los links y
+//     otro para productos. Dos sentencias por lote, sin importar su tamaño.
+//   - Otras BDs (H2 en tests): batch JDBC de un UPDATE por fila.
+//   Después del commit se refrescan esas filas en el snapshot de resúmenes.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import jakarta.transaction.Transactional;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Service
+@Transactional
+public class PrecioSteamLoteService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    /** Precio de Steam para el link de compra de un producto. */
+    @Getter
+    @AllArgsConstructor
+    public static class Precio {
+        private final long linkId;
+        private final long productoId;
+        private final Double precio;
+        private final String nombre;
+        private final String formato;
+        private final String moneda;
+        private final String url;
+    }
+
+    public void escribir(List<Precio> precios) {
+        if (precios.isEmpty()) return;
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        if (esPostgres()) {
+            actualizarConValues(precios, ahora);
+        } else {
+            actualizarPorFila(precios, ahora);
+        }
+
+        List<Long> productoIds = new ArrayList<>(precios.size());
+        for (Precio precio : precios) productoIds.add(precio.getProductoId());
+        resumenSnapshotService.refrescarProductos(productoIds);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private void actualizarConValues(List<Precio> precios, Timestamp ahora) {
+        String filasLinks = String.join(", ", Collections.nCopies(precios.size(),
+                "(?::bigint, ?::double precision, ?, ?, ?, ?)"));
+        String filasProductos = String.join(", ", Collections.nCopies(precios.size(),
+                "(?::bigint, ?::double precision)"));
+
+        // El primer parámetro es la fecha del SET, antes de las filas del VALUES
+        List<Object> paramsLinks = new ArrayList<>(precios.size() * 6 + 1);
+        List<Object> paramsProductos = new ArrayList<>(precios.size() * 2);
+        paramsLinks.add(ahora);
+        for (Precio precio : precios) {
+            paramsLinks.add(precio.getLinkId());
+            paramsLinks.add(precio.getPrecio());
+            paramsLinks.add(precio.getNombre());
+            paramsLinks.add(precio.getFormato());
+            paramsLinks.add(precio.getMoneda());
+            paramsLinks.add(precio.getUrl());
+            paramsProductos.add(precio.getProductoId());
+            paramsProductos.add(precio.getPrecio());
+        }
+
+        jdbcTemplate.update("""
+                UPDATE producto_links_compra l SET
+                    precio_actual = v.precio,
+                    nombre_plataforma = v.nombre,
+                    precio_formato = v.formato,
+                    moneda = v.moneda,
+                    url = COALESCE(v.url, l.url),
+                    fecha_ultima_actualizacion = ?
+                FROM (VALUES %s) AS v(id, precio, nombre, formato, moneda, url)
+                WHERE l.id = v.id
+                """.formatted(filasLinks), paramsLinks.toArray());
+
+        jdbcTemplate.update("""
+                UPDATE productos p SET precio = v.precio
+                FROM (VALUES %s) AS v(id, precio)
+                WHERE p.id = v.id
+                """.formatted(filasProductos), paramsProductos.toArray());
+    }
+
+    private void actualizarPorFila(List<Precio> precios, Timestamp ahora) {
+        List<Object[]> links = new ArrayList<>(precios.size());
+        List<Object[]> productos = new ArrayList<>(precios.size());
+        for (Precio precio : precios) {
+            links.add(new Object[] { precio.getPrecio(), precio.getNombre(), precio.getFormato(),
+                    precio.getMoneda(), precio.getUrl(), ahora, precio.getLinkId() });
+            productos.add(new Object[] { precio.getPrecio(), precio.getProductoId() });
+        }
+
+        jdbcTemplate.batchUpdate("""
+                UPDATE producto_links_compra SET
+                    precio_actual = ?, nombre_plataforma = ?, precio_formato = ?, moneda = ?,
+                    url = COALESCE(?, url), fecha_ultima_actualizacion = ?
+                WHERE id = ?
+                """, links);
+        jdbcTemplate.batchUpdate("UPDATE productos SET precio = ? WHERE id = ?", productos);
+    }
+
+    private boolean esPostgres() {
+        return datasourceUrl != null && datasourceUrl.startsWith("jdbc:postgresql");
+    }
+}
@@ -0,0 +1,246 @@
+// ¿Para qué sirve?
+//   Refresco masivo de precios de Steam (corrida nocturna de
+//   PrecioSchedulerService). Antes era un loop secuencial sobre
+//   actualizarPrecioDesdeSteam(): por producto 2 findByIdFull, una llamada
+//   HTTP bloqueante, un save y un embedding de OpenAI. La corrida duraba
+//   N × latencia de red.
+//
+// ¿Cómo?
+//   1) Una query trae el link con appId de cada producto (el de menor id,
+//      si tiene varios).
+//   2) Las llamadas al servicio de scraping se reparten en un pool de
+//      productos.precios.concurrencia hilos, con un tope de
+//      productos.precios.max-por-segundo pedidos (para no saturar Steam).
+//   3) Los resultados se escriben por lotes (productos.precios.lote), un
+//      lote por transacción, con PrecioSteamLoteService (UPDATE ... FROM
+//      (VALUES ...) en Postgres).
+//      Siempre va al microservicio (refrescar()), y de paso deja la caché
+//      de PrecioSteamCacheService al día para el resto del día.
+//   4) NO se regenera el embedding: solo cambian precio y datos del link.
+//      El embedding se rehace cuando cambia el contenido del producto.
+//
+// Métricas (Actuator /actuator/metrics):
+//   productos.precios.refresco.duracion (timer por corrida),
+//   productos.precios.refresco.actualizados / .fallidos (contadores).
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class PrecioSteamRefrescoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecioSteamRefrescoService.class);
+
+    @Autowired
+    private PrecioSteamCacheService precioSteamCacheService;
+
+    @Autowired
+    private PrecioSteamLoteService loteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoFacetasService facetasService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${productos.precios.concurrencia:8}")
+    private int concurrencia;
+
+    @Value("${productos.precios.max-por-segundo:5}")
+    private double maxPorSegundo;
+
+    @Value("${productos.precios.lote:500}")
+    private int tamanoLote;
+
+    /** Resultado de una corrida (también queda en las métricas). */
+    @Getter
+    @AllArgsConstructor
+    public static class Resumen {
+        private final int total;
+        private final int actualizados;
+        private final int fallidos;
+        private final long duracionMs;
+    }
+
+    /* ================= CORRIDA ================= */
+
+    public Resumen refrescarTodos() {
+        long inicio = System.nanoTime();
+
+        List<LinkSteam> links = linksConAppId();
+        AtomicInteger fallidos = new AtomicInteger();
+        int actualizados = 0;
+
+        if (!links.isEmpty()) {
+            LimitadorTasa limitador = new LimitadorTasa(maxPorSegundo);
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrencia, links.size())), tarea -> {
+                Thread hilo = new Thread(tarea, "precios-steam");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+
+            try {
+                List<Future<PrecioSteamLoteService.Precio>> futuros = new ArrayList<>(links.size());
+                for (LinkSteam link : links) {
+                    futuros.add(pool.submit(() -> consultar(link, limitador, fallidos)));
+                }
+
+                List<PrecioSteamLoteService.Precio> pendientes = new ArrayList<>(tamanoLote);
+                for (Future<PrecioSteamLoteService.Precio> futuro : futuros) {
+                    PrecioSteamLoteService.Precio precio = obtener(futuro, fallidos);
+                    if (precio == null) continue;
+
+                    pendientes.add(precio);
+                    if (pendientes.size() >= tamanoLote) {
+                        actualizados += escribir(pendientes, fallidos);
+                        pendientes.clear();
+                    }
+                }
+                actualizados += escribir(pendientes, fallidos);
+            } finally {
+                pool.shutdownNow();
+            }
+
+            if (actualizados > 0) facetasService.invalidar();
+        }
+
+        long duracionNanos = System.nanoTime() - inicio;
+        meterRegistry.timer("productos.precios.refresco.duracion").record(duracionNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("productos.precios.refresco.actualizados").increment(actualizados);
+        meterRegistry.counter("productos.precios.refresco.fallidos").increment(fallidos.get());
+
+        Resumen resumen = new Resumen(links.size(), actualizados, fallidos.get(),
+                TimeUnit.NANOSECONDS.toMillis(duracionNanos));
+        log.info("Precios Steam: {}/{} actualizados, {} con error, en {} ms",
+                resumen.getActualizados(), resumen.getTotal(), resumen.getFallidos(), resumen.getDuracionMs());
+        return resumen;
+    }
+
+    /* ================= LECTURA ================= */
+
+    private List<LinkSteam> linksConAppId() {
+        Map<Long, LinkSteam> porProducto = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT id, producto_id, app_id FROM producto_links_compra
+                WHERE app_id IS NOT NULL AND app_id <> ''
+                ORDER BY producto_id, id
+                """, (RowCallbackHandler) rs -> porProducto.putIfAbsent(rs.getLong("producto_id"),
+                new LinkSteam(rs.getLong("id"), rs.getLong("producto_id"), rs.getString("app_id"))));
+        return new ArrayList<>(porProducto.values());
+    }
+
+    private PrecioSteamLoteService.Precio consultar(LinkSteam link, LimitadorTasa limitador, AtomicInteger fallidos)
+            throws InterruptedException {
+        limitador.esperarTurno();
+        try {
+            Map<String, Object> datos = precioSteamCacheService.refrescar(link.appId);
+            if (datos == null || datos.get("precio") == null) {
+                throw new IllegalStateException("respuesta sin precio");
+            }
+            return new PrecioSteamLoteService.Precio(
+                    link.linkId,
+                    link.productoId,
+                    Double.valueOf(datos.get("precio").toString()) / 100,
+                    (String) datos.get("nombre"),
+                    (String) datos.get("precioFormato"),
+                    (String) datos.get("moneda"),
+                    (String) datos.get("urlPlataforma"));
+        } catch (RuntimeException e) {
+            fallidos.incrementAndGet();
+            log.warn("Error actualizando el precio del producto ID {}: {}", link.productoId, e.getMessage());
+            return null;
+        }
+    }
+
+    private PrecioSteamLoteService.Precio obtener(Future<PrecioSteamLoteService.Precio> futuro, AtomicInteger fallidos) {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Refresco de precios interrumpido", e);
+        } catch (ExecutionException e) {
+            fallidos.incrementAndGet();
+            return null;
+        }
+    }
+
+    /* ================= ESCRITURA ================= */
+
+    /** Escribe un lote; devuelve cuántos quedaron guardados. */
+    private int escribir(List<PrecioSteamLoteService.Precio> precios, AtomicInteger fallidos) {
+        if (precios.isEmpty()) return 0;
+
+        try {
+            loteService.escribir(precios);
+            return precios.size();
+        } catch (RuntimeException e) {
+            fallidos.addAndGet(precios.size());
+            log.warn("No se pudo guardar un lote de {} precios de Steam: {}", precios.size(), e.getMessage());
+            return 0;
+        }
+    }
+
+    /* ================= INTERNOS ================= */
+
+    @AllArgsConstructor
+    private static class LinkSteam {
+        final long linkId;
+        final long productoId;
+        final String appId;
+    }
+
+    /**
+     * Reparte los turnos a intervalos fijos entre todos los hilos
+     * (maxPorSegundo <= 0 = sin tope).
+     */
+    private static class LimitadorTasa {
+
+        private final long intervaloNanos;
+        private long siguiente = System.nanoTime();
+
+        LimitadorTasa(double maxPorSegundo) {
+            this.intervaloNanos = maxPorSegundo > 0 ? (long) (1_000_000_000L / maxPorSegundo) : 0;
+        }
+
+        void esperarTurno() throws InterruptedException {
+            if (intervaloNanos == 0) return;
+
+            long espera;
+            synchronized (this) {
+                long ahora = System.nanoTime();
+                long turno = Math.max(siguiente, ahora);
+                siguiente = turno + intervaloNanos;
+                espera = turno - ahora;
+            }
+            if (espera > 0) TimeUnit.NANOSECONDS.sleep(espera);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+// ¿Para qué sirve?
+//   Búsqueda de productos por texto para GET /api/v1/productos/search,
+//   con resultados ordenados por relevancia.
+//
+// ¿Cómo busca?
+//   - Postgres: columna generada productos.busqueda (tsvector de nombre,
+//     saga y sinopsis, con ese peso) + índice GIN, y un índice pg_trgm sobre
+//     nombre para tolerar errores de tipeo ("spidrman" → "Spider-Man").
+//     Cada palabra se busca como prefijo ("spi" encuentra "spider").
+//     Ambos índices se crean al arrancar si no existen (ver prepararIndice()).
+//   - H2 (tests) o si el índice no se pudo crear: LIKE sobre nombre, saga y
+//     sinopsis con la relevancia calculada en Java. Sin tolerancia a errores.
+//
+// Se puede forzar el respaldo con productos.busqueda.fulltext.enabled=false.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoBusquedaDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductoBusquedaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoBusquedaService.class);
+
+    // Nombre pesa más que saga, y saga más que sinopsis
+    private static final List<String> DDL_INDICE = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            """
+            ALTER TABLE productos ADD COLUMN IF NOT EXISTS busqueda tsvector
+                GENERATED ALWAYS AS (
+                    setweight(to_tsvector('simple', coalesce(nombre, '')), 'A') ||
+                    setweight(to_tsvector('simple', coalesce(saga, '')), 'B') ||
+                    setweight(to_tsvector('simple', coalesce(sinopsis, '')), 'C')
+                ) STORED
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_productos_busqueda ON productos USING GIN (busqueda)",
+            "CREATE INDEX IF NOT EXISTS idx_productos_nombre_trgm ON productos USING GIN (nombre gin_trgm_ops)"
+    );
+
+    // q.texto <% p.nombre = similitud de palabra (pg_trgm) sobre el índice trigram
+    private static final String FROM_BUSQUEDA = """
+            FROM productos p
+            JOIN tipo_productos tp ON tp.id = p.tipo_producto_id
+            JOIN estados e ON e.id = p.estado_id
+            CROSS JOIN (SELECT to_tsquery('simple', ?) AS consulta, CAST(? AS text) AS texto) q
+            WHERE p.busqueda @@ q.consulta
+               OR q.texto <% p.nombre
+            """;
+
+    private static final String SQL_BUSCAR = """
+            SELECT p.id, p.nombre, p.precio, tp.nombre AS tipo, e.nombre AS estado,
+                   p.saga, p.portada_saga, p.imagen_portada,
+                   ts_rank(p.busqueda, q.consulta) + word_similarity(q.texto, p.nombre) AS relevancia
+            """ + FROM_BUSQUEDA + """
+            ORDER BY relevancia DESC, p.id ASC
+            LIMIT ? OFFSET ?
+            """;
+
+    private static final String SQL_CONTAR = "SELECT COUNT(*) " + FROM_BUSQUEDA;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    @Value("${productos.busqueda.fulltext.enabled:true}")
+    private boolean fullTextHabilitado;
+
+    private volatile boolean indiceListo = false;
+
+    /* ================= ÍNDICE ================= */
+
+    /**
+     * Crea (si faltan) la columna tsvector y los índices GIN.
+     * Es idempotente; si falla (ej: sin permiso para CREATE EXTENSION)
+     * la búsqueda sigue funcionando con el respaldo LIKE.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepararIndice() {
+        if (!fullTextHabilitado || !esPostgres()) return;
+
+        try {
+            DDL_INDICE.forEach(jdbcTemplate::execute);
+            indiceListo = true;
+        } catch (RuntimeException e) {
+            log.warn("No se pudo preparar el índice full-text, se usa LIKE: {}", e.getMessage());
+            indiceListo = false;
+        }
+    }
+
+    public boolean isFullTextActivo() {
+        return indiceListo;
+    }
+
+    /* ================= BÚSQUEDA ================= */
+
+    public PagedResponse<ProductoBusquedaDTO> buscar(String texto, int page, int size) {
+        List<String> terminos = terminos(texto);
+        if (terminos.isEmpty()) {
+            return new PagedResponse<>(new ArrayList<>(), page, 0, 0);
+        }
+
+        return indiceListo
+                ? buscarFullText(texto.trim(), terminos, page, size)
+                : buscarConLike(terminos, page, size);
+    }
+
+    private PagedResponse<ProductoBusquedaDTO> buscarFullText(String texto, List<String> terminos, int page, int size) {
+        // "spider man" → "spider:* & man:*" (prefijos)
+        String tsquery = terminos.stream()
+                .map(t -> t + ":*")
+                .collect(Collectors.joining(" & "));
+
+        long total = jdbcTemplate.queryForObject(SQL_CONTAR, Long.class, tsquery, texto);
+
+        List<ProductoBusquedaDTO> contenido = jdbcTemplate.query(SQL_BUSCAR, (rs, i) -> new ProductoBusquedaDTO(
+                new ProductoResumenDTO(
+                        rs.getLong("id"),
+                        rs.getString("nombre"),
+                        rs.getObject("precio") != null ? rs.getDouble("precio") : null,
+                        rs.getString("tipo"),
+                        rs.getString("estado"),
+                        rs.getString("saga"),
+                        rs.getString("portada_saga"),
+                        rs.getString("imagen_portada")
+                ),
+                rs.getDouble("relevancia")
+        ), tsquery, texto, size, (long) (page - 1) * size);
+
+        return new PagedResponse<>(contenido, page, (int) Math.ceil((double) total / size), total);
+    }
+
+    /**
+     * Respaldo sin índice: trae los candidatos que contienen el término más
+     * largo y en Java exige todos los términos y calcula la relevancia.
+     */
+    private PagedResponse<ProductoBusquedaDTO> buscarConLike(List<String> terminos, int page, int size) {
+        String masLargo = terminos.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        List<ProductoBusquedaDTO> coincidencias = productoRepository
+                .buscarCandidatosPorTexto("%" + masLargo + "%")
+                .stream()
+                .map(fila -> {
+                    double relevancia = relevanciaLike(terminos, (String) fila[1], (String) fila[5], (String) fila[8]);
+                    if (relevancia <= 0) return null;
+                    return new ProductoBusquedaDTO(mapResumen(fila), relevancia);
+                })
+                .filter(dto -> dto != null)
+                .sorted(Comparator.comparing(ProductoBusquedaDTO::getRelevancia).reversed()
+                        .thenComparing(ProductoBusquedaDTO::getId))
+                .collect(Collectors.toList());
+
+        int total = coincidencias.size();
+        int desde = (int) Math.min(Math.max(0L, (long) (page - 1) * size), total);
+        int hasta = (int) Math.min((long) desde + size, total);
+
+        return new PagedResponse<>(new ArrayList<>(coincidencias.subList(desde, hasta)),
+                page, (int) Math.ceil((double) total / size), total);
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    /**
+     * Palabras en minúsculas, solo letras y números (evita inyectar
+     * operadores de tsquery como &, |, ! o :).
+     */
+    static List<String> terminos(String texto) {
+        if (texto == null) return List.of();
+        return Arrays.stream(texto.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(t -> !t.isBlank())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Mismos pesos que el tsvector: nombre 1.0, saga 0.4, sinopsis 0.1 por
+     * término, + 1.0 si el nombre empieza con el primer término.
+     * Devuelve 0 si falta algún término.
+     */
+    static double relevanciaLike(List<String> terminos, String nombre, String saga, String sinopsis) {
+        String n = nombre != null ? nombre.toLowerCase(Locale.ROOT) : "";
+        String s = saga != null ? saga.toLowerCase(Locale.ROOT) : "";
+        String d = sinopsis != null ? sinopsis.toLowerCase(Locale.ROOT) : "";
+
+        double relevancia = 0;
+        for (String termino : terminos) {
+            double peso = (n.contains(termino) ? 1.0 : 0) + (s.contains(termino) ? 0.4 : 0) + (d.contains(termino) ? 0.1 : 0);
+            if (peso == 0) return 0;
+            relevancia += peso;
+        }
+        if (n.startsWith(terminos.get(0))) relevancia += 1.0;
+        return relevancia;
+    }
+
+    private boolean esPostgres() {
+        return datasourceUrl != null && datasourceUrl.startsWith("jdbc:postgresql");
+    }
+
+    private ProductoResumenDTO mapResumen(Object[] fila) {
+        return new ProductoResumenDTO(
+                fila[0] != null ? ((Number) fila[0]).longValue() : null,
+                (String) fila[1],
+                fila[2] != null ? ((Number) fila[2]).doubleValue() : null,
+                (String) fila[3],
+                (String) fila[4],
+                (String) fila[5],
+                (String) fila[6],
+                (String) fila[7]
+        );
+    }
+}
@@ -0,0 +1,20 @@
+// ¿Para qué sirve?
+//   Aviso en memoria de que se crearon productos y su evento PRODUCTO_CREADO
+//   ya está en producto_outbox. ProductoEnriquecimientoService lo escucha
+//   DESPUÉS del commit para procesar la cola enseguida, sin esperar al
+//   próximo sondeo. Si el aviso se pierde (ej: reinicio), la fila sigue en
+//   la tabla y la toma el sondeo.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductoCreadoEvent {
+
+    private final List<Long> productoIds;
+}
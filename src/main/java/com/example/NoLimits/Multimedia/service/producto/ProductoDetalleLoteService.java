@@ -0,0 +1,194 @@
+// ¿Para qué sirve?
+//   Arma ProductoResponseDTO completos para VARIOS productos a la vez
+//   sin llamar findByIdFull() una vez por producto.
+//
+// ¿Cómo?
+//   1 query con los datos escalares (tipo, estado, clasificación, ...)
+//   + 1 query por relación (plataformas, géneros, empresas, desarrolladores,
+//   links de compra, imágenes), todas con WHERE producto_id IN (...).
+//   Son 7 queries fijas por tramo de ids (ver abajo), sin el producto
+//   cartesiano de los LEFT JOIN FETCH encadenados.
+//
+//   El IN (...) va por tramos de hasta TRAMO_MAXIMO ids, y cada tramo se
+//   rellena (repitiendo el último id) hasta uno de TAMANOS_TRAMO: así el
+//   motor ve pocas formas distintas de la query y puede reusar el plan,
+//   y una saga enorme no arma una sentencia con miles de parámetros.
+//
+// ¿Quién lo usa?
+//   ProductoService.findBySagaCompleto() (carrusel de saga).
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.PlataformaSimpleDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class ProductoDetalleLoteService {
+
+    // Tamaños fijos del IN (...); el último es el máximo por query
+    static final int[] TAMANOS_TRAMO = {16, 64, 250, 500};
+    static final int TRAMO_MAXIMO = TAMANOS_TRAMO[TAMANOS_TRAMO.length - 1];
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    /**
+     * Devuelve el detalle de los productos indicados en el mismo orden
+     * de entrada. Los ids que no existen se omiten.
+     */
+    public List<ProductoResponseDTO> cargar(List<Long> productoIds) {
+        if (productoIds == null || productoIds.isEmpty()) return Collections.emptyList();
+
+        Set<Long> ids = productoIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.isEmpty()) return Collections.emptyList();
+
+        // 1) Datos escalares
+        Map<Long, ProductoResponseDTO> porId = new LinkedHashMap<>();
+        for (Object[] fila : porTramos(ids, productoRepository::obtenerDetalleBasePorIds)) {
+            ProductoResponseDTO dto = mapBase(fila);
+            porId.put(dto.getId(), dto);
+        }
+        if (porId.isEmpty()) return Collections.emptyList();
+
+        // Mismas listas vacías que deja ProductoMapper con colecciones vacías
+        porId.values().forEach(dto -> {
+            dto.setPlataformas(new ArrayList<>());
+            dto.setGeneros(new ArrayList<>());
+            dto.setEmpresas(new ArrayList<>());
+            dto.setDesarrolladores(new ArrayList<>());
+            dto.setImagenes(new ArrayList<>());
+            dto.setLinksCompra(new ArrayList<>());
+        });
+
+        Set<Long> encontrados = porId.keySet();
+
+        // 2) Relaciones, una query por cada una
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerPlataformasPorProductoIds)) {
+            PlataformaSimpleDTO plataforma = new PlataformaSimpleDTO();
+            plataforma.setId(toLong(fila[1]));
+            plataforma.setNombre((String) fila[2]);
+            porId.get(toLong(fila[0])).getPlataformas().add(plataforma);
+        }
+
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerGenerosPorProductoIds)) {
+            porId.get(toLong(fila[0])).getGeneros().add((String) fila[1]);
+        }
+
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerEmpresasPorProductoIds)) {
+            porId.get(toLong(fila[0])).getEmpresas().add((String) fila[1]);
+        }
+
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerDesarrolladoresPorProductoIds)) {
+            porId.get(toLong(fila[0])).getDesarrolladores().add((String) fila[1]);
+        }
+
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerLinksCompraPorProductoIds)) {
+            LinkCompraDTO link = new LinkCompraDTO();
+            link.setPlataformaId(toLong(fila[1]));
+            link.setUrl((String) fila[2]);
+            link.setLabel((String) fila[3]);
+            link.setAppId((String) fila[4]);
+            link.setPrecioActual(fila[5] != null ? ((Number) fila[5]).doubleValue() : null);
+            porId.get(toLong(fila[0])).getLinksCompra().add(link);
+        }
+
+        for (Object[] fila : porTramos(encontrados, productoRepository::obtenerImagenesPorProductoIds)) {
+            porId.get(toLong(fila[0])).getImagenes().add((String) fila[1]);
+        }
+
+        // Respeta el orden pedido (ej: orden de la saga)
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /* ================= TRAMOS ================= */
+
+    /** Corre la consulta una vez por tramo y junta las filas. */
+    private List<Object[]> porTramos(Collection<Long> ids, Function<Collection<Long>, List<Object[]>> consulta) {
+        List<Object[]> filas = new ArrayList<>();
+        for (List<Long> tramo : tramos(ids)) {
+            filas.addAll(consulta.apply(tramo));
+        }
+        return filas;
+    }
+
+    /**
+     * Parte los ids en tramos de hasta TRAMO_MAXIMO y rellena cada tramo
+     * hasta el tamaño fijo siguiente repitiendo su último id (un id repetido
+     * en el IN no cambia el resultado).
+     */
+    static List<List<Long>> tramos(Collection<Long> ids) {
+        List<Long> lista = new ArrayList<>(ids);
+        List<List<Long>> tramos = new ArrayList<>();
+
+        for (int desde = 0; desde < lista.size(); desde += TRAMO_MAXIMO) {
+            List<Long> tramo = new ArrayList<>(lista.subList(desde, Math.min(desde + TRAMO_MAXIMO, lista.size())));
+            int tamano = tamanoFijo(tramo.size());
+            Long ultimo = tramo.get(tramo.size() - 1);
+            while (tramo.size() < tamano) tramo.add(ultimo);
+            tramos.add(tramo);
+        }
+        return tramos;
+    }
+
+    private static int tamanoFijo(int cantidad) {
+        for (int tamano : TAMANOS_TRAMO) {
+            if (cantidad <= tamano) return tamano;
+        }
+        return TRAMO_MAXIMO;
+    }
+
+    /* ================= MAPEOS PRIVADOS ================= */
+
+    // Mismo orden de columnas que ProductoRepository.obtenerDetalleBasePorIds()
+    private ProductoResponseDTO mapBase(Object[] fila) {
+        ProductoResponseDTO dto = new ProductoResponseDTO();
+        dto.setId(toLong(fila[0]));
+        dto.setNombre((String) fila[1]);
+        dto.setPrecio(fila[2] != null ? ((Number) fila[2]).doubleValue() : null);
+        dto.setSinopsis((String) fila[3]);
+        dto.setUrlTrailer((String) fila[4]);
+        dto.setAnio(fila[5] != null ? ((Number) fila[5]).intValue() : null);
+        dto.setTipoProductoId(toLong(fila[6]));
+        dto.setTipoProductoNombre((String) fila[7]);
+        dto.setClasificacionId(toLong(fila[8]));
+        dto.setClasificacionNombre((String) fila[9]);
+        dto.setEstadoId(toLong(fila[10]));
+        dto.setEstadoNombre((String) fila[11]);
+        dto.setTipoEmpresaId(toLong(fila[12]));
+        dto.setTipoEmpresaNombre((String) fila[13]);
+        dto.setTipoDesarrolladorId(toLong(fila[14]));
+        dto.setTipoDesarrolladorNombre((String) fila[15]);
+        dto.setSaga((String) fila[16]);
+        dto.setPortadaSaga((String) fila[17]);
+        return dto;
+    }
+
+    private static Long toLong(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : null;
+    }
+}
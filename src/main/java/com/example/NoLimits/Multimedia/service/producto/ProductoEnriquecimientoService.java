@@ -0,0 +1,146 @@
+// ¿Para qué sirve?
+//   Worker del outbox de productos (producto_outbox): trae precio de Steam
+//   y regenera el embedding de los productos recién creados, FUERA de la
+//   transacción del alta. Crear un producto ya no espera a Steam ni a
+//   OpenAI ni tiene tomada una conexión del pool mientras tanto.
+//
+// ¿Cuándo corre?
+//   - Después del commit de un alta (ProductoCreadoEvent).
+//   - Cada productos.outbox.intervalo-ms, para reintentos y eventos
+//     que quedaron de antes de un reinicio.
+//   Todo en un único hilo de fondo: las llamadas a Steam van de a una,
+//   igual que en PrecioSchedulerService.
+//
+// ¿Cómo?
+//   Toma los pendientes por lotes. Los productos sin appId de Steam (o ya
+//   borrados) se marcan procesados sin llamar a nada: en el alta tampoco se
+//   generaba el embedding para ellos. El resto pasa por
+//   ProductoService.enriquecerDesdeSteam() (precio + embedding); si falla
+//   cualquiera de los dos, ProductoOutboxService programa el reintento.
+//
+// Con varias instancias, dos podrían tomar el mismo evento; actualizar el
+// precio dos veces no hace daño.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.model.producto.ProductoOutboxModel;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class ProductoEnriquecimientoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoEnriquecimientoService.class);
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoOutboxService outboxService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${productos.outbox.worker.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${productos.outbox.lote:50}")
+    private int tamanoLote;
+
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "enriquecimiento-productos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    // true = ya hay una pasada en cola; varios avisos seguidos no encolan más
+    private final AtomicBoolean programado = new AtomicBoolean(false);
+
+    /* ================= DISPAROS ================= */
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCrearProductos(ProductoCreadoEvent evento) {
+        despertar();
+    }
+
+    @Scheduled(fixedDelayString = "${productos.outbox.intervalo-ms:30000}",
+               initialDelayString = "${productos.outbox.intervalo-ms:30000}")
+    public void revisarPendientes() {
+        despertar();
+    }
+
+    /** Programa una pasada por la cola; vuelve de inmediato. */
+    public void despertar() {
+        if (!habilitado) return;
+        if (programado.compareAndSet(false, true)) {
+            ejecutor.submit(this::procesarPendientes);
+        }
+    }
+
+    /* ================= PROCESAMIENTO ================= */
+
+    /**
+     * Procesa la cola hasta que no queden eventos vencidos. Los reintentos
+     * programados a futuro esperan al próximo sondeo.
+     */
+    public void procesarPendientes() {
+        // Antes de leer: un aviso que llegue durante la pasada programa otra
+        programado.set(false);
+
+        try {
+            List<ProductoOutboxModel> lote;
+            while (!(lote = outboxService.pendientes(tamanoLote)).isEmpty()) {
+                procesar(lote);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudo leer la cola de productos: {}", e.getMessage());
+        }
+    }
+
+    private void procesar(List<ProductoOutboxModel> lote) {
+        List<Long> productoIds = new ArrayList<>(lote.size());
+        for (ProductoOutboxModel evento : lote) productoIds.add(evento.getProductoId());
+        Set<Long> conAppId = new HashSet<>(productoRepository.findIdsConAppIdEntre(productoIds));
+
+        List<Long> sinTrabajo = new ArrayList<>();
+        for (ProductoOutboxModel evento : lote) {
+            Long productoId = evento.getProductoId();
+            if (!conAppId.contains(productoId)) {
+                sinTrabajo.add(evento.getId());
+                continue;
+            }
+
+            try {
+                productoService.enriquecerDesdeSteam(productoId);
+                outboxService.marcarProcesados(List.of(evento.getId()));
+            } catch (Exception e) {
+                log.warn("Enriquecimiento del producto {} falló (intento {}): {}",
+                        productoId, evento.getIntentos() + 1, e.getMessage());
+                outboxService.registrarFallo(evento.getId(), e.getMessage());
+            }
+        }
+        outboxService.marcarProcesados(sinTrabajo);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,239 @@
+// ¿Para qué sirve?
+//   Índice de facetas en memoria para GET /api/v1/productos/facetas:
+//   por cada valor de faceta (tipo, estado, clasificación, género, plataforma,
+//   empresa, desarrollador) un BitSet con los productos que lo tienen.
+//
+// ¿Cómo filtra?
+//   - Posición i del BitSet = i-ésimo producto ordenado por id ASC.
+//   - Valores de una misma faceta → OR; facetas distintas → AND.
+//   - Año y precio se revisan sobre arreglos compactos (un recorrido).
+//   - Conteos: para cada faceta se aplican todos los filtros MENOS el suyo
+//     y se cuenta (AND + cardinality) cada valor.
+//
+// Reglas:
+//   - Nunca se modifica. ProductoFacetasService arma una nueva cuando
+//     cambian productos o tablas puente.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoFacetasFiltroDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.FacetaConteoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class ProductoFacetasIndice {
+
+    public static final String TIPO_PRODUCTO = "tipoProducto";
+    public static final String ESTADO = "estado";
+    public static final String CLASIFICACION = "clasificacion";
+    public static final String GENERO = "genero";
+    public static final String PLATAFORMA = "plataforma";
+    public static final String EMPRESA = "empresa";
+    public static final String DESARROLLADOR = "desarrollador";
+
+    public static final List<String> FACETAS = List.of(
+            TIPO_PRODUCTO, ESTADO, CLASIFICACION, GENERO, PLATAFORMA, EMPRESA, DESARROLLADOR);
+
+    private static final int SIN_ANIO = Integer.MIN_VALUE;
+
+    private final long[] ids;
+    private final int[] anios;
+    private final double[] precios;   // NaN = precio null
+
+    // faceta → valor → productos (posiciones)
+    private final Map<String, Map<Long, BitSet>> porFaceta;
+
+    private ProductoFacetasIndice(long[] ids, int[] anios, double[] precios, Map<String, Map<Long, BitSet>> porFaceta) {
+        this.ids = ids;
+        this.anios = anios;
+        this.precios = precios;
+        this.porFaceta = porFaceta;
+    }
+
+    /* ================= CONSTRUCCIÓN ================= */
+
+    public static ProductoFacetasIndice vacio() {
+        return desdeFilas(Collections.emptyList(), Collections.emptyMap());
+    }
+
+    /**
+     * @param base  filas de {@code ProductoRepository.obtenerFacetasBase()}:
+     *              [id, tipoProductoId, estadoId, clasificacionId, anio, precio]
+     * @param pares por faceta puente (GENERO, PLATAFORMA, EMPRESA, DESARROLLADOR)
+     *              las filas [productoId, valorId] de {@code obtenerPares*()}
+     */
+    public static ProductoFacetasIndice desdeFilas(List<Object[]> base, Map<String, List<Object[]>> pares) {
+        List<Object[]> ordenadas = base.stream()
+                .filter(fila -> fila != null && fila[0] != null)
+                .sorted(Comparator.comparingLong(fila -> ((Number) fila[0]).longValue()))
+                .toList();
+
+        int n = ordenadas.size();
+        long[] ids = new long[n];
+        int[] anios = new int[n];
+        double[] precios = new double[n];
+
+        Map<String, Map<Long, BitSet>> porFaceta = new HashMap<>();
+        FACETAS.forEach(f -> porFaceta.put(f, new HashMap<>()));
+
+        for (int i = 0; i < n; i++) {
+            Object[] fila = ordenadas.get(i);
+            ids[i] = ((Number) fila[0]).longValue();
+            anios[i] = fila[4] != null ? ((Number) fila[4]).intValue() : SIN_ANIO;
+            precios[i] = fila[5] != null ? ((Number) fila[5]).doubleValue() : Double.NaN;
+
+            marcar(porFaceta.get(TIPO_PRODUCTO), fila[1], i, n);
+            marcar(porFaceta.get(ESTADO), fila[2], i, n);
+            marcar(porFaceta.get(CLASIFICACION), fila[3], i, n);
+        }
+
+        pares.forEach((faceta, filas) -> {
+            Map<Long, BitSet> valores = porFaceta.get(faceta);
+            if (valores == null) return;
+            for (Object[] par : filas) {
+                if (par[0] == null) continue;
+                int posicion = Arrays.binarySearch(ids, ((Number) par[0]).longValue());
+                if (posicion >= 0) marcar(valores, par[1], posicion, n);
+            }
+        });
+
+        return new ProductoFacetasIndice(ids, anios, precios, porFaceta);
+    }
+
+    /* ================= CONSULTA ================= */
+
+    public int size() {
+        return ids.length;
+    }
+
+    public Resultado filtrar(ProductoFacetasFiltroDTO filtro) {
+        ProductoFacetasFiltroDTO f = filtro != null ? filtro : new ProductoFacetasFiltroDTO();
+
+        Map<String, List<Long>> seleccion = new LinkedHashMap<>();
+        seleccion.put(TIPO_PRODUCTO, f.getTipoProductoIds());
+        seleccion.put(ESTADO, f.getEstadoIds());
+        seleccion.put(CLASIFICACION, f.getClasificacionIds());
+        seleccion.put(GENERO, f.getGeneroIds());
+        seleccion.put(PLATAFORMA, f.getPlataformaIds());
+        seleccion.put(EMPRESA, f.getEmpresaIds());
+        seleccion.put(DESARROLLADOR, f.getDesarrolladorIds());
+
+        // OR de los valores elegidos en cada faceta con filtro
+        Map<String, BitSet> filtrosFaceta = new LinkedHashMap<>();
+        seleccion.forEach((faceta, valores) -> {
+            if (valores == null || valores.isEmpty()) return;
+            BitSet union = new BitSet(ids.length);
+            valores.stream()
+                    .filter(Objects::nonNull)
+                    .map(porFaceta.get(faceta)::get)
+                    .filter(Objects::nonNull)
+                    .forEach(union::or);
+            filtrosFaceta.put(faceta, union);
+        });
+
+        BitSet coincidencias = rangos(f);
+        filtrosFaceta.values().forEach(coincidencias::and);
+
+        Map<String, List<FacetaConteoDTO>> conteos = new LinkedHashMap<>();
+        for (String faceta : FACETAS) {
+            BitSet sinEstaFaceta = rangos(f);
+            filtrosFaceta.forEach((otra, bits) -> {
+                if (!otra.equals(faceta)) sinEstaFaceta.and(bits);
+            });
+            conteos.put(faceta, contar(porFaceta.get(faceta), sinEstaFaceta));
+        }
+
+        return new Resultado(coincidencias, conteos);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private BitSet rangos(ProductoFacetasFiltroDTO f) {
+        BitSet bits = new BitSet(ids.length);
+        bits.set(0, ids.length);
+
+        boolean porAnio = f.getAnioDesde() != null || f.getAnioHasta() != null;
+        boolean porPrecio = f.getPrecioMin() != null || f.getPrecioMax() != null;
+        if (!porAnio && !porPrecio) return bits;
+
+        int anioDesde = f.getAnioDesde() != null ? f.getAnioDesde() : Integer.MIN_VALUE + 1;
+        int anioHasta = f.getAnioHasta() != null ? f.getAnioHasta() : Integer.MAX_VALUE;
+        double precioMin = f.getPrecioMin() != null ? f.getPrecioMin() : Double.NEGATIVE_INFINITY;
+        double precioMax = f.getPrecioMax() != null ? f.getPrecioMax() : Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < ids.length; i++) {
+            // Sin año/precio no entra si se pidió ese rango (NaN falla ambas comparaciones)
+            boolean anioOk = !porAnio || (anios[i] != SIN_ANIO && anios[i] >= anioDesde && anios[i] <= anioHasta);
+            boolean precioOk = !porPrecio || (precios[i] >= precioMin && precios[i] <= precioMax);
+            if (!anioOk || !precioOk) bits.clear(i);
+        }
+        return bits;
+    }
+
+    private static List<FacetaConteoDTO> contar(Map<Long, BitSet> valores, BitSet base) {
+        List<FacetaConteoDTO> lista = new ArrayList<>();
+        valores.forEach((valor, bits) -> {
+            BitSet interseccion = (BitSet) bits.clone();
+            interseccion.and(base);
+            int cantidad = interseccion.cardinality();
+            if (cantidad > 0) lista.add(new FacetaConteoDTO(valor, cantidad));
+        });
+        lista.sort(Comparator.comparingLong(FacetaConteoDTO::getCantidad).reversed()
+                .thenComparing(FacetaConteoDTO::getId));
+        return lista;
+    }
+
+    private static void marcar(Map<Long, BitSet> valores, Object valor, int posicion, int n) {
+        if (valor == null) return;
+        valores.computeIfAbsent(((Number) valor).longValue(), k -> new BitSet(n)).set(posicion);
+    }
+
+    /* ================= RESULTADO ================= */
+
+    public final class Resultado {
+
+        private final BitSet coincidencias;
+        private final Map<String, List<FacetaConteoDTO>> facetas;
+
+        private Resultado(BitSet coincidencias, Map<String, List<FacetaConteoDTO>> facetas) {
+            this.coincidencias = coincidencias;
+            this.facetas = facetas;
+        }
+
+        public long getTotal() {
+            return coincidencias.cardinality();
+        }
+
+        public Map<String, List<FacetaConteoDTO>> getFacetas() {
+            return facetas;
+        }
+
+        /**
+         * Ids (ordenados ASC) de la página pedida, con la misma semántica
+         * que PageRequest.of(page - 1, size).
+         */
+        public List<Long> idsDePagina(int page, int size) {
+            long desde = Math.max(0L, (long) (page - 1) * size);
+            List<Long> pagina = new ArrayList<>(Math.max(size, 0));
+
+            int posicion = coincidencias.nextSetBit(0);
+            for (long saltados = 0; posicion >= 0 && saltados < desde; saltados++) {
+                posicion = coincidencias.nextSetBit(posicion + 1);
+            }
+            while (posicion >= 0 && pagina.size() < size) {
+                pagina.add(ids[posicion]);
+                posicion = coincidencias.nextSetBit(posicion + 1);
+            }
+            return pagina;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+// ¿Para qué sirve?
+//   Filtro combinado del catálogo (GET /api/v1/productos/facetas): tipo,
+//   estado, clasificación, género, plataforma, empresa, desarrollador, año y
+//   precio en UNA llamada, con los conteos por faceta para armar los filtros.
+//
+// ¿Cómo?
+//   - Filtra sobre ProductoFacetasIndice (BitSet por valor de faceta), sin BD.
+//   - Solo la página pedida se arma con datos de producto: desde el snapshot
+//     de resumen si está activo, si no con una query por ids.
+//
+// ¿Cómo se mantiene al día?
+//   El índice se arma en la primera consulta (5 queries) y se descarta
+//   DESPUÉS del commit de cualquier escritura de productos o de sus tablas
+//   puente (géneros, plataformas, empresas, desarrolladores). La siguiente
+//   consulta lo vuelve a armar.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoFacetasFiltroDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoFacetasResponseDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductoFacetasService {
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
+    private final AtomicReference<ProductoFacetasIndice> actual = new AtomicReference<>();
+
+    // Lock y no synchronized: dentro se consulta la BD, y con hilos virtuales
+    // un synchronized deja fijado (pinned) el hilo portador mientras espera
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Sube en cada invalidar(): un índice armado antes de un commit no se publica
+    private final AtomicLong generacion = new AtomicLong();
+
+    /* ================= CONSULTA ================= */
+
+    public ProductoFacetasResponseDTO filtrar(ProductoFacetasFiltroDTO filtro, int page, int size) {
+        ProductoFacetasIndice.Resultado resultado = obtener().filtrar(filtro);
+
+        List<Long> idsPagina = resultado.idsDePagina(page, size);
+        long total = resultado.getTotal();
+        int totalPaginas = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+
+        PagedResponse<ProductoResumenDTO> pagina =
+                new PagedResponse<>(resumenes(idsPagina), page, totalPaginas, total);
+
+        return new ProductoFacetasResponseDTO(pagina, resultado.getFacetas());
+    }
+
+    /**
+     * Índice vigente; la primera llamada (o la primera después de invalidar())
+     * lo arma desde la BD.
+     */
+    public ProductoFacetasIndice obtener() {
+        ProductoFacetasIndice indice = actual.get();
+        if (indice != null) return indice;
+
+        lock.lock();
+        try {
+            indice = actual.get();
+            if (indice == null) {
+                long inicio = generacion.get();
+                indice = ProductoFacetasIndice.desdeFilas(
+                        productoRepository.obtenerFacetasBase(),
+                        Map.of(
+                                ProductoFacetasIndice.GENERO, productoRepository.obtenerParesGeneros(),
+                                ProductoFacetasIndice.PLATAFORMA, productoRepository.obtenerParesPlataformas(),
+                                ProductoFacetasIndice.EMPRESA, productoRepository.obtenerParesEmpresas(),
+                                ProductoFacetasIndice.DESARROLLADOR, productoRepository.obtenerParesDesarrolladores()
+                        ));
+                if (generacion.get() == inicio) actual.set(indice);
+            }
+            return indice;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ================= ESCRITURAS ================= */
+
+    /**
+     * Descarta el índice cuando la transacción actual haga commit
+     * (o de inmediato si no hay transacción).
+     */
+    public void invalidar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generacion.incrementAndGet();
+                    actual.set(null);
+                }
+            });
+        } else {
+            generacion.incrementAndGet();
+            actual.set(null);
+        }
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private List<ProductoResumenDTO> resumenes(List<Long> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().porIds(ids);
+        }
+
+        // [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga, imagenPortada, ...]
+        Map<Long, ProductoResumenDTO> porId = productoRepository.obtenerResumenSnapshotPorIds(ids)
+                .stream()
+                .map(fila -> new ProductoResumenDTO(
+                        ((Number) fila[0]).longValue(),
+                        (String) fila[1],
+                        fila[2] != null ? ((Number) fila[2]).doubleValue() : null,
+                        (String) fila[3],
+                        (String) fila[4],
+                        (String) fila[5],
+                        (String) fila[6],
+                        (String) fila[7]
+                ))
+                .collect(Collectors.toMap(ProductoResumenDTO::getId, Function.identity()));
+
+        return ids.stream()
+                .map(porId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+// ¿Para qué sirve?
+//   Catálogos en memoria para una importación masiva de productos:
+//   id → nombre y nombre → id, por catálogo. Se cargan UNA vez al empezar
+//   la importación y cada fila se resuelve/valida sin ir a la BD.
+//
+// ¿Cómo?
+//   - resolver(): una celda CSV trae el id ("3") o el nombre ("Acción").
+//     Los nombres se comparan con ProductoSugerenciasIndice.normalizar
+//     (sin tildes ni mayúsculas).
+//   - errores(): ids de la fila que no existen en su catálogo, un mensaje
+//     por catálogo.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO;
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ProductoImportacionCatalogos {
+
+    public static final String TIPO_PRODUCTO = "tipoProducto";
+    public static final String CLASIFICACION = "clasificacion";
+    public static final String ESTADO = "estado";
+    public static final String TIPO_EMPRESA = "tipoEmpresa";
+    public static final String TIPO_DESARROLLADOR = "tipoDesarrollador";
+    public static final String PLATAFORMA = "plataforma";
+    public static final String GENERO = "genero";
+    public static final String EMPRESA = "empresa";
+    public static final String DESARROLLADOR = "desarrollador";
+
+    private final Map<String, Map<Long, String>> nombresPorId = new HashMap<>();
+    private final Map<String, Map<String, Long>> porNombre = new HashMap<>();
+
+    public void agregar(String catalogo, Long id, String nombre) {
+        nombresPorId.computeIfAbsent(catalogo, c -> new HashMap<>()).put(id, nombre);
+        if (nombre != null) {
+            porNombre.computeIfAbsent(catalogo, c -> new HashMap<>())
+                    .putIfAbsent(ProductoSugerenciasIndice.normalizar(nombre), id);
+        }
+    }
+
+    /**
+     * Id del valor de una celda: número = id tal cual (se valida después en
+     * errores()), texto = búsqueda por nombre. Vacío = null.
+     */
+    public Long resolver(String catalogo, String valor) {
+        if (valor == null || valor.isBlank()) return null;
+
+        String limpio = valor.trim();
+        if (limpio.chars().allMatch(Character::isDigit)) {
+            return Long.valueOf(limpio);
+        }
+
+        Long id = porNombre.getOrDefault(catalogo, Map.of())
+                .get(ProductoSugerenciasIndice.normalizar(limpio));
+        if (id == null) {
+            throw new IllegalArgumentException(catalogo + " desconocido: '" + limpio + "'");
+        }
+        return id;
+    }
+
+    /** Nombre de un id del catálogo, o null si no existe. */
+    public String nombre(String catalogo, Long id) {
+        return nombresPorId.getOrDefault(catalogo, Map.of()).get(id);
+    }
+
+    /**
+     * Mensajes de los ids de la fila que no existen. Lista vacía = fila válida
+     * respecto a los catálogos.
+     */
+    public List<String> errores(ProductoRequestDTO dto) {
+        List<String> errores = new ArrayList<>();
+
+        revisar(errores, TIPO_PRODUCTO, single(dto.getTipoProductoId()));
+        revisar(errores, CLASIFICACION, single(dto.getClasificacionId()));
+        revisar(errores, ESTADO, single(dto.getEstadoId()));
+        revisar(errores, TIPO_EMPRESA, single(dto.getTipoEmpresaId()));
+        revisar(errores, TIPO_DESARROLLADOR, single(dto.getTipoDesarrolladorId()));
+        revisar(errores, PLATAFORMA, dto.getPlataformasIds());
+        revisar(errores, GENERO, dto.getGenerosIds());
+        revisar(errores, EMPRESA, dto.getEmpresasIds());
+        revisar(errores, DESARROLLADOR, dto.getDesarrolladoresIds());
+
+        if (dto.getLinksCompra() != null) {
+            List<Long> plataformasLinks = new ArrayList<>();
+            for (LinkCompraDTO link : dto.getLinksCompra()) {
+                if (link == null || link.getPlataformaId() == null) {
+                    errores.add("Cada link de compra debe indicar plataformaId");
+                } else {
+                    plataformasLinks.add(link.getPlataformaId());
+                }
+            }
+            revisar(errores, PLATAFORMA, plataformasLinks);
+        }
+
+        return errores;
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private void revisar(List<String> errores, String catalogo, Collection<Long> valores) {
+        if (valores == null || valores.isEmpty()) return;
+
+        Map<Long, String> conocidos = nombresPorId.getOrDefault(catalogo, Map.of());
+        Set<Long> faltantes = new LinkedHashSet<>();
+        for (Long valor : valores) {
+            if (valor != null && !conocidos.containsKey(valor)) faltantes.add(valor);
+        }
+        if (!faltantes.isEmpty()) {
+            errores.add(catalogo + ": IDs inexistentes " + faltantes);
+        }
+    }
+
+    private static List<Long> single(Long valor) {
+        return valor == null ? List.of() : List.of(valor);
+    }
+}
@@ -0,0 +1,288 @@
+// ¿Para qué sirve?
+//   Lee el cuerpo de POST /api/v1/productos/importar fila por fila, sin
+//   cargarlo completo en memoria, y entrega cada fila como ProductoRequestDTO
+//   (o con su error) a quien importa.
+//
+// Formatos:
+//   - NDJSON: un ProductoRequestDTO en JSON por línea (mismos campos que
+//     POST /productos, incluidos linksCompra). Líneas vacías se saltan.
+//   - CSV: primera fila = encabezados (orden libre, sin distinguir
+//     mayúsculas; "generos" o "generosIds" da igual). Separador "," o ";"
+//     (se detecta en el encabezado). Comillas dobles estilo RFC 4180,
+//     incluso con saltos de línea dentro. Listas separadas por "|".
+//     Las columnas de catálogo aceptan id o nombre.
+//     Los links de compra solo se importan por NDJSON.
+//
+// El número de fila es la línea del archivo donde empieza el registro,
+// para que el error se pueda ubicar en el editor.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+public class ProductoImportacionLector {
+
+    public enum Formato { NDJSON, CSV }
+
+    /** Una fila leída: producto armado, o error de lectura (nunca ambos). */
+    @Getter
+    @AllArgsConstructor
+    public static class Fila {
+        private final long numero;
+        private final ProductoRequestDTO producto;
+        private final String error;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final ProductoImportacionCatalogos catalogos;
+
+    // Encabezado normalizado → cómo se aplica la celda al DTO
+    private final Map<String, BiConsumer<ProductoRequestDTO, String>> columnas;
+
+    public ProductoImportacionLector(ObjectMapper objectMapper, ProductoImportacionCatalogos catalogos) {
+        this.objectMapper = objectMapper;
+        this.catalogos = catalogos;
+        this.columnas = crearColumnas();
+    }
+
+    /**
+     * Entrega cada fila a destino a medida que se lee.
+     * Un encabezado CSV inválido lanza IllegalArgumentException (400).
+     */
+    public void leer(InputStream entrada, Formato formato, Consumer<Fila> destino) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        if (formato == Formato.CSV) {
+            leerCsv(lector, destino);
+        } else {
+            leerNdjson(lector, destino);
+        }
+    }
+
+    /* ================= NDJSON ================= */
+
+    private void leerNdjson(BufferedReader lector, Consumer<Fila> destino) throws IOException {
+        long numero = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (linea.isBlank()) continue;
+
+            try {
+                destino.accept(new Fila(numero, objectMapper.readValue(linea, ProductoRequestDTO.class), null));
+            } catch (JsonProcessingException e) {
+                destino.accept(new Fila(numero, null, "JSON inválido: " + e.getOriginalMessage()));
+            }
+        }
+    }
+
+    /* ================= CSV ================= */
+
+    private void leerCsv(BufferedReader lector, Consumer<Fila> destino) throws IOException {
+        String primeraLinea = lector.readLine();
+        if (primeraLinea == null) return;
+        if (primeraLinea.startsWith("\uFEFF")) primeraLinea = primeraLinea.substring(1);
+
+        char separador = primeraLinea.indexOf(';') >= 0 && primeraLinea.indexOf(',') < 0 ? ';' : ',';
+        RegistroCsv lectorRegistros = new RegistroCsv(lector, separador);
+
+        List<BiConsumer<ProductoRequestDTO, String>> porPosicion = new ArrayList<>();
+        boolean conNombre = false;
+        for (String encabezado : RegistroCsv.separar(primeraLinea, separador)) {
+            String clave = claveEncabezado(encabezado);
+            porPosicion.add(columnas.get(clave));
+            conNombre |= "nombre".equals(clave);
+        }
+        if (!conNombre) {
+            throw new IllegalArgumentException("El CSV debe tener una columna 'nombre' en el encabezado.");
+        }
+
+        List<String> celdas;
+        while ((celdas = lectorRegistros.siguiente()) != null) {
+            long numero = lectorRegistros.getLineaInicio();
+            if (celdas.size() == 1 && celdas.get(0).isBlank()) continue;
+
+            try {
+                ProductoRequestDTO dto = new ProductoRequestDTO();
+                for (int i = 0; i < celdas.size() && i < porPosicion.size(); i++) {
+                    BiConsumer<ProductoRequestDTO, String> columna = porPosicion.get(i);
+                    String celda = celdas.get(i).trim();
+                    if (columna != null && !celda.isEmpty()) columna.accept(dto, celda);
+                }
+                destino.accept(new Fila(numero, dto, null));
+            } catch (IllegalArgumentException e) {
+                destino.accept(new Fila(numero, null, e.getMessage()));
+            }
+        }
+    }
+
+    private Map<String, BiConsumer<ProductoRequestDTO, String>> crearColumnas() {
+        Map<String, BiConsumer<ProductoRequestDTO, String>> columnas = new HashMap<>();
+
+        columnas.put("nombre", ProductoRequestDTO::setNombre);
+        columnas.put("precio", (dto, v) -> dto.setPrecio(numero("precio", v)));
+        columnas.put("sinopsis", ProductoRequestDTO::setSinopsis);
+        columnas.put("urltrailer", ProductoRequestDTO::setUrlTrailer);
+        columnas.put("anio", (dto, v) -> dto.setAnio(entero("anio", v)));
+        columnas.put("ano", columnas.get("anio"));
+        columnas.put("saga", ProductoRequestDTO::setSaga);
+        columnas.put("portadasaga", ProductoRequestDTO::setPortadaSaga);
+
+        alias(columnas, (dto, v) -> dto.setTipoProductoId(catalogos.resolver(ProductoImportacionCatalogos.TIPO_PRODUCTO, v)),
+                "tipoproducto", "tipoproductoid");
+        alias(columnas, (dto, v) -> dto.setClasificacionId(catalogos.resolver(ProductoImportacionCatalogos.CLASIFICACION, v)),
+                "clasificacion", "clasificacionid");
+        alias(columnas, (dto, v) -> dto.setEstadoId(catalogos.resolver(ProductoImportacionCatalogos.ESTADO, v)),
+                "estado", "estadoid");
+        alias(columnas, (dto, v) -> dto.setTipoEmpresaId(catalogos.resolver(ProductoImportacionCatalogos.TIPO_EMPRESA, v)),
+                "tipoempresa", "tipoempresaid");
+        alias(columnas, (dto, v) -> dto.setTipoDesarrolladorId(catalogos.resolver(ProductoImportacionCatalogos.TIPO_DESARROLLADOR, v)),
+                "tipodesarrollador", "tipodesarrolladorid");
+
+        alias(columnas, (dto, v) -> dto.setPlataformasIds(lista(ProductoImportacionCatalogos.PLATAFORMA, v)),
+                "plataformas", "plataformasids");
+        alias(columnas, (dto, v) -> dto.setGenerosIds(lista(ProductoImportacionCatalogos.GENERO, v)),
+                "generos", "generosids");
+        alias(columnas, (dto, v) -> dto.setEmpresasIds(lista(ProductoImportacionCatalogos.EMPRESA, v)),
+                "empresas", "empresasids");
+        alias(columnas, (dto, v) -> dto.setDesarrolladoresIds(lista(ProductoImportacionCatalogos.DESARROLLADOR, v)),
+                "desarrolladores", "desarrolladoresids");
+        alias(columnas, (dto, v) -> dto.setImagenesRutas(partes(v)),
+                "imagenes", "imagenesrutas");
+
+        return columnas;
+    }
+
+    private static void alias(Map<String, BiConsumer<ProductoRequestDTO, String>> columnas,
+                              BiConsumer<ProductoRequestDTO, String> aplicar, String... claves) {
+        for (String clave : claves) columnas.put(clave, aplicar);
+    }
+
+    private List<Long> lista(String catalogo, String celda) {
+        List<Long> ids = new ArrayList<>();
+        for (String parte : partes(celda)) ids.add(catalogos.resolver(catalogo, parte));
+        return ids;
+    }
+
+    private static List<String> partes(String celda) {
+        List<String> partes = new ArrayList<>();
+        for (String parte : celda.split("\\|")) {
+            if (!parte.isBlank()) partes.add(parte.trim());
+        }
+        return partes;
+    }
+
+    private static Double numero(String columna, String valor) {
+        try {
+            return Double.valueOf(valor.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número: '" + valor + "'");
+        }
+    }
+
+    private static Integer entero(String columna, String valor) {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un entero: '" + valor + "'");
+        }
+    }
+
+    static String claveEncabezado(String encabezado) {
+        return Normalizer.normalize(encabezado, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-z0-9]", "");
+    }
+
+    /**
+     * Registros CSV sobre un Reader: un registro puede ocupar varias líneas
+     * si un campo entre comillas trae saltos de línea.
+     */
+    static class RegistroCsv {
+
+        private final BufferedReader lector;
+        private final char separador;
+        private long lineaActual = 1;   // la 1 es el encabezado, ya leído
+        @Getter
+        private long lineaInicio;
+
+        RegistroCsv(BufferedReader lector, char separador) {
+            this.lector = lector;
+            this.separador = separador;
+        }
+
+        /** Próximo registro o null al terminar el archivo. */
+        List<String> siguiente() throws IOException {
+            String linea = lector.readLine();
+            if (linea == null) return null;
+            lineaActual++;
+            lineaInicio = lineaActual;
+
+            StringBuilder registro = new StringBuilder(linea);
+            while (comillasAbiertas(registro)) {
+                String continuacion = lector.readLine();
+                if (continuacion == null) break;
+                lineaActual++;
+                registro.append('\n').append(continuacion);
+            }
+            return separar(registro.toString(), separador);
+        }
+
+        static List<String> separar(String registro, char separador) {
+            List<String> celdas = new ArrayList<>();
+            StringBuilder celda = new StringBuilder();
+            boolean enComillas = false;
+
+            for (int i = 0; i < registro.length(); i++) {
+                char c = registro.charAt(i);
+                if (enComillas) {
+                    if (c == '"' && i + 1 < registro.length() && registro.charAt(i + 1) == '"') {
+                        celda.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        enComillas = false;
+                    } else {
+                        celda.append(c);
+                    }
+                } else if (c == '"') {
+                    enComillas = true;
+                } else if (c == separador) {
+                    celdas.add(celda.toString());
+                    celda.setLength(0);
+                } else if (c != '\r') {
+                    celda.append(c);
+                }
+            }
+            celdas.add(celda.toString());
+            return celdas;
+        }
+
+        private static boolean comillasAbiertas(CharSequence registro) {
+            int comillas = 0;
+            for (int i = 0; i < registro.length(); i++) {
+                if (registro.charAt(i) == '"') comillas++;
+            }
+            return comillas % 2 != 0;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+// ¿Para qué sirve?
+//   Escribe un lote de productos YA validados de una importación masiva,
+//   en una transacción: productos, imágenes, tablas puente y links de compra.
+//
+// ¿Cómo?
+//   - productos: un batch JDBC que devuelve los ids generados por la
+//     secuencia IDENTITY (getGeneratedKeys), en el mismo orden del lote.
+//     Con JPA serían un INSERT + lectura de id por fila.
+//   - el resto: un batchUpdate por tabla usando esos ids.
+//   - un evento PRODUCTO_CREADO por producto en producto_outbox (mismo
+//     batch, misma transacción), para el enriquecimiento en segundo plano.
+//   - después del commit se refrescan esas filas en el snapshot de resúmenes.
+//
+// Si algo falla se revierte el lote completo; ProductoImportacionService
+// lo reintenta fila por fila para saber cuál fue.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO;
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@Service
+@Transactional
+public class ProductoImportacionLoteService {
+
+    private static final String INSERT_PRODUCTO = """
+            INSERT INTO productos
+                (nombre, precio, sinopsis, url_trailer, anio, saga, portada_saga, imagen_portada,
+                 tipo_producto_id, clasificacion_id, estado_id, tipo_empresa_id, tipo_desarrollador_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
+    @Autowired
+    private ProductoOutboxService outboxService;
+
+    /**
+     * Inserta el lote y devuelve los ids generados, uno por producto y en
+     * el mismo orden.
+     */
+    public List<Long> insertar(List<ProductoRequestDTO> lote) {
+        List<Long> ids = insertarProductos(lote);
+
+        List<Object[]> imagenes = new ArrayList<>();
+        List<Object[]> plataformas = new ArrayList<>();
+        List<Object[]> generos = new ArrayList<>();
+        List<Object[]> empresas = new ArrayList<>();
+        List<Object[]> desarrolladores = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+
+        for (int i = 0; i < lote.size(); i++) {
+            ProductoRequestDTO dto = lote.get(i);
+            Long productoId = ids.get(i);
+
+            if (dto.getImagenesRutas() != null) {
+                for (String ruta : dto.getImagenesRutas()) {
+                    if (ruta != null && !ruta.isBlank()) {
+                        imagenes.add(new Object[] { ruta.trim(), dto.getNombre(), productoId });
+                    }
+                }
+            }
+            pares(plataformas, productoId, dto.getPlataformasIds());
+            pares(generos, productoId, dto.getGenerosIds());
+            pares(empresas, productoId, dto.getEmpresasIds());
+            pares(desarrolladores, productoId, dto.getDesarrolladoresIds());
+
+            if (dto.getLinksCompra() != null) {
+                for (LinkCompraDTO link : dto.getLinksCompra()) {
+                    links.add(new Object[] {
+                            productoId,
+                            link.getPlataformaId(),
+                            link.getUrl(),
+                            link.getLabel(),
+                            link.getAppId(),
+                            link.getPrecioActual(),
+                            link.getPrecioActual() != null ? Timestamp.valueOf(LocalDateTime.now()) : null
+                    });
+                }
+            }
+        }
+
+        batch("INSERT INTO imagenes (ruta, alt_text, producto_id) VALUES (?, ?, ?)", imagenes);
+        batch("INSERT INTO plataformas (producto_id, plataforma_id) VALUES (?, ?)", plataformas);
+        batch("INSERT INTO generos (producto_id, genero_id) VALUES (?, ?)", generos);
+        batch("INSERT INTO empresas (producto_id, empresa_id) VALUES (?, ?)", empresas);
+        batch("INSERT INTO desarrolladores (producto_id, desarrollador_id) VALUES (?, ?)", desarrolladores);
+        batch("""
+                INSERT INTO producto_links_compra
+                    (producto_id, plataforma_id, url, label, app_id, precio_actual, fecha_ultima_actualizacion)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, links);
+
+        outboxService.registrarCreados(ids);
+        resumenSnapshotService.refrescarProductos(ids);
+        return ids;
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private List<Long> insertarProductos(List<ProductoRequestDTO> lote) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT_PRODUCTO, Statement.RETURN_GENERATED_KEYS)) {
+                for (ProductoRequestDTO dto : lote) {
+                    ps.setString(1, dto.getNombre().trim());
+                    poner(ps, 2, dto.getPrecio(), Types.DOUBLE);
+                    poner(ps, 3, dto.getSinopsis(), Types.VARCHAR);
+                    poner(ps, 4, dto.getUrlTrailer(), Types.VARCHAR);
+                    poner(ps, 5, dto.getAnio(), Types.INTEGER);
+                    poner(ps, 6, dto.getSaga(), Types.VARCHAR);
+                    poner(ps, 7, dto.getPortadaSaga(), Types.VARCHAR);
+                    poner(ps, 8, portada(dto), Types.VARCHAR);
+                    poner(ps, 9, dto.getTipoProductoId(), Types.BIGINT);
+                    poner(ps, 10, dto.getClasificacionId(), Types.BIGINT);
+                    poner(ps, 11, dto.getEstadoId(), Types.BIGINT);
+                    poner(ps, 12, dto.getTipoEmpresaId(), Types.BIGINT);
+                    poner(ps, 13, dto.getTipoDesarrolladorId(), Types.BIGINT);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> ids = new ArrayList<>(lote.size());
+                try (ResultSet claves = ps.getGeneratedKeys()) {
+                    while (claves.next()) ids.add(claves.getLong("id"));
+                }
+                if (ids.size() != lote.size()) {
+                    throw new IllegalStateException("Se esperaban " + lote.size()
+                            + " ids generados y llegaron " + ids.size());
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Misma regla que ProductoService: la portada es la primera imagen
+    private static String portada(ProductoRequestDTO dto) {
+        if (dto.getImagenesRutas() == null) return null;
+        return dto.getImagenesRutas().stream()
+                .filter(ruta -> ruta != null && !ruta.isBlank())
+                .map(String::trim)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static void poner(PreparedStatement ps, int indice, Object valor, int tipoSql) throws SQLException {
+        if (valor == null) {
+            ps.setNull(indice, tipoSql);
+        } else {
+            ps.setObject(indice, valor, tipoSql);
+        }
+    }
+
+    // Sin repetidos: las tablas puente tienen UNIQUE (producto_id, valor)
+    private static void pares(List<Object[]> filas, Long productoId, List<Long> valorIds) {
+        if (valorIds == null) return;
+        for (Long valorId : new LinkedHashSet<>(valorIds)) {
+            if (valorId != null) filas.add(new Object[] { productoId, valorId });
+        }
+    }
+
+    private void batch(String sql, List<Object[]> filas) {
+        if (!filas.isEmpty()) jdbcTemplate.batchUpdate(sql, filas);
+    }
+}
@@ -0,0 +1,228 @@
+// ¿Para qué sirve?
+//   Importación masiva de productos (POST /api/v1/productos/importar) desde
+//   NDJSON o CSV, pensada para decenas de miles de filas.
+//
+// ¿Cómo?
+//   1) Carga los catálogos UNA vez (id y nombre) en ProductoImportacionCatalogos.
+//   2) Lee el archivo en streaming (ProductoImportacionLector) y valida cada
+//      fila en memoria: obligatorios, largos y que los ids existan.
+//      Una fila inválida se anota con su número de línea y se sigue.
+//   3) Junta filas válidas en lotes (productos.importacion.lote) y cada lote
+//      se escribe en su propia transacción con batches JDBC
+//      (ProductoImportacionLoteService). Si un lote falla en la BD, se
+//      reintenta fila por fila para reportar solo las que fallan.
+//   4) Al terminar: invalida facetas y reconstruye sugerencias. Precio de
+//      Steam + embedding quedan como eventos en producto_outbox (uno por
+//      producto, escritos en el mismo lote) y los procesa
+//      ProductoEnriquecimientoService en segundo plano.
+//
+// A diferencia de POST /productos, no llama a Steam por fila: con 50.000
+// filas serían 50.000 llamadas HTTP dentro de la importación.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO;
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoImportacionErrorDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoImportacionResultadoDTO;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ProductoImportacionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoImportacionService.class);
+
+    @Autowired
+    private ProductoImportacionLoteService loteService;
+
+    @Autowired
+    private ProductoSugerenciasService sugerenciasService;
+
+    @Autowired
+    private ProductoFacetasService facetasService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${productos.importacion.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${productos.importacion.max-errores:1000}")
+    private int maxErrores;
+
+    public ProductoImportacionResultadoDTO importar(InputStream entrada, ProductoImportacionLector.Formato formato)
+            throws IOException {
+        long inicio = System.currentTimeMillis();
+
+        ProductoImportacionCatalogos catalogos = cargarCatalogos();
+        Progreso progreso = new Progreso();
+        List<ProductoImportacionLector.Fila> lote = new ArrayList<>(tamanoLote);
+
+        new ProductoImportacionLector(objectMapper, catalogos).leer(entrada, formato, fila -> {
+            progreso.leidas++;
+
+            String error = fila.getError() != null ? fila.getError() : validar(fila.getProducto(), catalogos);
+            if (error != null) {
+                progreso.rechazar(fila.getNumero(), error);
+                return;
+            }
+
+            lote.add(fila);
+            if (lote.size() >= tamanoLote) {
+                escribir(lote, progreso);
+                lote.clear();
+            }
+        });
+        if (!lote.isEmpty()) escribir(lote, progreso);
+
+        if (progreso.insertadas > 0) {
+            facetasService.invalidar();
+            sugerenciasService.construir();
+        }
+
+        long duracion = System.currentTimeMillis() - inicio;
+        log.info("Importación: {}/{} productos importados en {} ms",
+                progreso.insertadas, progreso.leidas, duracion);
+
+        return new ProductoImportacionResultadoDTO(
+                progreso.leidas,
+                progreso.insertadas,
+                progreso.rechazadas,
+                progreso.errores,
+                progreso.rechazadas > progreso.errores.size(),
+                duracion
+        );
+    }
+
+    /* ================= VALIDACIÓN ================= */
+
+    /**
+     * Primer problema de la fila, o null si se puede insertar. Deja los links
+     * de compra normalizados igual que ProductoService (un link por
+     * plataforma, label por defecto = nombre de la plataforma).
+     */
+    private String validar(ProductoRequestDTO dto, ProductoImportacionCatalogos catalogos) {
+        if (dto.getNombre() == null || dto.getNombre().isBlank()) return "nombre es obligatorio";
+        if (dto.getTipoProductoId() == null) return "Debe indicar un tipo de producto válido.";
+        if (dto.getClasificacionId() == null) return "Debe indicar una clasificación válida.";
+        if (dto.getEstadoId() == null) return "Debe indicar un estado válido.";
+
+        String largo = largo("nombre", dto.getNombre().trim(), 100);
+        if (largo == null) largo = largo("sinopsis", dto.getSinopsis(), 2000);
+        if (largo == null) largo = largo("urlTrailer", dto.getUrlTrailer(), 500);
+        if (largo == null) largo = largo("saga", dto.getSaga(), 100);
+        if (largo == null) largo = largo("portadaSaga", dto.getPortadaSaga(), 255);
+        if (largo != null) return largo;
+
+        List<String> errores = catalogos.errores(dto);
+        if (!errores.isEmpty()) return String.join("; ", errores);
+
+        if (dto.getLinksCompra() != null) {
+            Map<Long, LinkCompraDTO> porPlataforma = new LinkedHashMap<>();
+            for (LinkCompraDTO link : dto.getLinksCompra()) {
+                if (link.getUrl() == null || link.getUrl().isBlank()) return "url es obligatoria";
+
+                LinkCompraDTO actual = porPlataforma.computeIfAbsent(link.getPlataformaId(), id -> {
+                    LinkCompraDTO nuevo = new LinkCompraDTO();
+                    nuevo.setPlataformaId(id);
+                    nuevo.setLabel(catalogos.nombre(ProductoImportacionCatalogos.PLATAFORMA, id));
+                    return nuevo;
+                });
+                actual.setUrl(link.getUrl().trim());
+                if (link.getLabel() != null && !link.getLabel().isBlank()) actual.setLabel(link.getLabel().trim());
+                if (link.getAppId() != null && !link.getAppId().isBlank()) actual.setAppId(link.getAppId().trim());
+                if (link.getPrecioActual() != null) actual.setPrecioActual(link.getPrecioActual());
+            }
+            dto.setLinksCompra(new ArrayList<>(porPlataforma.values()));
+        }
+
+        return null;
+    }
+
+    private static String largo(String campo, String valor, int maximo) {
+        return valor != null && valor.length() > maximo
+                ? campo + " supera " + maximo + " caracteres"
+                : null;
+    }
+
+    /* ================= ESCRITURA ================= */
+
+    private void escribir(List<ProductoImportacionLector.Fila> filas, Progreso progreso) {
+        List<ProductoRequestDTO> productos = new ArrayList<>(filas.size());
+        for (ProductoImportacionLector.Fila fila : filas) productos.add(fila.getProducto());
+
+        try {
+            List<Long> ids = loteService.insertar(productos);
+            progreso.insertadas += ids.size();
+        } catch (RuntimeException e) {
+            if (filas.size() == 1) {
+                progreso.rechazar(filas.get(0).getNumero(),
+                        "No se pudo guardar: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            // El lote se revirtió completo: fila por fila para saber cuál falla
+            for (ProductoImportacionLector.Fila fila : filas) {
+                escribir(List.of(fila), progreso);
+            }
+        }
+    }
+
+    /* ================= CATÁLOGOS ================= */
+
+    private ProductoImportacionCatalogos cargarCatalogos() {
+        ProductoImportacionCatalogos catalogos = new ProductoImportacionCatalogos();
+
+        cargar(catalogos, ProductoImportacionCatalogos.TIPO_PRODUCTO, "tipo_productos");
+        cargar(catalogos, ProductoImportacionCatalogos.CLASIFICACION, "clasificaciones");
+        cargar(catalogos, ProductoImportacionCatalogos.ESTADO, "estados");
+        cargar(catalogos, ProductoImportacionCatalogos.TIPO_EMPRESA, "tipo_empresa");
+        cargar(catalogos, ProductoImportacionCatalogos.TIPO_DESARROLLADOR, "tipo_de_desarrollador");
+        cargar(catalogos, ProductoImportacionCatalogos.PLATAFORMA, "plataforma");
+        cargar(catalogos, ProductoImportacionCatalogos.GENERO, "genero");
+        cargar(catalogos, ProductoImportacionCatalogos.EMPRESA, "empresa");
+        cargar(catalogos, ProductoImportacionCatalogos.DESARROLLADOR, "desarrollador");
+
+        return catalogos;
+    }
+
+    private void cargar(ProductoImportacionCatalogos catalogos, String catalogo, String tabla) {
+        jdbcTemplate.query("SELECT id, nombre FROM " + tabla, (RowCallbackHandler) rs ->
+                catalogos.agregar(catalogo, rs.getLong("id"), rs.getString("nombre")));
+    }
+
+    /* ================= PROGRESO ================= */
+
+    private class Progreso {
+        long leidas;
+        long insertadas;
+        long rechazadas;
+        final List<ProductoImportacionErrorDTO> errores = new ArrayList<>();
+
+        void rechazar(long fila, String mensaje) {
+            rechazadas++;
+            if (errores.size() < maxErrores) {
+                errores.add(new ProductoImportacionErrorDTO(fila, mensaje));
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// ¿Para qué sirve?
+//   Escritura y lectura de producto_outbox (ver ProductoOutboxModel).
+//
+// ¿Cómo se usa?
+//   - ProductoService.save() y la importación masiva llaman a
+//     registrarCreado(s)() DENTRO de su transacción: el evento queda
+//     guardado junto con el producto, o no queda ninguno de los dos.
+//     Además se publica un ProductoCreadoEvent para despertar al worker.
+//   - ProductoEnriquecimientoService lee pendientes() y marca cada evento
+//     como procesado o registra el fallo.
+//
+// Reintentos: cada fallo suma un intento y pospone el siguiente con
+// espera exponencial (productos.outbox.espera-base-segundos × 2^(intentos-1)).
+// Al llegar a productos.outbox.max-intentos el evento queda FALLIDO y no se
+// reintenta más; el precio lo recupera igual PrecioSchedulerService.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.model.producto.ProductoOutboxModel;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoOutboxRepository;
+
+import jakarta.transaction.Transactional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Transactional
+public class ProductoOutboxService {
+
+    @Autowired
+    private ProductoOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${productos.outbox.max-intentos:6}")
+    private int maxIntentos;
+
+    @Value("${productos.outbox.espera-base-segundos:30}")
+    private long esperaBaseSegundos;
+
+    /* ================= REGISTRO ================= */
+
+    public void registrarCreado(Long productoId) {
+        outboxRepository.save(nuevo(productoId));
+        eventPublisher.publishEvent(new ProductoCreadoEvent(List.of(productoId)));
+    }
+
+    /** Versión por lote para la importación masiva: un batch JDBC. */
+    public void registrarCreados(List<Long> productoIds) {
+        if (productoIds.isEmpty()) return;
+
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> filas = new ArrayList<>(productoIds.size());
+        for (Long productoId : productoIds) {
+            filas.add(new Object[] { productoId, ProductoOutboxModel.PRODUCTO_CREADO,
+                    ProductoOutboxModel.PENDIENTE, ahora, ahora });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO producto_outbox (producto_id, evento, estado, intentos, proximo_intento, fecha_creacion)
+                VALUES (?, ?, ?, 0, ?, ?)
+                """, filas);
+        eventPublisher.publishEvent(new ProductoCreadoEvent(List.copyOf(productoIds)));
+    }
+
+    /* ================= PROCESAMIENTO ================= */
+
+    public List<ProductoOutboxModel> pendientes(int limite) {
+        return outboxRepository.findPendientes(LocalDateTime.now(), PageRequest.of(0, limite));
+    }
+
+    public void marcarProcesados(Collection<Long> eventoIds) {
+        if (eventoIds.isEmpty()) return;
+
+        LocalDateTime ahora = LocalDateTime.now();
+        for (ProductoOutboxModel evento : outboxRepository.findAllById(eventoIds)) {
+            evento.setEstado(ProductoOutboxModel.PROCESADO);
+            evento.setFechaProcesado(ahora);
+            evento.setUltimoError(null);
+        }
+    }
+
+    public void registrarFallo(Long eventoId, String error) {
+        outboxRepository.findById(eventoId).ifPresent(evento -> {
+            int intentos = evento.getIntentos() + 1;
+            evento.setIntentos(intentos);
+            evento.setUltimoError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+            if (intentos >= maxIntentos) {
+                evento.setEstado(ProductoOutboxModel.FALLIDO);
+            } else {
+                long espera = esperaBaseSegundos << Math.min(intentos - 1, 20);
+                evento.setProximoIntento(LocalDateTime.now().plusSeconds(espera));
+            }
+        });
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private ProductoOutboxModel nuevo(Long productoId) {
+        ProductoOutboxModel evento = new ProductoOutboxModel();
+        evento.setProductoId(productoId);
+        evento.setEvento(ProductoOutboxModel.PRODUCTO_CREADO);
+        evento.setEstado(ProductoOutboxModel.PENDIENTE);
+        evento.setIntentos(0);
+        evento.setProximoIntento(LocalDateTime.now());
+        return evento;
+    }
+}
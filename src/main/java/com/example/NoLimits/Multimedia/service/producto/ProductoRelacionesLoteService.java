@@ -0,0 +1,128 @@
+// ¿Para qué sirve?
+//   Inserta las filas NUEVAS de las tablas puente de un producto
+//   (plataformas, generos, empresas, desarrolladores, producto_links_compra)
+//   con un batch JDBC por tabla.
+//
+// ¿Por qué no con JPA?
+//   Esas tablas usan id IDENTITY: Hibernate ejecuta cada INSERT por separado
+//   para leer el id generado, así que hibernate.jdbc.batch_size no aplica.
+//   Un producto con 20 géneros y plataformas eran 20+ INSERT sueltos.
+//
+// ¿Cómo se usa?
+//   1) ProductoService.sync*() valida los ids (findAllById) y deja las filas
+//      a insertar en un Pendientes.
+//   2) Después de productoRepository.save() se llama escribir(): flush (las
+//      relaciones quitadas se borran antes, por los UNIQUE producto+valor),
+//      batch por tabla y detach del producto, para que el findByIdFull()
+//      siguiente lo lea desde la BD con las filas nuevas.
+//   Sin pendientes no hace nada (ni flush ni detach).
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.model.producto.ProductoLinkCompraModel;
+import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+
+import lombok.Getter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Service
+@Transactional
+public class ProductoRelacionesLoteService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Filas puente por insertar para un producto. Se llena en los sync*()
+     * de ProductoService, antes de conocer el id de un producto nuevo.
+     */
+    @Getter
+    public static class Pendientes {
+        private final List<Long> plataformaIds = new ArrayList<>();
+        private final List<Long> generoIds = new ArrayList<>();
+        private final List<Long> empresaIds = new ArrayList<>();
+        private final List<Long> desarrolladorIds = new ArrayList<>();
+        // Sin producto asignado: el id se toma en escribir()
+        private final List<ProductoLinkCompraModel> links = new ArrayList<>();
+
+        public boolean isVacio() {
+            return plataformaIds.isEmpty() && generoIds.isEmpty() && empresaIds.isEmpty()
+                    && desarrolladorIds.isEmpty() && links.isEmpty();
+        }
+    }
+
+    /**
+     * Inserta las filas pendientes del producto (ya guardado, con id).
+     * Deja el producto fuera del contexto de persistencia.
+     */
+    public void escribir(ProductoModel producto, Pendientes pendientes) {
+        if (pendientes == null || pendientes.isVacio()) return;
+
+        Long productoId = producto.getId();
+        entityManager.flush();
+
+        insertarPares("INSERT INTO plataformas (producto_id, plataforma_id) VALUES (?, ?)",
+                productoId, pendientes.getPlataformaIds());
+        insertarPares("INSERT INTO generos (producto_id, genero_id) VALUES (?, ?)",
+                productoId, pendientes.getGeneroIds());
+        insertarPares("INSERT INTO empresas (producto_id, empresa_id) VALUES (?, ?)",
+                productoId, pendientes.getEmpresaIds());
+        insertarPares("INSERT INTO desarrolladores (producto_id, desarrollador_id) VALUES (?, ?)",
+                productoId, pendientes.getDesarrolladorIds());
+        insertarLinks(productoId, pendientes.getLinks());
+
+        // Las colecciones en memoria no tienen las filas recién insertadas
+        entityManager.detach(producto);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private void insertarPares(String sql, Long productoId, Collection<Long> valorIds) {
+        if (valorIds.isEmpty()) return;
+
+        List<Object[]> filas = new ArrayList<>(valorIds.size());
+        for (Long valorId : valorIds) {
+            filas.add(new Object[] { productoId, valorId });
+        }
+        jdbcTemplate.batchUpdate(sql, filas);
+    }
+
+    private void insertarLinks(Long productoId, List<ProductoLinkCompraModel> links) {
+        if (links.isEmpty()) return;
+
+        List<Object[]> filas = new ArrayList<>(links.size());
+        for (ProductoLinkCompraModel link : links) {
+            filas.add(new Object[] {
+                    productoId,
+                    link.getPlataforma().getId(),
+                    link.getUrl(),
+                    link.getLabel(),
+                    link.getAppId(),
+                    link.getPrecioActual(),
+                    link.getFechaUltimaActualizacion() != null
+                            ? Timestamp.valueOf(link.getFechaUltimaActualizacion())
+                            : null
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO producto_links_compra
+                    (producto_id, plataforma_id, url, label, app_id, precio_actual, fecha_ultima_actualizacion)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, filas);
+    }
+}
@@ -0,0 +1,317 @@
+// ¿Para qué sirve?
+//   Foto inmutable (snapshot) de TODAS las filas de ProductoResumenDTO,
+//   guardada en arreglos compactos (una columna por arreglo) y con índices
+//   por tipo de producto, estado y saga.
+//
+// ¿Quién la usa?
+//   ProductoResumenSnapshotService la mantiene y ProductoService la consulta
+//   para los listados (findAll, findAllPaged, findByTipoProducto, findByEstado,
+//   findBySaga) sin tocar la base de datos.
+//
+// Reglas:
+//   - Nunca se modifica. Cada cambio genera una NUEVA instancia con version + 1.
+//   - Las filas están ordenadas por id ASC (mismo orden que los listados paginados).
+//   - Los DTO se crean al leer, así nadie puede alterar la foto compartida.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.pagination.CursorKeyset;
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public final class ProductoResumenSnapshot {
+
+    private static final int[] SIN_POSICIONES = new int[0];
+
+    private final long version;
+
+    // Columnas (misma posición = mismo producto)
+    private final long[] ids;
+    private final String[] nombres;
+    private final double[] precios;          // NaN = precio null
+    private final String[] tiposNombre;
+    private final String[] estadosNombre;
+    private final String[] sagas;
+    private final String[] portadasSaga;
+    private final String[] imagenesPortada;
+    private final long[] tipoIds;
+    private final long[] estadoIds;
+
+    // Índices: valor → posiciones (ascendentes) dentro de las columnas
+    private final Map<Long, int[]> porTipo;
+    private final Map<Long, int[]> porEstado;
+    private final Map<String, int[]> porSaga;  // clave en minúsculas
+
+    private ProductoResumenSnapshot(long version, List<Object[]> filasOrdenadas) {
+        int n = filasOrdenadas.size();
+
+        this.version = version;
+        this.ids = new long[n];
+        this.nombres = new String[n];
+        this.precios = new double[n];
+        this.tiposNombre = new String[n];
+        this.estadosNombre = new String[n];
+        this.sagas = new String[n];
+        this.portadasSaga = new String[n];
+        this.imagenesPortada = new String[n];
+        this.tipoIds = new long[n];
+        this.estadoIds = new long[n];
+
+        // Los nombres de tipo/estado se repiten en miles de filas:
+        // se comparte una sola instancia de cada String.
+        Map<String, String> diccionario = new HashMap<>();
+
+        Map<Long, List<Integer>> tipos = new HashMap<>();
+        Map<Long, List<Integer>> estados = new HashMap<>();
+        Map<String, List<Integer>> sagasIdx = new HashMap<>();
+
+        for (int i = 0; i < n; i++) {
+            Object[] fila = filasOrdenadas.get(i);
+
+            ids[i] = ((Number) fila[0]).longValue();
+            nombres[i] = (String) fila[1];
+            precios[i] = fila[2] != null ? ((Number) fila[2]).doubleValue() : Double.NaN;
+            tiposNombre[i] = compartir(diccionario, (String) fila[3]);
+            estadosNombre[i] = compartir(diccionario, (String) fila[4]);
+            sagas[i] = compartir(diccionario, (String) fila[5]);
+            portadasSaga[i] = compartir(diccionario, (String) fila[6]);
+            imagenesPortada[i] = (String) fila[7];
+            tipoIds[i] = fila[8] != null ? ((Number) fila[8]).longValue() : 0L;
+            estadoIds[i] = fila[9] != null ? ((Number) fila[9]).longValue() : 0L;
+
+            tipos.computeIfAbsent(tipoIds[i], k -> new ArrayList<>()).add(i);
+            estados.computeIfAbsent(estadoIds[i], k -> new ArrayList<>()).add(i);
+
+            String claveSaga = claveSaga(sagas[i]);
+            if (claveSaga != null) {
+                sagasIdx.computeIfAbsent(claveSaga, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        this.porTipo = congelar(tipos);
+        this.porEstado = congelar(estados);
+        this.porSaga = congelar(sagasIdx);
+    }
+
+    /* ================= CONSTRUCCIÓN ================= */
+
+    public static ProductoResumenSnapshot vacio() {
+        return new ProductoResumenSnapshot(0L, Collections.emptyList());
+    }
+
+    /**
+     * Crea la foto a partir de las filas de
+     * {@code ProductoRepository.obtenerResumenSnapshot()}:
+     * [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga,
+     *  imagenPortada, tipoId, estadoId].
+     */
+    public static ProductoResumenSnapshot desdeFilas(long version, List<Object[]> filas) {
+        TreeMap<Long, Object[]> ordenadas = new TreeMap<>();
+        for (Object[] fila : filas) {
+            if (fila != null && fila[0] != null) {
+                ordenadas.put(((Number) fila[0]).longValue(), fila);
+            }
+        }
+        return new ProductoResumenSnapshot(version, new ArrayList<>(ordenadas.values()));
+    }
+
+    /**
+     * Devuelve una NUEVA foto con las filas nuevas/modificadas reemplazadas
+     * y los ids eliminados quitados. No vuelve a leer el resto del catálogo.
+     */
+    public ProductoResumenSnapshot conCambios(Collection<Object[]> filasActualizadas, Set<Long> idsEliminados) {
+        TreeMap<Long, Object[]> ordenadas = new TreeMap<>();
+
+        for (int i = 0; i < ids.length; i++) {
+            if (!idsEliminados.contains(ids[i])) {
+                ordenadas.put(ids[i], filaEn(i));
+            }
+        }
+
+        for (Object[] fila : filasActualizadas) {
+            if (fila != null && fila[0] != null) {
+                ordenadas.put(((Number) fila[0]).longValue(), fila);
+            }
+        }
+
+        return new ProductoResumenSnapshot(version + 1, new ArrayList<>(ordenadas.values()));
+    }
+
+    /* ================= CONSULTAS ================= */
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contiene(Long id) {
+        return id != null && Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public List<ProductoResumenDTO> todos() {
+        List<ProductoResumenDTO> lista = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            lista.add(toDTO(i));
+        }
+        return lista;
+    }
+
+    /**
+     * Filas de los ids indicados, en el mismo orden. Los que no existen se omiten.
+     */
+    public List<ProductoResumenDTO> porIds(List<Long> productoIds) {
+        List<ProductoResumenDTO> lista = new ArrayList<>(productoIds.size());
+        for (Long id : productoIds) {
+            int posicion = id != null ? Arrays.binarySearch(ids, id) : -1;
+            if (posicion >= 0) lista.add(toDTO(posicion));
+        }
+        return lista;
+    }
+
+    public PagedResponse<ProductoResumenDTO> pagina(int page, int size) {
+        return paginar(null, page, size);
+    }
+
+    public PagedResponse<ProductoResumenDTO> paginaPorTipo(Long tipoProductoId, int page, int size) {
+        return paginar(porTipo.getOrDefault(tipoProductoId, SIN_POSICIONES), page, size);
+    }
+
+    public PagedResponse<ProductoResumenDTO> paginaPorEstado(Long estadoId, int page, int size) {
+        return paginar(porEstado.getOrDefault(estadoId, SIN_POSICIONES), page, size);
+    }
+
+    public PagedResponse<ProductoResumenDTO> paginaPorSaga(String saga, int page, int size) {
+        String clave = claveSaga(saga);
+        int[] posiciones = clave != null ? porSaga.getOrDefault(clave, SIN_POSICIONES) : SIN_POSICIONES;
+        return paginar(posiciones, page, size);
+    }
+
+    /* ================= MODO CURSOR (KEYSET) ================= */
+
+    public PagedResponse<ProductoResumenDTO> despuesDe(long cursor, int size, boolean conTotal) {
+        return buscarDespuesDe(null, cursor, size, conTotal);
+    }
+
+    public PagedResponse<ProductoResumenDTO> porTipoDespuesDe(Long tipoProductoId, long cursor, int size, boolean conTotal) {
+        return buscarDespuesDe(porTipo.getOrDefault(tipoProductoId, SIN_POSICIONES), cursor, size, conTotal);
+    }
+
+    public PagedResponse<ProductoResumenDTO> porEstadoDespuesDe(Long estadoId, long cursor, int size, boolean conTotal) {
+        return buscarDespuesDe(porEstado.getOrDefault(estadoId, SIN_POSICIONES), cursor, size, conTotal);
+    }
+
+    public PagedResponse<ProductoResumenDTO> porSagaDespuesDe(String saga, long cursor, int size, boolean conTotal) {
+        String clave = claveSaga(saga);
+        int[] posiciones = clave != null ? porSaga.getOrDefault(clave, SIN_POSICIONES) : SIN_POSICIONES;
+        return buscarDespuesDe(posiciones, cursor, size, conTotal);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    /**
+     * Primera posición con id > cursor (búsqueda binaria) y desde ahí
+     * toma size filas. Equivale a WHERE p.id > :cursor ORDER BY p.id LIMIT size.
+     */
+    private PagedResponse<ProductoResumenDTO> buscarDespuesDe(int[] posiciones, long cursor, int size, boolean conTotal) {
+        int total = posiciones != null ? posiciones.length : ids.length;
+
+        int bajo = 0;
+        int alto = total;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            long id = ids[posiciones != null ? posiciones[medio] : medio];
+            if (id <= cursor) bajo = medio + 1;
+            else alto = medio;
+        }
+
+        int hasta = (int) Math.min((long) bajo + Math.max(size, 0), total);
+        List<ProductoResumenDTO> contenido = new ArrayList<>(hasta - bajo);
+        for (int k = bajo; k < hasta; k++) {
+            contenido.add(toDTO(posiciones != null ? posiciones[k] : k));
+        }
+
+        boolean hayMas = hasta < total;
+        String siguiente = hayMas && !contenido.isEmpty()
+                ? CursorKeyset.codificar(contenido.get(contenido.size() - 1).getId())
+                : null;
+
+        int totalPaginas = conTotal && size > 0 ? (int) Math.ceil((double) total / size) : -1;
+        return new PagedResponse<>(contenido, 0, totalPaginas, conTotal ? total : -1L, siguiente, hayMas);
+    }
+
+    /**
+     * Pagina sobre las posiciones indicadas (o sobre todas si es null),
+     * con la misma semántica que PageRequest.of(page - 1, size).
+     */
+    private PagedResponse<ProductoResumenDTO> paginar(int[] posiciones, int page, int size) {
+        int total = posiciones != null ? posiciones.length : ids.length;
+        int desde = (int) Math.min(Math.max(0L, (long) (page - 1) * size), total);
+        int hasta = (int) Math.min((long) desde + size, total);
+
+        List<ProductoResumenDTO> contenido = new ArrayList<>(hasta - desde);
+        for (int k = desde; k < hasta; k++) {
+            contenido.add(toDTO(posiciones != null ? posiciones[k] : k));
+        }
+
+        int totalPaginas = size > 0 ? (int) Math.ceil((double) total / size) : 0;
+        return new PagedResponse<>(contenido, page, totalPaginas, total);
+    }
+
+    private ProductoResumenDTO toDTO(int i) {
+        return new ProductoResumenDTO(
+                ids[i],
+                nombres[i],
+                Double.isNaN(precios[i]) ? null : precios[i],
+                tiposNombre[i],
+                estadosNombre[i],
+                sagas[i],
+                portadasSaga[i],
+                imagenesPortada[i]
+        );
+    }
+
+    private Object[] filaEn(int i) {
+        return new Object[] {
+                ids[i],
+                nombres[i],
+                Double.isNaN(precios[i]) ? null : precios[i],
+                tiposNombre[i],
+                estadosNombre[i],
+                sagas[i],
+                portadasSaga[i],
+                imagenesPortada[i],
+                tipoIds[i],
+                estadoIds[i]
+        };
+    }
+
+    private static String claveSaga(String saga) {
+        return saga != null ? saga.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String compartir(Map<String, String> diccionario, String valor) {
+        if (valor == null) return null;
+        return diccionario.computeIfAbsent(valor, v -> v);
+    }
+
+    private static <K> Map<K, int[]> congelar(Map<K, List<Integer>> indice) {
+        Map<K, int[]> resultado = new HashMap<>(indice.size() * 2);
+        indice.forEach((clave, posiciones) ->
+                resultado.put(clave, posiciones.stream().mapToInt(Integer::intValue).toArray()));
+        return Collections.unmodifiableMap(resultado);
+    }
+}
@@ -0,0 +1,226 @@
+// ¿Para qué sirve?
+//   Mantiene en memoria la foto (ProductoResumenSnapshot) del catálogo liviano
+//   para que los listados de productos no consulten Postgres en cada request.
+//
+// ¿Cómo se mantiene al día?
+//   - Primera lectura: una sola query (obtenerResumenSnapshot) carga todo.
+//   - Escrituras de productos/imágenes: DESPUÉS del commit el id queda
+//     pendiente. Pasados productos.snapshot.espera-ms se vuelven a leer juntas
+//     las filas pendientes y se publica UNA nueva versión de la foto (armar
+//     una versión cuesta O(N); una importación de 10.000 productos hace una
+//     o pocas, no 10.000). Con espera-ms=0 se aplica apenas hace commit.
+//   - Cambios en catálogos que aparecen en la fila (tipo de producto, estado):
+//     se invalida la foto y se recarga completa en la siguiente lectura.
+//
+// Se puede apagar con productos.snapshot.enabled=false (ej: perfil test);
+// en ese caso ProductoService usa las queries paginadas de siempre.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductoResumenSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoResumenSnapshotService.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Value("${productos.snapshot.enabled:true}")
+    private boolean habilitado;
+
+    @Value("${productos.snapshot.espera-ms:250}")
+    private long esperaMs;
+
+    private final AtomicReference<ProductoResumenSnapshot> actual = new AtomicReference<>();
+
+    // Serializa cargas completas y cambios incrementales
+    // Lock y no synchronized: dentro se consulta la BD, y con hilos virtuales
+    // un synchronized deja fijado (pinned) el hilo portador mientras espera
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private long ultimaVersion = 0L;
+
+    // Ids escritos (creados, modificados o borrados) que la foto aún no refleja.
+    // Al aplicarlos se vuelve a leer su fila; si ya no existe, se quita.
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    // true = ya hay una aplicación programada; más escrituras solo suman ids
+    private final AtomicBoolean programado = new AtomicBoolean(false);
+
+    private final ScheduledExecutorService programador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "snapshot-productos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Foto vigente. La primera llamada (o la primera después de invalidar())
+     * la carga desde la BD; las siguientes no tocan la BD.
+     */
+    public ProductoResumenSnapshot obtener() {
+        ProductoResumenSnapshot snapshot = actual.get();
+        if (snapshot != null) return snapshot;
+
+        lock.lock();
+        try {
+            snapshot = actual.get();
+            if (snapshot == null) {
+                snapshot = ProductoResumenSnapshot.desdeFilas(++ultimaVersion,
+                        productoRepository.obtenerResumenSnapshot());
+                actual.set(snapshot);
+            }
+            return snapshot;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ================= ESCRITURAS ================= */
+
+    /**
+     * Vuelve a leer la fila de los productos indicados cuando la transacción
+     * actual haga commit (o de inmediato si no hay transacción).
+     */
+    public void refrescarProductos(Collection<Long> productoIds) {
+        if (!habilitado || productoIds == null || productoIds.isEmpty()) return;
+
+        Set<Long> ids = productoIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (ids.isEmpty()) return;
+
+        despuesDelCommit(() -> encolar(ids));
+    }
+
+    public void refrescarProducto(Long productoId) {
+        refrescarProductos(Collections.singleton(productoId));
+    }
+
+    /**
+     * Quita el producto de la foto cuando la transacción actual haga commit.
+     */
+    public void quitarProducto(Long productoId) {
+        if (!habilitado || productoId == null) return;
+        despuesDelCommit(() -> encolar(Collections.singleton(productoId)));
+    }
+
+    /**
+     * Descarta la foto. Se usa cuando cambia un dato compartido por muchas
+     * filas (ej: el nombre de un tipo de producto o de un estado).
+     */
+    public void invalidar() {
+        if (!habilitado) return;
+        despuesDelCommit(() -> {
+            lock.lock();
+            try {
+                actual.set(null);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private void encolar(Set<Long> ids) {
+        pendientes.addAll(ids);
+        if (esperaMs <= 0) {
+            aplicarPendientes();
+        } else if (programado.compareAndSet(false, true)) {
+            programador.schedule(this::aplicarPendientes, esperaMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Aplica de una vez todos los ids pendientes: una query por las filas
+     * y una sola versión nueva de la foto.
+     */
+    public void aplicarPendientes() {
+        programado.set(false);
+        if (pendientes.isEmpty()) return;
+
+        lock.lock();
+        try {
+            Set<Long> ids = new HashSet<>(pendientes);
+            pendientes.removeAll(ids);
+
+            ProductoResumenSnapshot snapshot = actual.get();
+
+            // Si todavía no se cargó, la primera lectura ya traerá los cambios
+            if (snapshot == null) return;
+
+            List<Object[]> filas;
+            try {
+                filas = productoRepository.obtenerResumenSnapshotPorIds(ids);
+            } catch (RuntimeException e) {
+                // Mejor recargar todo en la próxima lectura que servir datos viejos
+                log.warn("No se pudo refrescar el snapshot de productos: {}", e.getMessage());
+                actual.set(null);
+                return;
+            }
+
+            // Los ids pedidos que ya no existen se quitan
+            Set<Long> encontrados = filas.stream()
+                    .map(fila -> ((Number) fila[0]).longValue())
+                    .collect(Collectors.toSet());
+            Set<Long> eliminados = ids.stream()
+                    .filter(id -> !encontrados.contains(id))
+                    .collect(Collectors.toSet());
+
+            ProductoResumenSnapshot nueva = snapshot.conCambios(filas, eliminados);
+            ultimaVersion = nueva.getVersion();
+            actual.set(nueva);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        programador.shutdownNow();
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.NoLimits.Multimedia.service.producto;
 
 import com.example.NoLimits.Multimedia._exceptions.RecursoNoEncontradoException;
+import com.example.NoLimits.Multimedia.dto.pagination.CursorKeyset;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
 import com.example.NoLimits.Multimedia.dto.producto.mapper.ProductoMapper;
 import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
@@ -14,16 +15,19 @@ import com.example.NoLimits.Multimedia.repository.catalogos.*;
 import com.example.NoLimits.Multimedia.repository.producto.DetalleVentaRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
-import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
 
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,14 +52,35 @@ public class ProductoService {
     @Autowired
     private TipoDeDesarrolladorRepository tipoDeDesarrolladorRepository;
     // scraping Steam
-    @Autowired private ScrapingClientService scrapingClientService;
+    @Autowired private PrecioSteamCacheService precioSteamCacheService;
 
     // embeddings IA
     @Autowired private ProductoEmbeddingService productoEmbeddingService;
 
+    // snapshot en memoria de los listados (ProductoResumenDTO)
+    @Autowired private ProductoResumenSnapshotService resumenSnapshotService;
+
+    // detalle completo de varios productos en queries por lote
+    @Autowired private ProductoDetalleLoteService detalleLoteService;
+
+    // índice en memoria del typeahead (nombres y sagas)
+    @Autowired private ProductoSugerenciasService sugerenciasService;
+
+    // índice de facetas (/productos/facetas)
+    @Autowired private ProductoFacetasService facetasService;
+
+    // filas nuevas de las tablas puente en batch JDBC
+    @Autowired private ProductoRelacionesLoteService relacionesLoteService;
+
+    @Autowired private ProductoOutboxService outboxService;
+
     /* ================= CRUD BÁSICO ================= */
 
     public List<ProductoResumenDTO> findAll() {
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().todos();
+        }
+
         return productoRepository.obtenerProductosResumen()
                 .stream()
                 .map(this::mapResumenRow)
@@ -71,15 +96,17 @@ public class ProductoService {
         validarRequestObligatorio(dto);
 
         ProductoModel producto = new ProductoModel();
-        applyRequestToModel(dto, producto);
+        ProductoRelacionesLoteService.Pendientes pendientes = applyRequestToModel(dto, producto);
 
         ProductoModel guardado = productoRepository.save(producto);
+        relacionesLoteService.escribir(guardado, pendientes);
+        resumenSnapshotService.refrescarProducto(guardado.getId());
+        sugerenciasService.refrescarProducto(guardado.getId());
+        facetasService.invalidar();
 
-        try {
-            actualizarPrecioDesdeSteam(guardado.getId());
-        } catch (Exception e) {
-            System.out.println("No se pudo actualizar precio desde Steam al crear producto: " + e.getMessage());
-        }
+        // Precio de Steam + embedding: los hace ProductoEnriquecimientoService
+        // después del commit, a partir de este evento del outbox
+        outboxService.registrarCreado(guardado.getId());
 
         ProductoModel recargado = productoRepository.findByIdFull(guardado.getId())
                 .orElseThrow(() -> new RecursoNoEncontradoException("Producto no encontrado con ID: " + guardado.getId()));
@@ -99,8 +126,12 @@ public class ProductoService {
 
         validarRequestObligatorio(dto);
 
-        applyRequestToModel(dto, productoExistente);
+        ProductoRelacionesLoteService.Pendientes pendientes = applyRequestToModel(dto, productoExistente);
         productoRepository.save(productoExistente);
+        relacionesLoteService.escribir(productoExistente, pendientes);
+        resumenSnapshotService.refrescarProducto(id);
+        sugerenciasService.refrescarProducto(id);
+        facetasService.invalidar();
 
         ProductoModel recargado = productoRepository.findByIdFull(id)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Producto no encontrado con ID: " + id));
@@ -162,10 +193,11 @@ public class ProductoService {
             productoExistente.setTipoDesarrollador(tipoDesarrollador);
         }
 
-        syncPlataformas(productoExistente, dto.getPlataformasIds());
-        syncGeneros(productoExistente, dto.getGenerosIds());
-        syncEmpresas(productoExistente, dto.getEmpresasIds());
-        syncDesarrolladores(productoExistente, dto.getDesarrolladoresIds());
+        ProductoRelacionesLoteService.Pendientes pendientes = new ProductoRelacionesLoteService.Pendientes();
+        syncPlataformas(productoExistente, dto.getPlataformasIds(), pendientes);
+        syncGeneros(productoExistente, dto.getGenerosIds(), pendientes);
+        syncEmpresas(productoExistente, dto.getEmpresasIds(), pendientes);
+        syncDesarrolladores(productoExistente, dto.getDesarrolladoresIds(), pendientes);
 
         if (dto.getImagenesRutas() != null) {
             if (productoExistente.getImagenes() == null) productoExistente.setImagenes(new ArrayList<>());
@@ -185,11 +217,17 @@ public class ProductoService {
 
                 productoExistente.getImagenes().addAll(nuevasImagenes);
             }
+
+            productoExistente.setImagenPortada(primeraRuta(dto.getImagenesRutas()));
         }
 
-        syncLinksCompra(productoExistente, dto.getLinksCompra());
+        syncLinksCompra(productoExistente, dto.getLinksCompra(), pendientes);
 
         productoRepository.save(productoExistente);
+        relacionesLoteService.escribir(productoExistente, pendientes);
+        resumenSnapshotService.refrescarProducto(id);
+        sugerenciasService.refrescarProducto(id);
+        facetasService.invalidar();
 
         ProductoModel recargado = productoRepository.findByIdFull(id)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Producto no encontrado con ID: " + id));
@@ -206,6 +244,10 @@ public class ProductoService {
     /* ================= SAGAS ================= */
 
     public PagedResponse<ProductoResumenDTO> findBySaga(String saga, int page, int size) {
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().paginaPorSaga(saga, page, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id").ascending());
         Page<Object[]> result = productoRepository.obtenerResumenPorSaga(saga, pageable);
         List<ProductoResumenDTO> contenido = result.getContent().stream()
@@ -223,13 +265,8 @@ public class ProductoService {
      * Solo se llama cuando el usuario selecciona una saga en el carrusel.
      */
     public List<ProductoResponseDTO> findBySagaCompleto(String saga) {
-        return productoRepository.findIdsBySagaIgnoreCase(saga)
-                .stream()
-                .map(id -> productoRepository.findByIdFull(id)
-                        .map(ProductoMapper::toResponseDTO)
-                        .orElse(null))
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        // 7 queries en total para toda la saga (antes: un findByIdFull por producto)
+        return detalleLoteService.cargar(productoRepository.findIdsBySagaIgnoreCase(saga));
     }
 
     public List<String> obtenerSagasDistinct() {
@@ -277,10 +314,8 @@ public class ProductoService {
     /* ================= BÚSQUEDAS / FILTROS ================= */
 
     public List<ProductoResponseDTO> findByNombre(String nombre) {
-        return productoRepository.findByNombre(nombre)
-                .stream()
-                .map(ProductoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        // 7 queries fijas (ids + detalle en lote) en vez de 5+ por producto
+        return detalleLoteService.cargar(productoRepository.findIdsByNombre(nombre));
     }
 
     public PagedResponse<ProductoResumenDTO> findByNombreContainingIgnoreCase(String nombre, int page, int size) {
@@ -292,6 +327,10 @@ public class ProductoService {
     }
 
     public PagedResponse<ProductoResumenDTO> findByTipoProducto(Long tipoProductoId, int page, int size) {
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().paginaPorTipo(tipoProductoId, page, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id").ascending());
         Page<Object[]> result = productoRepository.obtenerResumenPorTipo(tipoProductoId, pageable);
         List<ProductoResumenDTO> contenido = result.getContent().stream()
@@ -300,13 +339,14 @@ public class ProductoService {
     }
 
     public List<ProductoResponseDTO> findByClasificacion(Long clasificacionId) {
-        return productoRepository.findByClasificacion_Id(clasificacionId)
-                .stream()
-                .map(ProductoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return detalleLoteService.cargar(productoRepository.findIdsByClasificacionId(clasificacionId));
     }
 
     public PagedResponse<ProductoResumenDTO> findByEstado(Long estadoId, int page, int size) {
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().paginaPorEstado(estadoId, page, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id").ascending());
         Page<Object[]> result = productoRepository.obtenerResumenPorEstado(estadoId, pageable);
         List<ProductoResumenDTO> contenido = result.getContent().stream()
@@ -315,10 +355,8 @@ public class ProductoService {
     }
 
     public List<ProductoResponseDTO> findByTipoProductoAndEstado(Long tipoProductoId, Long estadoId) {
-        return productoRepository.findByTipoProducto_IdAndEstado_Id(tipoProductoId, estadoId)
-                .stream()
-                .map(ProductoMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return detalleLoteService.cargar(
+                productoRepository.findIdsByTipoProductoIdAndEstadoId(tipoProductoId, estadoId));
     }
 
     public void deleteById(Long id) {
@@ -332,11 +370,19 @@ public class ProductoService {
         }
 
         productoRepository.deleteById(id);
+        resumenSnapshotService.quitarProducto(id);
+        sugerenciasService.quitarProducto(id);
+        facetasService.invalidar();
     }
 
     /* ================= MAPEO DTO -> ENTIDAD ================= */
 
-    private void applyRequestToModel(ProductoRequestDTO dto, ProductoModel producto) {
+    /**
+     * Copia el DTO al modelo. Las filas puente NUEVAS no se agregan a las
+     * colecciones: vuelven en Pendientes para insertarlas en batch después
+     * del save() (ProductoRelacionesLoteService.escribir).
+     */
+    private ProductoRelacionesLoteService.Pendientes applyRequestToModel(ProductoRequestDTO dto, ProductoModel producto) {
         producto.setNombre(dto.getNombre());
         producto.setPrecio(dto.getPrecio());
         producto.setSinopsis(dto.getSinopsis());
@@ -380,10 +426,11 @@ public class ProductoService {
             producto.setTipoDesarrollador(null);
         }
 
-        syncPlataformas(producto, dto.getPlataformasIds());
-        syncGeneros(producto, dto.getGenerosIds());
-        syncEmpresas(producto, dto.getEmpresasIds());
-        syncDesarrolladores(producto, dto.getDesarrolladoresIds());
+        ProductoRelacionesLoteService.Pendientes pendientes = new ProductoRelacionesLoteService.Pendientes();
+        syncPlataformas(producto, dto.getPlataformasIds(), pendientes);
+        syncGeneros(producto, dto.getGenerosIds(), pendientes);
+        syncEmpresas(producto, dto.getEmpresasIds(), pendientes);
+        syncDesarrolladores(producto, dto.getDesarrolladoresIds(), pendientes);
 
         if (dto.getImagenesRutas() != null) {
             if (producto.getImagenes() == null) producto.setImagenes(new ArrayList<>());
@@ -403,9 +450,20 @@ public class ProductoService {
 
                 producto.getImagenes().addAll(imagenes);
             }
+
+            producto.setImagenPortada(primeraRuta(dto.getImagenesRutas()));
         }
 
-        syncLinksCompra(producto, dto.getLinksCompra());
+        syncLinksCompra(producto, dto.getLinksCompra(), pendientes);
+        return pendientes;
+    }
+
+    /**
+     * Las imágenes se reemplazan completas y se insertan en el orden recibido,
+     * así que la primera ruta queda con el menor id: es la portada.
+     */
+    private String primeraRuta(List<String> rutas) {
+        return rutas == null || rutas.isEmpty() ? null : rutas.get(0);
     }
 
     private void validarRequestObligatorio(ProductoRequestDTO dto) {
@@ -429,59 +487,64 @@ public class ProductoService {
     )
     public void actualizarEmbeddingProducto(ProductoModel producto) {
         try {
-            String contenido = """
-                    Nombre: %s
-                    Tipo: %s
-                    Clasificación: %s
-                    Estado: %s
-                    Precio: %s
-                    Saga: %s
-                    Genero: %s
-                    Empresa: %s
-                    Plataforma: %s
-                    Desarrollador: %s
-                    """.formatted(
-                    producto.getNombre(),
-                    producto.getTipoProducto() != null ? producto.getTipoProducto().getNombre() : "",
-                    producto.getClasificacion() != null ? producto.getClasificacion().getNombre() : "",
-                    producto.getEstado() != null ? producto.getEstado().getNombre() : "",
-                    producto.getPrecio(),
-                    producto.getSaga(),
-                    producto.getGeneros() != null
-                            ? producto.getGeneros().stream()
-                                .map(g -> g.getGenero().getNombre())
-                                .collect(Collectors.joining(", "))
-                            : "",
-                    producto.getEmpresas() != null
-                            ? producto.getEmpresas().stream()
-                                .map(e -> e.getEmpresa().getNombre())
-                                .collect(Collectors.joining(", "))
-                            : "",
-                    producto.getPlataformas() != null
-                            ? producto.getPlataformas().stream()
-                                .map(p -> p.getPlataforma().getNombre())
-                                .collect(Collectors.joining(", "))
-                            : "",
-                    producto.getDesarrolladores() != null
-                            ? producto.getDesarrolladores().stream()
-                                .map(d -> d.getDesarrollador().getNombre())
-                                .collect(Collectors.joining(", "))
-                            : ""
-            );
-
-            productoEmbeddingService.guardarEmbeddingProducto(producto.getId(), contenido);
-
+            generarEmbeddingProducto(producto);
         } catch (Exception e) {
             System.err.println("No se pudo actualizar el embedding del producto ID "
                     + producto.getId() + ": " + e.getMessage());
         }
     }
 
+    /** Igual que actualizarEmbeddingProducto, pero un fallo de OpenAI se propaga. */
+    private void generarEmbeddingProducto(ProductoModel producto) {
+        String contenido = """
+                Nombre: %s
+                Tipo: %s
+                Clasificación: %s
+                Estado: %s
+                Precio: %s
+                Saga: %s
+                Genero: %s
+                Empresa: %s
+                Plataforma: %s
+                Desarrollador: %s
+                """.formatted(
+                producto.getNombre(),
+                producto.getTipoProducto() != null ? producto.getTipoProducto().getNombre() : "",
+                producto.getClasificacion() != null ? producto.getClasificacion().getNombre() : "",
+                producto.getEstado() != null ? producto.getEstado().getNombre() : "",
+                producto.getPrecio(),
+                producto.getSaga(),
+                producto.getGeneros() != null
+                        ? producto.getGeneros().stream()
+                            .map(g -> g.getGenero().getNombre())
+                            .collect(Collectors.joining(", "))
+                        : "",
+                producto.getEmpresas() != null
+                        ? producto.getEmpresas().stream()
+                            .map(e -> e.getEmpresa().getNombre())
+                            .collect(Collectors.joining(", "))
+                        : "",
+                producto.getPlataformas() != null
+                        ? producto.getPlataformas().stream()
+                            .map(p -> p.getPlataforma().getNombre())
+                            .collect(Collectors.joining(", "))
+                        : "",
+                producto.getDesarrolladores() != null
+                        ? producto.getDesarrolladores().stream()
+                            .map(d -> d.getDesarrollador().getNombre())
+                            .collect(Collectors.joining(", "))
+                        : ""
+        );
+
+        productoEmbeddingService.guardarEmbeddingProducto(producto.getId(), contenido);
+    }
+
     /* ================= LINKS COMPRA ================= */
 
     private void syncLinksCompra(
             ProductoModel producto,
-            List<com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO> nuevosLinks
+            List<com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO> nuevosLinks,
+            ProductoRelacionesLoteService.Pendientes pendientes
     ) {
         if (nuevosLinks == null) return;
 
@@ -489,11 +552,15 @@ public class ProductoService {
             producto.setLinksCompra(new HashSet<>());
         }
 
+        // Se valida la request completa antes de tocar el producto o consultar plataformas
         Set<Long> plataformasRecibidas = nuevosLinks.stream()
                 .map(link -> {
                     if (link.getPlataformaId() == null) {
                         throw new IllegalArgumentException("plataformaId es obligatorio");
                     }
+                    if (link.getUrl() == null || link.getUrl().isBlank()) {
+                        throw new IllegalArgumentException("url es obligatoria");
+                    }
                     return link.getPlataformaId();
                 })
                 .collect(Collectors.toSet());
@@ -512,15 +579,15 @@ public class ProductoService {
                         (a, b) -> a
                 ));
 
-        for (com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO l : nuevosLinks) {
-            if (l.getPlataformaId() == null) {
-                throw new IllegalArgumentException("plataformaId es obligatorio");
-            }
-
-            if (l.getUrl() == null || l.getUrl().isBlank()) {
-                throw new IllegalArgumentException("url es obligatoria");
-            }
+        // Plataformas de los links nuevos: una sola query para todas
+        Set<Long> plataformasNuevas = plataformasRecibidas.stream()
+                .filter(id -> !existentesMap.containsKey(id))
+                .collect(Collectors.toSet());
+        Map<Long, PlataformaModel> plataformas = buscarTodos(
+                plataformaRepository, plataformasNuevas, PlataformaModel::getId,
+                "Plataforma no encontrada con ID: ", "Plataformas no encontradas con IDs: ");
 
+        for (com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO l : nuevosLinks) {
             ProductoLinkCompraModel existente = existentesMap.get(l.getPlataformaId());
 
             if (existente != null) {
@@ -540,13 +607,9 @@ public class ProductoService {
                     existente.setFechaUltimaActualizacion(java.time.LocalDateTime.now());
                 }
             } else {
-                PlataformaModel plat = plataformaRepository.findById(l.getPlataformaId())
-                        .orElseThrow(() -> new RecursoNoEncontradoException(
-                                "Plataforma no encontrada con ID: " + l.getPlataformaId()
-                        ));
+                PlataformaModel plat = plataformas.get(l.getPlataformaId());
 
                 ProductoLinkCompraModel nuevo = new ProductoLinkCompraModel();
-                nuevo.setProducto(producto);
                 nuevo.setPlataforma(plat);
                 nuevo.setUrl(l.getUrl().trim());
                 nuevo.setLabel(
@@ -564,14 +627,20 @@ public class ProductoService {
                     nuevo.setFechaUltimaActualizacion(java.time.LocalDateTime.now());
                 }
 
-                producto.getLinksCompra().add(nuevo);
+                // Plataforma repetida en la request: los links siguientes actualizan este
+                existentesMap.put(l.getPlataformaId(), nuevo);
+                pendientes.getLinks().add(nuevo);
             }
         }
     }
 
     /* ================= RELACIONES N:M ================= */
 
-    private void syncDesarrolladores(ProductoModel producto, List<Long> nuevosIds) {
+    // Las relaciones quitadas se borran por orphanRemoval; las nuevas se
+    // validan con un findAllById por relación y quedan en Pendientes.
+
+    private void syncDesarrolladores(ProductoModel producto, List<Long> nuevosIds,
+                                     ProductoRelacionesLoteService.Pendientes pendientes) {
         if (nuevosIds == null) return;
 
         if (producto.getDesarrolladores() == null) {
@@ -580,7 +649,7 @@ public class ProductoService {
 
         Set<Long> nuevosSet = nuevosIds.stream()
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         producto.getDesarrolladores().removeIf(rel ->
                 rel.getDesarrollador() != null &&
@@ -588,27 +657,18 @@ public class ProductoService {
                 !nuevosSet.contains(rel.getDesarrollador().getId())
         );
 
-        Set<Long> existentesSet = producto.getDesarrolladores().stream()
+        producto.getDesarrolladores().stream()
                 .map(rel -> rel.getDesarrollador().getId())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .forEach(nuevosSet::remove);
 
-        for (Long idDev : nuevosSet) {
-            if (existentesSet.contains(idDev)) continue;
+        buscarTodos(desarrolladorRepository, nuevosSet, DesarrolladorModel::getId,
+                "Desarrollador no encontrado con ID: ", "Desarrolladores no encontrados con IDs: ");
 
-            DesarrolladorModel dev = desarrolladorRepository.findById(idDev)
-                    .orElseThrow(() -> new RecursoNoEncontradoException(
-                            "Desarrollador no encontrado con ID: " + idDev));
-
-            DesarrolladoresModel puente = new DesarrolladoresModel();
-            puente.setProducto(producto);
-            puente.setDesarrollador(dev);
-
-            producto.getDesarrolladores().add(puente);
-        }
+        pendientes.getDesarrolladorIds().addAll(nuevosSet);
     }
 
-    private void syncPlataformas(ProductoModel producto, List<Long> nuevosIds) {
+    private void syncPlataformas(ProductoModel producto, List<Long> nuevosIds,
+                                 ProductoRelacionesLoteService.Pendientes pendientes) {
         if (nuevosIds == null) return;
 
         if (producto.getPlataformas() == null) {
@@ -617,7 +677,7 @@ public class ProductoService {
 
         Set<Long> nuevosSet = nuevosIds.stream()
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         producto.getPlataformas().removeIf(rel ->
                 rel.getPlataforma() != null &&
@@ -625,27 +685,18 @@ public class ProductoService {
                 !nuevosSet.contains(rel.getPlataforma().getId())
         );
 
-        Set<Long> existentesSet = producto.getPlataformas().stream()
+        producto.getPlataformas().stream()
                 .map(rel -> rel.getPlataforma().getId())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        for (Long idPlat : nuevosSet) {
-            if (existentesSet.contains(idPlat)) continue;
+                .forEach(nuevosSet::remove);
 
-            PlataformaModel plat = plataformaRepository.findById(idPlat)
-                    .orElseThrow(() -> new RecursoNoEncontradoException(
-                            "Plataforma no encontrada con ID: " + idPlat));
-
-            PlataformasModel puente = new PlataformasModel();
-            puente.setProducto(producto);
-            puente.setPlataforma(plat);
+        buscarTodos(plataformaRepository, nuevosSet, PlataformaModel::getId,
+                "Plataforma no encontrada con ID: ", "Plataformas no encontradas con IDs: ");
 
-            producto.getPlataformas().add(puente);
-        }
+        pendientes.getPlataformaIds().addAll(nuevosSet);
     }
 
-    private void syncGeneros(ProductoModel producto, List<Long> nuevosIds) {
+    private void syncGeneros(ProductoModel producto, List<Long> nuevosIds,
+                             ProductoRelacionesLoteService.Pendientes pendientes) {
         if (nuevosIds == null) return;
 
         if (producto.getGeneros() == null) {
@@ -654,7 +705,7 @@ public class ProductoService {
 
         Set<Long> nuevosSet = nuevosIds.stream()
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         producto.getGeneros().removeIf(rel ->
                 rel.getGenero() != null &&
@@ -662,27 +713,18 @@ public class ProductoService {
                 !nuevosSet.contains(rel.getGenero().getId())
         );
 
-        Set<Long> existentesSet = producto.getGeneros().stream()
+        producto.getGeneros().stream()
                 .map(rel -> rel.getGenero().getId())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .forEach(nuevosSet::remove);
 
-        for (Long idGen : nuevosSet) {
-            if (existentesSet.contains(idGen)) continue;
-
-            GeneroModel gen = generoRepository.findById(idGen)
-                    .orElseThrow(() -> new RecursoNoEncontradoException(
-                            "Género no encontrado con ID: " + idGen));
+        buscarTodos(generoRepository, nuevosSet, GeneroModel::getId,
+                "Género no encontrado con ID: ", "Géneros no encontrados con IDs: ");
 
-            GenerosModel puente = new GenerosModel();
-            puente.setProducto(producto);
-            puente.setGenero(gen);
-
-            producto.getGeneros().add(puente);
-        }
+        pendientes.getGeneroIds().addAll(nuevosSet);
     }
 
-    private void syncEmpresas(ProductoModel producto, List<Long> nuevosIds) {
+    private void syncEmpresas(ProductoModel producto, List<Long> nuevosIds,
+                              ProductoRelacionesLoteService.Pendientes pendientes) {
         if (nuevosIds == null) return;
 
         if (producto.getEmpresas() == null) {
@@ -691,7 +733,7 @@ public class ProductoService {
 
         Set<Long> nuevosSet = nuevosIds.stream()
                 .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
 
         producto.getEmpresas().removeIf(rel ->
                 rel.getEmpresa() != null &&
@@ -699,30 +741,49 @@ public class ProductoService {
                 !nuevosSet.contains(rel.getEmpresa().getId())
         );
 
-        Set<Long> existentesSet = producto.getEmpresas().stream()
+        producto.getEmpresas().stream()
                 .map(rel -> rel.getEmpresa().getId())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+                .forEach(nuevosSet::remove);
 
-        for (Long idEmp : nuevosSet) {
-            if (existentesSet.contains(idEmp)) continue;
+        buscarTodos(empresaRepository, nuevosSet, EmpresaModel::getId,
+                "Empresa no encontrada con ID: ", "Empresas no encontradas con IDs: ");
 
-            EmpresaModel emp = empresaRepository.findById(idEmp)
-                    .orElseThrow(() -> new RecursoNoEncontradoException(
-                            "Empresa no encontrada con ID: " + idEmp));
+        pendientes.getEmpresaIds().addAll(nuevosSet);
+    }
 
-            EmpresasModel puente = new EmpresasModel();
-            puente.setProducto(producto);
-            puente.setEmpresa(emp);
+    /**
+     * Trae todos los ids con UNA query (findAllById). Si falta alguno lanza
+     * una sola RecursoNoEncontradoException con todos los faltantes.
+     */
+    private <T> Map<Long, T> buscarTodos(JpaRepository<T, Long> repository, Set<Long> ids,
+                                         Function<T, Long> getId, String mensajeUno, String mensajeVarios) {
+        if (ids.isEmpty()) return Collections.emptyMap();
 
-            producto.getEmpresas().add(puente);
+        Map<Long, T> encontrados = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(getId, Function.identity()));
+
+        List<Long> faltantes = ids.stream()
+                .filter(id -> !encontrados.containsKey(id))
+                .sorted()
+                .toList();
+
+        if (faltantes.size() == 1) {
+            throw new RecursoNoEncontradoException(mensajeUno + faltantes.get(0));
         }
+        if (!faltantes.isEmpty()) {
+            throw new RecursoNoEncontradoException(mensajeVarios + faltantes);
+        }
+        return encontrados;
     }
 
     /* ================= PAGINACIÓN ================= */
 
 
     public PagedResponse<ProductoResumenDTO> findAllPaged(int page, int size) {
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().pagina(page, size);
+        }
+
         Pageable pageable = PageRequest.of(page - 1, size, Sort.by("id").ascending());
         Page<Object[]> result = productoRepository.obtenerResumenPaginado(pageable);
 
@@ -734,10 +795,113 @@ public class ProductoService {
 
         return new PagedResponse<>(contenido, page, result.getTotalPages(), result.getTotalElements());
     }
-    
+
+    /* ================= PAGINACIÓN POR CURSOR (KEYSET) ================= */
+
+    // after = cursor opaco recibido en PagedResponse.siguienteCursor (vacío = primera página).
+    // conTotal = true ejecuta además el COUNT; por defecto se omite.
+
+    public PagedResponse<ProductoResumenDTO> findAllKeyset(String after, int size, boolean conTotal) {
+        long cursor = CursorKeyset.decodificar(after);
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().despuesDe(cursor, size, conTotal);
+        }
+        return paginarKeyset(
+                productoRepository.obtenerResumenKeyset(cursor, limiteKeyset(size)),
+                size,
+                conTotal ? productoRepository::count : null);
+    }
+
+    public PagedResponse<ProductoResumenDTO> findByTipoProductoKeyset(Long tipoProductoId, String after, int size, boolean conTotal) {
+        long cursor = CursorKeyset.decodificar(after);
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().porTipoDespuesDe(tipoProductoId, cursor, size, conTotal);
+        }
+        return paginarKeyset(
+                productoRepository.obtenerResumenPorTipoKeyset(tipoProductoId, cursor, limiteKeyset(size)),
+                size,
+                conTotal ? () -> productoRepository.countByTipoProducto_Id(tipoProductoId) : null);
+    }
+
+    public PagedResponse<ProductoResumenDTO> findByEstadoKeyset(Long estadoId, String after, int size, boolean conTotal) {
+        long cursor = CursorKeyset.decodificar(after);
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().porEstadoDespuesDe(estadoId, cursor, size, conTotal);
+        }
+        return paginarKeyset(
+                productoRepository.obtenerResumenPorEstadoKeyset(estadoId, cursor, limiteKeyset(size)),
+                size,
+                conTotal ? () -> productoRepository.countByEstado_Id(estadoId) : null);
+    }
+
+    public PagedResponse<ProductoResumenDTO> findBySagaKeyset(String saga, String after, int size, boolean conTotal) {
+        long cursor = CursorKeyset.decodificar(after);
+        if (resumenSnapshotService.isHabilitado()) {
+            return resumenSnapshotService.obtener().porSagaDespuesDe(saga, cursor, size, conTotal);
+        }
+        return paginarKeyset(
+                productoRepository.obtenerResumenPorSagaKeyset(saga, cursor, limiteKeyset(size)),
+                size,
+                conTotal ? () -> productoRepository.countBySagaIgnoreCase(saga) : null);
+    }
+
+    public PagedResponse<ProductoResumenDTO> findByNombreKeyset(String nombre, String after, int size, boolean conTotal) {
+        long cursor = CursorKeyset.decodificar(after);
+        return paginarKeyset(
+                productoRepository.obtenerResumenPorNombreKeyset(nombre, cursor, limiteKeyset(size)),
+                size,
+                conTotal ? () -> productoRepository.countByNombreContainingIgnoreCase(nombre) : null);
+    }
+
+    /**
+     * Se piden size + 1 filas: si llega la fila extra, hay página siguiente.
+     */
+    private Pageable limiteKeyset(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    private PagedResponse<ProductoResumenDTO> paginarKeyset(List<Object[]> filas, int size, LongSupplier conteo) {
+        boolean hayMas = filas.size() > size;
+
+        List<ProductoResumenDTO> contenido = filas.stream()
+                .limit(size)
+                .map(this::mapResumenRow)
+                .collect(Collectors.toList());
+
+        String siguienteCursor = hayMas && !contenido.isEmpty()
+                ? CursorKeyset.codificar(contenido.get(contenido.size() - 1).getId())
+                : null;
+
+        long total = conteo != null ? conteo.getAsLong() : -1L;
+        int totalPaginas = conteo != null && size > 0 ? (int) Math.ceil((double) total / size) : -1;
+
+        return new PagedResponse<>(contenido, 0, totalPaginas, total, siguienteCursor, hayMas);
+    }
+
     /* ================= SCRAPING STEAM ================= */
 
     public ProductoResponseDTO actualizarPrecioDesdeSteam(Long productoId) {
+        ProductoModel recargado = refrescarPrecioSteam(productoId);
+
+        try {
+            actualizarEmbeddingProducto(recargado);
+        } catch (Exception e) {
+            System.err.println("Embedding falló en steam update: " + e.getMessage());
+        }
+
+        return ProductoMapper.toResponseDTO(recargado);
+    }
+
+    /**
+     * Precio de Steam + embedding para el worker del outbox. A diferencia de
+     * actualizarPrecioDesdeSteam(), un fallo del embedding se propaga: el
+     * evento queda pendiente y ProductoOutboxService programa el reintento.
+     */
+    public void enriquecerDesdeSteam(Long productoId) {
+        generarEmbeddingProducto(refrescarPrecioSteam(productoId));
+    }
+
+    private ProductoModel refrescarPrecioSteam(Long productoId) {
         ProductoModel producto = productoRepository.findByIdFull(productoId)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Producto no encontrado con ID: " + productoId));
 
@@ -747,7 +911,7 @@ public class ProductoService {
                 .findFirst()
                 .orElseThrow(() -> new RecursoNoEncontradoException("El producto no tiene appId de Steam configurado."));
 
-        Map<String, Object> datosSteam = scrapingClientService.obtenerPrecioSteam(linkSteam.getAppId());
+        Map<String, Object> datosSteam = precioSteamCacheService.obtenerPrecioSteam(linkSteam.getAppId());
 
         Double precio = Double.valueOf(datosSteam.get("precio").toString()) / 100;
 
@@ -761,17 +925,11 @@ public class ProductoService {
         linkSteam.setFechaUltimaActualizacion(LocalDateTime.now());
 
         productoRepository.save(producto);
+        resumenSnapshotService.refrescarProducto(productoId);
+        facetasService.invalidar();
 
-        ProductoModel recargado = productoRepository.findByIdFull(productoId)
+        return productoRepository.findByIdFull(productoId)
                 .orElseThrow(() -> new RecursoNoEncontradoException("Producto no encontrado con ID: " + productoId));
-
-        try {
-            actualizarEmbeddingProducto(recargado);
-        } catch (Exception e) {
-            System.err.println("Embedding falló en steam update: " + e.getMessage());
-        }
-
-        return ProductoMapper.toResponseDTO(recargado);
     }
 
     public List<Long> obtenerIdsProductosConAppId() {
@@ -0,0 +1,278 @@
+// ¿Para qué sirve?
+//   Índice invertido en memoria para el typeahead del buscador:
+//   prefijo de palabra → entradas (productos, sagas y catálogos) que lo contienen.
+//
+// ¿Cómo busca?
+//   - Todo se normaliza igual que ChatbotServiceImpl.normalize() (NFD sin
+//     tildes, minúsculas) y además se cortan los símbolos: "Pokémon: Rojo"
+//     queda como "pokemon rojo".
+//   - Cada palabra se indexa por sus prefijos (hasta MAX_PREFIJO letras).
+//   - La consulta usa el bucket de su palabra más larga y verifica que
+//     TODAS las palabras de la consulta sean prefijo de alguna palabra
+//     de la entrada ("spi man" encuentra "Spider-Man").
+//   - Orden: primero las que empiezan con la consulta completa; luego por
+//     tipo (producto > saga > catálogos), texto más corto y alfabético.
+//
+// ¿Quién lo usa?
+//   ProductoSugerenciasService lo arma al arrancar y lo actualiza en cada
+//   escritura de productos o catálogos. Es thread-safe (lock lectura/escritura).
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoSugerenciaDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public final class ProductoSugerenciasIndice {
+
+    public static final String PRODUCTO = "PRODUCTO";
+    public static final String SAGA = "SAGA";
+    public static final String GENERO = "GENERO";
+    public static final String PLATAFORMA = "PLATAFORMA";
+    public static final String EMPRESA = "EMPRESA";
+
+    // Prefijos más largos no reducen más el bucket y solo gastan memoria
+    static final int MAX_PREFIJO = 8;
+
+    private static final class Entrada {
+        final String clave;
+        final String texto;
+        final String normalizado;
+        final String[] palabras;
+        final String tipo;
+        final Long productoId;
+        final int prioridad;
+
+        Entrada(String clave, String texto, String normalizado, String tipo, Long productoId, int prioridad) {
+            this.clave = clave;
+            this.texto = texto;
+            this.normalizado = normalizado;
+            this.palabras = normalizado.split(" ");
+            this.tipo = tipo;
+            this.productoId = productoId;
+            this.prioridad = prioridad;
+        }
+    }
+
+    private static final Comparator<Entrada> ORDEN = Comparator
+            .comparingInt((Entrada e) -> e.prioridad)
+            .thenComparingInt(e -> e.normalizado.length())
+            .thenComparing(e -> e.normalizado)
+            .thenComparing(e -> e.clave);
+
+    private final Map<String, Entrada> porClave = new HashMap<>();
+    private final Map<String, NavigableSet<Entrada>> porPrefijo = new HashMap<>();
+
+    // Una saga es sugerencia mientras algún producto la use
+    private final Map<Long, String> sagaDeProducto = new HashMap<>();
+    private final Map<String, Integer> usosSaga = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /* ================= ESCRITURAS ================= */
+
+    /**
+     * Agrega o reemplaza un producto (y ajusta su saga).
+     */
+    public void ponerProducto(long id, String nombre, String saga) {
+        lock.writeLock().lock();
+        try {
+            quitarProductoInterno(id);
+
+            String normalizado = normalizar(nombre);
+            if (!normalizado.isEmpty()) {
+                agregar(new Entrada(PRODUCTO + ":" + id, nombre.trim(), normalizado, PRODUCTO, id, 0));
+            }
+
+            String sagaNormalizada = normalizar(saga);
+            if (!sagaNormalizada.isEmpty()) {
+                sagaDeProducto.put(id, sagaNormalizada);
+                if (usosSaga.merge(sagaNormalizada, 1, Integer::sum) == 1) {
+                    agregar(new Entrada(SAGA + ":" + sagaNormalizada, saga.trim(), sagaNormalizada, SAGA, null, 1));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void quitarProducto(long id) {
+        lock.writeLock().lock();
+        try {
+            quitarProductoInterno(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reemplaza todos los nombres de un catálogo (GENERO, PLATAFORMA o EMPRESA).
+     */
+    public void reemplazarCatalogo(String tipo, Collection<String> nombres) {
+        lock.writeLock().lock();
+        try {
+            new ArrayList<>(porClave.values()).stream()
+                    .filter(e -> e.tipo.equals(tipo))
+                    .forEach(this::quitar);
+
+            for (String nombre : nombres) {
+                String normalizado = normalizar(nombre);
+                if (!normalizado.isEmpty()) {
+                    agregar(new Entrada(tipo + ":" + normalizado, nombre.trim(), normalizado, tipo, null, 2));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ================= CONSULTAS ================= */
+
+    /**
+     * Hasta {@code limite} sugerencias para el texto escrito. No toca la BD.
+     */
+    public List<ProductoSugerenciaDTO> sugerir(String texto, int limite) {
+        String consulta = normalizar(texto);
+        if (consulta.isEmpty() || limite <= 0) return List.of();
+
+        String[] terminos = consulta.split(" ");
+        String masLargo = terminos[0];
+        for (String termino : terminos) {
+            if (termino.length() > masLargo.length()) masLargo = termino;
+        }
+        String prefijo = masLargo.substring(0, Math.min(masLargo.length(), MAX_PREFIJO));
+
+        List<ProductoSugerenciaDTO> empiezanCon = new ArrayList<>(limite);
+        List<ProductoSugerenciaDTO> otras = new ArrayList<>(limite);
+
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entrada> candidatas = porPrefijo.get(prefijo);
+            if (candidatas == null) return List.of();
+
+            // Las candidatas ya vienen en orden: basta con llenar los cupos
+            for (Entrada entrada : candidatas) {
+                if (!contieneTodos(entrada, terminos)) continue;
+
+                if (entrada.normalizado.startsWith(consulta)) {
+                    empiezanCon.add(toDTO(entrada));
+                    if (empiezanCon.size() == limite) break;
+                } else if (otras.size() < limite) {
+                    otras.add(toDTO(entrada));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<ProductoSugerenciaDTO> resultado = new ArrayList<>(empiezanCon);
+        for (ProductoSugerenciaDTO dto : otras) {
+            if (resultado.size() == limite) break;
+            resultado.add(dto);
+        }
+        return resultado;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return porClave.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * NFD sin tildes + minúsculas (como ChatbotServiceImpl.normalize),
+     * con los símbolos convertidos en espacios.
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) return "";
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return sinTildes.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}]+", " ")
+                .trim();
+    }
+
+    /* ================= INTERNOS (con el lock de escritura tomado) ================= */
+
+    private void quitarProductoInterno(long id) {
+        Entrada anterior = porClave.get(PRODUCTO + ":" + id);
+        if (anterior != null) quitar(anterior);
+
+        String saga = sagaDeProducto.remove(id);
+        if (saga != null) {
+            int usos = usosSaga.merge(saga, -1, Integer::sum);
+            if (usos <= 0) {
+                usosSaga.remove(saga);
+                Entrada entradaSaga = porClave.get(SAGA + ":" + saga);
+                if (entradaSaga != null) quitar(entradaSaga);
+            }
+        }
+    }
+
+    private void agregar(Entrada entrada) {
+        Entrada anterior = porClave.put(entrada.clave, entrada);
+        if (anterior != null) desindexar(anterior);
+
+        for (String prefijo : prefijos(entrada)) {
+            porPrefijo.computeIfAbsent(prefijo, k -> new TreeSet<>(ORDEN)).add(entrada);
+        }
+    }
+
+    private void quitar(Entrada entrada) {
+        porClave.remove(entrada.clave);
+        desindexar(entrada);
+    }
+
+    private void desindexar(Entrada entrada) {
+        for (String prefijo : prefijos(entrada)) {
+            NavigableSet<Entrada> bucket = porPrefijo.get(prefijo);
+            if (bucket != null) {
+                bucket.remove(entrada);
+                if (bucket.isEmpty()) porPrefijo.remove(prefijo);
+            }
+        }
+    }
+
+    private static List<String> prefijos(Entrada entrada) {
+        List<String> prefijos = new ArrayList<>();
+        for (String palabra : entrada.palabras) {
+            int hasta = Math.min(palabra.length(), MAX_PREFIJO);
+            for (int i = 1; i <= hasta; i++) {
+                String prefijo = palabra.substring(0, i);
+                if (!prefijos.contains(prefijo)) prefijos.add(prefijo);
+            }
+        }
+        return prefijos;
+    }
+
+    private static boolean contieneTodos(Entrada entrada, String[] terminos) {
+        for (String termino : terminos) {
+            boolean encontrado = false;
+            for (String palabra : entrada.palabras) {
+                if (palabra.startsWith(termino)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) return false;
+        }
+        return true;
+    }
+
+    private static ProductoSugerenciaDTO toDTO(Entrada entrada) {
+        return new ProductoSugerenciaDTO(entrada.texto, entrada.tipo, entrada.productoId);
+    }
+}
@@ -0,0 +1,171 @@
+// ¿Para qué sirve?
+//   Sugerencias para el buscador mientras el usuario escribe
+//   (GET /api/v1/productos/sugerencias), sin consultar la BD por tecla.
+//
+// ¿Cómo se mantiene al día?
+//   - Al arrancar: arma el ProductoSugerenciasIndice con nombres y sagas de
+//     productos + nombres de géneros, plataformas y empresas.
+//   - Escrituras de productos: DESPUÉS del commit se vuelve a leer solo la
+//     fila del producto (o se quita si ya no existe).
+//   - Escrituras de géneros/plataformas/empresas: se recarga ese catálogo.
+//
+// Se puede apagar con productos.sugerencias.enabled=false (ej: perfil test);
+// en ese caso el endpoint devuelve una lista vacía.
+
+package com.example.NoLimits.Multimedia.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoSugerenciaDTO;
+import com.example.NoLimits.Multimedia.model.catalogos.EmpresaModel;
+import com.example.NoLimits.Multimedia.model.catalogos.GeneroModel;
+import com.example.NoLimits.Multimedia.model.catalogos.PlataformaModel;
+import com.example.NoLimits.Multimedia.repository.catalogos.EmpresaRepository;
+import com.example.NoLimits.Multimedia.repository.catalogos.GeneroRepository;
+import com.example.NoLimits.Multimedia.repository.catalogos.PlataformaRepository;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductoSugerenciasService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductoSugerenciasService.class);
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private GeneroRepository generoRepository;
+
+    @Autowired
+    private PlataformaRepository plataformaRepository;
+
+    @Autowired
+    private EmpresaRepository empresaRepository;
+
+    @Value("${productos.sugerencias.enabled:true}")
+    private boolean habilitado;
+
+    private final ProductoSugerenciasIndice indice = new ProductoSugerenciasIndice();
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /* ================= CARGA INICIAL ================= */
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        if (!habilitado) return;
+
+        try {
+            long inicio = System.currentTimeMillis();
+
+            // [id, nombre, precio, tipo, estado, saga, ...]
+            for (Object[] fila : productoRepository.obtenerResumenSnapshot()) {
+                indice.ponerProducto(((Number) fila[0]).longValue(), (String) fila[1], (String) fila[5]);
+            }
+            recargarCatalogosAhora();
+
+            log.info("Índice de sugerencias listo: {} entradas en {} ms",
+                    indice.size(), System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo construir el índice de sugerencias: {}", e.getMessage());
+        }
+    }
+
+    /* ================= CONSULTA ================= */
+
+    public List<ProductoSugerenciaDTO> sugerir(String texto, int limite) {
+        if (!habilitado) return Collections.emptyList();
+        return indice.sugerir(texto, limite);
+    }
+
+    /* ================= ESCRITURAS ================= */
+
+    /**
+     * Vuelve a leer nombre y saga del producto cuando la transacción actual
+     * haga commit. Si ya no existe, lo quita.
+     */
+    public void refrescarProducto(Long productoId) {
+        if (!habilitado || productoId == null) return;
+
+        despuesDelCommit(() -> {
+            try {
+                List<Object[]> filas = productoRepository.obtenerResumenSnapshotPorIds(Collections.singleton(productoId));
+                if (filas.isEmpty()) {
+                    indice.quitarProducto(productoId);
+                } else {
+                    Object[] fila = filas.get(0);
+                    indice.ponerProducto(productoId, (String) fila[1], (String) fila[5]);
+                }
+            } catch (RuntimeException e) {
+                log.warn("No se pudo refrescar el producto {} en las sugerencias: {}", productoId, e.getMessage());
+            }
+        });
+    }
+
+    public void quitarProducto(Long productoId) {
+        if (!habilitado || productoId == null) return;
+        despuesDelCommit(() -> indice.quitarProducto(productoId));
+    }
+
+    /**
+     * Recarga géneros, plataformas y empresas cuando la transacción actual
+     * haga commit. Son catálogos chicos: se reemplazan completos.
+     */
+    public void recargarCatalogos() {
+        if (!habilitado) return;
+        despuesDelCommit(() -> {
+            try {
+                recargarCatalogosAhora();
+            } catch (RuntimeException e) {
+                log.warn("No se pudieron recargar los catálogos de sugerencias: {}", e.getMessage());
+            }
+        });
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private void recargarCatalogosAhora() {
+        indice.reemplazarCatalogo(ProductoSugerenciasIndice.GENERO,
+                generoRepository.findAll().stream()
+                        .map(GeneroModel::getNombre)
+                        .collect(Collectors.toList()));
+
+        indice.reemplazarCatalogo(ProductoSugerenciasIndice.PLATAFORMA,
+                plataformaRepository.findAll().stream()
+                        .map(PlataformaModel::getNombre)
+                        .collect(Collectors.toList()));
+
+        indice.reemplazarCatalogo(ProductoSugerenciasIndice.EMPRESA,
+                empresaRepository.findAll().stream()
+                        .filter(e -> !Boolean.FALSE.equals(e.getActivo()))
+                        .map(EmpresaModel::getNombre)
+                        .collect(Collectors.toList()));
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.NoLimits.Multimedia.service.proxy;
+
+import lombok.Getter;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+/**
+ * Llamada a un servicio externo que arma un proxy (/api/tmdb, /api/rawg,
+ * /api/igdb, /api/books) para ProxyTransmisionService.
+ *
+ * marcadorNext != null = el body pasa por SanitizadorNextJson: los campos
+ * "next" que contengan ese texto (la API key) salen como null.
+ */
+@Getter
+public class ProxyPeticion {
+
+    private final String url;
+    private final HttpMethod metodo;
+    private final HttpHeaders headers;
+    private final String cuerpo;
+    private final String marcadorNext;
+
+    private ProxyPeticion(String url, HttpMethod metodo, HttpHeaders headers, String cuerpo, String marcadorNext) {
+        this.url = url;
+        this.metodo = metodo;
+        this.headers = headers;
+        this.cuerpo = cuerpo;
+        this.marcadorNext = marcadorNext;
+    }
+
+    public static ProxyPeticion get(String url) {
+        return new ProxyPeticion(url, HttpMethod.GET, new HttpHeaders(), null, null);
+    }
+
+    public static ProxyPeticion post(String url, HttpHeaders headers, String cuerpo) {
+        return new ProxyPeticion(url, HttpMethod.POST, headers, cuerpo, null);
+    }
+
+    /** Misma petición, limpiando los "next" que contengan el marcador. */
+    public ProxyPeticion sinKeyEnNext(String marcador) {
+        return new ProxyPeticion(url, metodo, headers, cuerpo, marcador);
+    }
+}
@@ -0,0 +1,244 @@
+// ¿Para qué sirve?
+//   Caché compartida de respuestas para los proxies de TMDB, RAWG, IGDB y
+//   Google Books. Casi todo lo que pide el frontend (populares, listas de
+//   géneros, fichas) es igual para todos los usuarios, y antes cada visita
+//   iba a la API externa y pasaba el regex de limpieza por el body entero.
+//
+// ¿Cómo?
+//   - Clave: upstream + ruta + query con los parámetros ordenados
+//     (?b=2&a=1 y ?a=1&b=2 son la misma entrada). En IGDB, el body POST.
+//   - TTL por ruta: proxy.cache.ttl.<upstream> = "prefijo=segundos,...,*=segundos"
+//     (gana el primer prefijo que calce; 0 = no guardar).
+//   - El body se guarda ya limpio y comprimido con gzip (lo arma
+//     ProxyTransmisionService al llenar). Tope total en proxy.cache.max-bytes
+//     (cada entrada cuenta su gzip, su clave y un recargo fijo por los objetos
+//     que la rodean); al pasarse se descartan las entradas menos usadas (LRU).
+//   - Peticiones simultáneas de la misma clave comparten una sola llamada.
+//   - Cada entrada lleva su ETag (hash del gzip) para responder 304.
+//
+// Métricas: proxy.cache.solicitudes (tag upstream, resultado = hit | miss |
+//   compartida) para el hit ratio; proxy.cache.bytes y proxy.cache.entradas.
+
+package com.example.NoLimits.Multimedia.service.proxy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.Getter;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+@Service
+public class ProxyRespuestaCacheService {
+
+    // Lo que pesa cada entrada además del gzip: nodo del LinkedHashMap,
+    // Entrada, cabecera del byte[] y los String de clave y ETag
+    private static final long BYTES_POR_ENTRADA = 200;
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final long maxBytes;
+    private final long ttlPorDefecto;
+
+    // Orden de acceso = LRU; se usa siempre bajo synchronized (this)
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytesTotales;
+
+    private final Map<String, CompletableFuture<Entrada>> enCurso = new ConcurrentHashMap<>();
+    private final Map<String, List<ReglaTtl>> reglasPorUpstream = new ConcurrentHashMap<>();
+
+    public ProxyRespuestaCacheService(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = environment.getProperty("proxy.cache.max-bytes", Long.class, 32L * 1024 * 1024);
+        this.ttlPorDefecto = environment.getProperty("proxy.cache.ttl-por-defecto-segundos", Long.class, 300L);
+
+        Gauge.builder("proxy.cache.bytes", this, c -> c.bytesActuales()).register(meterRegistry);
+        Gauge.builder("proxy.cache.entradas", this, c -> c.cantidadEntradas()).register(meterRegistry);
+    }
+
+    /**
+     * Entrada vigente de la caché o, si no hay, la que arme {@code cargar}
+     * (body limpio en gzip; null = vacía o más grande que
+     * {@link #maxBytesPorEntrada()}, no se guarda).
+     *
+     * @param upstream nombre del servicio externo (tmdb, rawg, ...)
+     * @param ruta     ruta pedida, sin el prefijo del proxy
+     * @param variante query string (o body de la consulta en IGDB)
+     * @param ttl      segundos de vida, según {@link #ttlPara}; debe ser > 0
+     */
+    public Entrada obtener(String upstream, String ruta, String variante, long ttl, Supplier<byte[]> cargar) {
+        String clave = upstream + ":" + ruta + "?" + normalizar(variante);
+        Entrada entrada = buscar(clave);
+        if (entrada != null) {
+            contar(upstream, "hit");
+            return entrada;
+        }
+
+        CompletableFuture<Entrada> nueva = new CompletableFuture<>();
+        CompletableFuture<Entrada> existente = enCurso.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            contar(upstream, "compartida");
+            return esperar(existente);
+        }
+
+        contar(upstream, "miss");
+        try {
+            entrada = crearEntrada(cargar.get(), System.currentTimeMillis() + ttl * 1000);
+            if (entrada != null) guardar(clave, entrada);
+            nueva.complete(entrada);
+        } catch (RuntimeException e) {
+            nueva.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, nueva);
+        }
+        return entrada;
+    }
+
+    /** Tope de una sola entrada: una respuesta gigante no debe vaciar la caché entera. */
+    public long maxBytesPorEntrada() {
+        return maxBytes / 4;
+    }
+
+    /** Segundos de vida para la ruta (0 = no se guarda en caché). */
+    public long ttlPara(String upstream, String ruta) {
+        List<ReglaTtl> reglas = reglasPorUpstream.computeIfAbsent(upstream, this::leerReglas);
+        for (ReglaTtl regla : reglas) {
+            if (regla.prefijo.equals("*") || ruta.startsWith(regla.prefijo)) return regla.segundos;
+        }
+        return ttlPorDefecto;
+    }
+
+    private Entrada esperar(CompletableFuture<Entrada> peticion) {
+        try {
+            return peticion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            throw e;
+        }
+    }
+
+    /* ================= ALMACENAMIENTO ================= */
+
+    private synchronized Entrada buscar(String clave) {
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) return null;
+        if (entrada.expira <= System.currentTimeMillis()) {
+            quitar(clave);
+            return null;
+        }
+        return entrada;
+    }
+
+    private synchronized void guardar(String clave, Entrada entrada) {
+        long tamano = tamano(clave, entrada);
+        if (tamano > maxBytesPorEntrada()) return;
+
+        quitar(clave);
+        entradas.put(clave, entrada);
+        bytesTotales += tamano;
+
+        Iterator<Map.Entry<String, Entrada>> menosUsadas = entradas.entrySet().iterator();
+        while (bytesTotales > maxBytes && menosUsadas.hasNext()) {
+            Map.Entry<String, Entrada> vieja = menosUsadas.next();
+            bytesTotales -= tamano(vieja.getKey(), vieja.getValue());
+            menosUsadas.remove();
+        }
+    }
+
+    private void quitar(String clave) {
+        Entrada anterior = entradas.remove(clave);
+        if (anterior != null) bytesTotales -= tamano(clave, anterior);
+    }
+
+    private long tamano(String clave, Entrada entrada) {
+        return BYTES_POR_ENTRADA + entrada.gzip.length + clave.length() * 2L + entrada.etag.length() * 2L;
+    }
+
+    private synchronized long bytesActuales() {
+        return bytesTotales;
+    }
+
+    private synchronized int cantidadEntradas() {
+        return entradas.size();
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private Entrada crearEntrada(byte[] gzip, long expira) {
+        if (gzip == null) return null;
+        return new Entrada(gzip, etag(gzip), expira);
+    }
+
+    /** Parámetros ordenados para que el orden del query no cree entradas distintas. */
+    private String normalizar(String variante) {
+        if (variante == null || variante.isEmpty()) return "";
+        String[] partes = variante.split("&");
+        Arrays.sort(partes);
+        return String.join("&", partes);
+    }
+
+    private List<ReglaTtl> leerReglas(String upstream) {
+        List<ReglaTtl> reglas = new ArrayList<>();
+        String valor = environment.getProperty("proxy.cache.ttl." + upstream, "");
+        for (String parte : valor.split(",")) {
+            int igual = parte.lastIndexOf('=');
+            if (igual <= 0) continue;
+            reglas.add(new ReglaTtl(parte.substring(0, igual).trim(), Long.parseLong(parte.substring(igual + 1).trim())));
+        }
+        return reglas;
+    }
+
+    private void contar(String upstream, String resultado) {
+        meterRegistry.counter("proxy.cache.solicitudes", "upstream", upstream, "resultado", resultado).increment();
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Respuesta guardada: body JSON en gzip + su ETag. */
+    @Getter
+    public static class Entrada {
+        private final byte[] gzip;
+        private final String etag;
+        private final long expira;
+
+        Entrada(byte[] gzip, String etag, long expira) {
+            this.gzip = gzip;
+            this.etag = etag;
+            this.expira = expira;
+        }
+    }
+
+    private static class ReglaTtl {
+        final String prefijo;
+        final long segundos;
+
+        ReglaTtl(String prefijo, long segundos) {
+            this.prefijo = prefijo;
+            this.segundos = segundos;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+// ¿Para qué sirve?
+//   Pasa la respuesta de un servicio externo (TMDB, RAWG, IGDB, Google Books)
+//   al navegador sin armarla entera como String. Antes cada proxy hacía
+//   getForEntity(url, String.class), corría un regex sobre el body completo
+//   y lo devolvía: varias copias del mismo JSON en memoria por petición.
+//
+// ¿Cómo?
+//   - Se pide al servicio externo con Accept-Encoding: gzip.
+//   - Rutas sin caché (TTL 0): el InputStream de la respuesta se copia al
+//     OutputStream del servlet por bloques, mientras llega. Si viene en gzip,
+//     no hay nada que limpiar y el navegador acepta gzip, los bytes pasan
+//     tal cual con Content-Encoding: gzip (ni se descomprimen).
+//   - Rutas con caché, primera petición (miss): también se transmite mientras
+//     llega, y de paso se va guardando una copia en gzip para la caché. Si la
+//     copia pasa el tope por entrada se suelta y la respuesta no se guarda
+//     (solo se transmite). Las peticiones que esperaban esa misma clave usan
+//     la entrada guardada o, si no quedó, salen a la red por su cuenta.
+//   - Rutas con caché, siguientes peticiones (hit): ProxyRespuestaCacheService
+//     tiene el body en gzip; si el navegador acepta gzip se manda ese mismo
+//     arreglo, sin descomprimir.
+//   - La limpieza del campo "next" (TMDB/RAWG) la hace SanitizadorNextJson
+//     sobre el stream, token a token, en vez de un regex sobre el String.
+//   - ETag / If-None-Match (304) para las respuestas de la caché.
+
+package com.example.NoLimits.Multimedia.service.proxy;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class ProxyTransmisionService {
+
+    private static final String GZIP = "gzip";
+    private static final String CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    @Autowired
+    private ProxyRespuestaCacheService respuestaCache;
+
+    /**
+     * Responde la petición del navegador con lo que devuelva el servicio
+     * externo, desde la caché cuando la ruta tiene TTL.
+     *
+     * @param upstream     nombre del servicio externo (tmdb, rawg, ...)
+     * @param ruta         ruta pedida, sin el prefijo del proxy
+     * @param variante     query string (o body de la consulta en IGDB)
+     * @param restTemplate cliente HTTP del servicio externo
+     */
+    public void servir(String upstream, String ruta, String variante, RestTemplate restTemplate,
+                       ProxyPeticion peticion, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        long ttl = respuestaCache.ttlPara(upstream, ruta);
+        if (ttl <= 0) {
+            transmitir(restTemplate, peticion, request, response);
+            return;
+        }
+
+        // Si esta petición es la que llena la caché, ya respondió al navegador
+        AtomicBoolean transmitida = new AtomicBoolean();
+        ProxyRespuestaCacheService.Entrada entrada = respuestaCache.obtener(upstream, ruta, variante, ttl, () -> {
+            transmitida.set(true);
+            return transmitirYGuardar(restTemplate, peticion, request, response);
+        });
+        if (transmitida.get()) return;
+
+        if (entrada == null) {
+            // Otra petición la descargó pero no quedó guardada (vacía o muy grande)
+            transmitir(restTemplate, peticion, request, response);
+        } else {
+            escribir(entrada, request, response);
+        }
+    }
+
+    /* ================= SIN CACHÉ ================= */
+
+    private void transmitir(RestTemplate restTemplate, ProxyPeticion peticion,
+                            HttpServletRequest request, HttpServletResponse response) {
+        ejecutar(restTemplate, peticion, origen -> {
+            boolean origenGzip = esGzip(origen.getHeaders());
+            MediaType tipo = origen.getHeaders().getContentType();
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(tipo != null ? tipo.toString() : MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            InputStream cuerpo = noVacio(origen.getBody());
+            if (cuerpo == null) return null;
+
+            OutputStream salida = response.getOutputStream();
+            if (origenGzip && peticion.getMarcadorNext() == null && aceptaGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                cuerpo.transferTo(salida);
+            } else {
+                copiar(origenGzip ? new GZIPInputStream(cuerpo) : cuerpo, salida, peticion.getMarcadorNext());
+            }
+            salida.flush();
+            return null;
+        });
+    }
+
+    /* ================= CON CACHÉ ================= */
+
+    /**
+     * Transmite la respuesta al navegador y devuelve el body limpio en gzip
+     * para guardar; null si vino vacío o pasó el tope por entrada.
+     */
+    private byte[] transmitirYGuardar(RestTemplate restTemplate, ProxyPeticion peticion,
+                                      HttpServletRequest request, HttpServletResponse response) {
+        long tope = respuestaCache.maxBytesPorEntrada();
+        return ejecutar(restTemplate, peticion, origen -> {
+            boolean origenGzip = esGzip(origen.getHeaders());
+
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+            InputStream cuerpo = noVacio(origen.getBody());
+            if (cuerpo == null) return null;
+
+            OutputStream salida = response.getOutputStream();
+            CopiaAcotada copia = new CopiaAcotada(tope);
+            String marcador = peticion.getMarcadorNext();
+
+            if (aceptaGzip(request)) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                OutputStream destino = new Bifurcacion(salida, copia);
+                if (origenGzip && marcador == null) {
+                    // Ya viene en gzip y no hay que limpiarlo: pasa tal cual
+                    cuerpo.transferTo(destino);
+                } else {
+                    GZIPOutputStream gzip = new GZIPOutputStream(destino, 8192);
+                    copiar(origenGzip ? new GZIPInputStream(cuerpo) : cuerpo, gzip, marcador);
+                    gzip.finish();
+                }
+            } else {
+                GZIPOutputStream gzip = new GZIPOutputStream(copia, 8192);
+                copiar(origenGzip ? new GZIPInputStream(cuerpo) : cuerpo, new Bifurcacion(salida, gzip), marcador);
+                gzip.finish();
+            }
+            salida.flush();
+            return copia.bytes();
+        });
+    }
+
+    private void escribir(ProxyRespuestaCacheService.Entrada entrada,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.ETAG, entrada.getEtag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (coincideEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), entrada.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        OutputStream salida = response.getOutputStream();
+        if (aceptaGzip(request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.setContentLength(entrada.getGzip().length);
+            salida.write(entrada.getGzip());
+        } else {
+            new GZIPInputStream(new ByteArrayInputStream(entrada.getGzip())).transferTo(salida);
+        }
+        salida.flush();
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private <T> T ejecutar(RestTemplate restTemplate, ProxyPeticion peticion, ResponseExtractor<T> extractor) {
+        return restTemplate.execute(peticion.getUrl(), peticion.getMetodo(), solicitud -> {
+            solicitud.getHeaders().putAll(peticion.getHeaders());
+            solicitud.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+            if (peticion.getCuerpo() != null) {
+                solicitud.getBody().write(peticion.getCuerpo().getBytes(StandardCharsets.UTF_8));
+            }
+        }, extractor);
+    }
+
+    private static void copiar(InputStream entrada, OutputStream salida, String marcadorNext) throws IOException {
+        if (marcadorNext == null) {
+            entrada.transferTo(salida);
+        } else {
+            SanitizadorNextJson.copiar(entrada, salida, marcadorNext);
+        }
+    }
+
+    /** El mismo stream, o null si no trae ni un byte. */
+    private static InputStream noVacio(InputStream cuerpo) throws IOException {
+        if (cuerpo == null) return null;
+        PushbackInputStream stream = new PushbackInputStream(cuerpo, 1);
+        int primero = stream.read();
+        if (primero == -1) return null;
+        stream.unread(primero);
+        return stream;
+    }
+
+    private static boolean esGzip(HttpHeaders headers) {
+        String codificacion = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        return codificacion != null && codificacion.trim().equalsIgnoreCase(GZIP);
+    }
+
+    private static boolean aceptaGzip(HttpServletRequest request) {
+        String acepta = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acepta != null && acepta.toLowerCase().contains(GZIP);
+    }
+
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) valor = valor.substring(2);
+            if (valor.equals("*") || valor.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /** Escribe en el stream de salida y también en una copia. */
+    private static final class Bifurcacion extends FilterOutputStream {
+        private final OutputStream copia;
+
+        Bifurcacion(OutputStream salida, OutputStream copia) {
+            super(salida);
+            this.copia = copia;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            copia.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            copia.write(b, off, len);
+        }
+    }
+
+    /** Junta bytes hasta el tope; al pasarlo suelta lo juntado e ignora el resto. */
+    private static final class CopiaAcotada extends OutputStream {
+        private final long tope;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+
+        CopiaAcotada(long tope) {
+            this.tope = tope;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (bytes == null) return;
+            if (bytes.size() + (long) len > tope) {
+                bytes = null;
+                return;
+            }
+            bytes.write(b, off, len);
+        }
+
+        /** Lo juntado; null si pasó el tope. */
+        byte[] bytes() {
+            return bytes == null ? null : bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+// ¿Para qué sirve?
+//   Quita la API key que TMDB y RAWG devuelven dentro del campo "next"
+//   (URL de la página siguiente). Antes se hacía con replaceAll() sobre el
+//   body completo como String.
+//
+// ¿Cómo?
+//   Copia el JSON token a token con el parser de streaming de Jackson (sin
+//   armar árbol ni String) y, cuando un campo "next" trae un texto con el
+//   marcador (p. ej. "api_key="), escribe null en su lugar. Lo demás se
+//   copia tal cual, números incluidos.
+
+package com.example.NoLimits.Multimedia.service.proxy;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public final class SanitizadorNextJson {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private SanitizadorNextJson() {
+    }
+
+    public static void copiar(InputStream entrada, OutputStream salida, String marcador) throws IOException {
+        try (JsonParser parser = JSON.createParser(entrada);
+             JsonGenerator generador = JSON.createGenerator(salida, JsonEncoding.UTF8)) {
+
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.VALUE_STRING
+                        && "next".equals(parser.currentName())
+                        && parser.getText().contains(marcador)) {
+                    generador.writeNull();
+                } else {
+                    generador.copyCurrentEventExact(parser);
+                }
+            }
+        }
+    }
+}
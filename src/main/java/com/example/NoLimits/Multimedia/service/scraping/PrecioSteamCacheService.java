@@ -0,0 +1,226 @@
+// ¿Para qué sirve?
+//   Caché de precios de Steam por appId delante de ScrapingClientService.
+//   Antes cada consulta (/api/scraping/steam, alta de producto, refresco
+//   nocturno) era un GET nuevo al microservicio de scraping, aunque el mismo
+//   appId se hubiera pedido segundos antes.
+//
+// ¿Cómo?
+//   - Edad < ttl-segundos: se responde desde memoria, sin red.
+//   - Edad < ttl + stale-segundos: se responde el valor viejo al tiro y se
+//     revalida en segundo plano (stale-while-revalidate).
+//   - Más viejo o sin valor: se consulta y se espera la respuesta. Si el
+//     microservicio falla y hay un valor viejo, se responde ese.
+//   - Consultas simultáneas del mismo appId comparten UNA petición en curso
+//     (una ráfaga de ?appId=730 = un solo GET al microservicio).
+//   - Cada respuesta queda también en steam_precio_cache, así el último
+//     valor conocido sobrevive a un reinicio.
+//
+// refrescar() siempre va al microservicio (lo usa el refresco nocturno),
+// pero también se une a la petición en curso y actualiza la caché.
+
+package com.example.NoLimits.Multimedia.service.scraping;
+
+import com.example.NoLimits.Multimedia.model.scraping.SteamPrecioCacheModel;
+import com.example.NoLimits.Multimedia.repository.scraping.SteamPrecioCacheRepository;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class PrecioSteamCacheService {
+
+    private static final Logger log = LoggerFactory.getLogger(PrecioSteamCacheService.class);
+
+    private static final TypeReference<Map<String, Object>> TIPO_DATOS = new TypeReference<>() {};
+
+    @Autowired
+    private ScrapingClientService scrapingClientService;
+
+    @Autowired
+    private SteamPrecioCacheRepository cacheRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${scraping.steam.cache.ttl-segundos:3600}")
+    private long ttlSegundos;
+
+    @Value("${scraping.steam.cache.stale-segundos:86400}")
+    private long staleSegundos;
+
+    @Value("${scraping.steam.cache.max-entradas:10000}")
+    private int maxEntradas;
+
+    private final Map<String, Entrada> memoria = new ConcurrentHashMap<>();
+
+    // appId -> petición al microservicio en curso (una por appId)
+    private final Map<String, CompletableFuture<Map<String, Object>>> enCurso = new ConcurrentHashMap<>();
+
+    private final ExecutorService revalidador = Executors.newFixedThreadPool(2, tarea -> {
+        Thread hilo = new Thread(tarea, "precios-steam-cache");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    /* ================= CONSULTA ================= */
+
+    /** Precio de Steam para el appId, desde la caché cuando se puede. */
+    public Map<String, Object> obtenerPrecioSteam(String appId) {
+        Entrada entrada = buscar(appId);
+
+        if (entrada != null) {
+            long edad = entrada.edadSegundos();
+            if (edad < ttlSegundos) {
+                return entrada.datos;
+            }
+            if (edad < ttlSegundos + staleSegundos) {
+                consultar(appId, true);
+                return entrada.datos;
+            }
+        }
+
+        try {
+            return esperar(consultar(appId, false));
+        } catch (RuntimeException e) {
+            if (entrada == null) throw e;
+            log.warn("Steam sin respuesta para appId {}, se usa el último precio conocido: {}",
+                    appId, e.getMessage());
+            return entrada.datos;
+        }
+    }
+
+    /** Consulta el microservicio sin mirar la caché y guarda el resultado. */
+    public Map<String, Object> refrescar(String appId) {
+        return esperar(consultar(appId, false));
+    }
+
+    /* ================= PETICIONES ================= */
+
+    /**
+     * Devuelve la petición en curso del appId o crea una. La crea quien
+     * llega primero: en su propio hilo, o en el revalidador si es de fondo.
+     */
+    private CompletableFuture<Map<String, Object>> consultar(String appId, boolean enSegundoPlano) {
+        CompletableFuture<Map<String, Object>> nueva = new CompletableFuture<>();
+        CompletableFuture<Map<String, Object>> existente = enCurso.putIfAbsent(appId, nueva);
+        if (existente != null) return existente;
+
+        Runnable tarea = () -> {
+            try {
+                nueva.complete(consultarYGuardar(appId));
+            } catch (Throwable e) {
+                if (enSegundoPlano) {
+                    log.warn("No se pudo revalidar el precio de appId {}: {}", appId, e.getMessage());
+                }
+                nueva.completeExceptionally(e);
+            } finally {
+                enCurso.remove(appId, nueva);
+            }
+        };
+
+        if (enSegundoPlano) {
+            revalidador.execute(tarea);
+        } else {
+            tarea.run();
+        }
+        return nueva;
+    }
+
+    private Map<String, Object> consultarYGuardar(String appId) {
+        Map<String, Object> datos = scrapingClientService.obtenerPrecioSteam(appId);
+        if (datos == null) return null;
+
+        Entrada entrada = new Entrada(Collections.unmodifiableMap(datos), LocalDateTime.now());
+        recordar(appId, entrada);
+        persistir(appId, entrada);
+        return entrada.datos;
+    }
+
+    private Map<String, Object> esperar(CompletableFuture<Map<String, Object>> peticion) {
+        try {
+            return peticion.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) throw causa;
+            throw e;
+        }
+    }
+
+    /* ================= ALMACENAMIENTO ================= */
+
+    private Entrada buscar(String appId) {
+        Entrada entrada = memoria.get(appId);
+        if (entrada != null) return entrada;
+
+        try {
+            SteamPrecioCacheModel fila = cacheRepository.findById(appId).orElse(null);
+            if (fila == null) return null;
+
+            entrada = new Entrada(
+                    Collections.unmodifiableMap(objectMapper.readValue(fila.getDatos(), TIPO_DATOS)),
+                    fila.getFechaConsulta());
+            recordar(appId, entrada);
+            return entrada;
+        } catch (Exception e) {
+            log.warn("No se pudo leer el precio guardado de appId {}: {}", appId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void recordar(String appId, Entrada entrada) {
+        // Tope simple contra appIds arbitrarios: se descarta uno cualquiera
+        if (memoria.size() >= maxEntradas && !memoria.containsKey(appId)) {
+            Iterator<String> claves = memoria.keySet().iterator();
+            if (claves.hasNext()) memoria.remove(claves.next());
+        }
+        memoria.put(appId, entrada);
+    }
+
+    private void persistir(String appId, Entrada entrada) {
+        try {
+            cacheRepository.save(new SteamPrecioCacheModel(
+                    appId, objectMapper.writeValueAsString(entrada.datos), entrada.obtenido));
+        } catch (Exception e) {
+            log.warn("No se pudo guardar el precio de appId {}: {}", appId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        revalidador.shutdownNow();
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private static class Entrada {
+        final Map<String, Object> datos;
+        final LocalDateTime obtenido;
+
+        Entrada(Map<String, Object> datos, LocalDateTime obtenido) {
+            this.datos = datos;
+            this.obtenido = obtenido;
+        }
+
+        long edadSegundos() {
+            return Duration.between(obtenido, LocalDateTime.now()).getSeconds();
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.NoLimits.Multimedia.service.scraping;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -18,12 +21,25 @@ import java.util.Map;
 @Service
 public class ScrapingClientService {
 
+    private static final String URL_POR_DEFECTO = "https://nolimits-scraping-service.onrender.com";
+
+    /**
+     * URL base del microservicio (scraping.base-url). Se puede apuntar a un
+     * servicio de prueba, p. ej. el de load-tests/upstream-lento.js.
+     */
+    @Value("${scraping.base-url:" + URL_POR_DEFECTO + "}")
+    private String baseUrl = URL_POR_DEFECTO;
+
     /**
      * Cliente HTTP utilizado para realizar peticiones al microservicio de scraping.
      * 
      * RestTemplate permite consumir endpoints REST de forma sencilla desde Spring Boot.
+     * Viene de ClientesHttpConfig: pool de conexiones, timeouts, bulkhead y
+     * circuit breaker propios del microservicio de scraping.
      */
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("scrapingRestTemplate")
+    private RestTemplate restTemplate;
 
     /**
      * Obtiene el precio de un videojuego desde Steam a través del microservicio de scraping.
@@ -47,7 +63,7 @@ public class ScrapingClientService {
     public Map<String, Object> obtenerPrecioSteam(String appId) {
 
         // URL del microservicio de scraping corriendo en Node.js 
-        String url = "https://nolimits-scraping-service.onrender.com/api/precios?appId=" + appId;
+        String url = baseUrl + "/api/precios?appId=" + appId;
 
         // Realiza la petición GET y retorna la respuesta convertida en Map
         return restTemplate.getForObject(url, Map.class);
@@ -0,0 +1,210 @@
+package com.example.NoLimits.benchmark;
+
+import com.example.NoLimits.Multimedia.model.catalogos.EstadoModel;
+import com.example.NoLimits.Multimedia.model.catalogos.TipoProductoModel;
+import com.example.NoLimits.Multimedia.model.producto.ProductoModel;
+import com.example.NoLimits.Multimedia.repository.catalogos.EstadoRepository;
+import com.example.NoLimits.Multimedia.repository.catalogos.TipoProductoRepository;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara findByIdFull (una query por colección) contra la forma anterior
+ * con un solo JOIN FETCH de todas las colecciones (findByIdFullJoinUnico).
+ *
+ * Producto de prueba: 10 imágenes, 5 plataformas, 6 géneros, 3 empresas,
+ * 2 desarrolladores y 2 links de compra.
+ *
+ * No corre en el build normal. Ejecutar con:
+ *   ./mvnw test -Dtest=ProductoDetalleBenchmarkTest -Dbenchmark=true
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_benchmark_detalle;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Benchmark · Detalle de producto (findByIdFull)")
+class ProductoDetalleBenchmarkTest {
+
+    private static final int IMAGENES = 10;
+    private static final int PLATAFORMAS = 5;
+    private static final int GENEROS = 6;
+    private static final int EMPRESAS = 3;
+    private static final int DESARROLLADORES = 2;
+    private static final int LINKS = 2;
+
+    private final int iteraciones = Integer.getInteger("benchmark.iteraciones", 200);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManager entityManager;
+    @Autowired private ProductoRepository productoRepository;
+    @Autowired private TipoProductoRepository tipoProductoRepository;
+    @Autowired private EstadoRepository estadoRepository;
+
+    private Long productoId;
+
+    @BeforeAll
+    void poblar() {
+        TipoProductoModel tipo = new TipoProductoModel();
+        tipo.setNombre("Videojuego");
+        tipo.setActivo(true);
+        tipo = tipoProductoRepository.save(tipo);
+
+        EstadoModel estado = new EstadoModel();
+        estado.setNombre("Disponible");
+        estado.setActivo(true);
+        estado = estadoRepository.save(estado);
+
+        jdbcTemplate.update("INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id) VALUES (?, ?, ?, ?)",
+                "Producto con muchas relaciones", 19990.0, tipo.getId(), estado.getId());
+        productoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM productos", Long.class);
+
+        for (int i = 1; i <= IMAGENES; i++) {
+            jdbcTemplate.update("INSERT INTO imagenes (ruta, producto_id) VALUES (?, ?)",
+                    "/assets/img/bench_" + i + ".webp", productoId);
+        }
+        for (int i = 1; i <= PLATAFORMAS; i++) {
+            Long plataformaId = insertarCatalogo("INSERT INTO plataforma (nombre) VALUES (?)", "plataforma", "Plataforma " + i);
+            jdbcTemplate.update("INSERT INTO plataformas (producto_id, plataforma_id) VALUES (?, ?)", productoId, plataformaId);
+            if (i <= LINKS) {
+                jdbcTemplate.update("INSERT INTO producto_links_compra (producto_id, plataforma_id, url) VALUES (?, ?, ?)",
+                        productoId, plataformaId, "https://tienda.example/" + i);
+            }
+        }
+        for (int i = 1; i <= GENEROS; i++) {
+            Long generoId = insertarCatalogo("INSERT INTO genero (nombre) VALUES (?)", "genero", "Genero " + i);
+            jdbcTemplate.update("INSERT INTO generos (producto_id, genero_id) VALUES (?, ?)", productoId, generoId);
+        }
+        for (int i = 1; i <= EMPRESAS; i++) {
+            Long empresaId = insertarCatalogo("INSERT INTO empresa (nombre, activo) VALUES (?, TRUE)", "empresa", "Empresa " + i);
+            jdbcTemplate.update("INSERT INTO empresas (producto_id, empresa_id) VALUES (?, ?)", productoId, empresaId);
+        }
+        for (int i = 1; i <= DESARROLLADORES; i++) {
+            Long desarrolladorId = insertarCatalogo("INSERT INTO desarrollador (nombre, activo) VALUES (?, TRUE)", "desarrollador", "Dev " + i);
+            jdbcTemplate.update("INSERT INTO desarrolladores (producto_id, desarrollador_id) VALUES (?, ?)", productoId, desarrolladorId);
+        }
+    }
+
+    @Test
+    @DisplayName("filas devueltas por la BD: producto cartesiano vs suma")
+    void filasDevueltas() {
+        long joinUnico = contar("""
+                SELECT COUNT(*) FROM productos p
+                LEFT JOIN imagenes i ON i.producto_id = p.id
+                LEFT JOIN plataformas pp ON pp.producto_id = p.id
+                LEFT JOIN generos g ON g.producto_id = p.id
+                LEFT JOIN empresas e ON e.producto_id = p.id
+                LEFT JOIN desarrolladores d ON d.producto_id = p.id
+                LEFT JOIN producto_links_compra lc ON lc.producto_id = p.id
+                WHERE p.id = ?
+                """);
+
+        // 1 fila del producto + 1 query por colección
+        long porColeccion = 1
+                + contar("SELECT COUNT(*) FROM imagenes WHERE producto_id = ?")
+                + contar("SELECT COUNT(*) FROM plataformas WHERE producto_id = ?")
+                + contar("SELECT COUNT(*) FROM generos WHERE producto_id = ?")
+                + contar("SELECT COUNT(*) FROM empresas WHERE producto_id = ?")
+                + contar("SELECT COUNT(*) FROM desarrolladores WHERE producto_id = ?")
+                + contar("SELECT COUNT(*) FROM producto_links_compra WHERE producto_id = ?");
+
+        System.out.printf("[Benchmark] filas: JOIN FETCH único=%d, una query por colección=%d%n",
+                joinUnico, porColeccion);
+
+        assertEquals((long) IMAGENES * PLATAFORMAS * GENEROS * EMPRESAS * DESARROLLADORES * LINKS, joinUnico);
+        assertEquals(1L + IMAGENES + PLATAFORMAS + GENEROS + EMPRESAS + DESARROLLADORES + LINKS, porColeccion);
+    }
+
+    @Test
+    @DisplayName("ambas formas arman el mismo producto")
+    void mismoResultado() {
+        ProductoModel nuevo = cargar(productoRepository::findByIdFull);
+        ProductoModel anterior = cargar(productoRepository::findByIdFullJoinUnico);
+
+        assertEquals(anterior.getImagenes().size(), nuevo.getImagenes().size());
+        assertEquals(anterior.getPlataformas().size(), nuevo.getPlataformas().size());
+        assertEquals(anterior.getGeneros().size(), nuevo.getGeneros().size());
+        assertEquals(anterior.getEmpresas().size(), nuevo.getEmpresas().size());
+        assertEquals(anterior.getDesarrolladores().size(), nuevo.getDesarrolladores().size());
+        assertEquals(anterior.getLinksCompra().size(), nuevo.getLinksCompra().size());
+        assertEquals(IMAGENES, nuevo.getImagenes().size());
+    }
+
+    @Test
+    @DisplayName("latencia mediana por carga")
+    void latencia() {
+        double joinUnico = medianaMs(productoRepository::findByIdFullJoinUnico);
+        double porColeccion = medianaMs(productoRepository::findByIdFull);
+
+        System.out.printf("[Benchmark] latencia mediana: JOIN FETCH único=%.2f ms, una query por colección=%.2f ms%n",
+                joinUnico, porColeccion);
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private Long insertarCatalogo(String insert, String tabla, String nombre) {
+        jdbcTemplate.update(insert, nombre);
+        return jdbcTemplate.queryForObject("SELECT id FROM " + tabla + " WHERE nombre = ?", Long.class, nombre);
+    }
+
+    private long contar(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class, productoId);
+    }
+
+    // Cada carga en su propia transacción y con el contexto de persistencia vacío
+    private ProductoModel cargar(Function<Long, Optional<ProductoModel>> consulta) {
+        return transactionTemplate.execute(status -> {
+            entityManager.clear();
+            ProductoModel producto = consulta.apply(productoId).orElseThrow();
+            // Fuerza las colecciones para comparar dentro de la transacción
+            producto.getImagenes().size();
+            producto.getPlataformas().size();
+            producto.getGeneros().size();
+            producto.getEmpresas().size();
+            producto.getDesarrolladores().size();
+            producto.getLinksCompra().size();
+            return producto;
+        });
+    }
+
+    private double medianaMs(Function<Long, Optional<ProductoModel>> consulta) {
+        for (int i = 0; i < 20; i++) {
+            cargar(consulta);
+        }
+
+        long[] tiempos = new long[iteraciones];
+        for (int i = 0; i < iteraciones; i++) {
+            long inicio = System.nanoTime();
+            cargar(consulta);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[iteraciones / 2] / 1_000_000.0;
+    }
+}
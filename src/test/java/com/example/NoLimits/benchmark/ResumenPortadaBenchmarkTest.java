@@ -0,0 +1,160 @@
+package com.example.NoLimits.benchmark;
+
+import com.example.NoLimits.Multimedia.model.catalogos.EstadoModel;
+import com.example.NoLimits.Multimedia.model.catalogos.TipoProductoModel;
+import com.example.NoLimits.Multimedia.repository.catalogos.EstadoRepository;
+import com.example.NoLimits.Multimedia.repository.catalogos.TipoProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ImagenPortadaBackfillService;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara la query de resumen con la subconsulta correlacionada de la
+ * primera imagen (forma anterior) contra la columna imagen_portada.
+ *
+ * No corre en el build normal (inserta 100k productos). Ejecutar con:
+ *   ./mvnw test -Dtest=ResumenPortadaBenchmarkTest -Dbenchmark=true
+ * Opcional: -Dbenchmark.productos=100000 -Dbenchmark.iteraciones=20
+ *
+ * Corre sobre H2; para números de producción apuntar spring.datasource.* a Postgres.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_benchmark_portada;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.sql.init.mode=never",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Benchmark · Portada en resumen de productos")
+class ResumenPortadaBenchmarkTest {
+
+    private static final String SELECT_BASE =
+            "SELECT p.id, p.nombre, p.precio, tp.nombre, e.nombre, p.saga, p.portada_saga, ";
+
+    private static final String FROM_BASE = """
+             FROM productos p
+             JOIN tipo_productos tp ON tp.id = p.tipo_producto_id
+             JOIN estados e ON e.id = p.estado_id
+            """;
+
+    // Forma anterior: una subconsulta por cada fila
+    private static final String CON_SUBCONSULTA = SELECT_BASE
+            + "(SELECT img.ruta FROM imagenes img WHERE img.producto_id = p.id ORDER BY img.id ASC LIMIT 1)"
+            + FROM_BASE;
+
+    // Forma nueva: columna desnormalizada
+    private static final String CON_COLUMNA = SELECT_BASE + "p.imagen_portada" + FROM_BASE;
+
+    private final int productos = Integer.getInteger("benchmark.productos", 100_000);
+    private final int iteraciones = Integer.getInteger("benchmark.iteraciones", 20);
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TipoProductoRepository tipoProductoRepository;
+    @Autowired private EstadoRepository estadoRepository;
+    @Autowired private ImagenPortadaBackfillService backfillService;
+
+    @BeforeAll
+    void poblar() {
+        TipoProductoModel tipo = new TipoProductoModel();
+        tipo.setNombre("Videojuego");
+        tipo.setActivo(true);
+        tipo = tipoProductoRepository.save(tipo);
+
+        EstadoModel estado = new EstadoModel();
+        estado.setNombre("Disponible");
+        estado.setActivo(true);
+        estado = estadoRepository.save(estado);
+
+        List<Object[]> filasProductos = new ArrayList<>(productos);
+        for (int i = 1; i <= productos; i++) {
+            filasProductos.add(new Object[] { "Producto " + i, 1000.0 + i, tipo.getId(), estado.getId() });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id) VALUES (?, ?, ?, ?)",
+                filasProductos);
+
+        // 1 a 3 imágenes por producto; se insertan en orden inverso para que
+        // la primera por id no sea la de ruta menor
+        List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM productos ORDER BY id", Long.class);
+        List<Object[]> filasImagenes = new ArrayList<>(ids.size() * 2);
+        for (Long id : ids) {
+            int cantidad = 1 + (int) (id % 3);
+            for (int n = cantidad; n >= 1; n--) {
+                filasImagenes.add(new Object[] { "/assets/img/productos/" + id + "_" + n + ".webp", id });
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO imagenes (ruta, producto_id) VALUES (?, ?)", filasImagenes);
+
+        long inicio = System.nanoTime();
+        int actualizadas = backfillService.rellenarPortadas();
+        System.out.printf("[Benchmark] backfill: %d filas en %d ms%n",
+                actualizadas, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @Test
+    @DisplayName("ambas formas devuelven la misma portada")
+    void mismasPortadas() {
+        String orden = " ORDER BY p.id ASC";
+        List<String> antes = jdbcTemplate.query(CON_SUBCONSULTA + orden, (rs, i) -> rs.getString(8));
+        List<String> despues = jdbcTemplate.query(CON_COLUMNA + orden, (rs, i) -> rs.getString(8));
+
+        assertEquals(productos, despues.size());
+        assertEquals(antes, despues);
+    }
+
+    @Test
+    @DisplayName("listado completo (findAll / carga del snapshot)")
+    void listadoCompleto() {
+        String orden = " ORDER BY p.id ASC";
+        comparar("completo", CON_SUBCONSULTA + orden, CON_COLUMNA + orden);
+    }
+
+    @Test
+    @DisplayName("página de 20 al final del catálogo")
+    void paginaProfunda() {
+        String pagina = " ORDER BY p.id ASC LIMIT 20 OFFSET " + (productos - 20);
+        comparar("página profunda", CON_SUBCONSULTA + pagina, CON_COLUMNA + pagina);
+    }
+
+    private void comparar(String escenario, String sqlSubconsulta, String sqlColumna) {
+        long subconsulta = medianaMs(sqlSubconsulta);
+        long columna = medianaMs(sqlColumna);
+        System.out.printf("[Benchmark] %s (%d productos): subconsulta=%d ms, columna=%d ms%n",
+                escenario, productos, subconsulta, columna);
+    }
+
+    private long medianaMs(String sql) {
+        // Calentamiento (JIT y caché de páginas de H2)
+        for (int i = 0; i < 3; i++) {
+            jdbcTemplate.query(sql, rs -> { });
+        }
+
+        long[] tiempos = new long[iteraciones];
+        for (int i = 0; i < iteraciones; i++) {
+            long inicio = System.nanoTime();
+            jdbcTemplate.query(sql, rs -> { });
+            tiempos[i] = (System.nanoTime() - inicio) / 1_000_000;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[iteraciones / 2];
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.NoLimits.chatbot.ai;
+
+import com.example.NoLimits.Multimedia.chatbot.ai.OpenAIChatClient;
+import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * askNoLimitsStreaming contra un servidor OpenAI falso local (sin red ni
+ * API key real): responde /chat/completions como Server-Sent Events, igual
+ * que la API con "stream": true.
+ */
+@DisplayName("OpenAIChatClient — streaming contra un OpenAI falso")
+class OpenAIChatClientStreamingTest {
+
+    private HttpServer servidor;
+    private final AtomicReference<String> peticionRecibida = new AtomicReference<>();
+    private final AtomicInteger llamadas = new AtomicInteger();
+
+    private ProductoEmbeddingService embeddingService;
+    private OpenAIChatClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/v1/chat/completions", intercambio -> {
+            llamadas.incrementAndGet();
+            peticionRecibida.set(new String(intercambio.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+
+            intercambio.getResponseHeaders().set("Content-Type", "text/event-stream");
+            intercambio.sendResponseHeaders(200, 0);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                for (String fragmento : List.of("¡Oye! ", "**Naruto**", " es un anime.")) {
+                    salida.write(("data: " + chunk(fragmento) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    salida.flush();
+                }
+                salida.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        servidor.start();
+
+        embeddingService = mock(ProductoEmbeddingService.class);
+        when(embeddingService.embeddingDe(anyString())).thenReturn(new float[]{0.6f, 0.8f});
+        client = new OpenAIChatClient(embeddingService);
+        ReflectionTestUtils.setField(client, "respuestaCache",
+                new RespuestaIaCacheService(new MockEnvironment(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(client, "openAiApiKey", "fake-key");
+        ReflectionTestUtils.setField(client, "openAiBaseUrl",
+                "http://localhost:" + servidor.getAddress().getPort() + "/v1");
+        client.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    @DisplayName("entrega cada fragmento en orden, sin markdown, y devuelve el texto completo")
+    void entregaFragmentosEnOrden() {
+        when(embeddingService.buscarSimilares(any(float[].class), eq(10))).thenReturn(List.of("Naruto Shippuden"));
+        List<String> fragmentos = new ArrayList<>();
+
+        String respuesta = client.askNoLimitsStreaming("naruto", fragmentos::add);
+
+        assertEquals(List.of("¡Oye! ", "Naruto", " es un anime."), fragmentos);
+        assertEquals("¡Oye! Naruto es un anime.", respuesta);
+    }
+
+    @Test
+    @DisplayName("pide stream=true e incluye en el prompt el contexto de la búsqueda vectorial")
+    void peticionConContexto() {
+        when(embeddingService.buscarSimilares(any(float[].class), eq(10))).thenReturn(List.of("Naruto Shippuden"));
+
+        client.askNoLimitsStreaming("naruto", fragmento -> { });
+
+        String peticion = peticionRecibida.get();
+        assertNotNull(peticion);
+        assertTrue(peticion.contains("\"stream\":true"), peticion);
+        assertTrue(peticion.contains("Naruto Shippuden"), peticion);
+        verify(embeddingService).embeddingDe("naruto");
+        verify(embeddingService).buscarSimilares(aryEq(new float[]{0.6f, 0.8f}), eq(10));
+    }
+
+    @Test
+    @DisplayName("una pregunta ya respondida llega desde la caché en un solo fragmento")
+    void preguntaRepetidaDesdeCache() {
+        when(embeddingService.buscarSimilares(any(float[].class), eq(10))).thenReturn(List.of("Naruto Shippuden"));
+        client.askNoLimitsStreaming("naruto", fragmento -> { });
+
+        List<String> fragmentos = new ArrayList<>();
+        String respuesta = client.askNoLimitsStreaming("¡Naruto!", fragmentos::add);
+
+        assertEquals(List.of("¡Oye! Naruto es un anime."), fragmentos);
+        assertEquals("¡Oye! Naruto es un anime.", respuesta);
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    @DisplayName("si el navegador se va a mitad de camino, se corta el stream y se devuelve el fallback")
+    void clienteCortaElStream() {
+        when(embeddingService.buscarSimilares(any(float[].class), eq(10))).thenReturn(List.of());
+
+        String respuesta = client.askNoLimitsStreaming("naruto", fragmento -> {
+            throw new IllegalStateException("conexión cerrada");
+        });
+
+        assertTrue(respuesta.contains("algo falló"));
+    }
+
+    private static String chunk(String contenido) {
+        String texto = contenido.replace("\\", "\\\\").replace("\"", "\\\"");
+        return "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1,"
+                + "\"model\":\"gpt-4o-mini\",\"choices\":[{\"index\":0,"
+                + "\"delta\":{\"content\":\"" + texto + "\"},\"finish_reason\":null}]}";
+    }
+}
@@ -2,9 +2,12 @@ package com.example.NoLimits.chatbot.ai;
 
 import com.example.NoLimits.Multimedia.chatbot.ai.OpenAIChatClient;
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
 import com.openai.client.OpenAIClient;
 import com.openai.models.chat.completions.ChatCompletion;
 import com.openai.models.chat.completions.ChatCompletionMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.mock.env.MockEnvironment;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import org.junit.jupiter.api.DisplayName;
@@ -22,6 +25,10 @@ import static org.mockito.Mockito.*;
 
 class OpenAIChatClientTest {
 
+    private static RespuestaIaCacheService nuevaCache() {
+        return new RespuestaIaCacheService(new MockEnvironment(), new SimpleMeterRegistry());
+    }
+
     @Nested
     @DisplayName("Constructor")
     class ConstructorTests {
@@ -124,8 +131,9 @@ class OpenAIChatClientTest {
 
                 OpenAIChatClient client =
                         new OpenAIChatClient(embeddingService);
+                ReflectionTestUtils.setField(client, "respuestaCache", nuevaCache());
 
-                when(embeddingService.buscarSimilares(anyString(), eq(10)))
+                when(embeddingService.buscarSimilares(any(float[].class), eq(10)))
                         .thenReturn(List.of());
 
                 // Inyectamos null en el cliente OpenAI
@@ -149,8 +157,9 @@ class OpenAIChatClientTest {
 
                 OpenAIChatClient client =
                         new OpenAIChatClient(embeddingService);
+                ReflectionTestUtils.setField(client, "respuestaCache", nuevaCache());
 
-                when(embeddingService.buscarSimilares(anyString(), eq(10)))
+                when(embeddingService.buscarSimilares(any(float[].class), eq(10)))
                         .thenReturn(List.of("Naruto", "Dragon Ball"));
 
                 String respuesta = client.askNoLimits("anime");
@@ -168,6 +177,7 @@ class OpenAIChatClientTest {
 
                 OpenAIChatClient client =
                         new OpenAIChatClient(embeddingService);
+                ReflectionTestUtils.setField(client, "respuestaCache", nuevaCache());
 
                 OpenAIClient clientMock =
                         mock(OpenAIClient.class);
@@ -178,7 +188,7 @@ class OpenAIChatClientTest {
                         clientMock
                 );
 
-                when(embeddingService.buscarSimilares(anyString(), eq(10)))
+                when(embeddingService.buscarSimilares(any(float[].class), eq(10)))
                         .thenReturn(List.of("Naruto Shippuden"));
 
                 var chatServiceMock =
@@ -227,5 +237,47 @@ class OpenAIChatClientTest {
                 );
         }
         
+    
+        @Test
+        @DisplayName("La misma pregunta (otra forma de escribirla) sale de la caché sin llamar a OpenAI")
+        void segundaPreguntaDesdeCache() {
+
+                ProductoEmbeddingService embeddingService =
+                        mock(ProductoEmbeddingService.class);
+
+                OpenAIChatClient client =
+                        new OpenAIChatClient(embeddingService);
+                ReflectionTestUtils.setField(client, "respuestaCache", nuevaCache());
+
+                OpenAIClient clientMock = mock(OpenAIClient.class);
+                ReflectionTestUtils.setField(client, "client", clientMock);
+
+                when(embeddingService.embeddingDe(anyString()))
+                        .thenReturn(new float[]{0.6f, 0.8f});
+                when(embeddingService.buscarSimilares(any(float[].class), eq(10)))
+                        .thenReturn(List.of("Naruto Shippuden"));
+
+                var chatServiceMock = mock(com.openai.services.blocking.ChatService.class);
+                var completionServiceMock = mock(com.openai.services.blocking.chat.ChatCompletionService.class);
+                var completion = mock(ChatCompletion.class);
+                var choice = mock(ChatCompletion.Choice.class);
+                var message = mock(ChatCompletionMessage.class);
+
+                when(message.content()).thenReturn(Optional.of("Naruto es un anime."));
+                when(choice.message()).thenReturn(message);
+                when(completion.choices()).thenReturn(List.of(choice));
+                when(completionServiceMock.create(
+                        any(com.openai.models.chat.completions.ChatCompletionCreateParams.class)))
+                        .thenReturn(completion);
+                when(chatServiceMock.completions()).thenReturn(completionServiceMock);
+                when(clientMock.chat()).thenReturn(chatServiceMock);
+
+                assertEquals("Naruto es un anime.", client.askNoLimits("¿Qué es Naruto?"));
+                assertEquals("Naruto es un anime.", client.askNoLimits("que es naruto"));
+
+                verify(completionServiceMock, times(1)).create(
+                        any(com.openai.models.chat.completions.ChatCompletionCreateParams.class));
+                verify(embeddingService, times(1)).embeddingDe(anyString());
+        }
     }
 }
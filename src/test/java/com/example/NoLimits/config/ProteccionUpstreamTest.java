@@ -0,0 +1,161 @@
+package com.example.NoLimits.config;
+
+import com.example.NoLimits.Multimedia._exceptions.ServicioExternoNoDisponibleException;
+import com.example.NoLimits.Multimedia.config.http.ProteccionUpstream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ProteccionUpstream — bulkhead y circuit breaker")
+class ProteccionUpstreamTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HttpRequest request;
+    private ClientHttpRequestExecution execution;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = mock(HttpRequest.class);
+        execution = mock(ClientHttpRequestExecution.class);
+    }
+
+    @Test
+    @DisplayName("abre el circuito tras umbral-fallos errores y rechaza sin llamar")
+    void abreCircuitoTrasFallos() throws Exception {
+        ProteccionUpstream proteccion = new ProteccionUpstream("tmdb", 4, 0, 2, 60_000, meterRegistry);
+        when(execution.execute(any(), any())).thenThrow(new SocketTimeoutException("timeout"));
+
+        assertThrows(IOException.class, () -> proteccion.intercept(request, new byte[0], execution));
+        assertThrows(IOException.class, () -> proteccion.intercept(request, new byte[0], execution));
+        assertTrue(proteccion.estaAbierto());
+
+        assertThrows(ServicioExternoNoDisponibleException.class,
+                () -> proteccion.intercept(request, new byte[0], execution));
+        verify(execution, times(2)).execute(any(), any());
+        assertEquals(1, meterRegistry.counter("http.salida.rechazos", "upstream", "tmdb", "motivo", "circuito_abierto").count());
+    }
+
+    @Test
+    @DisplayName("pasado abierto-ms deja pasar una prueba y se cierra si sale bien")
+    void llamadaDePruebaCierraCircuito() throws Exception {
+        ProteccionUpstream proteccion = new ProteccionUpstream("rawg", 4, 0, 1, 50, meterRegistry);
+        ClientHttpResponse error = respuesta(HttpStatus.BAD_GATEWAY);
+        ClientHttpResponse ok = respuesta(HttpStatus.OK);
+        when(execution.execute(any(), any())).thenReturn(error, ok);
+
+        proteccion.intercept(request, new byte[0], execution).close();
+        assertTrue(proteccion.estaAbierto());
+
+        Thread.sleep(80);
+
+        try (ClientHttpResponse prueba = proteccion.intercept(request, new byte[0], execution)) {
+            assertEquals(HttpStatus.OK, prueba.getStatusCode());
+        }
+        assertFalse(proteccion.estaAbierto());
+        verify(ok).close();
+    }
+
+    @Test
+    @DisplayName("sin cupo libre rechaza de inmediato")
+    void bulkheadRechazaSinCupo() throws Exception {
+        ProteccionUpstream proteccion = new ProteccionUpstream("igdb", 1, 0, 5, 60_000, meterRegistry);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch soltar = new CountDownLatch(1);
+        ClientHttpResponse ok = respuesta(HttpStatus.OK);
+        when(execution.execute(any(), any())).thenAnswer(inv -> {
+            dentro.countDown();
+            soltar.await();
+            return ok;
+        });
+
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        try {
+            hilo.submit(() -> {
+                proteccion.intercept(request, new byte[0], execution).close();
+                return null;
+            });
+            dentro.await();
+
+            assertThrows(ServicioExternoNoDisponibleException.class,
+                    () -> proteccion.intercept(request, new byte[0], execution));
+            assertEquals(1.0, meterRegistry.get("http.salida.en.uso").tag("upstream", "igdb").gauge().value());
+        } finally {
+            soltar.countDown();
+            hilo.shutdown();
+        }
+        assertFalse(proteccion.estaAbierto());
+    }
+
+    @Test
+    @DisplayName("el cupo se devuelve al cerrar la respuesta, no al recibir los headers")
+    void cupoHastaCerrarRespuesta() throws Exception {
+        ProteccionUpstream proteccion = new ProteccionUpstream("tmdb", 1, 0, 5, 60_000, meterRegistry);
+        ClientHttpResponse ok = respuesta(HttpStatus.OK);
+        when(execution.execute(any(), any())).thenReturn(ok);
+
+        ClientHttpResponse primera = proteccion.intercept(request, new byte[0], execution);
+
+        // Cuerpo sin leer: la llamada sigue en curso
+        assertThrows(ServicioExternoNoDisponibleException.class,
+                () -> proteccion.intercept(request, new byte[0], execution));
+        assertEquals(0, meterRegistry.find("http.salida").timers().size());
+
+        primera.close();
+        primera.close();
+
+        proteccion.intercept(request, new byte[0], execution).close();
+        assertEquals(2, meterRegistry.get("http.salida").tag("resultado", "ok").timer().count());
+        assertEquals(0.0, meterRegistry.get("http.salida.en.uso").tag("upstream", "tmdb").gauge().value());
+    }
+
+    @Test
+    @DisplayName("un error de red al leer el cuerpo cuenta como fallo")
+    void errorLeyendoCuerpoEsFallo() throws Exception {
+        ProteccionUpstream proteccion = new ProteccionUpstream("igdb", 4, 0, 1, 60_000, meterRegistry);
+        ClientHttpResponse cortada = respuesta(HttpStatus.OK);
+        InputStream cuerpo = mock(InputStream.class);
+        when(cuerpo.read(any(byte[].class), anyInt(), anyInt())).thenThrow(new SocketTimeoutException("read timeout"));
+        when(cortada.getBody()).thenReturn(cuerpo);
+        when(execution.execute(any(), any())).thenReturn(cortada);
+
+        try (ClientHttpResponse respuesta = proteccion.intercept(request, new byte[0], execution)) {
+            assertFalse(proteccion.estaAbierto());
+            assertThrows(IOException.class, () -> respuesta.getBody().read(new byte[8], 0, 8));
+        }
+
+        assertTrue(proteccion.estaAbierto());
+        assertEquals(1, meterRegistry.get("http.salida").tag("resultado", "error_red").timer().count());
+    }
+
+    private ClientHttpResponse respuesta(HttpStatus status) throws IOException {
+        ClientHttpResponse respuesta = mock(ClientHttpResponse.class);
+        when(respuesta.getStatusCode()).thenReturn(status);
+        return respuesta;
+    }
+}
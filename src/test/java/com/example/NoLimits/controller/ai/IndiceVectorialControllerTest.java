@@ -0,0 +1,70 @@
+package com.example.NoLimits.controller.ai;
+
+import com.example.NoLimits.Multimedia.controller.ai.IndiceVectorialController;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.EstadoIndice;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.TipoIndice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(IndiceVectorialController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@DisplayName("IndiceVectorialControllerTest — Administración del índice vectorial")
+class IndiceVectorialControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IndiceVectorialService indiceVectorialService;
+
+    private static EstadoIndice estado(Double recall) {
+        return new EstadoIndice("producto_embeddings_embedding_idx", "hnsw",
+                "CREATE INDEX ... USING hnsw", 1200, 8192, 10, 20, recall);
+    }
+
+    @Test
+    @DisplayName("GET /indice → 200 OK con tamaño y recall@k")
+    void estado_retorna200() throws Exception {
+        when(indiceVectorialService.estado(10, 20, 80, null)).thenReturn(estado(0.97));
+
+        mockMvc.perform(get("/api/embeddings/indice").param("efSearch", "80"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tipo").value("hnsw"))
+                .andExpect(jsonPath("$.tamanoBytes").value(8192))
+                .andExpect(jsonPath("$.recall").value(0.97));
+    }
+
+    @Test
+    @DisplayName("POST /indice/reconstruir?tipo=ivfflat → reconstruye con ese tipo")
+    void reconstruir_conTipo() throws Exception {
+        when(indiceVectorialService.reconstruir(TipoIndice.IVFFLAT)).thenReturn(estado(null));
+
+        mockMvc.perform(post("/api/embeddings/indice/reconstruir").param("tipo", "ivfflat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("producto_embeddings_embedding_idx"));
+    }
+
+    @Test
+    @DisplayName("POST /indice/reconstruir?tipo=btree → 400")
+    void reconstruir_tipoInvalido() throws Exception {
+        mockMvc.perform(post("/api/embeddings/indice/reconstruir").param("tipo", "btree"))
+                .andExpect(status().isBadRequest());
+
+        verify(indiceVectorialService, never()).reconstruir(any(TipoIndice.class));
+    }
+}
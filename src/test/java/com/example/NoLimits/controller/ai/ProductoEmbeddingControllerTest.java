@@ -49,7 +49,7 @@ class ProductoEmbeddingControllerTest {
     @Test
     @DisplayName("GET /buscar?q=zelda → 200 OK con lista de resultados")
     void buscar_retorna200ConLista() throws Exception {
-        when(productoEmbeddingService.buscarSimilares("zelda"))
+        when(productoEmbeddingService.buscarSimilares("zelda", 5, null, null))
                 .thenReturn(List.of("Zelda Breath of the Wild", "Zelda Ocarina of Time"));
 
         mockMvc.perform(get("/api/embeddings/buscar").param("q", "zelda"))
@@ -61,7 +61,7 @@ class ProductoEmbeddingControllerTest {
     @Test
     @DisplayName("GET /buscar?q=xyz → 200 OK con lista vacía")
     void buscar_sinResultados_retornaListaVacia() throws Exception {
-        when(productoEmbeddingService.buscarSimilares("xyz"))
+        when(productoEmbeddingService.buscarSimilares("xyz", 5, null, null))
                 .thenReturn(List.of());
 
         mockMvc.perform(get("/api/embeddings/buscar").param("q", "xyz"))
@@ -69,6 +69,17 @@ class ProductoEmbeddingControllerTest {
                 .andExpect(jsonPath("$.length()").value(0));
     }
 
+    @Test
+    @DisplayName("GET /buscar?q=zelda&efSearch=100 → pasa ef_search a la búsqueda")
+    void buscar_conEfSearch() throws Exception {
+        when(productoEmbeddingService.buscarSimilares("zelda", 5, 100, null))
+                .thenReturn(List.of("Zelda Breath of the Wild"));
+
+        mockMvc.perform(get("/api/embeddings/buscar").param("q", "zelda").param("efSearch", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("Zelda Breath of the Wild"));
+    }
+
     @Test
     @DisplayName("POST /indexar → 200 OK con mensaje de total indexado")
     void indexar_retorna200() throws Exception {
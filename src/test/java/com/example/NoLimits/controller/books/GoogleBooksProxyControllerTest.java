@@ -1,13 +1,16 @@
 package com.example.NoLimits.controller.books;
 
 import com.example.NoLimits.Multimedia.controller.GoogleBooks.GoogleBooksProxyController;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 
@@ -20,6 +23,13 @@ class GoogleBooksProxyControllerTest {
     @Autowired
     private MockMvc mockMvc;
 
+    // Cliente HTTP de Google Books (ClientesHttpConfig); estos tests no salen a la red
+    @MockBean(name = "googleBooksRestTemplate")
+    private RestTemplate googleBooksRestTemplate;
+
+    @MockBean
+    private ProxyTransmisionService transmision;
+
     @Test
     @DisplayName("GET /api/books/volumes → endpoint existe y responde (no 404)")
     void proxy_volumes_endpointExiste() throws Exception {
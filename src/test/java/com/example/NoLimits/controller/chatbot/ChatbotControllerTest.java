@@ -15,9 +15,14 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -110,4 +115,55 @@ public class ChatbotControllerTest extends AbstractContainerBaseTest {
                     .andExpect(jsonPath("$.reply").value("No entendí tu pregunta."));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("POST /api/chatbot/chat/stream")
+    class ChatStream {
+
+        @Test
+        @DisplayName("regla interna → un único evento 'respuesta', sin llamar a la IA")
+        void reglaRespondeAlTiro() throws Exception {
+            when(chatbotService.findRuleResponse("iniciar sesion")).thenReturn(chatResponseEjemplo());
+
+            MvcResult resultado = mockMvc.perform(post("/api/chatbot/chat/stream")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"message\":\"iniciar sesion\"}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            resultado.getAsyncResult(5000);
+
+            String cuerpo = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            assertTrue(cuerpo.contains("event:respuesta"));
+            assertTrue(cuerpo.contains("¡Hola! Soy el asistente de NoLimits."));
+            assertFalse(cuerpo.contains("event:token"));
+            verify(chatbotService, never()).streamAiResponse(any(), any());
+        }
+
+        @Test
+        @DisplayName("IA → 'inicio', un 'token' por fragmento en orden y la 'respuesta' final")
+        void iaEnviaFragmentos() throws Exception {
+            when(chatbotService.findRuleResponse("naruto")).thenReturn(null);
+            when(chatbotService.streamAiResponse(eq("naruto"), any())).thenAnswer(inv -> {
+                Consumer<String> onToken = inv.getArgument(1);
+                onToken.accept("¡Oye! ");
+                onToken.accept("Naruto es un anime.");
+                return new ChatResponse("¡Oye! Naruto es un anime.", List.of(), "/principal", false, "ai");
+            });
+
+            MvcResult resultado = mockMvc.perform(post("/api/chatbot/chat/stream")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"message\":\"naruto\"}"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            resultado.getAsyncResult(5000);
+
+            String cuerpo = resultado.getResponse().getContentAsString(StandardCharsets.UTF_8);
+            int inicio = cuerpo.indexOf("event:inicio");
+            int primero = cuerpo.indexOf("data:¡Oye! ");
+            int segundo = cuerpo.indexOf("data:Naruto es un anime.");
+            int fin = cuerpo.indexOf("event:respuesta");
+            assertTrue(inicio >= 0 && inicio < primero && primero < segundo && segundo < fin, cuerpo);
+            assertTrue(cuerpo.contains("\"source\":\"ai\""));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.NoLimits.controller.chatbot;
+
+import com.example.NoLimits.Multimedia.chatbot.dto.ChatResponse;
+import com.example.NoLimits.Multimedia.chatbot.service.ChatbotService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /api/chatbot/chat/stream con el pool de la IA al mínimo (1 en curso +
+ * 1 en cola): mientras OpenAI no contesta, el tercer stream recibe 503 en
+ * vez de quedar encolado sin límite.
+ */
+@SpringBootTest(properties = {
+        "chatbot.stream.hilos=1",
+        "chatbot.stream.cola=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Chatbot · límite de streams de la IA")
+class ChatbotStreamLimiteTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChatbotService chatbotService;
+
+    @Test
+    @DisplayName("con el pool y la cola llenos responde 503")
+    void poolLlenoResponde503() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(chatbotService.findRuleResponse(anyString())).thenReturn(null);
+        when(chatbotService.streamAiResponse(anyString(), any())).thenAnswer(inv -> {
+            enCurso.countDown();
+            liberar.await(10, TimeUnit.SECONDS);
+            return new ChatResponse("listo", List.of(), "/principal", false, "ai");
+        });
+
+        try {
+            abrirStream().andExpect(request().asyncStarted());
+            assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+            abrirStream().andExpect(request().asyncStarted());
+
+            abrirStream()
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.status").value(503));
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    private ResultActions abrirStream() throws Exception {
+        return mockMvc.perform(post("/api/chatbot/chat/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"message\":\"naruto\"}"));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.NoLimits.controller.igdb;
 
 import com.example.NoLimits.Multimedia.controller.igdb.IgdbProxyController;
 import com.example.NoLimits.Multimedia.service.igdb.IgdbTokenService;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -29,6 +31,13 @@ class IgdbProxyControllerTest {
     @MockBean
     private IgdbTokenService igdbTokenService;
 
+    // Cliente HTTP de IGDB (ClientesHttpConfig); estos tests no salen a la red
+    @MockBean(name = "igdbRestTemplate")
+    private RestTemplate igdbRestTemplate;
+
+    @MockBean
+    private ProxyTransmisionService transmision;
+
     @Nested
     @DisplayName("GET /api/igdb/games")
     class GetGames {
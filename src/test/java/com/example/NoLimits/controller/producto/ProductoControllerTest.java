@@ -2,9 +2,14 @@ package com.example.NoLimits.controller.producto;
 
 import com.example.NoLimits.Multimedia.controller.producto.ProductoController;
 import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoBusquedaDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoBusquedaService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionService;
 import com.example.NoLimits.Multimedia.service.producto.ProductoService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasService;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +45,18 @@ class ProductoControllerTest {
     @MockBean
     private ProductoService productoService;
 
+    @MockBean
+    private ProductoBusquedaService productoBusquedaService;
+
+    @MockBean
+    private ProductoSugerenciasService productoSugerenciasService;
+
+    @MockBean
+    private ProductoFacetasService productoFacetasService;
+
+    @MockBean
+    private ProductoImportacionService productoImportacionService;
+
     @Nested
     @DisplayName("Listado de Productos")
     class ListadoProductosTests {
@@ -832,4 +850,68 @@ class ProductoControllerTest {
         }
 
     }
+
+    // =========================
+    // BÚSQUEDA POR TEXTO
+    // =========================
+
+    @Nested
+    @DisplayName("Búsqueda por texto")
+    class BusquedaTextoTests {
+
+        @Test
+        @DisplayName("Debe retornar resultados ordenados por relevancia")
+        void debeBuscarPorTexto() throws Exception {
+
+                // Arrange
+                ProductoBusquedaDTO resultado = new ProductoBusquedaDTO();
+                resultado.setId(1L);
+                resultado.setNombre("Spider-Man");
+                resultado.setRelevancia(0.8);
+
+                when(productoBusquedaService.buscar("spider", 1, 20))
+                        .thenReturn(new PagedResponse<>(List.of(resultado), 1, 1, 1));
+
+                // Act & Assert
+                mockMvc.perform(get("/api/v1/productos/search")
+                                .param("q", "spider"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.contenido[0].nombre").value("Spider-Man"))
+                        .andExpect(jsonPath("$.contenido[0].relevancia").value(0.8));
+        }
+
+        @Test
+        @DisplayName("Debe retornar 204 si la búsqueda no tiene resultados")
+        void debeRetornarNoContentSinResultados() throws Exception {
+
+                // Arrange
+                when(productoBusquedaService.buscar("zzz", 1, 20))
+                        .thenReturn(new PagedResponse<>(List.of(), 1, 0, 0));
+
+                // Act & Assert
+                mockMvc.perform(get("/api/v1/productos/search")
+                                .param("q", "zzz"))
+                        .andExpect(status().isNoContent());
+        }
+
+        @Test
+        @DisplayName("Debe corregir page y size fuera de rango")
+        void debeCorregirPaginaYTamano() throws Exception {
+
+                // Arrange
+                when(productoBusquedaService.buscar("spider", 1, 20))
+                        .thenReturn(new PagedResponse<>(List.of(), 1, 0, 0));
+
+                // Act
+                mockMvc.perform(get("/api/v1/productos/search")
+                                .param("q", "spider")
+                                .param("page", "0")
+                                .param("size", "500"))
+                        .andExpect(status().isNoContent());
+
+                // Assert
+                verify(productoBusquedaService).buscar("spider", 1, 20);
+        }
+
+    }
 }
@@ -1,16 +1,28 @@
 package com.example.NoLimits.controller.rawg;
 
 import com.example.NoLimits.Multimedia.controller.rawg.RawgProxyController;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyRespuestaCacheService;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -18,13 +30,36 @@ import static org.mockito.Mockito.*;
 @DisplayName("RawgProxyController")
 class RawgProxyControllerTest {
 
+    // Caché vacía por test: cada llamada llega al RestTemplate mockeado
+    private static ProxyTransmisionService nuevaTransmision() {
+        ProxyTransmisionService transmision = new ProxyTransmisionService();
+        ReflectionTestUtils.setField(transmision, "respuestaCache",
+                new ProxyRespuestaCacheService(new MockEnvironment(), new SimpleMeterRegistry()));
+        return transmision;
+    }
+
+    // RAWG responde 200 con este body (null = sin body)
+    @SuppressWarnings("unchecked")
+    private static void rawgResponde(RestTemplate restTemplate, String body) {
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(inv -> ((ResponseExtractor<?>) inv.getArgument(3)).extractData(new MockClientHttpResponse(
+                        body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String urlPedida(RestTemplate restTemplate) {
+        ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restTemplate).execute(urlCaptor.capture(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+        return urlCaptor.getValue();
+    }
+
     @Nested
     @DisplayName("describe: proxy")
     class Proxy {
 
         @Test
         @DisplayName("it: debería construir URL con key y query string")
-        void deberiaConstruirUrlConKeyYQueryString() {
+        void deberiaConstruirUrlConKeyYQueryString() throws Exception {
             RawgProxyController controller = new RawgProxyController();
 
             RestTemplate restTemplate = mock(RestTemplate.class);
@@ -32,29 +67,27 @@ class RawgProxyControllerTest {
 
             ReflectionTestUtils.setField(controller, "rawgKey", "test-key");
             ReflectionTestUtils.setField(controller, "restTemplate", restTemplate);
+            ReflectionTestUtils.setField(controller, "transmision", nuevaTransmision());
 
             when(request.getRequestURI()).thenReturn("/api/rawg/games");
             when(request.getQueryString()).thenReturn("search=zelda");
 
-            when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok("{\"results\":[]}"));
-
-            ResponseEntity<String> response = controller.proxy(request);
+            rawgResponde(restTemplate, "{\"results\":[]}");
 
-            ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(restTemplate).getForEntity(urlCaptor.capture(), eq(String.class));
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertEquals(200, response.getStatusCode().value());
-            assertEquals("{\"results\":[]}", response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals("{\"results\":[]}", response.getContentAsString());
             assertEquals(
                     "https://api.rawg.io/api/games?key=test-key&search=zelda",
-                    urlCaptor.getValue()
+                    urlPedida(restTemplate)
             );
         }
 
         @Test
         @DisplayName("it: debería construir URL sin query string cuando viene null")
-        void deberiaConstruirUrlSinQueryStringCuandoVieneNull() {
+        void deberiaConstruirUrlSinQueryStringCuandoVieneNull() throws Exception {
             RawgProxyController controller = new RawgProxyController();
 
             RestTemplate restTemplate = mock(RestTemplate.class);
@@ -62,29 +95,27 @@ class RawgProxyControllerTest {
 
             ReflectionTestUtils.setField(controller, "rawgKey", "test-key");
             ReflectionTestUtils.setField(controller, "restTemplate", restTemplate);
+            ReflectionTestUtils.setField(controller, "transmision", nuevaTransmision());
 
             when(request.getRequestURI()).thenReturn("/api/rawg/genres");
             when(request.getQueryString()).thenReturn(null);
 
-            when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok("{\"genres\":[]}"));
+            rawgResponde(restTemplate, "{\"genres\":[]}");
 
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(restTemplate).getForEntity(urlCaptor.capture(), eq(String.class));
-
-            assertEquals(200, response.getStatusCode().value());
-            assertEquals("{\"genres\":[]}", response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals("{\"genres\":[]}", response.getContentAsString());
             assertEquals(
                     "https://api.rawg.io/api/genres?key=test-key",
-                    urlCaptor.getValue()
+                    urlPedida(restTemplate)
             );
         }
 
         @Test
         @DisplayName("it: debería eliminar key expuesta dentro del campo next")
-        void deberiaEliminarKeyExpuestaDentroDelCampoNext() {
+        void deberiaEliminarKeyExpuestaDentroDelCampoNext() throws Exception {
             RawgProxyController controller = new RawgProxyController();
 
             RestTemplate restTemplate = mock(RestTemplate.class);
@@ -92,6 +123,7 @@ class RawgProxyControllerTest {
 
             ReflectionTestUtils.setField(controller, "rawgKey", "test-key");
             ReflectionTestUtils.setField(controller, "restTemplate", restTemplate);
+            ReflectionTestUtils.setField(controller, "transmision", nuevaTransmision());
 
             when(request.getRequestURI()).thenReturn("/api/rawg/games");
             when(request.getQueryString()).thenReturn("page=1");
@@ -100,20 +132,19 @@ class RawgProxyControllerTest {
                     {"results":[],"next":"https://api.rawg.io/api/games?key=SECRETA&page=2"}
                     """;
 
-            when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok(bodyConKey));
+            rawgResponde(restTemplate, bodyConKey);
 
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertEquals(200, response.getStatusCode().value());
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().contains("\"next\":null"));
-            assertFalse(response.getBody().contains("SECRETA"));
+            assertEquals(200, response.getStatus());
+            assertTrue(response.getContentAsString().contains("\"next\":null"));
+            assertFalse(response.getContentAsString().contains("SECRETA"));
         }
 
         @Test
-        @DisplayName("it: debería retornar body null cuando RAWG responde null")
-        void deberiaRetornarBodyNullCuandoRawgRespondeNull() {
+        @DisplayName("it: debería responder 200 sin body cuando RAWG no manda body")
+        void deberiaRetornarBodyNullCuandoRawgRespondeNull() throws Exception {
             RawgProxyController controller = new RawgProxyController();
 
             RestTemplate restTemplate = mock(RestTemplate.class);
@@ -121,22 +152,23 @@ class RawgProxyControllerTest {
 
             ReflectionTestUtils.setField(controller, "rawgKey", "test-key");
             ReflectionTestUtils.setField(controller, "restTemplate", restTemplate);
+            ReflectionTestUtils.setField(controller, "transmision", nuevaTransmision());
 
             when(request.getRequestURI()).thenReturn("/api/rawg/games");
             when(request.getQueryString()).thenReturn(null);
 
-            when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok(null));
+            rawgResponde(restTemplate, null);
 
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertEquals(200, response.getStatusCode().value());
-            assertNull(response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals("", response.getContentAsString());
         }
 
         @Test
         @DisplayName("it: debería construir URL con solo separador cuando query string viene vacío")
-        void deberiaConstruirUrlConSeparadorCuandoQueryStringVieneVacio() {
+        void deberiaConstruirUrlConSeparadorCuandoQueryStringVieneVacio() throws Exception {
             RawgProxyController controller = new RawgProxyController();
 
             RestTemplate restTemplate = mock(RestTemplate.class);
@@ -144,23 +176,21 @@ class RawgProxyControllerTest {
 
             ReflectionTestUtils.setField(controller, "rawgKey", "test-key");
             ReflectionTestUtils.setField(controller, "restTemplate", restTemplate);
+            ReflectionTestUtils.setField(controller, "transmision", nuevaTransmision());
 
             when(request.getRequestURI()).thenReturn("/api/rawg/games");
             when(request.getQueryString()).thenReturn("");
 
-            when(restTemplate.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok("{\"results\":[]}"));
-
-            ResponseEntity<String> response = controller.proxy(request);
+            rawgResponde(restTemplate, "{\"results\":[]}");
 
-            ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(restTemplate).getForEntity(urlCaptor.capture(), eq(String.class));
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertEquals(200, response.getStatusCode().value());
-            assertEquals("{\"results\":[]}", response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals("{\"results\":[]}", response.getContentAsString());
             assertEquals(
                     "https://api.rawg.io/api/games?key=test-key&",
-                    urlCaptor.getValue()
+                    urlPedida(restTemplate)
             );
         }
     }
@@ -1,7 +1,7 @@
 package com.example.NoLimits.controller.scraping;
 
 import com.example.NoLimits.Multimedia.controller.scraping.SteamScrapingController;
-import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -29,7 +29,7 @@ class SteamScrapingControllerTest {
     private MockMvc mockMvc;
 
     @MockBean
-    private ScrapingClientService scrapingClientService;
+    private PrecioSteamCacheService precioSteamCacheService;
 
     @Nested
     @DisplayName("Unitario - SteamScrapingController")
@@ -48,7 +48,7 @@ class SteamScrapingControllerTest {
                     "fechaUltimaActualizacion", "2026-06-05"
             );
 
-            when(scrapingClientService.obtenerPrecioSteam("730"))
+            when(precioSteamCacheService.obtenerPrecioSteam("730"))
                     .thenReturn(response);
 
             mockMvc.perform(get("/api/scraping/steam")
@@ -62,7 +62,7 @@ class SteamScrapingControllerTest {
                     .andExpect(jsonPath("$.plataforma").value("Steam"))
                     .andExpect(jsonPath("$.fechaUltimaActualizacion").value("2026-06-05"));
 
-            verify(scrapingClientService).obtenerPrecioSteam("730");
+            verify(precioSteamCacheService).obtenerPrecioSteam("730");
         }
     }
 }
\ No newline at end of file
@@ -1,17 +1,29 @@
 package com.example.NoLimits.controller.tmdb;
 
 import com.example.NoLimits.Multimedia.controller.tmdb.TmdbProxyController;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyRespuestaCacheService;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -28,6 +40,26 @@ class TmdbProxyControllerTest {
         restTemplateMock = mock(RestTemplate.class);
         ReflectionTestUtils.setField(controller, "tmdbToken",    "TEST_TOKEN");
         ReflectionTestUtils.setField(controller, "restTemplate", restTemplateMock);
+
+        ProxyTransmisionService transmision = new ProxyTransmisionService();
+        ReflectionTestUtils.setField(transmision, "respuestaCache",
+                new ProxyRespuestaCacheService(new MockEnvironment(), new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(controller, "transmision", transmision);
+    }
+
+    // TMDB responde 200 con este body (null = sin body)
+    @SuppressWarnings("unchecked")
+    private void tmdbResponde(String body) {
+        when(restTemplateMock.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(inv -> ((ResponseExtractor<?>) inv.getArgument(3)).extractData(new MockClientHttpResponse(
+                        body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String urlPedida() {
+        ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(restTemplateMock).execute(urlCaptor.capture(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+        return urlCaptor.getValue();
     }
 
     @Nested
@@ -36,43 +68,43 @@ class TmdbProxyControllerTest {
 
         @Test
         @DisplayName("body sin campo 'next' → se devuelve intacto")
-        void bodySinNext_seDevuelveIntacto() {
+        void bodySinNext_seDevuelveIntacto() throws Exception {
             String body = "{\"results\":[{\"id\":1}]}";
-            when(restTemplateMock.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok(body));
+            tmdbResponde(body);
 
             MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tmdb/movie/popular");
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertEquals(200, response.getStatusCode().value());
-            assertEquals(body, response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals(body, response.getContentAsString());
         }
 
         @Test
         @DisplayName("body con 'next' que contiene api_key → se reemplaza por null")
-        void bodyConNext_apiKeyEliminada() {
+        void bodyConNext_apiKeyEliminada() throws Exception {
             String body = "{\"results\":[],\"next\":\"https://api.themoviedb.org/3/movie?api_key=SECRETO&page=2\"}";
-            when(restTemplateMock.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok(body));
+            tmdbResponde(body);
 
             MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tmdb/movie/popular");
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertNotNull(response.getBody());
-            assertTrue(response.getBody().contains("\"next\":null"));
-            assertFalse(response.getBody().contains("SECRETO"));
+            assertTrue(response.getContentAsString().contains("\"next\":null"));
+            assertFalse(response.getContentAsString().contains("SECRETO"));
         }
 
         @Test
-        @DisplayName("body null de TMDB → response con body null sin lanzar excepción")
-        void bodyNullDeTmdb_noLanzaExcepcion() {
-            when(restTemplateMock.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok(null));
+        @DisplayName("TMDB sin body → 200 sin body, sin lanzar excepción")
+        void bodyNullDeTmdb_noLanzaExcepcion() throws Exception {
+            tmdbResponde(null);
 
             MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tmdb/movie/popular");
-            ResponseEntity<String> response = controller.proxy(request);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            controller.proxy(request, response);
 
-            assertNull(response.getBody());
+            assertEquals(200, response.getStatus());
+            assertEquals("", response.getContentAsString());
         }
     }
 
@@ -82,31 +114,25 @@ class TmdbProxyControllerTest {
 
         @Test
         @DisplayName("sin queryString → URL contiene token pero no parámetros extra")
-        void sinQueryString_urlContieneToken() {
-            when(restTemplateMock.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok("{}"));
+        void sinQueryString_urlContieneToken() throws Exception {
+            tmdbResponde("{}");
 
             MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tmdb/movie/popular");
-            controller.proxy(request);
+            controller.proxy(request, new MockHttpServletResponse());
 
-            ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(restTemplateMock).getForEntity(urlCaptor.capture(), eq(String.class));
-            assertTrue(urlCaptor.getValue().contains("TEST_TOKEN"));
+            assertTrue(urlPedida().contains("TEST_TOKEN"));
         }
 
         @Test
         @DisplayName("con queryString → URL incluye los parámetros")
-        void conQueryString_urlContieneParametros() {
-            when(restTemplateMock.getForEntity(anyString(), eq(String.class)))
-                    .thenReturn(ResponseEntity.ok("{}"));
+        void conQueryString_urlContieneParametros() throws Exception {
+            tmdbResponde("{}");
 
             MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tmdb/search/movie");
             request.setQueryString("query=matrix&page=1");
-            controller.proxy(request);
+            controller.proxy(request, new MockHttpServletResponse());
 
-            ArgumentCaptor<String> urlCaptor = ArgumentCaptor.forClass(String.class);
-            verify(restTemplateMock).getForEntity(urlCaptor.capture(), eq(String.class));
-            String url = urlCaptor.getValue();
+            String url = urlPedida();
             assertTrue(url.contains("query=matrix"));
             assertTrue(url.contains("page=1"));
         }
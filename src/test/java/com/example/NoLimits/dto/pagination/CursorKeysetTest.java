@@ -0,0 +1,36 @@
+package com.example.NoLimits.dto.pagination;
+
+import com.example.NoLimits.Multimedia.dto.pagination.CursorKeyset;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorKeysetTest {
+
+    @Test
+    @DisplayName("codificar y decodificar devuelven el mismo id")
+    void idaYVuelta() {
+        String cursor = CursorKeyset.codificar(12345L);
+
+        assertNotNull(cursor);
+        assertFalse(cursor.contains("="));
+        assertEquals(12345L, CursorKeyset.decodificar(cursor));
+    }
+
+    @Test
+    @DisplayName("cursor null o vacío parte desde el inicio")
+    void cursorVacio() {
+        assertEquals(0L, CursorKeyset.decodificar(null));
+        assertEquals(0L, CursorKeyset.decodificar(""));
+        assertNull(CursorKeyset.codificar(null));
+    }
+
+    @Test
+    @DisplayName("cursor alterado lanza IllegalArgumentException")
+    void cursorInvalido() {
+        assertThrows(IllegalArgumentException.class, () -> CursorKeyset.decodificar("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> CursorKeyset.decodificar("aG9sYQ")); // "hola"
+    }
+}
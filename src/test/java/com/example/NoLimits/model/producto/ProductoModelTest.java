@@ -44,6 +44,7 @@ class ProductoModelTest {
                     2002,
                     "Marvel",
                     "portada.webp",
+                    "imagen.webp",
                     null,
                     null,
                     null,
@@ -65,6 +66,7 @@ class ProductoModelTest {
             assertEquals(2002, producto.getAnio());
             assertEquals("Marvel", producto.getSaga());
             assertEquals("portada.webp", producto.getPortadaSaga());
+            assertEquals("imagen.webp", producto.getImagenPortada());
         }
     }
 
@@ -231,6 +231,54 @@ class SeguridadTest extends AbstractContainerBaseTest {
         }
     }
 
+    @Nested
+    @DisplayName("Importación masiva de productos")
+    class ImportacionMasiva {
+
+        private void tokenConRol(String rol) {
+            when(jwtUtil.validateToken("token")).thenReturn(true);
+            when(jwtUtil.extractCorreo("token")).thenReturn("alguien@test.com");
+            when(jwtUtil.extractRol("token")).thenReturn(rol);
+        }
+
+        @Test
+        @DisplayName("SEC-12 — POST /api/v1/productos/importar con un usuario común → 403")
+        void sec12_importarConUsuarioComun_responde403() throws Exception {
+            tokenConRol("ROLE_USER");
+
+            mockMvc.perform(post("/api/v1/productos/importar")
+                            .header("Authorization", "Bearer token")
+                            .contentType("application/x-ndjson")
+                            .content("{\"nombre\":\"Juego\"}\n"))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("SEC-13 — POST /api/v1/productos/importar sin token → 401")
+        void sec13_importarSinToken_responde401() throws Exception {
+            mockMvc.perform(post("/api/v1/productos/importar")
+                            .contentType("application/x-ndjson")
+                            .content("{\"nombre\":\"Juego\"}\n"))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("SEC-14 — POST /api/v1/productos/importar con ROLE_ADMIN → no se bloquea")
+        void sec14_importarConAdmin_noSeBloquea() throws Exception {
+            tokenConRol("ROLE_ADMIN");
+
+            mockMvc.perform(post("/api/v1/productos/importar")
+                            .header("Authorization", "Bearer token")
+                            .contentType("application/x-ndjson")
+                            .content(""))
+                    .andExpect(result -> {
+                        int status = result.getResponse().getStatus();
+                        assertNotEquals(401, status, "SEC-14: admin recibió 401");
+                        assertNotEquals(403, status, "SEC-14: admin recibió 403");
+                    });
+        }
+    }
+
     @Nested
     @DisplayName("SecurityConfig — EntryPoint")
     class SecurityConfigEntryPoint {
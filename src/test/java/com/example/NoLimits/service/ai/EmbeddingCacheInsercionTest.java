@@ -0,0 +1,67 @@
+package com.example.NoLimits.service.ai;
+
+import com.example.NoLimits.Multimedia.model.ai.EmbeddingCacheModel;
+import com.example.NoLimits.Multimedia.repository.ai.EmbeddingCacheRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * embedding_cache tiene id asignado (el hash): sin Persistable, saveAll
+ * hacía merge y un SELECT por fila antes de insertar. Cuenta las
+ * sentencias preparadas para comprobar que un lote nuevo es solo INSERT.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_embedding_cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("embedding_cache · saveAll inserta sin SELECT previo")
+class EmbeddingCacheInsercionTest {
+
+    @Autowired private EmbeddingCacheRepository cacheRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    @DisplayName("un lote de filas nuevas es un solo INSERT en batch; las leídas ya no son nuevas")
+    void insertaSinMerge() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<EmbeddingCacheModel> filas = List.of(fila("a"), fila("b"), fila("c"));
+        assertTrue(filas.get(0).isNew());
+
+        statistics.clear();
+        cacheRepository.saveAll(filas);
+
+        assertEquals(3, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(filas.get(0).isNew());
+        assertFalse(cacheRepository.findById(hash("b")).orElseThrow().isNew());
+    }
+
+    private static EmbeddingCacheModel fila(String letra) {
+        return new EmbeddingCacheModel(hash(letra), "text-embedding-3-small", new byte[] { 0, 0, -128, 63 },
+                LocalDateTime.now());
+    }
+
+    private static String hash(String letra) {
+        return letra.repeat(64);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.NoLimits.service.ai;
 
+import com.example.NoLimits.Multimedia.model.ai.EmbeddingCacheModel;
+import com.example.NoLimits.Multimedia.repository.ai.EmbeddingCacheRepository;
 import com.example.NoLimits.Multimedia.service.ai.EmbeddingService;
 import com.openai.client.OpenAIClient;
+import com.openai.errors.RateLimitException;
 import com.openai.models.embeddings.CreateEmbeddingResponse;
 import com.openai.models.embeddings.Embedding;
 import com.openai.models.embeddings.EmbeddingCreateParams;
@@ -11,23 +14,57 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 class EmbeddingServiceTest {
 
     private EmbeddingService embeddingService;
     private OpenAIClient openAIClientMock;
+    private EmbeddingCacheRepository cacheRepositoryMock;
 
     @BeforeEach
     void setUp() {
-        embeddingService = new EmbeddingService();
         openAIClientMock = mock(OpenAIClient.class);
-        ReflectionTestUtils.setField(embeddingService, "client", openAIClientMock);
+        cacheRepositoryMock = mock(EmbeddingCacheRepository.class);
+        embeddingService = servicio(128, 40000, 5, 1000);
+    }
+
+    // Mismos valores que application.properties salvo los que cambia cada test
+    private EmbeddingService servicio(int maxTextosLote, int maxTokensLote, int maxReintentos, long esperaBaseMs) {
+        EmbeddingService servicio = new EmbeddingService(2000, maxTextosLote, maxTokensLote, 4, maxReintentos, esperaBaseMs);
+        ReflectionTestUtils.setField(servicio, "client", openAIClientMock);
+        ReflectionTestUtils.setField(servicio, "cacheRepository", cacheRepositoryMock);
+        return servicio;
+    }
+
+    // OpenAI responde siempre el mismo vector
+    private com.openai.services.blocking.EmbeddingService openAIResponde(List<Float> vector) {
+        var embeddingApi = mock(com.openai.services.blocking.EmbeddingService.class);
+        var responseMock = mock(CreateEmbeddingResponse.class);
+        var embeddingMock = mock(Embedding.class);
+
+        when(openAIClientMock.embeddings()).thenReturn(embeddingApi);
+        when(embeddingApi.create(any(EmbeddingCreateParams.class))).thenReturn(responseMock);
+        when(responseMock.data()).thenReturn(List.of(embeddingMock));
+        when(embeddingMock.embedding()).thenReturn(vector);
+        return embeddingApi;
     }
 
     @Nested
@@ -46,7 +83,7 @@ class EmbeddingServiceTest {
             when(responseMock.data()).thenReturn(List.of(embeddingMock));
             when(embeddingMock.embedding()).thenReturn(List.of(0.1f, 0.2f, 0.3f));
 
-            List<Float> resultado = embeddingService.generarEmbedding("texto de prueba");
+            float[] resultado = embeddingService.generarEmbedding("texto de prueba");
 
             assertThat(resultado).isNotEmpty();
             assertThat(resultado).containsExactly(0.1f, 0.2f, 0.3f);
@@ -101,7 +138,7 @@ class EmbeddingServiceTest {
             when(embedding1.embedding()).thenReturn(List.of(1.0f, 2.0f));
             when(embedding2.embedding()).thenReturn(List.of(9.0f, 8.0f));
 
-            List<Float> resultado = embeddingService.generarEmbedding("hola");
+            float[] resultado = embeddingService.generarEmbedding("hola");
 
             assertThat(resultado).containsExactly(1.0f, 2.0f);
         }
@@ -140,7 +177,7 @@ class EmbeddingServiceTest {
             when(responseMock.data()).thenReturn(List.of(embeddingMock));
             when(embeddingMock.embedding()).thenReturn(List.of(0.0f));
 
-            List<Float> resultado = embeddingService.generarEmbedding("");
+            float[] resultado = embeddingService.generarEmbedding("");
 
             assertThat(resultado).isNotNull();
             verify(embeddingApi).create(any(EmbeddingCreateParams.class));
@@ -153,4 +190,170 @@ class EmbeddingServiceTest {
                     () -> embeddingService.generarEmbedding(null));
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("generarEmbedding — caché")
+    class GenerarEmbeddingCache {
+
+        @Test
+        @DisplayName("el mismo texto dos veces → una sola llamada a OpenAI y se guarda en embedding_cache")
+        void mismoTextoUnaLlamada() {
+            var embeddingApi = openAIResponde(List.of(0.1f, 0.2f));
+
+            float[] primera = embeddingService.generarEmbedding("naruto");
+            float[] segunda = embeddingService.generarEmbedding("naruto");
+
+            assertThat(segunda).isEqualTo(primera).containsExactly(0.1f, 0.2f);
+            verify(embeddingApi, times(1)).create(any(EmbeddingCreateParams.class));
+            verify(cacheRepositoryMock, times(1)).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("texto ya guardado en la tabla → no llama a OpenAI")
+        void hitEnTabla() {
+            ByteBuffer bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putFloat(0.5f).putFloat(-1f);
+            when(cacheRepositoryMock.findById(anyString())).thenReturn(Optional.of(new EmbeddingCacheModel(
+                    "hash", "text-embedding-3-small", bytes.array(), LocalDateTime.now())));
+
+            float[] resultado = embeddingService.generarEmbedding("naruto");
+
+            assertThat(resultado).containsExactly(0.5f, -1f);
+            verifyNoInteractions(openAIClientMock);
+        }
+
+        @Test
+        @DisplayName("si la tabla falla se sigue con OpenAI")
+        void tablaCaidaNoRompe() {
+            when(cacheRepositoryMock.findById(anyString())).thenThrow(new RuntimeException("BD caída"));
+            when(cacheRepositoryMock.saveAll(anyList())).thenThrow(new RuntimeException("BD caída"));
+            openAIResponde(List.of(0.3f));
+
+            assertThat(embeddingService.generarEmbedding("naruto")).containsExactly(0.3f);
+        }
+
+        @Test
+        @DisplayName("peticiones simultáneas del mismo texto comparten una llamada")
+        void peticionesSimultaneasComparten() throws Exception {
+            CountDownLatch llamadaEnCurso = new CountDownLatch(1);
+            CountDownLatch liberar = new CountDownLatch(1);
+            var embeddingApi = mock(com.openai.services.blocking.EmbeddingService.class);
+            var responseMock = mock(CreateEmbeddingResponse.class);
+            var embeddingMock = mock(Embedding.class);
+
+            when(openAIClientMock.embeddings()).thenReturn(embeddingApi);
+            when(responseMock.data()).thenReturn(List.of(embeddingMock));
+            when(embeddingMock.embedding()).thenReturn(List.of(0.7f));
+            when(embeddingApi.create(any(EmbeddingCreateParams.class))).thenAnswer(inv -> {
+                llamadaEnCurso.countDown();
+                liberar.await();
+                return responseMock;
+            });
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<float[]>> resultados = new ArrayList<>();
+                resultados.add(pool.submit(() -> embeddingService.generarEmbedding("naruto")));
+                llamadaEnCurso.await();
+                for (int i = 0; i < 3; i++) {
+                    resultados.add(pool.submit(() -> embeddingService.generarEmbedding("naruto")));
+                }
+                Thread.sleep(100);
+                liberar.countDown();
+
+                for (Future<float[]> resultado : resultados) {
+                    assertThat(resultado.get()).containsExactly(0.7f);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+            verify(embeddingApi, times(1)).create(any(EmbeddingCreateParams.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("generarEmbeddings — lotes")
+    class GenerarEmbeddingsLotes {
+
+        // Cada input recibe [largo del texto], con su índice dentro del lote
+        private com.openai.services.blocking.EmbeddingService openAIPorLote(AtomicInteger rateLimitsPendientes) {
+            var embeddingApi = mock(com.openai.services.blocking.EmbeddingService.class);
+            when(openAIClientMock.embeddings()).thenReturn(embeddingApi);
+            when(embeddingApi.create(any(EmbeddingCreateParams.class))).thenAnswer(inv -> {
+                if (rateLimitsPendientes.getAndDecrement() > 0) throw mock(RateLimitException.class);
+
+                List<String> inputs = inv.getArgument(0, EmbeddingCreateParams.class).input().asArrayOfStrings();
+                List<Embedding> data = new ArrayList<>();
+                for (int i = inputs.size() - 1; i >= 0; i--) {
+                    Embedding embedding = mock(Embedding.class);
+                    when(embedding.index()).thenReturn((long) i);
+                    when(embedding.embedding()).thenReturn(List.of((float) inputs.get(i).length()));
+                    data.add(embedding);
+                }
+                CreateEmbeddingResponse response = mock(CreateEmbeddingResponse.class);
+                when(response.data()).thenReturn(data);
+                return response;
+            });
+            return embeddingApi;
+        }
+
+        @Test
+        @DisplayName("respeta el orden, corta por max-textos y no repite textos iguales")
+        void loteaEnOrden() {
+            embeddingService = servicio(2, 40000, 5, 1000);
+            var embeddingApi = openAIPorLote(new AtomicInteger());
+
+            List<float[]> resultado = embeddingService.generarEmbeddings(
+                    List.of("a", "bb", "ccc", "bb", "dddd", "eeeee"));
+
+            assertThat(resultado).containsExactly(
+                    new float[]{1f}, new float[]{2f}, new float[]{3f}, new float[]{2f}, new float[]{4f}, new float[]{5f});
+            // 5 textos distintos, de a 2 por petición
+            verify(embeddingApi, times(3)).create(any(EmbeddingCreateParams.class));
+        }
+
+        @Test
+        @DisplayName("corta también por tokens estimados")
+        void cortaPorTokens() {
+            embeddingService = servicio(128, 10, 5, 1000);
+            var embeddingApi = openAIPorLote(new AtomicInteger());
+
+            embeddingService.generarEmbeddings(List.of("x".repeat(24), "y".repeat(24), "z".repeat(24)));
+
+            verify(embeddingApi, times(3)).create(any(EmbeddingCreateParams.class));
+        }
+
+        @Test
+        @DisplayName("lo que ya está en caché no se vuelve a pedir")
+        void usaCache() {
+            var embeddingApi = openAIPorLote(new AtomicInteger());
+            embeddingService.generarEmbeddings(List.of("naruto", "bleach"));
+
+            List<float[]> resultado = embeddingService.generarEmbeddings(List.of("bleach", "naruto", "one piece"));
+
+            assertThat(resultado).containsExactly(new float[]{6f}, new float[]{6f}, new float[]{9f});
+            verify(embeddingApi, times(2)).create(any(EmbeddingCreateParams.class));
+        }
+
+        @Test
+        @DisplayName("un 429 se reintenta con espera y luego responde")
+        void reintentaRateLimit() {
+            embeddingService = servicio(128, 40000, 5, 1);
+            var embeddingApi = openAIPorLote(new AtomicInteger(2));
+
+            List<float[]> resultado = embeddingService.generarEmbeddings(List.of("naruto"));
+
+            assertThat(resultado).containsExactly(new float[]{6f});
+            verify(embeddingApi, times(3)).create(any(EmbeddingCreateParams.class));
+        }
+
+        @Test
+        @DisplayName("sin más reintentos se propaga el 429")
+        void agotaReintentos() {
+            embeddingService = servicio(128, 40000, 1, 1);
+            openAIPorLote(new AtomicInteger(5));
+
+            assertThrows(RateLimitException.class,
+                    () -> embeddingService.generarEmbeddings(List.of("naruto")));
+        }
+    }
+}
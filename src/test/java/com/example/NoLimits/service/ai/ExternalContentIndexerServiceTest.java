@@ -2,6 +2,7 @@ package com.example.NoLimits.service.ai;
 
 import com.example.NoLimits.Multimedia.service.ai.EmbeddingService;
 import com.example.NoLimits.Multimedia.service.ai.ExternalContentIndexerService;
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
 import com.example.NoLimits.Multimedia.service.igdb.IgdbTokenService;
 
 import org.junit.jupiter.api.DisplayName;
@@ -29,7 +30,12 @@ class ExternalContentIndexerServiceTest {
         IgdbTokenService igdbTokenService = mock(IgdbTokenService.class);
 
         when(embeddingService.generarEmbedding(anyString()))
-                .thenReturn(List.of(0.1f, 0.2f));
+                .thenReturn(new float[]{0.1f, 0.2f});
+        // Un vector por texto del lote
+        when(embeddingService.generarEmbeddings(anyList()))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream()
+                        .map(texto -> new float[]{0.1f, 0.2f})
+                        .toList());
 
         when(igdbTokenService.getAccessToken())
                 .thenReturn("token-igdb");
@@ -38,6 +44,7 @@ class ExternalContentIndexerServiceTest {
                 new ExternalContentIndexerService(jdbcTemplate, embeddingService, igdbTokenService);
 
         setPrivateField(service, "restTemplate", restTemplateMock);
+        setPrivateField(service, "respuestaIaCache", mock(RespuestaIaCacheService.class));
         setPrivateField(service, "tmdbToken", "tmdb-token");
         setPrivateField(service, "igdbClientId", "igdb-client");
         setPrivateField(service, "rawgKey", "rawg-key");
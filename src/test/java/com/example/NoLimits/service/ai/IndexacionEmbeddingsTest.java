@@ -0,0 +1,94 @@
+package com.example.NoLimits.service.ai;
+
+import com.example.NoLimits.Multimedia.service.ai.EmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.IndexacionEmbeddings;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IndexacionEmbeddings — tubería productor/consumidor")
+class IndexacionEmbeddingsTest {
+
+    private final EmbeddingService embeddingService = mock(EmbeddingService.class);
+    private final List<List<String>> lotesEscritos = Collections.synchronizedList(new ArrayList<>());
+
+    private void unVectorPorTexto() {
+        when(embeddingService.generarEmbeddings(anyList()))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream()
+                        .map(texto -> new float[]{1f})
+                        .toList());
+    }
+
+    private IndexacionEmbeddings<String> nueva(int tamanoLote) {
+        return new IndexacionEmbeddings<String>(embeddingService, tamanoLote,
+                (items, embeddings) -> {
+                    assertEquals(items.size(), embeddings.size());
+                    lotesEscritos.add(List.copyOf(items));
+                }).iniciar();
+    }
+
+    @Test
+    @DisplayName("agrupa de a tamanoLote, escribe el resto al terminar y cuenta todo")
+    void agrupaYCuenta() {
+        unVectorPorTexto();
+        IndexacionEmbeddings<String> tuberia = nueva(2);
+
+        for (String titulo : List.of("a", "b", "c", "d", "e")) tuberia.agregar(titulo, "texto " + titulo);
+
+        assertEquals(5, tuberia.terminar());
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("e")), lotesEscritos);
+        verify(embeddingService, times(3)).generarEmbeddings(anyList());
+    }
+
+    @Test
+    @DisplayName("sin items → 0 y no llama a OpenAI")
+    void sinItems() {
+        assertEquals(0, nueva(10).terminar());
+        verifyNoInteractions(embeddingService);
+    }
+
+    @Test
+    @DisplayName("un lote que falla se salta y los demás se escriben")
+    void loteFallidoSeSalta() {
+        when(embeddingService.generarEmbeddings(anyList()))
+                .thenThrow(new RuntimeException("OpenAI caído"))
+                .thenReturn(List.of(new float[]{1f}, new float[]{1f}));
+        IndexacionEmbeddings<String> tuberia = nueva(2);
+
+        for (String titulo : List.of("a", "b", "c", "d")) tuberia.agregar(titulo, titulo);
+
+        assertEquals(2, tuberia.terminar());
+        assertEquals(List.of(List.of("c", "d")), lotesEscritos);
+    }
+
+    @Test
+    @DisplayName("si el consumidor muere el productor falla en vez de quedarse esperando")
+    void consumidorMuerto() {
+        unVectorPorTexto();
+        IndexacionEmbeddings<String> tuberia = new IndexacionEmbeddings<String>(embeddingService, 1,
+                (items, embeddings) -> { throw new OutOfMemoryError("simulado"); }).iniciar();
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 10; i++) tuberia.agregar("t" + i, "t" + i);
+        });
+        assertInstanceOf(OutOfMemoryError.class, error.getCause());
+    }
+
+    @Test
+    @DisplayName("agregar sin iniciar → IllegalStateException")
+    void sinIniciar() {
+        IndexacionEmbeddings<String> tuberia = new IndexacionEmbeddings<>(embeddingService, 1, (items, embeddings) -> { });
+
+        assertThrows(IllegalStateException.class, () -> tuberia.agregar("a", "a"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.NoLimits.service.ai;
+
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.EstadoIndice;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService.TipoIndice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IndiceVectorialService — índice ANN de producto_embeddings")
+class IndiceVectorialServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final IndiceVectorialService service =
+            new IndiceVectorialService(jdbcTemplate, mock(PlatformTransactionManager.class));
+
+    private void indiceExistente(String metodo) {
+        when(jdbcTemplate.query(contains("pg_am"), any(ResultSetExtractor.class), any()))
+                .thenReturn(metodo);
+    }
+
+    @Test
+    @DisplayName("sin índice la consulta corre tal cual, sin set_config")
+    void sinIndiceConsultaDirecta() {
+        assertEquals("ok", service.conAjuste(100, null, () -> "ok"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("con HNSW fija hnsw.ef_search: el de la consulta o el configurado")
+    void hnswFijaEfSearch() {
+        ReflectionTestUtils.setField(service, "tipoActual", TipoIndice.HNSW);
+
+        assertEquals("ok", service.conAjuste(20, 3, () -> "ok"));
+        service.conAjuste(null, null, () -> "ok");
+
+        verify(jdbcTemplate).queryForObject(contains("set_config"), eq(String.class), eq("hnsw.ef_search"), eq("20"));
+        verify(jdbcTemplate).queryForObject(contains("set_config"), eq(String.class), eq("hnsw.ef_search"), eq("40"));
+    }
+
+    @Test
+    @DisplayName("las búsquedas no pueden pedir más ef_search ni probes que lo configurado")
+    void conAjusteNoPasaDeLoConfigurado() {
+        ReflectionTestUtils.setField(service, "tipoActual", TipoIndice.HNSW);
+        service.conAjuste(1000, null, () -> "ok");
+
+        ReflectionTestUtils.setField(service, "tipoActual", TipoIndice.IVFFLAT);
+        service.conAjuste(null, 32768, () -> "ok");
+
+        verify(jdbcTemplate).queryForObject(contains("set_config"), eq(String.class), eq("hnsw.ef_search"), eq("40"));
+        verify(jdbcTemplate).queryForObject(contains("set_config"), eq(String.class), eq("ivfflat.probes"), eq("10"));
+    }
+
+    @Test
+    @DisplayName("con IVFFlat fija ivfflat.probes y rechaza valores fuera de rango")
+    void ivfflatFijaProbes() {
+        ReflectionTestUtils.setField(service, "tipoActual", TipoIndice.IVFFLAT);
+
+        service.conAjuste(null, 7, () -> "ok");
+
+        verify(jdbcTemplate).queryForObject(contains("set_config"), eq(String.class), eq("ivfflat.probes"), eq("7"));
+        assertThrows(IllegalArgumentException.class, () -> service.conAjuste(null, 0, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("reconstruir crea el nuevo concurrently, borra el viejo y renombra")
+    void reconstruirSinBloquear() {
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Long.class))).thenReturn(5000L);
+        indiceExistente("ivfflat");
+
+        EstadoIndice estado = service.reconstruir(TipoIndice.IVFFLAT);
+
+        InOrder orden = inOrder(jdbcTemplate);
+        orden.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS producto_embeddings_embedding_idx_nuevo");
+        orden.verify(jdbcTemplate).execute("CREATE INDEX CONCURRENTLY producto_embeddings_embedding_idx_nuevo"
+                + " ON producto_embeddings USING ivfflat (embedding vector_cosine_ops) WITH (lists = 10)");
+        orden.verify(jdbcTemplate).execute("DROP INDEX CONCURRENTLY IF EXISTS producto_embeddings_embedding_idx");
+        orden.verify(jdbcTemplate).execute(
+                "ALTER INDEX producto_embeddings_embedding_idx_nuevo RENAME TO producto_embeddings_embedding_idx");
+        assertEquals("ivfflat", estado.getTipo());
+        assertNull(estado.getRecall());
+    }
+
+    @Test
+    @DisplayName("recall@k = vecinos del índice que están en la búsqueda exacta, sin la propia fila")
+    void estimaRecall() {
+        indiceExistente("hnsw");
+        when(jdbcTemplate.queryForObject(contains("pg_relation_size"), eq(Long.class), any())).thenReturn(4096L);
+        when(jdbcTemplate.queryForObject(contains("COUNT(*)"), eq(Long.class))).thenReturn(3L);
+        when(jdbcTemplate.query(contains("embedding::text"), any(RowMapper.class), eq(2)))
+                .thenReturn(List.of(new Object[] { 1L, "[1,0]" }, new Object[] { 5L, "[0,1]" }));
+        // Por pregunta: primero la exacta, luego la del índice; k + 1 para poder quitar la propia
+        when(jdbcTemplate.queryForList(contains("SELECT id"), eq(Long.class), anyString(), eq(3)))
+                .thenReturn(List.of(1L, 2L, 3L), List.of(1L, 2L, 4L), List.of(5L, 4L, 6L), List.of(4L, 5L, 6L));
+
+        EstadoIndice estado = service.estado(2, 2, 500, null);
+
+        assertEquals("hnsw", estado.getTipo());
+        assertEquals(4096L, estado.getTamanoBytes());
+        // {2,3} vs {2,4} → 1 de 2; {4,6} vs {4,6} → 2 de 2
+        assertEquals(0.75, estado.getRecall(), 1e-9);
+        // Desde administración sí se puede probar un ef_search mayor al configurado
+        verify(jdbcTemplate, times(2))
+                .queryForObject(contains("set_config"), eq(String.class), eq("hnsw.ef_search"), eq("500"));
+        verify(jdbcTemplate, times(2)).execute("SET LOCAL enable_indexscan = off");
+    }
+
+    @Test
+    @DisplayName("sin pgvector (H2) al iniciar solo se registra y no se lanza")
+    void alIniciarSinPgvector() {
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), any()))
+                .thenThrow(new RuntimeException("Table \"PG_CLASS\" not found"));
+
+        assertDoesNotThrow(service::alIniciar);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("tipo desconocido → IllegalArgumentException")
+    void tipoDesconocido() {
+        assertEquals(TipoIndice.HNSW, TipoIndice.desde(" HNSW "));
+        assertThrows(IllegalArgumentException.class, () -> TipoIndice.desde("btree"));
+    }
+}
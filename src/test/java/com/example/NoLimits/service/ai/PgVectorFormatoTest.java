@@ -0,0 +1,41 @@
+package com.example.NoLimits.service.ai;
+
+import com.example.NoLimits.Multimedia.service.ai.PgVectorFormato;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("PgVectorFormato — texto de pgvector")
+class PgVectorFormatoTest {
+
+    @Test
+    @DisplayName("formato compacto, sin espacios")
+    void formatoCompacto() {
+        assertEquals("[0.1,-0.2,3.0]", PgVectorFormato.aTexto(new float[]{0.1f, -0.2f, 3f}));
+        assertEquals("[]", PgVectorFormato.aTexto(new float[0]));
+    }
+
+    @Test
+    @DisplayName("ida y vuelta exacta con 1536 dimensiones, reusando el buffer")
+    void idaYVuelta() {
+        Random random = new Random(42);
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            float[] vector = new float[1536];
+            for (int i = 0; i < vector.length; i++) vector[i] = (float) random.nextGaussian() / 10;
+
+            assertArrayEquals(vector, PgVectorFormato.desdeTexto(PgVectorFormato.aTexto(vector)));
+        }
+    }
+
+    @Test
+    @DisplayName("lee también el formato viejo con espacios y el vector vacío")
+    void leeFormatoConEspacios() {
+        assertArrayEquals(new float[]{0.5f, 0.6f}, PgVectorFormato.desdeTexto("[0.5, 0.6]"));
+        assertArrayEquals(new float[0], PgVectorFormato.desdeTexto("[]"));
+    }
+}
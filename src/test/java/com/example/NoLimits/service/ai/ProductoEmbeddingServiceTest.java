@@ -1,21 +1,28 @@
 package com.example.NoLimits.service.ai;
 
 import com.example.NoLimits.Multimedia.service.ai.EmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.IndiceVectorialService;
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.sql.ResultSet;
 import java.util.List;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.doThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -24,9 +31,21 @@ class ProductoEmbeddingServiceTest {
     private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
     private final EmbeddingService embeddingService = mock(EmbeddingService.class);
 
+    private final RespuestaIaCacheService respuestaIaCache = mock(RespuestaIaCacheService.class);
+    private final IndiceVectorialService indiceVectorial = mock(IndiceVectorialService.class);
+
     private final ProductoEmbeddingService service =
             new ProductoEmbeddingService(jdbcTemplate, embeddingService);
 
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "respuestaIaCache", respuestaIaCache);
+        ReflectionTestUtils.setField(service, "indiceVectorial", indiceVectorial);
+        // El ajuste de ef_search/probes es de IndiceVectorialService: aquí la consulta corre tal cual
+        when(indiceVectorial.conAjuste(any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(2).get());
+    }
+
     @Nested
     @DisplayName("Unitario - guardarEmbeddingProducto")
     class GuardarEmbeddingProducto {
@@ -35,7 +54,7 @@ class ProductoEmbeddingServiceTest {
         @DisplayName("genera embedding y guarda el vector en base de datos")
         void generaEmbeddingYGuardaVector() {
             when(embeddingService.generarEmbedding("contenido demo"))
-                    .thenReturn(List.of(0.1f, 0.2f, 0.3f));
+                    .thenReturn(new float[]{0.1f, 0.2f, 0.3f});
 
             service.guardarEmbeddingProducto(10L, "contenido demo");
 
@@ -45,9 +64,35 @@ class ProductoEmbeddingServiceTest {
                     contains("INSERT INTO producto_embeddings"),
                     eq(10L),
                     eq("contenido demo"),
-                    eq("[0.1, 0.2, 0.3]")
+                    eq("[0.1,0.2,0.3]")
             );
         }
+
+        @Test
+        @DisplayName("invalida la caché de respuestas del chatbot cuando la fila cambia")
+        void invalidaCacheDeRespuestas() {
+            when(embeddingService.generarEmbedding("contenido demo"))
+                    .thenReturn(new float[]{0.1f, 0.2f, 0.3f});
+            when(jdbcTemplate.update(contains("INSERT INTO producto_embeddings"), any(), any(), any()))
+                    .thenReturn(1);
+
+            service.guardarEmbeddingProducto(10L, "contenido demo");
+
+            verify(respuestaIaCache).invalidar();
+        }
+
+        @Test
+        @DisplayName("contenido sin cambios → no se actualiza la fila ni se invalida la caché")
+        void contenidoSinCambiosNoInvalida() {
+            when(embeddingService.generarEmbedding("contenido demo"))
+                    .thenReturn(new float[]{0.1f, 0.2f, 0.3f});
+            when(jdbcTemplate.update(contains("IS DISTINCT FROM"), any(), any(), any()))
+                    .thenReturn(0);
+
+            service.guardarEmbeddingProducto(10L, "contenido demo");
+
+            verify(respuestaIaCache, never()).invalidar();
+        }
     }
 
     @Nested
@@ -58,12 +103,12 @@ class ProductoEmbeddingServiceTest {
         @DisplayName("usa límite por defecto 5 cuando no se envía límite")
         void usaLimitePorDefectoCinco() {
             when(embeddingService.generarEmbedding("juegos de acción"))
-                    .thenReturn(List.of(0.5f, 0.6f));
+                    .thenReturn(new float[]{0.5f, 0.6f});
 
             when(jdbcTemplate.queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.5, 0.6]"),
+                    eq("[0.5,0.6]"),
                     eq(5)
             )).thenReturn(List.of("Juego A", "Juego B"));
 
@@ -74,7 +119,7 @@ class ProductoEmbeddingServiceTest {
             verify(jdbcTemplate).queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.5, 0.6]"),
+                    eq("[0.5,0.6]"),
                     eq(5)
             );
         }
@@ -83,12 +128,12 @@ class ProductoEmbeddingServiceTest {
         @DisplayName("usa límite personalizado cuando se envía limit")
         void usaLimitePersonalizado() {
             when(embeddingService.generarEmbedding("aventura"))
-                    .thenReturn(List.of(0.7f, 0.8f));
+                    .thenReturn(new float[]{0.7f, 0.8f});
 
             when(jdbcTemplate.queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.7, 0.8]"),
+                    eq("[0.7,0.8]"),
                     eq(3)
             )).thenReturn(List.of("Juego C"));
 
@@ -99,10 +144,23 @@ class ProductoEmbeddingServiceTest {
             verify(jdbcTemplate).queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.7, 0.8]"),
+                    eq("[0.7,0.8]"),
                     eq(3)
             );
         }
+
+        @Test
+        @DisplayName("pasa ef_search/probes de la consulta al índice vectorial")
+        void pasaAjusteAlIndice() {
+            when(embeddingService.generarEmbedding("terror"))
+                    .thenReturn(new float[]{0.1f, 0.2f});
+            when(jdbcTemplate.queryForList(contains("SELECT contenido"), eq(String.class), eq("[0.1,0.2]"), eq(5)))
+                    .thenReturn(List.of("Juego D"));
+
+            assertEquals(List.of("Juego D"), service.buscarSimilares("terror", 5, 200, null));
+
+            verify(indiceVectorial).conAjuste(eq(200), isNull(), any());
+        }
     }
 
     @Nested
@@ -138,8 +196,10 @@ class ProductoEmbeddingServiceTest {
             when(rs.getString("plataformas")).thenReturn("PC");
             when(rs.getString("desarrolladores")).thenReturn("Valve");
 
-            when(embeddingService.generarEmbedding(anyString()))
-                    .thenReturn(List.of(0.1f, 0.2f));
+            when(embeddingService.generarEmbeddings(anyList()))
+                    .thenReturn(List.of(new float[]{0.1f, 0.2f}));
+            when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                    .thenReturn(new int[]{1});
 
             when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class)))
                     .thenAnswer(invocation -> {
@@ -151,14 +211,37 @@ class ProductoEmbeddingServiceTest {
 
             assertEquals(1, resultado);
 
-            verify(embeddingService).generarEmbedding(contains("Counter-Strike 2"));
+            ArgumentCaptor<List<String>> textos = ArgumentCaptor.forClass(List.class);
+            verify(embeddingService).generarEmbeddings(textos.capture());
+            assertTrue(textos.getValue().get(0).contains("Counter-Strike 2"));
+            verify(embeddingService, never()).generarEmbedding(anyString());
+
+            ArgumentCaptor<List<Object[]>> filas = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(contains("INSERT INTO producto_embeddings"), filas.capture());
+            assertEquals(10L, filas.getValue().get(0)[0]);
+            assertTrue(((String) filas.getValue().get(0)[1]).contains("Counter-Strike 2"));
+            assertEquals("[0.1,0.2]", filas.getValue().get(0)[2]);
+            verify(respuestaIaCache).invalidar();
+        }
 
-            verify(jdbcTemplate).update(
-                    contains("INSERT INTO producto_embeddings"),
-                    eq(10L),
-                    contains("Counter-Strike 2"),
-                    eq("[0.1, 0.2]")
-            );
+        @Test
+        @DisplayName("un lote que falla en OpenAI no se cuenta ni corta la indexación")
+        void loteFallidoNoSeCuenta() throws Exception {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.next()).thenReturn(true, false);
+            when(rs.getLong("id")).thenReturn(10L);
+
+            when(embeddingService.generarEmbeddings(anyList()))
+                    .thenThrow(new RuntimeException("OpenAI caído"));
+
+            when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class)))
+                    .thenAnswer(invocation -> {
+                        ResultSetExtractor<List<Integer>> extractor = invocation.getArgument(1);
+                        return extractor.extractData(rs);
+                    });
+
+            assertEquals(0, service.indexarTodosLosProductos());
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
         }
     }
 
@@ -197,12 +280,12 @@ class ProductoEmbeddingServiceTest {
         @DisplayName("buscarSimilares sin límite delega en buscarSimilares con límite 5")
         void sinLimiteDelegaConCinco() {
             when(embeddingService.generarEmbedding("terror"))
-                    .thenReturn(List.of(0.1f, 0.2f));
+                    .thenReturn(new float[]{0.1f, 0.2f});
 
             when(jdbcTemplate.queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.1, 0.2]"),
+                    eq("[0.1,0.2]"),
                     eq(5)
             )).thenReturn(List.of("Película A"));
 
@@ -212,7 +295,7 @@ class ProductoEmbeddingServiceTest {
             verify(jdbcTemplate).queryForList(
                     contains("SELECT contenido"),
                     eq(String.class),
-                    eq("[0.1, 0.2]"),
+                    eq("[0.1,0.2]"),
                     eq(5)
             );
         }
@@ -226,7 +309,7 @@ class ProductoEmbeddingServiceTest {
         @DisplayName("jdbcTemplate lanza excepción → se propaga")
         void jdbcTemplateLanzaExcepcion_sepropaga() {
             when(embeddingService.generarEmbedding("contenido"))
-                    .thenReturn(List.of(0.1f, 0.2f));
+                    .thenReturn(new float[]{0.1f, 0.2f});
 
             doThrow(new RuntimeException("DB error"))
                     .when(jdbcTemplate).update(anyString(), any(), any(), any());
@@ -238,8 +321,8 @@ class ProductoEmbeddingServiceTest {
         @Test
         @DisplayName("embedding con lista grande → vector formateado correctamente")
         void embeddingListaGrande_vectorFormateado() {
-            List<Float> embedding = new java.util.ArrayList<>();
-            for (int i = 0; i < 10; i++) embedding.add(0.1f * i);
+            float[] embedding = new float[10];
+            for (int i = 0; i < 10; i++) embedding[i] = 0.1f * i;
 
             when(embeddingService.generarEmbedding("texto largo"))
                     .thenReturn(embedding);
@@ -0,0 +1,124 @@
+package com.example.NoLimits.service.ai;
+
+import com.example.NoLimits.Multimedia.service.ai.RespuestaIaCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DisplayName("RespuestaIaCacheService — caché exacta y semántica del chatbot")
+class RespuestaIaCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RespuestaIaCacheService cache;
+    private AtomicInteger embeddings;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("chatbot.cache.umbral-coseno", "0.95")
+                .withProperty("chatbot.cache.max-entradas", "2");
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RespuestaIaCacheService(environment, meterRegistry);
+        embeddings = new AtomicInteger();
+    }
+
+    private Supplier<float[]> embedding(float... valores) {
+        return () -> {
+            embeddings.incrementAndGet();
+            return valores;
+        };
+    }
+
+    private void responder(String mensaje, String respuesta, float... vector) {
+        RespuestaIaCacheService.Busqueda busqueda = cache.buscar(mensaje, embedding(vector));
+        cache.guardar(busqueda, respuesta);
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.counter("chatbot.cache.solicitudes", "resultado", resultado).count();
+    }
+
+    @Test
+    @DisplayName("mayúsculas, tildes y signos no cambian la clave exacta; no se pide embedding")
+    void hitExactoNormalizado() {
+        responder("¿Qué es Naruto?", "Un anime.", 1f, 0f);
+
+        RespuestaIaCacheService.Busqueda busqueda = cache.buscar("  que es   NARUTO ", embedding(0f, 1f));
+
+        assertEquals("Un anime.", busqueda.getRespuesta());
+        assertNull(busqueda.getEmbedding());
+        assertEquals(1, embeddings.get());
+        assertEquals(1, contador("exacta"));
+    }
+
+    @Test
+    @DisplayName("una pregunta distinta pero con embedding casi igual reusa la respuesta")
+    void hitSemantico() {
+        responder("recomiéndame anime de peleas", "Dragon Ball.", 1f, 0f);
+
+        RespuestaIaCacheService.Busqueda busqueda = cache.buscar("anime con peleas", embedding(0.99f, 0.05f));
+
+        assertEquals("Dragon Ball.", busqueda.getRespuesta());
+        assertEquals(1, contador("semantica"));
+    }
+
+    @Test
+    @DisplayName("bajo el umbral de coseno es un miss y deja el embedding para la búsqueda vectorial")
+    void missBajoUmbral() {
+        responder("recomiéndame anime de peleas", "Dragon Ball.", 1f, 0f);
+
+        RespuestaIaCacheService.Busqueda busqueda = cache.buscar("libros de terror", embedding(0.6f, 0.8f));
+
+        assertNull(busqueda.getRespuesta());
+        assertArrayEquals(new float[]{0.6f, 0.8f}, busqueda.getEmbedding());
+        assertEquals(2, contador("miss"));
+    }
+
+    @Test
+    @DisplayName("invalidar vacía la caché y descarta lo que se estaba generando con el contexto viejo")
+    void invalidar() {
+        responder("que es naruto", "Un anime.", 1f, 0f);
+        RespuestaIaCacheService.Busqueda enCurso = cache.buscar("que es bleach", embedding(0f, 1f));
+
+        cache.invalidar();
+        cache.guardar(enCurso, "Otro anime.");
+
+        assertNull(cache.buscar("que es naruto", embedding(1f, 0f)).getRespuesta());
+        assertNull(cache.buscar("que es bleach", embedding(0f, 1f)).getRespuesta());
+        assertEquals(1, meterRegistry.counter("chatbot.cache.invalidaciones").count());
+    }
+
+    @Test
+    @DisplayName("con el tope de entradas se descarta la menos usada")
+    void lruPorTope() {
+        responder("uno", "1", 1f, 0f);
+        responder("dos", "2", 0f, 1f);
+        cache.buscar("uno", embedding(1f, 0f));
+        responder("tres", "3", -1f, 0f);
+
+        assertNotNull(cache.buscar("uno", embedding(1f, 0f)).getRespuesta());
+        assertNull(cache.buscar("dos", embedding(0.7f, -0.7f)).getRespuesta());
+    }
+
+    @Test
+    @DisplayName("TTL vencido → miss")
+    void ttlVencido() {
+        RespuestaIaCacheService corta = new RespuestaIaCacheService(
+                new MockEnvironment().withProperty("chatbot.cache.ttl-segundos", "0"), meterRegistry);
+        corta.guardar(corta.buscar("que es naruto", embedding(1f, 0f)), "Un anime.");
+
+        assertNull(corta.buscar("que es naruto", embedding(1f, 0f)).getRespuesta());
+    }
+}
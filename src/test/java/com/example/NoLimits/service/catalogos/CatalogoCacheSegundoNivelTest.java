@@ -0,0 +1,136 @@
+package com.example.NoLimits.service.catalogos;
+
+import com.example.NoLimits.Multimedia._exceptions.RecursoNoEncontradoException;
+import com.example.NoLimits.Multimedia.dto.catalogos.request.EstadoRequestDTO;
+import com.example.NoLimits.Multimedia.dto.catalogos.response.EstadoResponseDTO;
+import com.example.NoLimits.Multimedia.dto.catalogos.update.EstadoUpdateDTO;
+import com.example.NoLimits.Multimedia.service.catalogos.EstadoService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Caché de segundo nivel de los catálogos (Caffeine vía JCache).
+ *
+ * Único contexto de test con la caché encendida (application-test.properties
+ * la apaga) y con su propia BD H2, para que ninguna otra BD comparta regiones.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_cache_catalogos;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Caché de segundo nivel · catálogos")
+class CatalogoCacheSegundoNivelTest {
+
+    private static final String REGION_ESTADOS = "catalogo_estados";
+
+    @Autowired private EstadoService estadoService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void iniciar() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void limpiarEstadisticas() {
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("la segunda lectura por id sale de la caché sin ir a la BD")
+    void segundaLecturaEsAcierto() {
+        Long id = crearEstado("Disponible").getId();
+        estadoService.findById(id);
+        statistics.clear();
+
+        assertEquals("Disponible", estadoService.findById(id).getNombre());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(region().getHitCount() >= 1, "Se esperaba un acierto en " + REGION_ESTADOS);
+    }
+
+    @Test
+    @DisplayName("un PATCH se ve en la lectura siguiente")
+    void escrituraActualizaRegion() {
+        Long id = crearEstado("Agotado").getId();
+        estadoService.findById(id);
+
+        EstadoUpdateDTO cambio = new EstadoUpdateDTO();
+        cambio.setNombre("Sin stock");
+        estadoService.patch(id, cambio);
+
+        assertEquals("Sin stock", estadoService.findById(id).getNombre());
+    }
+
+    @Test
+    @DisplayName("un registro eliminado no sigue saliendo de la caché")
+    void eliminarQuitaDeRegion() {
+        Long id = crearEstado("Descontinuado").getId();
+        estadoService.findById(id);
+
+        estadoService.deleteById(id);
+
+        assertThrows(RecursoNoEncontradoException.class, () -> estadoService.findById(id));
+    }
+
+    @Test
+    @DisplayName("los aciertos de la región se publican en Micrometer (cache.gets, result=hit)")
+    void aciertosEnMicrometer() {
+        Long id = crearEstado("Reservado").getId();
+        estadoService.findById(id);
+        double antes = aciertosMicrometer();
+
+        estadoService.findById(id);
+
+        assertTrue(aciertosMicrometer() > antes, "cache.gets{result=hit} no subió en " + REGION_ESTADOS);
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private EstadoResponseDTO crearEstado(String nombre) {
+        EstadoRequestDTO dto = new EstadoRequestDTO();
+        dto.setNombre(nombre);
+        dto.setActivo(true);
+        return estadoService.save(dto);
+    }
+
+    private double aciertosMicrometer() {
+        FunctionCounter aciertos = meterRegistry.find("cache.gets")
+                .tags("cache", REGION_ESTADOS, "result", "hit")
+                .functionCounter();
+        assertNotNull(aciertos, "CatalogoCacheMetricas no registró " + REGION_ESTADOS);
+        return aciertos.count();
+    }
+
+    private CacheRegionStatistics region() {
+        return statistics.getDomainDataRegionStatistics(REGION_ESTADOS);
+    }
+}
@@ -13,6 +13,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -231,5 +235,44 @@ class ProcessMessageTests {
     }
 }
 
+@Nested
+@DisplayName("streaming")
+class StreamingTests {
+
+    @Test
+    @DisplayName("findRuleResponse retorna null cuando ninguna regla aplica")
+    void sinReglaRetornaNull() {
+
+        // Act + Assert
+        assertNull(service.findRuleResponse("pregunta rara"));
+        assertEquals("rule", service.findRuleResponse("como iniciar sesion").getSource());
+        verifyNoInteractions(openAIClient);
+    }
+
+    @Test
+    @DisplayName("streamAiResponse entrega los fragmentos y arma la respuesta final")
+    void streamAiResponseEntregaFragmentos() {
+
+        // Arrange
+        List<String> fragmentos = new ArrayList<>();
+        when(openAIClient.askNoLimitsStreaming(eq("pregunta rara"), any()))
+                .thenAnswer(inv -> {
+                    Consumer<String> alFragmento = inv.getArgument(1);
+                    alFragmento.accept("respuesta ");
+                    alFragmento.accept("ia");
+                    return "respuesta ia";
+                });
 
+        // Act
+        ChatResponse response =
+                service.streamAiResponse("pregunta rara", fragmentos::add);
+
+        // Assert
+        assertAll(
+                () -> assertEquals("ai", response.getSource()),
+                () -> assertEquals("respuesta ia", response.getReply()),
+                () -> assertEquals(List.of("respuesta ", "ia"), fragmentos)
+        );
+    }
+}
 }
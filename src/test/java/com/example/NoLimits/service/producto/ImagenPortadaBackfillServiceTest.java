@@ -0,0 +1,69 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ImagenPortadaBackfillService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshotService;
+import com.example.NoLimits.config.AbstractContainerBaseTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+@TestPropertySource(properties = "productos.portada.backfill.lote=1000")
+public class ImagenPortadaBackfillServiceTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private ImagenPortadaBackfillService backfillService;
+
+    @MockBean
+    private ProductoRepository productoRepository;
+
+    @MockBean
+    private ProductoResumenSnapshotService resumenSnapshotService;
+
+    @Test
+    @DisplayName("recorre los ids por tramos hasta el máximo")
+    void recorrePorTramos() {
+        when(productoRepository.obtenerMaxId()).thenReturn(2500L);
+        when(productoRepository.recalcularImagenPortada(1L, 1000L)).thenReturn(1000);
+        when(productoRepository.recalcularImagenPortada(1001L, 2000L)).thenReturn(1000);
+        when(productoRepository.recalcularImagenPortada(2001L, 2500L)).thenReturn(500);
+
+        int actualizadas = backfillService.rellenarPortadas();
+
+        assertEquals(2500, actualizadas);
+        verify(productoRepository, times(3)).recalcularImagenPortada(anyLong(), anyLong());
+        verify(resumenSnapshotService, times(1)).invalidar();
+    }
+
+    @Test
+    @DisplayName("sin productos no ejecuta ningún UPDATE")
+    void sinProductos() {
+        when(productoRepository.obtenerMaxId()).thenReturn(0L);
+
+        assertEquals(0, backfillService.rellenarPortadas());
+        verify(productoRepository, never()).recalcularImagenPortada(anyLong(), anyLong());
+        verify(resumenSnapshotService, never()).invalidar();
+    }
+
+    @Test
+    @DisplayName("si no hubo filas pendientes no invalida el snapshot")
+    void nadaPendiente() {
+        when(productoRepository.obtenerMaxId()).thenReturn(10L);
+        when(productoRepository.recalcularImagenPortada(1L, 10L)).thenReturn(0);
+
+        assertEquals(0, backfillService.rellenarPortadas());
+        verify(resumenSnapshotService, never()).invalidar();
+    }
+}
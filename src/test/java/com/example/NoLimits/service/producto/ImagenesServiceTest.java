@@ -24,6 +24,7 @@ import org.springframework.test.context.ActiveProfiles;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -162,6 +163,30 @@ public class ImagenesServiceTest extends AbstractContainerBaseTest{
         assertEquals(10L, guardada.getProductoId());
     }
 
+    @Test
+    public void testSave_PrimeraImagen_ActualizaPortadaDelProducto() {
+        ImagenesRequestDTO request = new ImagenesRequestDTO();
+        request.setProductoId(10L);
+        request.setRuta("/assets/img/Peliculas/spiderman.webp");
+
+        ProductoModel producto = createProducto(10L);
+        when(productoRepository.findById(10L))
+                .thenReturn(Optional.of(producto));
+        when(imagenesRepository.save(any(ImagenesModel.class)))
+                .thenAnswer(inv -> {
+                    ImagenesModel img = inv.getArgument(0);
+                    img.setId(1L);
+                    return img;
+                });
+        when(imagenesRepository.findFirstByProducto_IdOrderByIdAsc(10L))
+                .thenReturn(Optional.of(createImagen(1L, 10L)));
+
+        imagenesService.save(request);
+
+        assertEquals("/assets/img/productos/10.webp", producto.getImagenPortada());
+        verify(productoRepository, times(1)).save(producto);
+    }
+
     @Test
     public void testSave_SinProducto_LanzaIllegalArgument() {
         ImagenesRequestDTO request = new ImagenesRequestDTO();
@@ -457,6 +482,21 @@ public class ImagenesServiceTest extends AbstractContainerBaseTest{
         verify(imagenesRepository, times(1)).deleteByProducto_Id(10L);
     }
 
+    @Test
+    public void testDeleteByProducto_LimpiaPortada() {
+        ProductoModel producto = createProducto(10L);
+        producto.setImagenPortada("/assets/img/portada.webp");
+
+        when(productoRepository.existsById(10L)).thenReturn(true);
+        when(productoRepository.findById(10L)).thenReturn(Optional.of(producto));
+        when(imagenesRepository.deleteByProducto_Id(10L)).thenReturn(2L);
+        when(imagenesRepository.findFirstByProducto_IdOrderByIdAsc(10L)).thenReturn(Optional.empty());
+
+        imagenesService.deleteByProducto(10L);
+
+        assertNull(producto.getImagenPortada());
+    }
+
     @Test
     public void testDeleteByProducto_ProductoNoExiste_Lanza404() {
         when(productoRepository.existsById(10L)).thenReturn(false);
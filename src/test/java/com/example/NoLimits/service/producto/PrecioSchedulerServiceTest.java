@@ -1,7 +1,7 @@
 package com.example.NoLimits.service.producto;
 
 import com.example.NoLimits.Multimedia.service.producto.PrecioSchedulerService;
-import com.example.NoLimits.Multimedia.service.producto.ProductoService;
+import com.example.NoLimits.Multimedia.service.producto.PrecioSteamRefrescoService;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,15 +10,12 @@ import org.junit.jupiter.api.Nested;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
-import java.util.List;
-
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class PrecioSchedulerServiceTest {
 
     @Mock
-    private ProductoService productoService;
+    private PrecioSteamRefrescoService refrescoService;
 
     private PrecioSchedulerService precioSchedulerService;
 
@@ -26,7 +23,7 @@ class PrecioSchedulerServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         precioSchedulerService =
-                new PrecioSchedulerService(productoService);
+                new PrecioSchedulerService(refrescoService);
     }
 
     @Nested
@@ -34,52 +31,13 @@ class PrecioSchedulerServiceTest {
     class ActualizarPreciosSteamDiariamente {
 
         @Test
-        @DisplayName("actualiza los precios de todos los productos con appId")
-        void actualizaTodosLosProductos() {
-
-            when(productoService.obtenerIdsProductosConAppId())
-                    .thenReturn(List.of(1L, 2L, 3L));
+        @DisplayName("delega la corrida completa en el refresco masivo")
+        void delegaEnRefrescoMasivo() {
 
             precioSchedulerService.actualizarPreciosSteamDiariamente();
 
-            verify(productoService).obtenerIdsProductosConAppId();
-
-            verify(productoService).actualizarPrecioDesdeSteam(1L);
-            verify(productoService).actualizarPrecioDesdeSteam(2L);
-            verify(productoService).actualizarPrecioDesdeSteam(3L);
-        }
-
-        @Test
-        @DisplayName("continua procesando cuando un producto genera error")
-        void continuaCuandoUnProductoGeneraError() {
-
-            when(productoService.obtenerIdsProductosConAppId())
-                    .thenReturn(List.of(1L, 2L, 3L));
-
-            doThrow(new RuntimeException("Error Steam"))
-                    .when(productoService)
-                    .actualizarPrecioDesdeSteam(2L);
-
-            precioSchedulerService.actualizarPreciosSteamDiariamente();
-
-            verify(productoService).actualizarPrecioDesdeSteam(1L);
-            verify(productoService).actualizarPrecioDesdeSteam(2L);
-            verify(productoService).actualizarPrecioDesdeSteam(3L);
-        }
-
-        @Test
-        @DisplayName("no procesa productos cuando no existen appId")
-        void noHaceNadaCuandoNoHayProductos() {
-
-            when(productoService.obtenerIdsProductosConAppId())
-                    .thenReturn(List.of());
-
-            precioSchedulerService.actualizarPreciosSteamDiariamente();
-
-            verify(productoService).obtenerIdsProductosConAppId();
-
-            verify(productoService, never())
-                    .actualizarPrecioDesdeSteam(anyLong());
+            verify(refrescoService, times(1)).refrescarTodos();
+            verifyNoMoreInteractions(refrescoService);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.service.producto.PrecioSteamLoteService;
+import com.example.NoLimits.Multimedia.service.producto.PrecioSteamLoteService.Precio;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Escritura de un lote de precios por los dos caminos:
+ *  - UPDATE ... FROM (VALUES ...) de Postgres, forzado con una URL
+ *    jdbc:postgresql. H2 en MODE=PostgreSQL acepta esa sintaxis (casts
+ *    ?::bigint incluidos), así que la sentencia real se ejecuta.
+ *  - batch de un UPDATE por fila (cualquier otra BD).
+ * Los dos deben dejar las mismas filas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_precios_lote;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Lote de precios de Steam · UPDATE con VALUES y por fila")
+class PrecioSteamLoteServiceTest {
+
+    @Autowired private PrecioSteamLoteService loteService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long plataforma;
+
+    @BeforeAll
+    void poblar() {
+        jdbcTemplate.update("INSERT INTO tipo_productos (nombre, activo) VALUES ('Videojuego', TRUE)");
+        jdbcTemplate.update("INSERT INTO estados (nombre, activo) VALUES ('Disponible', TRUE)");
+        jdbcTemplate.update("INSERT INTO plataforma (nombre) VALUES ('Steam')");
+        plataforma = jdbcTemplate.queryForObject("SELECT id FROM plataforma WHERE nombre = 'Steam'", Long.class);
+    }
+
+    @Test
+    @DisplayName("Postgres: un UPDATE ... FROM (VALUES ...) por tabla actualiza todo el lote")
+    void actualizaConValues() {
+        usarUrl("jdbc:postgresql://localhost:5432/nolimits");
+        try {
+            escribirYVerificar("Values");
+        } finally {
+            usarUrl("jdbc:h2:mem:nolimits_precios_lote");
+        }
+    }
+
+    @Test
+    @DisplayName("otras BDs: batch de un UPDATE por fila deja el mismo resultado")
+    void actualizaPorFila() {
+        escribirYVerificar("Fila");
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private void escribirYVerificar(String prefijo) {
+        Long primero = insertarProducto(prefijo + " 1");
+        Long segundo = insertarProducto(prefijo + " 2");
+        Long linkPrimero = insertarLink(primero);
+        Long linkSegundo = insertarLink(segundo);
+
+        loteService.escribir(List.of(
+                new Precio(linkPrimero, primero, 19.99, "Steam", "$19.99", "USD", "https://store.steampowered.com/app/1"),
+                // url null: se conserva la que tenía el link
+                new Precio(linkSegundo, segundo, 5.0, "Steam", "$5.00", "USD", null)));
+
+        assertEquals(19.99, precio(primero), 0.001);
+        assertEquals(5.0, precio(segundo), 0.001);
+
+        Map<String, Object> link = jdbcTemplate.queryForMap(
+                "SELECT * FROM producto_links_compra WHERE id = ?", linkPrimero);
+        assertEquals("$19.99", link.get("PRECIO_FORMATO"));
+        assertEquals("USD", link.get("MONEDA"));
+        assertEquals("Steam", link.get("NOMBRE_PLATAFORMA"));
+        assertEquals("https://store.steampowered.com/app/1", link.get("URL"));
+        assertNotNull(link.get("FECHA_ULTIMA_ACTUALIZACION"));
+
+        assertEquals("https://ejemplo.cl/" + linkSegundo, jdbcTemplate.queryForObject(
+                "SELECT url FROM producto_links_compra WHERE id = ?", String.class, linkSegundo));
+    }
+
+    private void usarUrl(String url) {
+        PrecioSteamLoteService objetivo = AopTestUtils.getUltimateTargetObject(loteService);
+        ReflectionTestUtils.setField(objetivo, "datasourceUrl", url);
+    }
+
+    private Long insertarProducto(String nombre) {
+        jdbcTemplate.update("""
+                INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id)
+                VALUES (?, 9990, (SELECT MIN(id) FROM tipo_productos), (SELECT MIN(id) FROM estados))
+                """, nombre);
+        return jdbcTemplate.queryForObject("SELECT id FROM productos WHERE nombre = ?", Long.class, nombre);
+    }
+
+    private Long insertarLink(Long productoId) {
+        jdbcTemplate.update("INSERT INTO producto_links_compra (producto_id, plataforma_id, url) VALUES (?, ?, ?)",
+                productoId, plataforma, "https://ejemplo.cl/pendiente");
+        Long id = jdbcTemplate.queryForObject(
+                "SELECT id FROM producto_links_compra WHERE producto_id = ?", Long.class, productoId);
+        jdbcTemplate.update("UPDATE producto_links_compra SET url = ? WHERE id = ?", "https://ejemplo.cl/" + id, id);
+        return id;
+    }
+
+    private double precio(Long productoId) {
+        return jdbcTemplate.queryForObject("SELECT precio FROM productos WHERE id = ?", Double.class, productoId);
+    }
+}
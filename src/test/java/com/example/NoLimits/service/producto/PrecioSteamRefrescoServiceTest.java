@@ -0,0 +1,124 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.producto.PrecioSteamRefrescoService;
+import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresco masivo de precios contra H2 (respaldo de UPDATE por fila; el
+ * UPDATE ... FROM (VALUES ...) es solo de Postgres). El servicio de scraping
+ * va mockeado; lote de 2 para cubrir varios lotes y sin tope por segundo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_precios;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "productos.precios.concurrencia=4",
+        "productos.precios.max-por-segundo=0",
+        "productos.precios.lote=2"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Refresco masivo de precios de Steam")
+class PrecioSteamRefrescoServiceTest {
+
+    @Autowired private PrecioSteamRefrescoService refrescoService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private MeterRegistry meterRegistry;
+
+    @MockBean private ScrapingClientService scrapingClientService;
+    @MockBean private ProductoEmbeddingService productoEmbeddingService;
+
+    private Long plataforma;
+
+    @BeforeAll
+    void poblar() {
+        jdbcTemplate.update("INSERT INTO tipo_productos (nombre, activo) VALUES ('Videojuego', TRUE)");
+        jdbcTemplate.update("INSERT INTO estados (nombre, activo) VALUES ('Disponible', TRUE)");
+        jdbcTemplate.update("INSERT INTO plataforma (nombre) VALUES ('Steam')");
+        plataforma = jdbcTemplate.queryForObject("SELECT id FROM plataforma WHERE nombre = 'Steam'", Long.class);
+
+        for (int i = 1; i <= 3; i++) {
+            Long id = insertarProducto("Steam " + i);
+            insertarLink(id, String.valueOf(100 + i));
+        }
+        insertarLink(insertarProducto("Steam Caido"), "999");
+        insertarProducto("Sin Steam");
+    }
+
+    @Test
+    @DisplayName("actualiza precio y link de cada producto, cuenta los fallos y no toca embeddings")
+    void refrescaTodos() {
+        when(scrapingClientService.obtenerPrecioSteam(anyString())).thenAnswer(inv -> {
+            String appId = inv.getArgument(0);
+            if ("999".equals(appId)) throw new RuntimeException("Steam caído");
+            return Map.of(
+                    "precio", 1999,
+                    "nombre", "Steam",
+                    "precioFormato", "$19.99",
+                    "moneda", "USD",
+                    "urlPlataforma", "https://store.steampowered.com/app/" + appId);
+        });
+        double fallidosAntes = meterRegistry.counter("productos.precios.refresco.fallidos").count();
+
+        PrecioSteamRefrescoService.Resumen resumen = refrescoService.refrescarTodos();
+
+        assertEquals(4, resumen.getTotal());
+        assertEquals(3, resumen.getActualizados());
+        assertEquals(1, resumen.getFallidos());
+
+        Long id = idDe("Steam 2");
+        assertEquals(19.99, jdbcTemplate.queryForObject("SELECT precio FROM productos WHERE id = ?", Double.class, id), 0.001);
+        assertEquals("$19.99", jdbcTemplate.queryForObject(
+                "SELECT precio_formato FROM producto_links_compra WHERE producto_id = ?", String.class, id));
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT fecha_ultima_actualizacion FROM producto_links_compra WHERE producto_id = ?", Object.class, id));
+        assertEquals(9990, jdbcTemplate.queryForObject(
+                "SELECT precio FROM productos WHERE nombre = 'Steam Caido'", Double.class), 0.001);
+
+        assertEquals(1, meterRegistry.counter("productos.precios.refresco.fallidos").count() - fallidosAntes, 0.001);
+        assertTrue(meterRegistry.timer("productos.precios.refresco.duracion").count() >= 1);
+        verify(productoEmbeddingService, never()).guardarEmbeddingProducto(any(), any());
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private Long insertarProducto(String nombre) {
+        jdbcTemplate.update("""
+                INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id)
+                VALUES (?, 9990, (SELECT MIN(id) FROM tipo_productos), (SELECT MIN(id) FROM estados))
+                """, nombre);
+        return idDe(nombre);
+    }
+
+    private void insertarLink(Long productoId, String appId) {
+        jdbcTemplate.update("INSERT INTO producto_links_compra (producto_id, plataforma_id, url, app_id) VALUES (?, ?, ?, ?)",
+                productoId, plataforma, "https://store.steampowered.com/app/" + appId, appId);
+    }
+
+    private Long idDe(String nombre) {
+        return jdbcTemplate.queryForObject("SELECT id FROM productos WHERE nombre = ?", Long.class, nombre);
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoBusquedaDTO;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoBusquedaService;
+import com.example.NoLimits.config.AbstractContainerBaseTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+public class ProductoBusquedaServiceTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private ProductoBusquedaService busquedaService;
+
+    @MockBean
+    private ProductoRepository productoRepository;
+
+    // [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga, imagenPortada, sinopsis]
+    private Object[] fila(Long id, String nombre, String saga, String sinopsis) {
+        return new Object[]{
+            id, nombre, 12990.0, "Película", "Activo", saga, null, "/img/" + id + ".webp", sinopsis
+        };
+    }
+
+    @Test
+    @DisplayName("en H2 no usa el índice full-text")
+    void sinIndiceEnH2() {
+        assertFalse(busquedaService.isFullTextActivo());
+    }
+
+    @Test
+    @DisplayName("ordena por relevancia: nombre que empieza con el texto, luego nombre, saga y sinopsis")
+    void ordenaPorRelevancia() {
+        when(productoRepository.buscarCandidatosPorTexto("%spider%")).thenReturn(List.of(
+                fila(1L, "Venom", null, "Enemigo de Spider-Man"),
+                fila(2L, "Into the Spider-Verse", null, null),
+                fila(3L, "Spider-Man", "Spiderman", null),
+                fila(4L, "No Way Home", "Spiderman", null)
+        ));
+
+        PagedResponse<ProductoBusquedaDTO> resultado = busquedaService.buscar("Spider", 1, 20);
+
+        assertEquals(List.of(3L, 2L, 4L, 1L),
+                resultado.getContenido().stream().map(ProductoBusquedaDTO::getId).toList());
+        assertEquals(4L, resultado.getTotalElementos());
+        assertTrue(resultado.getContenido().get(0).getRelevancia() > resultado.getContenido().get(1).getRelevancia());
+        assertEquals("/img/3.webp", resultado.getContenido().get(0).getImagenPortada());
+    }
+
+    @Test
+    @DisplayName("exige todos los términos y consulta por el más largo")
+    void exigeTodosLosTerminos() {
+        when(productoRepository.buscarCandidatosPorTexto("%spider%")).thenReturn(List.of(
+                fila(1L, "Spider-Man 2", null, null),
+                fila(2L, "Spider-Man 3", null, null)
+        ));
+
+        PagedResponse<ProductoBusquedaDTO> resultado = busquedaService.buscar("spider 3", 1, 20);
+
+        verify(productoRepository).buscarCandidatosPorTexto("%spider%");
+        assertEquals(1, resultado.getContenido().size());
+        assertEquals(2L, resultado.getContenido().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("pagina los resultados ordenados")
+    void pagina() {
+        when(productoRepository.buscarCandidatosPorTexto(anyString())).thenReturn(List.of(
+                fila(1L, "Halo", null, null),
+                fila(2L, "Halo 2", null, null),
+                fila(3L, "Halo 3", null, null)
+        ));
+
+        PagedResponse<ProductoBusquedaDTO> pagina2 = busquedaService.buscar("halo", 2, 2);
+
+        assertEquals(2, pagina2.getPagina());
+        assertEquals(2, pagina2.getTotalPaginas());
+        assertEquals(3L, pagina2.getTotalElementos());
+        assertEquals(List.of(3L),
+                pagina2.getContenido().stream().map(ProductoBusquedaDTO::getId).toList());
+    }
+
+    @Test
+    @DisplayName("texto vacío o solo símbolos no consulta la base de datos")
+    void textoVacio() {
+        assertTrue(busquedaService.buscar("  ", 1, 20).getContenido().isEmpty());
+        assertTrue(busquedaService.buscar("&|!:*", 1, 20).getContenido().isEmpty());
+        verifyNoInteractions(productoRepository);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
+import com.example.NoLimits.Multimedia.model.catalogos.EstadoModel;
+import com.example.NoLimits.Multimedia.model.catalogos.TipoProductoModel;
+import com.example.NoLimits.Multimedia.repository.catalogos.EstadoRepository;
+import com.example.NoLimits.Multimedia.repository.catalogos.TipoProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regresión de N+1: cuenta las sentencias SQL que ejecuta Hibernate
+ * (Statistics.getPrepareStatementCount) en los filtros no paginados que
+ * devuelven ProductoResponseDTO completo.
+ *
+ * Con ids + ProductoDetalleLoteService son 8 queries fijas (1 de ids +
+ * 1 base + 6 relaciones) sin importar cuántos productos coincidan.
+ * Mapear entidades con ProductoMapper eran 5+ queries por producto.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_query_count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Cantidad de queries · filtros de productos con detalle")
+class ProductoConsultasQueryCountTest {
+
+    private static final int PRODUCTOS = 10;
+    private static final long MAX_QUERIES = 8;
+
+    @Autowired private ProductoService productoService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TipoProductoRepository tipoProductoRepository;
+    @Autowired private EstadoRepository estadoRepository;
+
+    private Statistics statistics;
+    private Long tipoId;
+    private Long estadoId;
+    private Long clasificacionId;
+
+    @BeforeAll
+    void poblar() {
+        TipoProductoModel tipo = new TipoProductoModel();
+        tipo.setNombre("Videojuego");
+        tipo.setActivo(true);
+        tipoId = tipoProductoRepository.save(tipo).getId();
+
+        EstadoModel estado = new EstadoModel();
+        estado.setNombre("Disponible");
+        estado.setActivo(true);
+        estadoId = estadoRepository.save(estado).getId();
+
+        clasificacionId = insertarCatalogo("INSERT INTO clasificaciones (nombre, activo) VALUES (?, TRUE)", "clasificaciones", "T");
+        Long plataforma1 = insertarCatalogo("INSERT INTO plataforma (nombre) VALUES (?)", "plataforma", "PC");
+        Long plataforma2 = insertarCatalogo("INSERT INTO plataforma (nombre) VALUES (?)", "plataforma", "PS5");
+        Long genero1 = insertarCatalogo("INSERT INTO genero (nombre) VALUES (?)", "genero", "Acción");
+        Long genero2 = insertarCatalogo("INSERT INTO genero (nombre) VALUES (?)", "genero", "Aventura");
+        Long empresa = insertarCatalogo("INSERT INTO empresa (nombre, activo) VALUES (?, TRUE)", "empresa", "Sony");
+        Long desarrollador = insertarCatalogo("INSERT INTO desarrollador (nombre, activo) VALUES (?, TRUE)", "desarrollador", "Insomniac");
+
+        for (int i = 1; i <= PRODUCTOS; i++) {
+            jdbcTemplate.update("""
+                    INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id, clasificacion_id)
+                    VALUES (?, ?, ?, ?, ?)
+                    """, "Juego " + i, 9990.0 * i, tipoId, estadoId, clasificacionId);
+            Long productoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM productos", Long.class);
+
+            jdbcTemplate.update("INSERT INTO imagenes (ruta, producto_id) VALUES (?, ?)", "/img/" + i + "a.webp", productoId);
+            jdbcTemplate.update("INSERT INTO imagenes (ruta, producto_id) VALUES (?, ?)", "/img/" + i + "b.webp", productoId);
+            jdbcTemplate.update("INSERT INTO plataformas (producto_id, plataforma_id) VALUES (?, ?)", productoId, plataforma1);
+            jdbcTemplate.update("INSERT INTO plataformas (producto_id, plataforma_id) VALUES (?, ?)", productoId, plataforma2);
+            jdbcTemplate.update("INSERT INTO generos (producto_id, genero_id) VALUES (?, ?)", productoId, genero1);
+            jdbcTemplate.update("INSERT INTO generos (producto_id, genero_id) VALUES (?, ?)", productoId, genero2);
+            jdbcTemplate.update("INSERT INTO empresas (producto_id, empresa_id) VALUES (?, ?)", productoId, empresa);
+            jdbcTemplate.update("INSERT INTO desarrolladores (producto_id, desarrollador_id) VALUES (?, ?)", productoId, desarrollador);
+            jdbcTemplate.update("INSERT INTO producto_links_compra (producto_id, plataforma_id, url) VALUES (?, ?, ?)",
+                    productoId, plataforma1, "https://tienda.example/" + i);
+        }
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void limpiarEstadisticas() {
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findByNombre: queries fijas")
+    void findByNombre() {
+        List<ProductoResponseDTO> resultado = medir(() -> productoService.findByNombre("Juego 3"));
+
+        assertEquals(1, resultado.size());
+        assertRelacionesCompletas(resultado.get(0));
+    }
+
+    @Test
+    @DisplayName("findByClasificacion: queries fijas con todos los productos")
+    void findByClasificacion() {
+        List<ProductoResponseDTO> resultado = medir(() -> productoService.findByClasificacion(clasificacionId));
+
+        assertEquals(PRODUCTOS, resultado.size());
+        resultado.forEach(this::assertRelacionesCompletas);
+    }
+
+    @Test
+    @DisplayName("findByTipoProductoAndEstado: queries fijas con todos los productos")
+    void findByTipoProductoAndEstado() {
+        List<ProductoResponseDTO> resultado = medir(() -> productoService.findByTipoProductoAndEstado(tipoId, estadoId));
+
+        assertEquals(PRODUCTOS, resultado.size());
+        resultado.forEach(this::assertRelacionesCompletas);
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private <T> T medir(Supplier<T> consulta) {
+        T resultado = consulta.get();
+        long queries = statistics.getPrepareStatementCount();
+        assertTrue(queries <= MAX_QUERIES,
+                "Se esperaban como máximo " + MAX_QUERIES + " queries y se ejecutaron " + queries);
+        return resultado;
+    }
+
+    private void assertRelacionesCompletas(ProductoResponseDTO dto) {
+        assertEquals(2, dto.getImagenes().size());
+        assertEquals(2, dto.getPlataformas().size());
+        assertEquals(2, dto.getGeneros().size());
+        assertEquals(1, dto.getEmpresas().size());
+        assertEquals(1, dto.getDesarrolladores().size());
+        assertEquals(1, dto.getLinksCompra().size());
+        assertEquals("T", dto.getClasificacionNombre());
+    }
+
+    private Long insertarCatalogo(String insert, String tabla, String nombre) {
+        jdbcTemplate.update(insert, nombre);
+        return jdbcTemplate.queryForObject("SELECT id FROM " + tabla + " WHERE nombre = ?", Long.class, nombre);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoDetalleLoteService;
+import com.example.NoLimits.config.AbstractContainerBaseTest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ActiveProfiles("test")
+public class ProductoDetalleLoteServiceTest extends AbstractContainerBaseTest {
+
+    @Autowired
+    private ProductoDetalleLoteService detalleLoteService;
+
+    @MockBean
+    private ProductoRepository productoRepository;
+
+    private Object[] filaBase(Long id, String nombre) {
+        return new Object[]{
+            id, nombre, 12990.0, "Sinopsis " + id, null, 2002,
+            1L, "Película", 2L, "TE", 1L, "Activo",
+            null, null, null, null, "Spiderman", "/assets/img/sagas/spidermanSaga.webp"
+        };
+    }
+
+    @Test
+    @DisplayName("arma cada producto con sus relaciones y respeta el orden pedido")
+    void armaDetalleEnLote() {
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.of(filaBase(1L, "Spider-Man"), filaBase(2L, "Spider-Man 2")));
+        when(productoRepository.obtenerPlataformasPorProductoIds(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 5L, "Netflix"}));
+        when(productoRepository.obtenerGenerosPorProductoIds(any()))
+                .thenReturn(List.of(new Object[]{1L, "Acción"}, new Object[]{2L, "Acción"}, new Object[]{2L, "Aventura"}));
+        when(productoRepository.obtenerLinksCompraPorProductoIds(any()))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 5L, "https://netflix.com/x", "Ver", null, 4990.0}));
+        when(productoRepository.obtenerImagenesPorProductoIds(any()))
+                .thenReturn(List.of(new Object[]{1L, "/img/1a.webp"}, new Object[]{1L, "/img/1b.webp"}));
+
+        List<ProductoResponseDTO> resultado = detalleLoteService.cargar(List.of(2L, 1L));
+
+        assertEquals(2, resultado.size());
+
+        ProductoResponseDTO segundo = resultado.get(0);
+        assertEquals(2L, segundo.getId());
+        assertEquals("Netflix", segundo.getPlataformas().get(0).getNombre());
+        assertEquals(List.of("Acción", "Aventura"), segundo.getGeneros());
+        assertTrue(segundo.getImagenes().isEmpty());
+        assertTrue(segundo.getLinksCompra().isEmpty());
+
+        ProductoResponseDTO primero = resultado.get(1);
+        assertEquals("Spider-Man", primero.getNombre());
+        assertEquals("Película", primero.getTipoProductoNombre());
+        assertNull(primero.getTipoEmpresaId());
+        assertEquals(List.of("/img/1a.webp", "/img/1b.webp"), primero.getImagenes());
+        assertEquals(4990.0, primero.getLinksCompra().get(0).getPrecioActual());
+
+        // Una sola query por relación, sin importar la cantidad de productos
+        verify(productoRepository, times(1)).obtenerGenerosPorProductoIds(any());
+        verify(productoRepository, never()).findByIdFull(any());
+    }
+
+    @Test
+    @DisplayName("lista vacía no consulta la base de datos")
+    void listaVacia() {
+        assertTrue(detalleLoteService.cargar(List.of()).isEmpty());
+        verifyNoInteractions(productoRepository);
+    }
+
+    @Test
+    @DisplayName("ids inexistentes no cargan relaciones")
+    void idsInexistentes() {
+        when(productoRepository.obtenerDetalleBasePorIds(any())).thenReturn(List.of());
+
+        assertTrue(detalleLoteService.cargar(List.of(99L)).isEmpty());
+        verify(productoRepository, never()).obtenerImagenesPorProductoIds(any());
+    }
+
+    @Test
+    @DisplayName("muchos ids van en tramos de tamaño fijo")
+    void idsPorTramos() {
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+        when(productoRepository.obtenerDetalleBasePorIds(any())).thenAnswer(invocacion -> {
+            Collection<Long> tramo = invocacion.getArgument(0);
+            return tramo.stream().distinct().map(id -> filaBase(id, "P" + id)).toList();
+        });
+
+        List<ProductoResponseDTO> resultado = detalleLoteService.cargar(ids);
+
+        assertEquals(1200, resultado.size());
+        assertEquals(1200L, resultado.get(1199).getId());
+
+        // 500 + 500 + 200 (rellenado hasta 250)
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> tramos = ArgumentCaptor.forClass(Collection.class);
+        verify(productoRepository, times(3)).obtenerDetalleBasePorIds(tramos.capture());
+        assertEquals(List.of(500, 500, 250), tramos.getAllValues().stream().map(Collection::size).toList());
+        verify(productoRepository, times(3)).obtenerImagenesPorProductoIds(any());
+    }
+}
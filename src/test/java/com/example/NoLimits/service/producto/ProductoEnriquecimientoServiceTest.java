@@ -0,0 +1,148 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.model.producto.ProductoOutboxModel;
+import com.example.NoLimits.Multimedia.service.producto.ProductoEnriquecimientoService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoOutboxService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoService;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Worker del outbox de productos contra H2. ProductoService va mockeado:
+ * aquí solo importa qué eventos se procesan, cuáles se reintentan y cuándo
+ * se dan por fallidos. El worker automático está apagado en el perfil test;
+ * cada test llama a procesarPendientes() a mano.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "productos.outbox.max-intentos=3",
+        "productos.outbox.espera-base-segundos=60"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Outbox de productos · worker de enriquecimiento")
+class ProductoEnriquecimientoServiceTest {
+
+    @Autowired private ProductoEnriquecimientoService enriquecimientoService;
+    @Autowired private ProductoOutboxService outboxService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockBean private ProductoService productoService;
+
+    private Long conSteam;
+    private Long sinSteam;
+
+    @BeforeAll
+    void poblar() {
+        jdbcTemplate.update("INSERT INTO tipo_productos (nombre, activo) VALUES ('Videojuego', TRUE)");
+        jdbcTemplate.update("INSERT INTO estados (nombre, activo) VALUES ('Disponible', TRUE)");
+        jdbcTemplate.update("INSERT INTO plataforma (nombre) VALUES ('Steam')");
+        Long plataforma = jdbcTemplate.queryForObject("SELECT id FROM plataforma WHERE nombre = 'Steam'", Long.class);
+
+        conSteam = insertarProducto("Con Steam");
+        sinSteam = insertarProducto("Sin Steam");
+        jdbcTemplate.update("INSERT INTO producto_links_compra (producto_id, plataforma_id, url, app_id) VALUES (?, ?, ?, ?)",
+                conSteam, plataforma, "https://store.steampowered.com/app/730", "730");
+    }
+
+    @BeforeEach
+    void limpiarCola() {
+        jdbcTemplate.update("DELETE FROM producto_outbox");
+    }
+
+    @Test
+    @DisplayName("con appId llama a Steam y marca procesado; sin appId lo marca sin llamar")
+    void procesaPendientes() {
+        outboxService.registrarCreados(List.of(conSteam, sinSteam));
+
+        enriquecimientoService.procesarPendientes();
+
+        verify(productoService).enriquecerDesdeSteam(conSteam);
+        verify(productoService, never()).enriquecerDesdeSteam(sinSteam);
+        assertEquals(ProductoOutboxModel.PROCESADO, estado(conSteam));
+        assertEquals(ProductoOutboxModel.PROCESADO, estado(sinSteam));
+    }
+
+    @Test
+    @DisplayName("un fallo suma un intento y pospone el siguiente")
+    void falloSeReintentaMasTarde() {
+        doThrow(new RuntimeException("Steam caído")).when(productoService).enriquecerDesdeSteam(any());
+        outboxService.registrarCreados(List.of(conSteam));
+
+        enriquecimientoService.procesarPendientes();
+
+        verify(productoService, times(1)).enriquecerDesdeSteam(conSteam);
+        assertEquals(ProductoOutboxModel.PENDIENTE, estado(conSteam));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT intentos FROM producto_outbox WHERE producto_id = ?", Integer.class, conSteam));
+        Timestamp proximo = jdbcTemplate.queryForObject(
+                "SELECT proximo_intento FROM producto_outbox WHERE producto_id = ?", Timestamp.class, conSteam);
+        assertTrue(proximo.toLocalDateTime().isAfter(LocalDateTime.now().plusSeconds(30)));
+        assertEquals("Steam caído", jdbcTemplate.queryForObject(
+                "SELECT ultimo_error FROM producto_outbox WHERE producto_id = ?", String.class, conSteam));
+    }
+
+    @Test
+    @DisplayName("un fallo del embedding también deja el evento pendiente para reintentar")
+    void falloDeEmbeddingSeReintenta() {
+        doThrow(new RuntimeException("OpenAI no responde")).when(productoService).enriquecerDesdeSteam(any());
+        outboxService.registrarCreados(List.of(conSteam));
+
+        enriquecimientoService.procesarPendientes();
+
+        assertEquals(ProductoOutboxModel.PENDIENTE, estado(conSteam));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT intentos FROM producto_outbox WHERE producto_id = ?", Integer.class, conSteam));
+        assertEquals("OpenAI no responde", jdbcTemplate.queryForObject(
+                "SELECT ultimo_error FROM producto_outbox WHERE producto_id = ?", String.class, conSteam));
+    }
+
+    @Test
+    @DisplayName("al llegar a max-intentos el evento queda FALLIDO")
+    void agotaIntentos() {
+        doThrow(new RuntimeException("Steam caído")).when(productoService).enriquecerDesdeSteam(any());
+        outboxService.registrarCreados(List.of(conSteam));
+        jdbcTemplate.update("UPDATE producto_outbox SET intentos = 2 WHERE producto_id = ?", conSteam);
+
+        enriquecimientoService.procesarPendientes();
+
+        assertEquals(ProductoOutboxModel.FALLIDO, estado(conSteam));
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private Long insertarProducto(String nombre) {
+        jdbcTemplate.update("""
+                INSERT INTO productos (nombre, precio, tipo_producto_id, estado_id)
+                VALUES (?, 9990, (SELECT MIN(id) FROM tipo_productos), (SELECT MIN(id) FROM estados))
+                """, nombre);
+        return jdbcTemplate.queryForObject("SELECT id FROM productos WHERE nombre = ?", Long.class, nombre);
+    }
+
+    private String estado(Long productoId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT estado FROM producto_outbox WHERE producto_id = ?", String.class, productoId);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoFacetasFiltroDTO;
+import com.example.NoLimits.Multimedia.dto.producto.response.FacetaConteoDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoFacetasIndice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoFacetasIndiceTest {
+
+    // [id, tipoProductoId, estadoId, clasificacionId, anio, precio]
+    private static Object[] base(long id, long tipoId, long estadoId, Long clasificacionId, Integer anio, Double precio) {
+        return new Object[] { id, tipoId, estadoId, clasificacionId, anio, precio };
+    }
+
+    private static Object[] par(long productoId, long valorId) {
+        return new Object[] { productoId, valorId };
+    }
+
+    private ProductoFacetasIndice indiceBase() {
+        return ProductoFacetasIndice.desdeFilas(
+                List.of(
+                        base(3L, 1L, 1L, 2L, 2007, 9990.0),
+                        base(1L, 1L, 1L, 2L, 2002, 12990.0),
+                        base(2L, 2L, 1L, null, 2001, 29990.0),
+                        base(4L, 2L, 2L, 1L, null, null)
+                ),
+                Map.of(
+                        ProductoFacetasIndice.GENERO, List.of(par(1L, 10L), par(2L, 10L), par(3L, 11L), par(99L, 10L)),
+                        ProductoFacetasIndice.PLATAFORMA, List.of(par(2L, 20L), par(4L, 20L), par(4L, 21L))
+                ));
+    }
+
+    private static ProductoFacetasFiltroDTO filtro() {
+        return new ProductoFacetasFiltroDTO();
+    }
+
+    private static Map<Long, Long> conteos(List<FacetaConteoDTO> lista) {
+        return lista.stream().collect(java.util.stream.Collectors.toMap(FacetaConteoDTO::getId, FacetaConteoDTO::getCantidad));
+    }
+
+    @Test
+    @DisplayName("sin filtros devuelve todo ordenado por id y cuenta cada faceta")
+    void sinFiltros() {
+        ProductoFacetasIndice.Resultado resultado = indiceBase().filtrar(filtro());
+
+        assertEquals(4, resultado.getTotal());
+        assertEquals(List.of(1L, 2L, 3L, 4L), resultado.idsDePagina(1, 20));
+        assertEquals(Map.of(1L, 2L, 2L, 2L), conteos(resultado.getFacetas().get(ProductoFacetasIndice.TIPO_PRODUCTO)));
+        // el par del producto 99 (inexistente) se ignora
+        assertEquals(Map.of(10L, 2L, 11L, 1L), conteos(resultado.getFacetas().get(ProductoFacetasIndice.GENERO)));
+        assertTrue(resultado.getFacetas().get(ProductoFacetasIndice.EMPRESA).isEmpty());
+    }
+
+    @Test
+    @DisplayName("OR dentro de una faceta y AND entre facetas")
+    void combinaFacetas() {
+        ProductoFacetasFiltroDTO f = filtro();
+        f.setGeneroIds(List.of(10L, 11L));
+        f.setPlataformaIds(List.of(20L));
+
+        ProductoFacetasIndice.Resultado resultado = indiceBase().filtrar(f);
+
+        assertEquals(List.of(2L), resultado.idsDePagina(1, 20));
+    }
+
+    @Test
+    @DisplayName("los conteos de una faceta ignoran su propio filtro")
+    void conteosDisyuntivos() {
+        ProductoFacetasFiltroDTO f = filtro();
+        f.setTipoProductoIds(List.of(1L));
+        f.setGeneroIds(List.of(10L));
+
+        ProductoFacetasIndice.Resultado resultado = indiceBase().filtrar(f);
+
+        assertEquals(List.of(1L), resultado.idsDePagina(1, 20));
+        // género: solo aplica tipo=1 → productos 1 (g10) y 3 (g11)
+        assertEquals(Map.of(10L, 1L, 11L, 1L), conteos(resultado.getFacetas().get(ProductoFacetasIndice.GENERO)));
+        // tipo: solo aplica género=10 → productos 1 (t1) y 2 (t2)
+        assertEquals(Map.of(1L, 1L, 2L, 1L), conteos(resultado.getFacetas().get(ProductoFacetasIndice.TIPO_PRODUCTO)));
+    }
+
+    @Test
+    @DisplayName("rangos de año y precio excluyen valores null")
+    void rangos() {
+        ProductoFacetasFiltroDTO porAnio = filtro();
+        porAnio.setAnioDesde(2002);
+        assertEquals(List.of(1L, 3L), indiceBase().filtrar(porAnio).idsDePagina(1, 20));
+
+        ProductoFacetasFiltroDTO porPrecio = filtro();
+        porPrecio.setPrecioMin(10000.0);
+        porPrecio.setPrecioMax(30000.0);
+        assertEquals(List.of(1L, 2L), indiceBase().filtrar(porPrecio).idsDePagina(1, 20));
+    }
+
+    @Test
+    @DisplayName("pagina igual que PageRequest.of(page - 1, size)")
+    void paginacion() {
+        ProductoFacetasIndice.Resultado resultado = indiceBase().filtrar(filtro());
+
+        assertEquals(List.of(3L, 4L), resultado.idsDePagina(2, 2));
+        assertTrue(resultado.idsDePagina(5, 2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("valor inexistente no coincide con nada")
+    void valorInexistente() {
+        ProductoFacetasFiltroDTO f = filtro();
+        f.setEstadoIds(List.of(99L));
+
+        assertEquals(0, indiceBase().filtrar(f).getTotal());
+        assertEquals(0, ProductoFacetasIndice.vacio().filtrar(filtro()).getTotal());
+    }
+}
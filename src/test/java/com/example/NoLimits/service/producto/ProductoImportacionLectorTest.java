@@ -0,0 +1,141 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionCatalogos;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionLector;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionLector.Fila;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionLector.Formato;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoImportacionLectorTest {
+
+    private ProductoImportacionCatalogos catalogos() {
+        ProductoImportacionCatalogos catalogos = new ProductoImportacionCatalogos();
+        catalogos.agregar(ProductoImportacionCatalogos.TIPO_PRODUCTO, 1L, "Videojuego");
+        catalogos.agregar(ProductoImportacionCatalogos.ESTADO, 2L, "Disponible");
+        catalogos.agregar(ProductoImportacionCatalogos.CLASIFICACION, 3L, "T");
+        catalogos.agregar(ProductoImportacionCatalogos.GENERO, 10L, "Acción");
+        catalogos.agregar(ProductoImportacionCatalogos.GENERO, 11L, "Aventura");
+        catalogos.agregar(ProductoImportacionCatalogos.PLATAFORMA, 20L, "PC");
+        return catalogos;
+    }
+
+    private List<Fila> leer(String contenido, Formato formato) throws IOException {
+        List<Fila> filas = new ArrayList<>();
+        new ProductoImportacionLector(new ObjectMapper(), catalogos()).leer(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato, filas::add);
+        return filas;
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class Csv {
+
+        @Test
+        @DisplayName("resuelve catálogos por nombre o id y separa listas con |")
+        void catalogosYListas() throws IOException {
+            List<Fila> filas = leer("""
+                    nombre,precio,tipoProducto,estadoId,clasificacion,generos,imagenes
+                    Hades,12990,videojuego,2,T,accion|11,/img/a.webp|/img/b.webp
+                    """, Formato.CSV);
+
+            assertEquals(1, filas.size());
+            ProductoRequestDTO dto = filas.get(0).getProducto();
+            assertEquals("Hades", dto.getNombre());
+            assertEquals(12990.0, dto.getPrecio());
+            assertEquals(1L, dto.getTipoProductoId());
+            assertEquals(2L, dto.getEstadoId());
+            assertEquals(3L, dto.getClasificacionId());
+            assertEquals(List.of(10L, 11L), dto.getGenerosIds());
+            assertEquals(List.of("/img/a.webp", "/img/b.webp"), dto.getImagenesRutas());
+        }
+
+        @Test
+        @DisplayName("respeta comillas, comillas dobles y saltos de línea dentro de un campo")
+        void comillas() throws IOException {
+            List<Fila> filas = leer("""
+                    nombre;sinopsis
+                    "Uno; Dos";"Dice ""hola""
+                    en dos líneas"
+                    Tres;Simple
+                    """, Formato.CSV);
+
+            assertEquals(2, filas.size());
+            assertEquals("Uno; Dos", filas.get(0).getProducto().getNombre());
+            assertEquals("Dice \"hola\"\nen dos líneas", filas.get(0).getProducto().getSinopsis());
+            assertEquals(2, filas.get(0).getNumero());
+            assertEquals(4, filas.get(1).getNumero());
+        }
+
+        @Test
+        @DisplayName("una celda inválida marca solo esa fila")
+        void errorPorFila() throws IOException {
+            List<Fila> filas = leer("""
+                    nombre,precio,generos
+                    Bueno,100,Acción
+                    Malo,caro,Acción
+                    Otro,100,Terror
+                    """, Formato.CSV);
+
+            assertEquals(3, filas.size());
+            assertNull(filas.get(0).getError());
+            assertEquals(3, filas.get(1).getNumero());
+            assertTrue(filas.get(1).getError().contains("precio"));
+            assertTrue(filas.get(2).getError().contains("Terror"));
+        }
+
+        @Test
+        @DisplayName("sin columna nombre el archivo se rechaza")
+        void sinNombre() {
+            assertThrows(IllegalArgumentException.class, () -> leer("precio\n100\n", Formato.CSV));
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON")
+    class Ndjson {
+
+        @Test
+        @DisplayName("una línea por producto, saltando vacías y marcando JSON inválido")
+        void lineas() throws IOException {
+            List<Fila> filas = leer("""
+                    {"nombre":"Hades","tipoProductoId":1,"generosIds":[10],"linksCompra":[{"plataformaId":20,"url":"https://x","appId":"1145360"}]}
+
+                    {"nombre":
+                    """, Formato.NDJSON);
+
+            assertEquals(2, filas.size());
+            ProductoRequestDTO dto = filas.get(0).getProducto();
+            assertEquals("Hades", dto.getNombre());
+            assertEquals(List.of(10L), dto.getGenerosIds());
+            assertEquals("1145360", dto.getLinksCompra().get(0).getAppId());
+            assertEquals(3, filas.get(1).getNumero());
+            assertNotNull(filas.get(1).getError());
+        }
+    }
+
+    @Test
+    @DisplayName("errores() informa los ids que no existen, por catálogo")
+    void idsInexistentes() {
+        ProductoRequestDTO dto = new ProductoRequestDTO();
+        dto.setTipoProductoId(1L);
+        dto.setGenerosIds(List.of(10L, 99L, 98L));
+
+        List<String> errores = catalogos().errores(dto);
+
+        assertEquals(List.of("genero: IDs inexistentes [99, 98]"), errores);
+    }
+}
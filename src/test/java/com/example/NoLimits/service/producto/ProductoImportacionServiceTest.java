@@ -0,0 +1,133 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoImportacionResultadoDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionLector.Formato;
+import com.example.NoLimits.Multimedia.service.producto.ProductoImportacionService;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importación masiva contra H2: lotes JDBC con ids generados, tablas puente,
+ * errores por fila y eventos PRODUCTO_CREADO en el outbox.
+ *
+ * Lote de 2 filas para cubrir varios lotes y el reintento fila por fila.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_importacion;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "productos.importacion.lote=2"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Importación masiva de productos")
+class ProductoImportacionServiceTest {
+
+    @Autowired private ProductoImportacionService importacionService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    private Long plataformaId;
+
+    @BeforeAll
+    void poblarCatalogos() {
+        jdbcTemplate.update("INSERT INTO tipo_productos (nombre, activo) VALUES ('Videojuego', TRUE)");
+        jdbcTemplate.update("INSERT INTO estados (nombre, activo) VALUES ('Disponible', TRUE)");
+        jdbcTemplate.update("INSERT INTO clasificaciones (nombre, activo) VALUES ('T', TRUE)");
+        jdbcTemplate.update("INSERT INTO genero (nombre) VALUES ('Acción')");
+        jdbcTemplate.update("INSERT INTO genero (nombre) VALUES ('Aventura')");
+        jdbcTemplate.update("INSERT INTO plataforma (nombre) VALUES ('PC')");
+        plataformaId = jdbcTemplate.queryForObject("SELECT id FROM plataforma WHERE nombre = 'PC'", Long.class);
+    }
+
+    @Test
+    @DisplayName("CSV: inserta las filas válidas con relaciones y reporta las demás por línea")
+    void csvConErrores() throws IOException {
+        ProductoImportacionResultadoDTO resultado = importar("""
+                nombre,precio,tipoProducto,estado,clasificacion,generos,plataformas,imagenes
+                CSV Uno,100,Videojuego,Disponible,T,Acción|Aventura,PC,/img/1a.webp|/img/1b.webp
+                CSV Dos,200,Videojuego,Disponible,T,Acción,,
+                ,300,Videojuego,Disponible,T,,,
+                CSV Cuatro,400,Videojuego,Disponible,T,Terror,,
+                CSV Cinco,500,Videojuego,Disponible,T,,,
+                """, Formato.CSV);
+
+        assertEquals(5, resultado.getLeidas());
+        assertEquals(3, resultado.getInsertadas());
+        assertEquals(2, resultado.getRechazadas());
+        assertEquals(List.of(4L, 5L), resultado.getErrores().stream().map(e -> e.getFila()).toList());
+
+        Long id = idDe("CSV Uno");
+        assertEquals(2, contar("generos", id));
+        assertEquals(1, contar("plataformas", id));
+        assertEquals(2, contar("imagenes", id));
+        assertEquals("/img/1a.webp",
+                jdbcTemplate.queryForObject("SELECT imagen_portada FROM productos WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    @DisplayName("NDJSON: cada producto deja su evento en el outbox, con links normalizados")
+    void ndjsonRegistraOutbox() throws IOException {
+        ProductoImportacionResultadoDTO resultado = importar("""
+                {"nombre":"JSON Steam","tipoProductoId":%1$d,"estadoId":%1$d,"clasificacionId":%1$d,"linksCompra":[{"plataformaId":%2$d,"url":"https://store.steampowered.com/app/1145360","appId":"1145360"}]}
+                {"nombre":"JSON Sin Steam","tipoProductoId":%1$d,"estadoId":%1$d,"clasificacionId":%1$d}
+                """.formatted(1, plataformaId), Formato.NDJSON);
+
+        assertEquals(2, resultado.getInsertadas());
+
+        Long conSteam = idDe("JSON Steam");
+        assertEquals("PC", jdbcTemplate.queryForObject(
+                "SELECT label FROM producto_links_compra WHERE producto_id = ?", String.class, conSteam));
+        assertEquals(1, contar("producto_outbox", conSteam));
+        assertEquals(1, contar("producto_outbox", idDe("JSON Sin Steam")));
+    }
+
+    @Test
+    @DisplayName("un error de BD en un lote solo rechaza la fila culpable")
+    void reintentoFilaPorFila() throws IOException {
+        String largo = "x".repeat(300);
+        ProductoImportacionResultadoDTO resultado = importar("""
+                {"nombre":"Lote Bueno","tipoProductoId":1,"estadoId":1,"clasificacionId":1}
+                {"nombre":"Lote Malo","tipoProductoId":1,"estadoId":1,"clasificacionId":1,"imagenesRutas":["%s"]}
+                """.formatted(largo), Formato.NDJSON);
+
+        assertEquals(1, resultado.getInsertadas());
+        assertEquals(1, resultado.getRechazadas());
+        assertEquals(2, resultado.getErrores().get(0).getFila());
+        assertTrue(resultado.getErrores().get(0).getMensaje().startsWith("No se pudo guardar"));
+        assertEquals(1, contarPorNombre("Lote Bueno"));
+        assertEquals(0, contarPorNombre("Lote Malo"));
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private ProductoImportacionResultadoDTO importar(String contenido, Formato formato) throws IOException {
+        return importacionService.importar(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+
+    private Long idDe(String nombre) {
+        return jdbcTemplate.queryForObject("SELECT id FROM productos WHERE nombre = ?", Long.class, nombre);
+    }
+
+    private int contar(String tabla, Long productoId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE producto_id = ?", Integer.class, productoId);
+    }
+
+    private int contarPorNombre(String nombre) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM productos WHERE nombre = ?", Integer.class, nombre);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshot;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshotService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ProductoResumenSnapshotService — escrituras agrupadas")
+class ProductoResumenSnapshotServiceTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @InjectMocks
+    private ProductoResumenSnapshotService service;
+
+    // [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga, imagenPortada, tipoId, estadoId]
+    private static Object[] fila(long id, String nombre) {
+        return new Object[] { id, nombre, 1000.0, "Tipo", "Estado", null, null, null, 1L, 1L };
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(service, "habilitado", true);
+        when(productoRepository.obtenerResumenSnapshot())
+                .thenReturn(filas(fila(1L, "Halo"), fila(2L, "Zelda"), fila(3L, "Doom")));
+    }
+
+    @Test
+    @DisplayName("varias escrituras seguidas se aplican en una sola versión nueva")
+    void agrupaEscrituras() {
+        ReflectionTestUtils.setField(service, "esperaMs", 60_000L);
+        long versionInicial = service.obtener().getVersion();
+        when(productoRepository.obtenerResumenSnapshotPorIds(anyCollection()))
+                .thenReturn(filas(fila(1L, "Halo 2"), fila(4L, "Nuevo")));
+
+        service.refrescarProducto(1L);
+        service.refrescarProducto(4L);
+        service.quitarProducto(2L);
+
+        // Todavía no se aplicó nada
+        assertEquals(versionInicial, service.obtener().getVersion());
+        verify(productoRepository, never()).obtenerResumenSnapshotPorIds(anyCollection());
+
+        service.aplicarPendientes();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(productoRepository, times(1)).obtenerResumenSnapshotPorIds(ids.capture());
+        assertEquals(Set.of(1L, 2L, 4L), Set.copyOf(ids.getValue()));
+
+        ProductoResumenSnapshot snapshot = service.obtener();
+        assertEquals(versionInicial + 1, snapshot.getVersion());
+        assertEquals(List.of("Halo 2", "Doom", "Nuevo"),
+                snapshot.todos().stream().map(dto -> dto.getNombre()).toList());
+    }
+
+    @Test
+    @DisplayName("con espera-ms=0 cada escritura se aplica al momento")
+    void sinEspera() {
+        ReflectionTestUtils.setField(service, "esperaMs", 0L);
+        service.obtener();
+        when(productoRepository.obtenerResumenSnapshotPorIds(anyCollection()))
+                .thenReturn(filas(fila(3L, "Doom Eternal")));
+
+        service.refrescarProducto(3L);
+
+        assertEquals("Doom Eternal", service.obtener().todos().get(2).getNombre());
+    }
+
+    @Test
+    @DisplayName("sin foto cargada no consulta: la primera lectura ya trae los cambios")
+    void sinFotoNoConsulta() {
+        ReflectionTestUtils.setField(service, "esperaMs", 0L);
+
+        service.refrescarProducto(1L);
+
+        verify(productoRepository, never()).obtenerResumenSnapshotPorIds(anyCollection());
+        verify(productoRepository, never()).obtenerResumenSnapshot();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.pagination.CursorKeyset;
+import com.example.NoLimits.Multimedia.dto.pagination.PagedResponse;
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoResumenSnapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoResumenSnapshotTest {
+
+    // [id, nombre, precio, tipoNombre, estadoNombre, saga, portadaSaga, imagenPortada, tipoId, estadoId]
+    private static Object[] fila(long id, String nombre, Double precio, long tipoId, long estadoId, String saga) {
+        return new Object[] {
+                id, nombre, precio,
+                "Tipo " + tipoId, "Estado " + estadoId,
+                saga, saga != null ? "/sagas/" + saga + ".webp" : null,
+                "/img/" + id + ".webp",
+                tipoId, estadoId
+        };
+    }
+
+    private ProductoResumenSnapshot snapshotBase() {
+        return ProductoResumenSnapshot.desdeFilas(1L, List.of(
+                fila(3L, "Spider-Man 3", 9990.0, 1L, 1L, "Spiderman"),
+                fila(1L, "Spider-Man", 12990.0, 1L, 1L, "Spiderman"),
+                fila(2L, "Halo", null, 2L, 2L, null),
+                fila(4L, "Teclado", 29990.0, 3L, 1L, null)
+        ));
+    }
+
+    @Nested
+    @DisplayName("Construcción")
+    class Construccion {
+
+        @Test
+        @DisplayName("ordena las filas por id ascendente")
+        void ordenaPorId() {
+            List<ProductoResumenDTO> todos = snapshotBase().todos();
+
+            assertEquals(List.of(1L, 2L, 3L, 4L),
+                    todos.stream().map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("respeta precio null")
+        void precioNull() {
+            ProductoResumenDTO halo = snapshotBase().todos().get(1);
+
+            assertEquals("Halo", halo.getNombre());
+            assertNull(halo.getPrecio());
+            assertEquals("/img/2.webp", halo.getImagenPortada());
+        }
+
+        @Test
+        @DisplayName("snapshot vacío no tiene filas")
+        void vacio() {
+            ProductoResumenSnapshot vacio = ProductoResumenSnapshot.vacio();
+
+            assertEquals(0, vacio.size());
+            assertTrue(vacio.todos().isEmpty());
+            assertEquals(0, vacio.pagina(1, 20).getTotalElementos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Paginación e índices")
+    class Paginacion {
+
+        @Test
+        @DisplayName("pagina igual que PageRequest.of(page - 1, size)")
+        void paginaGeneral() {
+            PagedResponse<ProductoResumenDTO> pagina2 = snapshotBase().pagina(2, 3);
+
+            assertEquals(2, pagina2.getPagina());
+            assertEquals(2, pagina2.getTotalPaginas());
+            assertEquals(4, pagina2.getTotalElementos());
+            assertEquals(1, pagina2.getContenido().size());
+            assertEquals(4L, pagina2.getContenido().get(0).getId());
+        }
+
+        @Test
+        @DisplayName("página fuera de rango devuelve contenido vacío")
+        void paginaFueraDeRango() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().pagina(10, 20);
+
+            assertTrue(pagina.getContenido().isEmpty());
+            assertEquals(4, pagina.getTotalElementos());
+        }
+
+        @Test
+        @DisplayName("filtra por tipo de producto")
+        void porTipo() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().paginaPorTipo(1L, 1, 20);
+
+            assertEquals(2, pagina.getTotalElementos());
+            assertEquals(List.of(1L, 3L),
+                    pagina.getContenido().stream().map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("filtra por estado")
+        void porEstado() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().paginaPorEstado(1L, 1, 2);
+
+            assertEquals(3, pagina.getTotalElementos());
+            assertEquals(2, pagina.getTotalPaginas());
+            assertEquals(List.of(1L, 3L),
+                    pagina.getContenido().stream().map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("filtra por saga sin importar mayúsculas")
+        void porSagaIgnoreCase() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().paginaPorSaga("SPIDERMAN", 1, 20);
+
+            assertEquals(2, pagina.getTotalElementos());
+            assertEquals("Spiderman", pagina.getContenido().get(0).getSaga());
+        }
+
+        @Test
+        @DisplayName("porIds respeta el orden pedido y omite ids inexistentes")
+        void porIds() {
+            List<ProductoResumenDTO> filas = snapshotBase().porIds(List.of(4L, 99L, 1L));
+
+            assertEquals(List.of(4L, 1L), filas.stream().map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("valor sin productos devuelve página vacía")
+        void sinCoincidencias() {
+            assertEquals(0, snapshotBase().paginaPorTipo(99L, 1, 20).getTotalElementos());
+            assertEquals(0, snapshotBase().paginaPorSaga(null, 1, 20).getTotalElementos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Modo cursor")
+    class ModoCursor {
+
+        @Test
+        @DisplayName("recorre todo el catálogo con siguienteCursor")
+        void recorreConCursor() {
+            ProductoResumenSnapshot snapshot = snapshotBase();
+
+            PagedResponse<ProductoResumenDTO> primera = snapshot.despuesDe(0L, 3, false);
+            assertEquals(List.of(1L, 2L, 3L),
+                    primera.getContenido().stream().map(ProductoResumenDTO::getId).toList());
+            assertTrue(primera.getHayMas());
+            assertEquals(-1L, primera.getTotalElementos());
+
+            long cursor = CursorKeyset.decodificar(primera.getSiguienteCursor());
+            PagedResponse<ProductoResumenDTO> segunda = snapshot.despuesDe(cursor, 3, true);
+            assertEquals(List.of(4L),
+                    segunda.getContenido().stream().map(ProductoResumenDTO::getId).toList());
+            assertFalse(segunda.getHayMas());
+            assertNull(segunda.getSiguienteCursor());
+            assertEquals(4L, segunda.getTotalElementos());
+        }
+
+        @Test
+        @DisplayName("el cursor no depende de ids existentes")
+        void cursorEntreIds() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().porEstadoDespuesDe(1L, 2L, 20, false);
+
+            assertEquals(List.of(3L, 4L),
+                    pagina.getContenido().stream().map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("filtra por saga con cursor")
+        void porSaga() {
+            PagedResponse<ProductoResumenDTO> pagina = snapshotBase().porSagaDespuesDe("spiderman", 1L, 20, true);
+
+            assertEquals(1, pagina.getContenido().size());
+            assertEquals(3L, pagina.getContenido().get(0).getId());
+            assertEquals(2L, pagina.getTotalElementos());
+        }
+    }
+
+    @Nested
+    @DisplayName("Cambios incrementales")
+    class Cambios {
+
+        @Test
+        @DisplayName("inserta, reemplaza y elimina generando una nueva versión")
+        void conCambios() {
+            ProductoResumenSnapshot base = snapshotBase();
+
+            ProductoResumenSnapshot nueva = base.conCambios(
+                    List.of(
+                            fila(5L, "Nuevo", 1000.0, 2L, 1L, null),
+                            fila(1L, "Spider-Man (2002)", 12990.0, 1L, 2L, "Spiderman")
+                    ),
+                    Set.of(4L)
+            );
+
+            assertEquals(base.getVersion() + 1, nueva.getVersion());
+            assertEquals(4, nueva.size());
+            assertFalse(nueva.contiene(4L));
+            assertTrue(nueva.contiene(5L));
+            assertEquals("Spider-Man (2002)", nueva.todos().get(0).getNombre());
+
+            // Los índices se recalculan con los nuevos valores
+            assertEquals(List.of(3L, 5L),
+                    nueva.paginaPorEstado(1L, 1, 20).getContenido().stream()
+                            .map(ProductoResumenDTO::getId).toList());
+        }
+
+        @Test
+        @DisplayName("la foto anterior no cambia")
+        void inmutable() {
+            ProductoResumenSnapshot base = snapshotBase();
+
+            base.conCambios(List.of(), Set.of(1L, 2L));
+
+            assertEquals(4, base.size());
+            assertTrue(base.contiene(1L));
+        }
+
+        @Test
+        @DisplayName("modificar un DTO devuelto no altera la foto")
+        void dtosIndependientes() {
+            ProductoResumenSnapshot base = snapshotBase();
+
+            base.todos().get(0).setNombre("cambiado");
+
+            assertEquals("Spider-Man", base.todos().get(0).getNombre());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.NoLimits.service.producto;
 
 import com.example.NoLimits.Multimedia._exceptions.RecursoNoEncontradoException;
+import com.example.NoLimits.Multimedia.dto.pagination.CursorKeyset;
 import com.example.NoLimits.Multimedia.dto.producto.request.ProductoRequestDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResponseDTO;
 import com.example.NoLimits.Multimedia.dto.producto.response.ProductoResumenDTO;
@@ -23,11 +24,12 @@ import com.example.NoLimits.Multimedia.repository.catalogos.TipoProductoReposito
 import com.example.NoLimits.Multimedia.repository.producto.DetalleVentaRepository;
 import com.example.NoLimits.Multimedia.repository.producto.ProductoRepository;
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoOutboxService;
+import com.example.NoLimits.Multimedia.service.producto.ProductoRelacionesLoteService;
 import com.example.NoLimits.Multimedia.service.producto.ProductoService;
-import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
 import com.example.NoLimits.config.AbstractContainerBaseTest;
 import com.example.NoLimits.Multimedia.repository.catalogos.*;
-import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
 import com.example.NoLimits.Multimedia.service.ai.ProductoEmbeddingService;
 import com.example.NoLimits.Multimedia.dto.producto.request.LinkCompraDTO;
 import com.example.NoLimits.Multimedia.model.catalogos.EmpresaModel;
@@ -52,6 +54,7 @@ import java.util.Set;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -117,11 +120,19 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
     private TipoDeDesarrolladorRepository tipoDeDesarrolladorRepository;
 
     @MockBean 
-    private ScrapingClientService scrapingClientService;
+    private PrecioSteamCacheService precioSteamCacheService;
 
     @MockBean 
     private ProductoEmbeddingService productoEmbeddingService;
 
+    // Las filas puente nuevas van por batch JDBC; aquí solo se revisa qué se mandó
+    @MockBean
+    private ProductoRelacionesLoteService relacionesLoteService;
+
+    // El alta solo deja el evento PRODUCTO_CREADO; Steam va en segundo plano
+    @MockBean
+    private ProductoOutboxService outboxService;
+
     // ==========================
     // Helpers
     // ==========================
@@ -172,6 +183,24 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         return dto;
     }
 
+    // Columnas de ProductoRepository.obtenerDetalleBasePorIds()
+    private Object[] filaDetalleBase(Long id, String nombre) {
+        return new Object[]{
+            id, nombre, 29990.0, null, null, 2020,
+            1L, "Accesorio", 1L, "Todo espectador",
+            1L, "Activo", null, null,
+            null, null, "Spiderman", "/assets/img/sagas/spidermanSaga.webp"
+        };
+    }
+
+    // Filas puente que ProductoService dejó para insertar en batch
+    private ProductoRelacionesLoteService.Pendientes pendientesEscritos() {
+        ArgumentCaptor<ProductoRelacionesLoteService.Pendientes> captor =
+                ArgumentCaptor.forClass(ProductoRelacionesLoteService.Pendientes.class);
+        verify(relacionesLoteService).escribir(any(), captor.capture());
+        return captor.getValue();
+    }
+
     private Object[] filaResumen() {
         return new Object[]{
             1L,
@@ -306,6 +335,29 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         assertEquals("Activo", res.getEstadoNombre());
     }
 
+    @Test
+    @DisplayName("save deja el evento en el outbox y no llama a Steam")
+    void testSave_RegistraEventoSinLlamarASteam() {
+        ProductoRequestDTO dto = requestBase();
+
+        when(tipoProductoRepository.findById(1L)).thenReturn(Optional.of(tipoProducto()));
+        when(clasificacionRepository.findById(1L)).thenReturn(Optional.of(clasificacion()));
+        when(estadoRepository.findById(1L)).thenReturn(Optional.of(estado()));
+        when(productoRepository.save(any(ProductoModel.class)))
+                .thenAnswer(inv -> {
+                    ProductoModel p = inv.getArgument(0);
+                    p.setId(1L);
+                    return p;
+                });
+        when(productoRepository.findByIdFull(1L)).thenReturn(Optional.of(productoEntity()));
+
+        productoService.save(dto);
+
+        verify(outboxService).registrarCreado(1L);
+        verify(precioSteamCacheService, never()).obtenerPrecioSteam(any());
+        verify(productoRepository, times(1)).findByIdFull(1L);
+    }
+
     @Test
     @DisplayName("save continúa cuando Steam falla")
     void testSave_ContinuaCuandoSteamFalla() {
@@ -397,7 +449,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 .thenReturn(Optional.of(productoEntity()));
 
         doThrow(new RuntimeException("steam error"))
-                .when(scrapingClientService)
+                .when(precioSteamCacheService)
                 .obtenerPrecioSteam(any());
 
         assertDoesNotThrow(() -> productoService.save(dto));
@@ -755,8 +807,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
     @Test
     public void testFindByNombre() {
-        when(productoRepository.findByNombre("Teclado Mecánico"))
-                .thenReturn(List.of(productoEntity()));
+        when(productoRepository.findIdsByNombre("Teclado Mecánico"))
+                .thenReturn(List.of(1L));
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.<Object[]>of(filaDetalleBase(1L, "Teclado Mecánico")));
 
         List<ProductoResponseDTO> productos =
                 productoService.findByNombre("Teclado Mecánico");
@@ -764,6 +818,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         assertNotNull(productos);
         assertEquals(1, productos.size());
         assertEquals("Teclado Mecánico", productos.get(0).getNombre());
+        verify(productoRepository, never()).findByNombre(any());
     }
 
         @Test
@@ -795,8 +850,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
     @Test
     public void testFindByClasificacion() {
-        when(productoRepository.findByClasificacion_Id(1L))
-                .thenReturn(List.of(productoEntity()));
+        when(productoRepository.findIdsByClasificacionId(1L))
+                .thenReturn(List.of(1L));
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.<Object[]>of(filaDetalleBase(1L, "Teclado Mecánico")));
 
         List<ProductoResponseDTO> productos =
                 productoService.findByClasificacion(1L);
@@ -821,8 +878,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
     @Test
     public void testFindByTipoProductoAndEstado() {
-        when(productoRepository.findByTipoProducto_IdAndEstado_Id(1L, 1L))
-                .thenReturn(List.of(productoEntity()));
+        when(productoRepository.findIdsByTipoProductoIdAndEstadoId(1L, 1L))
+                .thenReturn(List.of(1L));
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.<Object[]>of(filaDetalleBase(1L, "Teclado Mecánico")));
 
         List<ProductoResponseDTO> productos =
                 productoService.findByTipoProductoAndEstado(1L, 1L);
@@ -885,6 +944,46 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         assertEquals("Teclado Mecánico", resultado.getContenido().get(0).getNombre());
     }
 
+    @Test
+    public void testFindAllKeyset_hayMas() {
+        Object[] fila1 = filaResumen();
+        Object[] fila2 = filaResumen().clone();
+        fila2[0] = 2L;
+
+        // size = 1 → se piden 2 filas; la segunda indica que hay página siguiente
+        when(productoRepository.obtenerResumenKeyset(eq(0L), any()))
+                .thenReturn(List.of(fila1, fila2));
+
+        var resultado = productoService.findAllKeyset(null, 1, false);
+
+        assertEquals(1, resultado.getContenido().size());
+        assertEquals(1L, resultado.getContenido().get(0).getId());
+        assertTrue(resultado.getHayMas());
+        assertEquals(CursorKeyset.codificar(1L), resultado.getSiguienteCursor());
+        assertEquals(-1L, resultado.getTotalElementos());
+        verify(productoRepository, never()).count();
+    }
+
+    @Test
+    public void testFindAllKeyset_ultimaPaginaConTotal() {
+        when(productoRepository.obtenerResumenKeyset(eq(1L), any()))
+                .thenReturn(List.<Object[]>of(filaResumen()));
+        when(productoRepository.count()).thenReturn(2L);
+
+        var resultado = productoService.findAllKeyset(CursorKeyset.codificar(1L), 20, true);
+
+        assertFalse(resultado.getHayMas());
+        assertNull(resultado.getSiguienteCursor());
+        assertEquals(2L, resultado.getTotalElementos());
+        assertEquals(1, resultado.getTotalPaginas());
+    }
+
+    @Test
+    public void testFindByTipoProductoKeyset_cursorInvalido() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productoService.findByTipoProductoKeyset(1L, "no-es-un-cursor", 20, false));
+    }
+
     @Test
     public void testFindBySaga_OK() {
         List<Object[]> filas = Collections.singletonList(filaResumen());
@@ -905,14 +1004,15 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         when(productoRepository.findIdsBySagaIgnoreCase("Spiderman"))
                 .thenReturn(List.of(1L));
 
-        when(productoRepository.findByIdFull(1L))
-                .thenReturn(Optional.of(productoEntity()));
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.<Object[]>of(filaDetalleBase(1L, "Teclado Mecánico")));
 
         var resultado = productoService.findBySagaCompleto("Spiderman");
 
         assertNotNull(resultado);
         assertEquals(1, resultado.size());
         assertEquals("Teclado Mecánico", resultado.get(0).getNombre());
+        verify(productoRepository, never()).findByIdFull(any());
     }
 
     @Test
@@ -921,11 +1021,9 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         when(productoRepository.findIdsBySagaIgnoreCase("Halo"))
                 .thenReturn(List.of(1L, 2L));
 
-        when(productoRepository.findByIdFull(1L))
-                .thenReturn(Optional.of(productoEntity()));
-
-        when(productoRepository.findByIdFull(2L))
-                .thenReturn(Optional.empty());
+        // el id 2 ya no existe: la query en lote solo devuelve el 1
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.<Object[]>of(filaDetalleBase(1L, "Halo")));
 
         List<ProductoResponseDTO> resultado =
                 productoService.findBySagaCompleto("Halo");
@@ -939,8 +1037,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         when(productoRepository.findIdsBySagaIgnoreCase("Halo"))
                 .thenReturn(List.of(1L));
 
-        when(productoRepository.findByIdFull(1L))
-                .thenReturn(Optional.empty());
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.of());
 
         List<ProductoResponseDTO> resultado =
                 productoService.findBySagaCompleto("Halo");
@@ -955,8 +1053,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
         when(productoRepository.findIdsBySagaIgnoreCase("Spiderman"))
                 .thenReturn(List.of(1L));
 
-        when(productoRepository.findByIdFull(1L))
-                .thenReturn(Optional.empty());
+        when(productoRepository.obtenerDetalleBasePorIds(any()))
+                .thenReturn(List.of());
 
         var resultado =
                 productoService.findBySagaCompleto("Spiderman");
@@ -1110,7 +1208,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                     .thenReturn(Optional.of(producto))
                     .thenReturn(Optional.of(producto));
 
-            when(scrapingClientService.obtenerPrecioSteam("730"))
+            when(precioSteamCacheService.obtenerPrecioSteam("730"))
                     .thenReturn(datosSteam);
 
             when(productoRepository.save(any(ProductoModel.class)))
@@ -1129,7 +1227,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
             assertEquals("Free To Play", linkSteam.getPrecioFormato());
             assertEquals("CLP", linkSteam.getMoneda());
 
-            verify(scrapingClientService).obtenerPrecioSteam("730");
+            verify(precioSteamCacheService).obtenerPrecioSteam("730");
             verify(productoRepository).save(producto);
         }
 
@@ -1142,7 +1240,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
             assertThrows(RecursoNoEncontradoException.class,
                     () -> productoService.actualizarPrecioDesdeSteam(99L));
 
-            verify(scrapingClientService, never()).obtenerPrecioSteam(any());
+            verify(precioSteamCacheService, never()).obtenerPrecioSteam(any());
             verify(productoRepository, never()).save(any());
         }
 
@@ -1158,7 +1256,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
             assertThrows(RecursoNoEncontradoException.class,
                     () -> productoService.actualizarPrecioDesdeSteam(1L));
 
-            verify(scrapingClientService, never()).obtenerPrecioSteam(any());
+            verify(precioSteamCacheService, never()).obtenerPrecioSteam(any());
             verify(productoRepository, never()).save(any());
         }
 
@@ -1179,7 +1277,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.actualizarPrecioDesdeSteam(1L));
 
-                verify(scrapingClientService, never())
+                verify(precioSteamCacheService, never())
                         .obtenerPrecioSteam(any());
 
                 verify(productoRepository, never())
@@ -1206,7 +1304,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(scrapingClientService.obtenerPrecioSteam("730"))
+                when(precioSteamCacheService.obtenerPrecioSteam("730"))
                         .thenReturn(Map.of(
                                 "nombre", "CS2",
                                 "precio", 0,
@@ -1227,6 +1325,42 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 );
         }
 
+        @Test
+        @DisplayName("enriquecerDesdeSteam propaga el fallo del embedding (reintento del outbox)")
+        void testEnriquecerDesdeSteam_EmbeddingFallaSePropaga() {
+
+                ProductoModel producto = productoEntity();
+
+                ProductoLinkCompraModel link = new ProductoLinkCompraModel();
+                link.setAppId("730");
+                producto.setLinksCompra(new HashSet<>(List.of(link)));
+
+                when(productoRepository.findByIdFull(1L))
+                        .thenReturn(Optional.of(producto));
+
+                when(precioSteamCacheService.obtenerPrecioSteam("730"))
+                        .thenReturn(Map.of(
+                                "nombre", "CS2",
+                                "precio", 0,
+                                "precioFormato", "Free",
+                                "moneda", "CLP",
+                                "urlPlataforma", "url"
+                        ));
+
+                when(productoRepository.save(any()))
+                        .thenAnswer(inv -> inv.getArgument(0));
+
+                doThrow(new RuntimeException("OpenAI no responde"))
+                        .when(productoEmbeddingService)
+                        .guardarEmbeddingProducto(any(), any());
+
+                RuntimeException error = assertThrows(RuntimeException.class,
+                        () -> productoService.enriquecerDesdeSteam(1L));
+
+                assertEquals("OpenAI no responde", error.getMessage());
+                verify(productoRepository).save(producto);
+        }
+
      
     }
 
@@ -1275,8 +1409,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any(ProductoModel.class)))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -1284,16 +1418,20 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 ProductoResponseDTO resultado = productoService.patch(1L, dto);
 
                 assertNotNull(resultado);
-                assertEquals(1, producto.getLinksCompra().size());
+                assertEquals(0, producto.getLinksCompra().size());
 
-                ProductoLinkCompraModel link = producto.getLinksCompra().iterator().next();
+                List<ProductoLinkCompraModel> nuevos = pendientesEscritos().getLinks();
+                assertEquals(1, nuevos.size());
 
+                ProductoLinkCompraModel link = nuevos.get(0);
+
+                assertEquals(plataforma, link.getPlataforma());
                 assertEquals("https://store.steampowered.com/app/730", link.getUrl());
                 assertEquals("Steam", link.getLabel());
                 assertEquals("730", link.getAppId());
                 assertEquals(0.0, link.getPrecioActual());
 
-                verify(plataformaRepository).findById(1L);
+                verify(plataformaRepository).findAllById(Set.of(1L));
                 verify(productoRepository).save(producto);
         }
 
@@ -1343,7 +1481,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 assertEquals(9990.0, linkExistente.getPrecioActual());
                 assertNotNull(linkExistente.getFechaUltimaActualizacion());
 
-                verify(plataformaRepository, never()).findById(any());
+                verify(plataformaRepository, never()).findAllById(any());
                 verify(productoRepository).save(producto);
         }
 
@@ -1409,8 +1547,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(productoRepository.findByIdFull(1L))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(plataformaRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.patch(1L, dto));
@@ -1441,8 +1579,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -1450,7 +1588,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 productoService.patch(1L, dto);
 
                 ProductoLinkCompraModel creado =
-                producto.getLinksCompra().iterator().next();
+                pendientesEscritos().getLinks().get(0);
 
                 assertEquals("Steam", creado.getLabel());
         }
@@ -1477,8 +1615,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -1551,13 +1689,17 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
 
                 productoService.patch(1L, dto);
+
+                List<ProductoLinkCompraModel> nuevos = pendientesEscritos().getLinks();
+                assertEquals(1, nuevos.size());
+                assertEquals("url2", nuevos.get(0).getUrl());
         }
 
         @Test
@@ -1704,8 +1846,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -1713,7 +1855,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 productoService.patch(1L, dto);
 
                 ProductoLinkCompraModel creado =
-                producto.getLinksCompra().iterator().next();
+                pendientesEscritos().getLinks().get(0);
 
                 assertEquals("Steam", creado.getLabel());
         }
@@ -1800,10 +1942,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(empresaRepository.findById(1L)).thenReturn(Optional.of(empresa));
-                when(generoRepository.findById(2L)).thenReturn(Optional.of(genero));
-                when(plataformaRepository.findById(3L)).thenReturn(Optional.of(plataforma));
-                when(desarrolladorRepository.findById(4L)).thenReturn(Optional.of(desarrollador));
+                when(empresaRepository.findAllById(Set.of(1L))).thenReturn(List.of(empresa));
+                when(generoRepository.findAllById(Set.of(2L))).thenReturn(List.of(genero));
+                when(plataformaRepository.findAllById(Set.of(3L))).thenReturn(List.of(plataforma));
+                when(desarrolladorRepository.findAllById(Set.of(4L))).thenReturn(List.of(desarrollador));
 
                 when(productoRepository.save(any(ProductoModel.class)))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -1811,15 +1953,17 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 ProductoResponseDTO resultado = productoService.patch(1L, dto);
 
                 assertNotNull(resultado);
-                assertEquals(1, producto.getEmpresas().size());
-                assertEquals(1, producto.getGeneros().size());
-                assertEquals(1, producto.getPlataformas().size());
-                assertEquals(1, producto.getDesarrolladores().size());
 
-                verify(empresaRepository).findById(1L);
-                verify(generoRepository).findById(2L);
-                verify(plataformaRepository).findById(3L);
-                verify(desarrolladorRepository).findById(4L);
+                ProductoRelacionesLoteService.Pendientes pendientes = pendientesEscritos();
+                assertEquals(List.of(1L), pendientes.getEmpresaIds());
+                assertEquals(List.of(2L), pendientes.getGeneroIds());
+                assertEquals(List.of(3L), pendientes.getPlataformaIds());
+                assertEquals(List.of(4L), pendientes.getDesarrolladorIds());
+
+                verify(empresaRepository).findAllById(Set.of(1L));
+                verify(generoRepository).findAllById(Set.of(2L));
+                verify(plataformaRepository).findAllById(Set.of(3L));
+                verify(desarrolladorRepository).findAllById(Set.of(4L));
                 verify(productoRepository).save(producto);
         }
 
@@ -1865,8 +2009,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(productoRepository.findByIdFull(1L))
                         .thenReturn(Optional.of(producto));
 
-                when(empresaRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(empresaRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.patch(1L, dto));
@@ -1886,8 +2030,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(productoRepository.findByIdFull(1L))
                         .thenReturn(Optional.of(producto));
 
-                when(generoRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(generoRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.patch(1L, dto));
@@ -1910,8 +2054,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(productoRepository.findByIdFull(1L))
                         .thenReturn(Optional.of(producto));
 
-                when(desarrolladorRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(desarrolladorRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.patch(1L, dto));
@@ -1932,8 +2076,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(productoRepository.findByIdFull(1L))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(plataformaRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.patch(1L, dto));
@@ -1942,6 +2086,33 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
         }
 
+        @Test
+        @DisplayName("busca los géneros nuevos en una sola query y reporta todos los faltantes juntos")
+        void testPatch_GenerosFaltantes_UnaExcepcionConTodos() {
+                ProductoModel producto = productoEntity();
+                producto.setGeneros(new HashSet<>());
+
+                GeneroModel genero = new GeneroModel();
+                genero.setId(1L);
+
+                ProductoUpdateDTO dto = new ProductoUpdateDTO();
+                dto.setGenerosIds(List.of(9L, 1L, 5L));
+
+                when(productoRepository.findByIdFull(1L))
+                        .thenReturn(Optional.of(producto));
+
+                when(generoRepository.findAllById(Set.of(1L, 5L, 9L)))
+                        .thenReturn(List.of(genero));
+
+                RecursoNoEncontradoException ex = assertThrows(RecursoNoEncontradoException.class,
+                        () -> productoService.patch(1L, dto));
+
+                assertEquals("Géneros no encontrados con IDs: [5, 9]", ex.getMessage());
+                verify(generoRepository, times(1)).findAllById(any());
+                verify(generoRepository, never()).findById(any());
+                verify(productoRepository, never()).save(any());
+        }
+
         @Test
         @DisplayName("elimina relaciones que ya no vienen en el DTO")
         void testPatch_EliminaRelacionesExistentes() {
@@ -2256,8 +2427,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(empresaRepository.findById(1L))
-                        .thenReturn(Optional.of(empresa));
+                when(empresaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(empresa));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -2296,7 +2467,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
                 assertEquals(1, producto.getEmpresas().size());
 
-                verify(empresaRepository, never()).findById(any());
+                verify(empresaRepository, never()).findAllById(any());
         }
 
         @Test
@@ -2328,7 +2499,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
                 assertEquals(1, producto.getGeneros().size());
 
-                verify(generoRepository, never()).findById(any());
+                verify(generoRepository, never()).findAllById(any());
         }
 
         @Test
@@ -2360,7 +2531,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
                 assertEquals(1, producto.getPlataformas().size());
 
-                verify(plataformaRepository, never()).findById(any());
+                verify(plataformaRepository, never()).findAllById(any());
         }
 
         @Test
@@ -2392,7 +2563,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
                 assertEquals(1, producto.getDesarrolladores().size());
 
-                verify(desarrolladorRepository, never()).findById(any());
+                verify(desarrolladorRepository, never()).findAllById(any());
         }
 
         @Test
@@ -2412,8 +2583,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(generoRepository.findById(1L))
-                        .thenReturn(Optional.of(genero));
+                when(generoRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(genero));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -2441,8 +2612,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(plataformaRepository.findById(1L))
-                        .thenReturn(Optional.of(plataforma));
+                when(plataformaRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(plataforma));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -2450,7 +2621,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 productoService.patch(1L, dto);
 
                 assertNotNull(producto.getPlataformas());
-                assertEquals(1, producto.getPlataformas().size());
+                assertEquals(List.of(1L), pendientesEscritos().getPlataformaIds());
         }
 
         @Test
@@ -2471,8 +2642,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                         .thenReturn(Optional.of(producto))
                         .thenReturn(Optional.of(producto));
 
-                when(desarrolladorRepository.findById(1L))
-                        .thenReturn(Optional.of(desarrollador));
+                when(desarrolladorRepository.findAllById(Set.of(1L)))
+                        .thenReturn(List.of(desarrollador));
 
                 when(productoRepository.save(any()))
                         .thenAnswer(inv -> inv.getArgument(0));
@@ -2480,7 +2651,7 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 productoService.patch(1L, dto);
 
                 assertNotNull(producto.getDesarrolladores());
-                assertEquals(1, producto.getDesarrolladores().size());
+                assertEquals(List.of(1L), pendientesEscritos().getDesarrolladorIds());
         }
 
         @Test
@@ -2937,10 +3108,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(estadoRepository.findById(1L)).thenReturn(Optional.of(estado()));
                 when(tipoEmpresaRepository.findById(1L)).thenReturn(Optional.of(tipoEmpresa));
                 when(tipoDeDesarrolladorRepository.findById(1L)).thenReturn(Optional.of(tipoDesarrollador));
-                when(empresaRepository.findById(1L)).thenReturn(Optional.of(empresa));
-                when(generoRepository.findById(2L)).thenReturn(Optional.of(genero));
-                when(plataformaRepository.findById(3L)).thenReturn(Optional.of(plataforma));
-                when(desarrolladorRepository.findById(4L)).thenReturn(Optional.of(desarrollador));
+                when(empresaRepository.findAllById(Set.of(1L))).thenReturn(List.of(empresa));
+                when(generoRepository.findAllById(Set.of(2L))).thenReturn(List.of(genero));
+                when(plataformaRepository.findAllById(Set.of(3L))).thenReturn(List.of(plataforma));
+                when(desarrolladorRepository.findAllById(Set.of(4L))).thenReturn(List.of(desarrollador));
 
                 when(productoRepository.save(any(ProductoModel.class)))
                         .thenAnswer(inv -> {
@@ -2969,10 +3140,10 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
 
                 verify(tipoEmpresaRepository).findById(1L);
                 verify(tipoDeDesarrolladorRepository).findById(1L);
-                verify(empresaRepository).findById(1L);
-                verify(generoRepository).findById(2L);
-                verify(plataformaRepository).findById(3L);
-                verify(desarrolladorRepository).findById(4L);
+                verify(empresaRepository).findAllById(Set.of(1L));
+                verify(generoRepository).findAllById(Set.of(2L));
+                verify(plataformaRepository).findAllById(Set.of(3L));
+                verify(desarrolladorRepository).findAllById(Set.of(4L));
                 verify(productoRepository).save(any(ProductoModel.class));
         }
 
@@ -3075,8 +3246,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(estadoRepository.findById(1L))
                         .thenReturn(Optional.of(estado()));
 
-                when(empresaRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(empresaRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.save(dto));
@@ -3100,8 +3271,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(estadoRepository.findById(1L))
                         .thenReturn(Optional.of(estado()));
 
-                when(generoRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(generoRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.save(dto));
@@ -3125,8 +3296,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(estadoRepository.findById(1L))
                         .thenReturn(Optional.of(estado()));
 
-                when(plataformaRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(plataformaRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.save(dto));
@@ -3202,8 +3373,8 @@ public class ProductoServiceTest extends AbstractContainerBaseTest{
                 when(estadoRepository.findById(1L))
                         .thenReturn(Optional.of(estado()));
 
-                when(desarrolladorRepository.findById(99L))
-                        .thenReturn(Optional.empty());
+                when(desarrolladorRepository.findAllById(Set.of(99L)))
+                        .thenReturn(List.of());
 
                 assertThrows(RecursoNoEncontradoException.class,
                         () -> productoService.save(dto));
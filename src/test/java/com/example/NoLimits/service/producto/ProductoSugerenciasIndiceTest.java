@@ -0,0 +1,133 @@
+package com.example.NoLimits.service.producto;
+
+import com.example.NoLimits.Multimedia.dto.producto.response.ProductoSugerenciaDTO;
+import com.example.NoLimits.Multimedia.service.producto.ProductoSugerenciasIndice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductoSugerenciasIndiceTest {
+
+    private ProductoSugerenciasIndice indiceBase() {
+        ProductoSugerenciasIndice indice = new ProductoSugerenciasIndice();
+        indice.ponerProducto(1L, "Spider-Man", "Spiderman");
+        indice.ponerProducto(2L, "Spider-Man 2", "Spiderman");
+        indice.ponerProducto(3L, "The Amazing Spider-Man", "Spiderman");
+        indice.ponerProducto(4L, "Pokémon Rojo", "Pokémon");
+        indice.reemplazarCatalogo(ProductoSugerenciasIndice.GENERO, List.of("Acción", "Aventura"));
+        indice.reemplazarCatalogo(ProductoSugerenciasIndice.PLATAFORMA, List.of("PlayStation 5"));
+        return indice;
+    }
+
+    private static List<String> textos(List<ProductoSugerenciaDTO> sugerencias) {
+        return sugerencias.stream().map(ProductoSugerenciaDTO::getTexto).toList();
+    }
+
+    @Nested
+    @DisplayName("Consultas")
+    class Consultas {
+
+        @Test
+        @DisplayName("ignora tildes y mayúsculas")
+        void sinTildes() {
+            List<ProductoSugerenciaDTO> resultado = indiceBase().sugerir("POKEMON", 10);
+
+            assertEquals(List.of("Pokémon Rojo", "Pokémon"), textos(resultado));
+            assertEquals(4L, resultado.get(0).getProductoId());
+            assertEquals(ProductoSugerenciasIndice.SAGA, resultado.get(1).getTipo());
+            assertNull(resultado.get(1).getProductoId());
+        }
+
+        @Test
+        @DisplayName("primero lo que empieza con la consulta (productos antes que sagas), luego el resto")
+        void orden() {
+            List<ProductoSugerenciaDTO> resultado = indiceBase().sugerir("spi", 10);
+
+            assertEquals(List.of("Spider-Man", "Spider-Man 2", "Spiderman", "The Amazing Spider-Man"),
+                    textos(resultado));
+        }
+
+        @Test
+        @DisplayName("todas las palabras deben ser prefijo de alguna palabra")
+        void variasPalabras() {
+            assertEquals(List.of("The Amazing Spider-Man"), textos(indiceBase().sugerir("spi ama", 10)));
+            assertTrue(indiceBase().sugerir("spi xyz", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("incluye catálogos")
+        void catalogos() {
+            assertEquals(List.of("Acción"), textos(indiceBase().sugerir("acc", 10)));
+            assertEquals(List.of("PlayStation 5"), textos(indiceBase().sugerir("play 5", 10)));
+        }
+
+        @Test
+        @DisplayName("consultas más largas que el prefijo indexado se verifican completas")
+        void prefijoLargo() {
+            assertEquals(List.of("PlayStation 5"), textos(indiceBase().sugerir("playstation", 10)));
+            assertTrue(indiceBase().sugerir("playstationx", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("respeta el límite")
+        void limite() {
+            assertEquals(2, indiceBase().sugerir("spider", 2).size());
+        }
+
+        @Test
+        @DisplayName("texto vacío o solo símbolos no sugiere nada")
+        void vacio() {
+            assertTrue(indiceBase().sugerir("  ", 10).isEmpty());
+            assertTrue(indiceBase().sugerir("-:!", 10).isEmpty());
+            assertTrue(indiceBase().sugerir(null, 10).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Cambios incrementales")
+    class Cambios {
+
+        @Test
+        @DisplayName("renombrar un producto reemplaza su entrada")
+        void renombrar() {
+            ProductoSugerenciasIndice indice = indiceBase();
+            int antes = indice.size();
+
+            indice.ponerProducto(4L, "Pokémon Azul", "Pokémon");
+
+            assertEquals(antes, indice.size());
+            assertEquals(List.of("Pokémon Azul", "Pokémon"), textos(indice.sugerir("poke", 10)));
+            assertTrue(indice.sugerir("rojo", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("la saga se quita cuando ningún producto la usa")
+        void sagaPorConteo() {
+            ProductoSugerenciasIndice indice = indiceBase();
+
+            indice.quitarProducto(1L);
+            indice.quitarProducto(2L);
+            assertTrue(textos(indice.sugerir("spiderman", 10)).contains("Spiderman"));
+
+            indice.quitarProducto(3L);
+            assertTrue(indice.sugerir("spi", 10).isEmpty());
+        }
+
+        @Test
+        @DisplayName("reemplazar un catálogo quita los nombres anteriores")
+        void reemplazarCatalogo() {
+            ProductoSugerenciasIndice indice = indiceBase();
+
+            indice.reemplazarCatalogo(ProductoSugerenciasIndice.GENERO, List.of("Terror"));
+
+            assertTrue(indice.sugerir("acc", 10).isEmpty());
+            assertEquals(List.of("Terror"), textos(indice.sugerir("ter", 10)));
+            assertEquals(List.of("PlayStation 5"), textos(indice.sugerir("play", 10)));
+        }
+    }
+}
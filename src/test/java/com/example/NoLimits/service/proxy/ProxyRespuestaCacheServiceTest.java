@@ -0,0 +1,138 @@
+package com.example.NoLimits.service.proxy;
+
+import com.example.NoLimits.Multimedia.service.proxy.ProxyRespuestaCacheService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DisplayName("ProxyRespuestaCacheService — caché de los proxies externos")
+class ProxyRespuestaCacheServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProxyRespuestaCacheService cache;
+    private AtomicInteger llamadas;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("proxy.cache.ttl.tmdb", "/search/=0,*=3600");
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ProxyRespuestaCacheService(environment, meterRegistry);
+        llamadas = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("la misma ruta con los parámetros en otro orden sale de la caché")
+    void hitConQueryNormalizada() {
+        ProxyRespuestaCacheService.Entrada primera = cache.obtener("tmdb", "/movie/popular", "page=1&region=CL", 3600, this::cargar);
+        ProxyRespuestaCacheService.Entrada segunda = cache.obtener("tmdb", "/movie/popular", "region=CL&page=1", 3600, this::cargar);
+
+        assertSame(primera, segunda);
+        assertEquals(1, llamadas.get());
+        assertEquals(1, meterRegistry.counter("proxy.cache.solicitudes", "upstream", "tmdb", "resultado", "hit").count());
+    }
+
+    @Test
+    @DisplayName("cada entrada lleva un ETag entre comillas")
+    void entradaConEtag() {
+        ProxyRespuestaCacheService.Entrada entrada = cache.obtener("tmdb", "/genre/movie/list", null, 3600, this::cargar);
+
+        assertNotNull(entrada.getEtag());
+        assertEquals('"', entrada.getEtag().charAt(0));
+    }
+
+    @Test
+    @DisplayName("el TTL sale de la primera regla que calce, o del valor por defecto")
+    void ttlPorRuta() {
+        assertEquals(0, cache.ttlPara("tmdb", "/search/movie"));
+        assertEquals(3600, cache.ttlPara("tmdb", "/movie/550"));
+        assertEquals(300, cache.ttlPara("rawg", "/games"));
+    }
+
+    @Test
+    @DisplayName("una respuesta vacía no se guarda")
+    void vaciaNoSeGuarda() {
+        assertNull(cache.obtener("tmdb", "/movie/1", null, 3600, () -> {
+            llamadas.incrementAndGet();
+            return null;
+        }));
+        cache.obtener("tmdb", "/movie/1", null, 3600, this::cargar);
+
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    @DisplayName("peticiones simultáneas de la misma clave comparten una sola carga")
+    void cargasCompartidas() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ProxyRespuestaCacheService.Entrada>> respuestas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                respuestas.add(pool.submit(() -> {
+                    salida.await();
+                    return cache.obtener("tmdb", "/movie/550", null, 3600, () -> {
+                        llamadas.incrementAndGet();
+                        try {
+                            Thread.sleep(200);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return bytes("{\"id\":550}");
+                    });
+                }));
+            }
+            salida.countDown();
+            ProxyRespuestaCacheService.Entrada primera = respuestas.get(0).get();
+            for (Future<ProxyRespuestaCacheService.Entrada> respuesta : respuestas) {
+                assertSame(primera, respuesta.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    @DisplayName("el tope de bytes descarta las entradas menos usadas")
+    void respetaTopeDeBytes() {
+        MockEnvironment environment = new MockEnvironment().withProperty("proxy.cache.max-bytes", "2000");
+        ProxyRespuestaCacheService chica = new ProxyRespuestaCacheService(environment, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            chica.obtener("rawg", "/games/" + n, null, 3600, () -> bytes("{\"id\":" + n + "}"));
+        }
+        chica.obtener("rawg", "/games/0", null, 3600, this::cargar);
+
+        assertEquals(1, llamadas.get());
+    }
+
+    // La caché guarda lo que le entreguen (en producción, gzip); aquí basta con bytes
+    private byte[] cargar() {
+        return bytes("{\"n\":" + llamadas.incrementAndGet() + "}");
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+}
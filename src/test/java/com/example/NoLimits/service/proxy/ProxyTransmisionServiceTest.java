@@ -0,0 +1,264 @@
+package com.example.NoLimits.service.proxy;
+
+import com.example.NoLimits.Multimedia.service.proxy.ProxyPeticion;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyRespuestaCacheService;
+import com.example.NoLimits.Multimedia.service.proxy.ProxyTransmisionService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ProxyTransmisionService — streaming de los proxies externos")
+class ProxyTransmisionServiceTest {
+
+    private static final String CON_KEY =
+            "{\"next\":\"https://api.themoviedb.org/3/movie?api_key=SECRETA&page=2\",\"results\":[]}";
+
+    // El mismo valor que application.properties
+    private static final String TTL_TMDB =
+            "/genre/=86400,/configuration=86400,/search/=600,/trending/=1800,*=3600";
+
+    private ProxyTransmisionService transmision;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transmision = conCache(new MockEnvironment().withProperty("proxy.cache.ttl.tmdb", "/search/=0,*=3600"));
+        restTemplate = mock(RestTemplate.class);
+    }
+
+    @Test
+    @DisplayName("sin caché y sin limpieza: el gzip del servicio externo pasa tal cual")
+    void gzipPasaTalCual() throws IOException {
+        byte[] gzip = gzip("{\"results\":[1,2,3]}");
+        servicioResponde(gzip, true);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        transmision.servir("tmdb", "/search/movie", "query=matrix", restTemplate,
+                ProxyPeticion.get("https://externo/search/movie"), request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(gzip, response.getContentAsByteArray());
+    }
+
+    @Test
+    @DisplayName("sin caché y con limpieza: se descomprime y se quita la key del next")
+    void gzipConLimpieza() throws IOException {
+        servicioResponde(gzip(CON_KEY), true);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        transmision.servir("tmdb", "/search/movie", "query=matrix", restTemplate,
+                ProxyPeticion.get("https://externo/search/movie").sinKeyEnNext("api_key="), request, response);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"next\":null,\"results\":[]}", response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("con caché: la segunda vez no sale a la red y manda el gzip guardado")
+    void desdeCacheEnGzip() throws IOException {
+        servicioResponde(CON_KEY.getBytes(StandardCharsets.UTF_8), false);
+        ProxyPeticion peticion = ProxyPeticion.get("https://externo/movie/550").sinKeyEnNext("api_key=");
+
+        MockHttpServletResponse primera = new MockHttpServletResponse();
+        transmision.servir("tmdb", "/movie/550", null, restTemplate, peticion, new MockHttpServletRequest(), primera);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        transmision.servir("tmdb", "/movie/550", null, restTemplate, peticion, request, segunda);
+
+        assertEquals("{\"next\":null,\"results\":[]}", primera.getContentAsString());
+        assertEquals("gzip", segunda.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"next\":null,\"results\":[]}", gunzip(segunda.getContentAsByteArray()));
+        verificarLlamadas(1);
+    }
+
+    @Test
+    @DisplayName("con caché: If-None-Match con el ETag vigente responde 304 sin body")
+    void etagResponde304() throws IOException {
+        servicioResponde("{\"genres\":[]}".getBytes(StandardCharsets.UTF_8), false);
+        ProxyPeticion peticion = ProxyPeticion.get("https://externo/genre/movie/list");
+
+        // La primera se transmite mientras llega (el ETag recién se conoce al final)
+        transmision.servir("tmdb", "/genre/movie/list", null, restTemplate, peticion,
+                new MockHttpServletRequest(), new MockHttpServletResponse());
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        transmision.servir("tmdb", "/genre/movie/list", null, restTemplate, peticion, new MockHttpServletRequest(), segunda);
+        String etag = segunda.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse tercera = new MockHttpServletResponse();
+        transmision.servir("tmdb", "/genre/movie/list", null, restTemplate, peticion, request, tercera);
+
+        assertEquals(304, tercera.getStatus());
+        assertEquals(0, tercera.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("TTL de application.properties: el miss se transmite mientras llega y queda en caché")
+    void missTransmiteMientrasLlega() throws IOException {
+        transmision = conCache(new MockEnvironment().withProperty("proxy.cache.ttl.tmdb", TTL_TMDB));
+        byte[] gzip = gzip(listaGrande());
+        MockHttpServletResponse primera = new MockHttpServletResponse();
+        int[] escritosAlTerminar = servicioRespondeMidiendo(gzip, primera);
+
+        transmision.servir("tmdb", "/movie/popular", "page=1", restTemplate,
+                ProxyPeticion.get("https://externo/movie/popular"), aceptaGzip(), primera);
+
+        // Cuando el servicio externo terminó de mandar, el navegador ya estaba recibiendo
+        assertTrue(escritosAlTerminar[0] > 0);
+        assertArrayEquals(gzip, primera.getContentAsByteArray());
+
+        MockHttpServletResponse segunda = new MockHttpServletResponse();
+        transmision.servir("tmdb", "/movie/popular", "page=1", restTemplate,
+                ProxyPeticion.get("https://externo/movie/popular"), aceptaGzip(), segunda);
+
+        assertArrayEquals(gzip, segunda.getContentAsByteArray());
+        assertNotNull(segunda.getHeader(HttpHeaders.ETAG));
+        verificarLlamadas(1);
+    }
+
+    @Test
+    @DisplayName("respuesta más grande que el tope por entrada: se transmite y no se guarda")
+    void muyGrandeNoSeGuarda() throws IOException {
+        transmision = conCache(new MockEnvironment()
+                .withProperty("proxy.cache.ttl.tmdb", TTL_TMDB)
+                .withProperty("proxy.cache.max-bytes", "4096"));
+        String json = listaGrande();
+        servicioResponde(json.getBytes(StandardCharsets.UTF_8), false);
+        ProxyPeticion peticion = ProxyPeticion.get("https://externo/movie/popular");
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            transmision.servir("tmdb", "/movie/popular", null, restTemplate, peticion, new MockHttpServletRequest(), response);
+            assertEquals(json, response.getContentAsString());
+        }
+        verificarLlamadas(2);
+    }
+
+    /* ================= INTERNOS ================= */
+
+    private static ProxyTransmisionService conCache(MockEnvironment environment) {
+        ProxyTransmisionService servicio = new ProxyTransmisionService();
+        ReflectionTestUtils.setField(servicio, "respuestaCache",
+                new ProxyRespuestaCacheService(environment, new SimpleMeterRegistry()));
+        return servicio;
+    }
+
+    private static MockHttpServletRequest aceptaGzip() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        return request;
+    }
+
+    // JSON que comprimido sigue pesando varios bloques de 8 KB
+    private static String listaGrande() {
+        Random azar = new Random(7);
+        StringBuilder json = new StringBuilder("{\"results\":[");
+        for (int i = 0; i < 20_000; i++) {
+            if (i > 0) json.append(',');
+            json.append(azar.nextInt());
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Responde el body en gzip y anota cuántos bytes tenía el navegador en
+     * el momento en que el servicio externo llegó al final del body.
+     */
+    @SuppressWarnings("unchecked")
+    private int[] servicioRespondeMidiendo(byte[] gzip, MockHttpServletResponse response) {
+        int[] escritos = { -1 };
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(inv -> {
+                    InputStream body = new ByteArrayInputStream(gzip) {
+                        @Override
+                        public synchronized int read(byte[] b, int off, int len) {
+                            int leidos = super.read(b, off, len);
+                            if (leidos == -1 && escritos[0] == -1) escritos[0] = response.getContentAsByteArray().length;
+                            return leidos;
+                        }
+                    };
+                    MockClientHttpResponse origen = new MockClientHttpResponse(body, HttpStatus.OK);
+                    origen.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    return ((ResponseExtractor<?>) inv.getArgument(3)).extractData(origen);
+                });
+        return escritos;
+    }
+
+    // Cada llamada devuelve un stream nuevo con el mismo body
+    @SuppressWarnings("unchecked")
+    private void servicioResponde(byte[] body, boolean enGzip) {
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(inv -> {
+                    MockClientHttpResponse origen = new MockClientHttpResponse(body, HttpStatus.OK);
+                    if (enGzip) origen.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    return ((ResponseExtractor<?>) inv.getArgument(3)).extractData(origen);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verificarLlamadas(int veces) {
+        verify(restTemplate, times(veces))
+                .execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+    }
+
+    private static byte[] gzip(String texto) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(texto.getBytes(StandardCharsets.UTF_8));
+        }
+        return salida.toByteArray();
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.NoLimits.service.proxy;
+
+import com.example.NoLimits.Multimedia.service.proxy.SanitizadorNextJson;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DisplayName("SanitizadorNextJson — limpieza del campo next por streaming")
+class SanitizadorNextJsonTest {
+
+    @Test
+    @DisplayName("un next con la key sale como null; el resto queda igual")
+    void reemplazaNextConKey() throws IOException {
+        String limpio = sanitizar(
+                "{\"count\":2,\"next\":\"https://api.rawg.io/api/games?key=SECRETA&page=2\",\"results\":[{\"id\":1}]}",
+                "key=");
+
+        assertEquals("{\"count\":2,\"next\":null,\"results\":[{\"id\":1}]}", limpio);
+    }
+
+    @Test
+    @DisplayName("un next sin la key se deja tal cual")
+    void respetaNextSinKey() throws IOException {
+        String body = "{\"next\":\"https://api.rawg.io/api/games?page=2\"}";
+
+        assertEquals(body, sanitizar(body, "key="));
+    }
+
+    @Test
+    @DisplayName("también limpia un next anidado, pero no textos de arreglos ni otros campos")
+    void soloCamposNext() throws IOException {
+        String limpio = sanitizar(
+                "{\"data\":{\"next\":\"x?api_key=1\"},\"tags\":[\"api_key=2\"],\"url\":\"y?api_key=3\"}",
+                "api_key=");
+
+        assertEquals("{\"data\":{\"next\":null},\"tags\":[\"api_key=2\"],\"url\":\"y?api_key=3\"}", limpio);
+    }
+
+    @Test
+    @DisplayName("los números decimales se copian sin perder su forma")
+    void numerosExactos() throws IOException {
+        String body = "{\"rating\":7.50,\"votos\":12345678901234567890}";
+
+        assertEquals(body, sanitizar(body, "key="));
+    }
+
+    private static String sanitizar(String json, String marcador) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        SanitizadorNextJson.copiar(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), salida, marcador);
+        return salida.toString(StandardCharsets.UTF_8);
+    }
+}
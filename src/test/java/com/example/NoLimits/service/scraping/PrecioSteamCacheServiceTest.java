@@ -0,0 +1,127 @@
+package com.example.NoLimits.service.scraping;
+
+import com.example.NoLimits.Multimedia.service.scraping.PrecioSteamCacheService;
+import com.example.NoLimits.Multimedia.service.scraping.ScrapingClientService;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Caché de precios de Steam contra H2, con el microservicio de scraping
+ * mockeado. Cada test usa su propio appId: la caché en memoria dura lo que
+ * dura el contexto.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:nolimits_precio_cache;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.sql.init.mode=never",
+        "scraping.steam.cache.ttl-segundos=3600",
+        "scraping.steam.cache.stale-segundos=3600"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Caché de precios de Steam")
+class PrecioSteamCacheServiceTest {
+
+    @Autowired private PrecioSteamCacheService cacheService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @MockBean private ScrapingClientService scrapingClientService;
+
+    @Test
+    @DisplayName("una ráfaga concurrente del mismo appId hace un solo GET y lo persiste")
+    void rafagaUnaSolaPeticion() throws Exception {
+        CountDownLatch salida = new CountDownLatch(1);
+        when(scrapingClientService.obtenerPrecioSteam("730")).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return datos("Counter-Strike 2", 0);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Map<String, Object>>> respuestas = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                respuestas.add(pool.submit(() -> {
+                    salida.await();
+                    return cacheService.obtenerPrecioSteam("730");
+                }));
+            }
+            salida.countDown();
+            for (Future<Map<String, Object>> respuesta : respuestas) {
+                assertEquals("Counter-Strike 2", respuesta.get().get("nombre"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        cacheService.obtenerPrecioSteam("730");
+
+        verify(scrapingClientService, times(1)).obtenerPrecioSteam("730");
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM steam_precio_cache WHERE app_id = '730'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("un valor vencido dentro de la ventana stale se responde y se revalida en segundo plano")
+    void staleWhileRevalidate() {
+        guardarFila("570", "Dota 2 viejo", LocalDateTime.now().minusMinutes(90));
+        when(scrapingClientService.obtenerPrecioSteam("570")).thenReturn(datos("Dota 2", 0));
+
+        Map<String, Object> respuesta = cacheService.obtenerPrecioSteam("570");
+
+        assertEquals("Dota 2 viejo", respuesta.get("nombre"));
+        verify(scrapingClientService, timeout(2000).times(1)).obtenerPrecioSteam("570");
+    }
+
+    @Test
+    @DisplayName("si el microservicio falla se responde el último precio conocido")
+    void ultimoValorConocidoSiFalla() {
+        guardarFila("440", "TF2 guardado", LocalDateTime.now().minusDays(3));
+        when(scrapingClientService.obtenerPrecioSteam("440")).thenThrow(new RuntimeException("Connection refused"));
+
+        assertEquals("TF2 guardado", cacheService.obtenerPrecioSteam("440").get("nombre"));
+    }
+
+    @Test
+    @DisplayName("refrescar() siempre consulta el microservicio")
+    void refrescarIgnoraLaCache() {
+        when(scrapingClientService.obtenerPrecioSteam("10")).thenReturn(datos("Counter-Strike", 999));
+
+        cacheService.obtenerPrecioSteam("10");
+        cacheService.refrescar("10");
+
+        verify(scrapingClientService, times(2)).obtenerPrecioSteam("10");
+    }
+
+    /* ================= AUXILIARES ================= */
+
+    private Map<String, Object> datos(String nombre, int precio) {
+        return Map.of("nombre", nombre, "precio", precio, "moneda", "CLP", "plataforma", "Steam");
+    }
+
+    private void guardarFila(String appId, String nombre, LocalDateTime fecha) {
+        jdbcTemplate.update("INSERT INTO steam_precio_cache (app_id, datos, fecha_consulta) VALUES (?, ?, ?)",
+                appId, "{\"nombre\":\"" + nombre + "\",\"precio\":100}", Timestamp.valueOf(fecha));
+    }
+}